@@ -190,7 +190,7 @@ export default function CrisisFlags() {
     setTranscriptLoading(true);
     try {
       const { data } = await api.get(`/admin/crisis-flags/${flag.id}/transcript`);
-      setTranscript(data);
+      setTranscript(data?.messages ?? []);
     } catch {
       toast.error('Failed to load transcript');
     } finally {
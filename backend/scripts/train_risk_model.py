@@ -0,0 +1,127 @@
+#!/usr/bin/env python3
+"""
+Trains the in-process crisis risk model used by LinearRiskScorer.
+
+Logistic regression over hashed word unigrams and bigrams, fitted with plain
+SGD (stdlib only). The tokenizer and hash functions must stay byte-for-byte
+identical to LinearRiskScorer.probability(); the accuracy test in
+src/test/java/com/mindease/service/LinearRiskScorerTest.java catches drift.
+
+Usage:
+    python3 scripts/train_risk_model.py \
+        --data scripts/risk-model-training.tsv \
+        --out src/main/resources/models/crisis-risk-model.txt
+
+Training data is TSV: <label 0|1><TAB><text>. Lines starting with # are ignored.
+"""
+import argparse
+import math
+import random
+
+FNV_OFFSET = 0x811C9DC5
+FNV_PRIME = 0x01000193
+BIGRAM_SEED = 0x9E3779B1
+MASK32 = 0xFFFFFFFF
+
+
+def fmix(h):
+    h ^= h >> 16
+    h = (h * 0x85EBCA6B) & MASK32
+    h ^= h >> 13
+    h = (h * 0xC2B2AE35) & MASK32
+    h ^= h >> 16
+    return h
+
+
+def features(text, mask):
+    """Bucket indices for every unigram and bigram, mirroring the Java scorer."""
+    out = []
+    prev = None
+    h = FNV_OFFSET
+    in_token = False
+    for ch in text + " ":
+        if ch in ("'", "’"):
+            continue
+        if "A" <= ch <= "Z":
+            ch = ch.lower()
+        code = ord(ch)
+        if ("a" <= ch <= "z") or ("0" <= ch <= "9") or (code > 127 and ch.isalpha()):
+            h = ((h ^ code) * FNV_PRIME) & MASK32
+            in_token = True
+        elif in_token:
+            out.append(fmix(h) & mask)
+            if prev is not None:
+                out.append(fmix((prev * BIGRAM_SEED + h) & MASK32) & mask)
+            prev = h
+            h = FNV_OFFSET
+            in_token = False
+    return out
+
+
+def load(path):
+    rows = []
+    with open(path, encoding="utf-8") as f:
+        for line in f:
+            line = line.rstrip("\n")
+            if not line.strip() or line.startswith("#"):
+                continue
+            label, text = line.split("\t", 1)
+            rows.append((int(label), text))
+    return rows
+
+
+def train(rows, buckets, epochs, lr, l2, seed):
+    mask = buckets - 1
+    data = [(label, features(text, mask)) for label, text in rows]
+    weights = [0.0] * buckets
+    bias = 0.0
+    rnd = random.Random(seed)
+    for epoch in range(epochs):
+        rnd.shuffle(data)
+        loss = 0.0
+        for label, feats in data:
+            z = bias + sum(weights[i] for i in feats)
+            p = 1.0 / (1.0 + math.exp(-z))
+            loss -= math.log(p if label else 1.0 - p)
+            g = p - label
+            bias -= lr * g
+            for i in feats:
+                weights[i] -= lr * (g + l2 * weights[i])
+        if epoch % 10 == 0 or epoch == epochs - 1:
+            print(f"epoch {epoch:3d} loss {loss / len(data):.4f}")
+    return bias, weights
+
+
+def main():
+    parser = argparse.ArgumentParser(description=__doc__, formatter_class=argparse.RawDescriptionHelpFormatter)
+    parser.add_argument("--data", required=True)
+    parser.add_argument("--out", required=True)
+    parser.add_argument("--version", default="v1")
+    parser.add_argument("--buckets", type=int, default=1 << 14)
+    parser.add_argument("--epochs", type=int, default=60)
+    parser.add_argument("--lr", type=float, default=0.1)
+    parser.add_argument("--l2", type=float, default=1e-4)
+    parser.add_argument("--seed", type=int, default=42)
+    args = parser.parse_args()
+
+    if args.buckets & (args.buckets - 1):
+        parser.error("--buckets must be a power of two")
+
+    rows = load(args.data)
+    bias, weights = train(rows, args.buckets, args.epochs, args.lr, args.l2, args.seed)
+
+    with open(args.out, "w", encoding="utf-8") as f:
+        f.write("# Crisis risk model for LinearRiskScorer. Generated by scripts/train_risk_model.py; do not edit.\n")
+        f.write(f"# Trained on {len(rows)} examples, {args.epochs} epochs, lr={args.lr}, l2={args.l2}\n")
+        f.write("format=hashed-ngram-lr\n")
+        f.write(f"version={args.version}\n")
+        f.write(f"buckets={args.buckets}\n")
+        f.write(f"bias={bias:.6f}\n")
+        for i, w in enumerate(weights):
+            if abs(w) >= 1e-4:
+                f.write(f"{i} {w:.6f}\n")
+    print(f"wrote {args.out}")
+
+
+if __name__ == "__main__":
+    main()
@@ -1,6 +1,7 @@
 package com.mindease.admin.controller;
 
 import com.mindease.admin.dto.AuditLogSearchRequest;
+import com.mindease.admin.dto.KeysetPage;
 import com.mindease.auth.model.User;
 import com.mindease.auth.repository.UserRepository;
 import com.mindease.admin.model.AuditLog;
@@ -101,6 +102,9 @@ public class AdminAuditController {
         int page = request.page() != null ? request.page() : 0;
         int size = request.size() != null ? request.size() : DEFAULT_SIZE;
         int pageSize = Math.min(Math.max(1, size), MAX_SIZE);
+        if (request.query() != null && !request.query().isBlank()) {
+            return searchDetails(request, userId, pageSize);
+        }
         Pageable pageable = PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
 
         try {
@@ -130,6 +134,35 @@ public class AdminAuditController {
         }
     }
 
+    /** Ranked full-text search over details; paginated by cursor rather than page number. */
+    private org.springframework.http.ResponseEntity<?> searchDetails(AuditLogSearchRequest request, UUID userId,
+            int pageSize) {
+        try {
+            KeysetPage<AuditLog> result = repo.searchDetails(request.query(), userId, request.actionType(),
+                    request.from(), request.to(), request.cursor(), pageSize);
+
+            java.util.Map<String, Object> response = new java.util.HashMap<>();
+            response.put("status", "success");
+            response.put("data", result.items());
+            response.put("nextCursor", result.nextCursor());
+            response.put("hasNext", result.hasNext());
+            return org.springframework.http.ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            java.util.Map<String, Object> errorResponse = new java.util.HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("message", e.getMessage());
+            return org.springframework.http.ResponseEntity.badRequest().body(errorResponse);
+        } catch (Exception e) {
+            log.error("Audit details search failed (query={}, actionType={}, size={})",
+                    request.query(), request.actionType(), pageSize, e);
+            java.util.Map<String, Object> errorResponse = new java.util.HashMap<>();
+            errorResponse.put("status", "error");
+            errorResponse.put("message", "Failed to search audit logs");
+            return org.springframework.http.ResponseEntity
+                    .status(org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     private static <T> Page<T> toPage(Slice<T> slice, Pageable pageable) {
         long estimatedTotal = slice.hasNext()
                 ? (long) ((pageable.getPageNumber() + 2) * pageable.getPageSize())
@@ -2,12 +2,13 @@ package com.mindease.admin.controller;
 
 import com.mindease.admin.dto.CrisisStatsResponse;
 import com.mindease.admin.dto.KeywordStat;
-import com.mindease.chat.model.ChatSession;
+import com.mindease.admin.dto.TranscriptWindow;
+import com.mindease.admin.service.CrisisAlertBroadcaster;
+import com.mindease.admin.service.CrisisTranscriptService;
 import com.mindease.chat.repository.ChatSessionRepository;
-import com.mindease.chat.repository.MessageRepository;
 import com.mindease.crisis.model.CrisisFlag;
 import com.mindease.crisis.repository.CrisisFlagRepository;
-import com.mindease.shared.events.CrisisFlagCreatedEvent;
+import com.mindease.shared.util.KeysetCursor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -15,6 +16,7 @@ import org.springframework.data.domain.Sort;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,22 +24,19 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.stream.Collectors;
-import org.springframework.transaction.event.TransactionPhase;
-import org.springframework.transaction.event.TransactionalEventListener;
 import org.springframework.web.bind.annotation.CrossOrigin;
 
 @RestController
@@ -47,16 +46,16 @@ public class AdminCrisisController {
 
     private final CrisisFlagRepository repo;
     private final ChatSessionRepository chatSessionRepository;
-    private final MessageRepository messageRepository;
-    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
-    private static final int MAX_SSE_CONNECTIONS = 100;
+    private final CrisisAlertBroadcaster broadcaster;
+    private final CrisisTranscriptService transcriptService;
     private static final String STATUS_RESOLVED = "RESOLVED";
 
     public AdminCrisisController(CrisisFlagRepository repo, ChatSessionRepository chatSessionRepository,
-            MessageRepository messageRepository) {
+            CrisisAlertBroadcaster broadcaster, CrisisTranscriptService transcriptService) {
         this.repo = repo;
         this.chatSessionRepository = chatSessionRepository;
-        this.messageRepository = messageRepository;
+        this.broadcaster = broadcaster;
+        this.transcriptService = transcriptService;
     }
 
     @GetMapping
@@ -82,23 +81,29 @@ public class AdminCrisisController {
 
     @GetMapping("/{id}/transcript")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Map<String, Object>> getTranscript(@PathVariable UUID id) {
+    public TranscriptWindow getTranscript(@PathVariable UUID id,
+            @RequestParam(required = false) Integer before,
+            @RequestParam(required = false) Integer after) {
+        return transcriptService.window(findFlagWithSession(id), before, after);
+    }
+
+    @GetMapping(path = "/{id}/transcript/stream", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> streamTranscript(@PathVariable UUID id,
+            @RequestParam(required = false) String after) {
+        CrisisFlag flag = findFlagWithSession(id);
+        KeysetCursor.decode(after); // reject a bad cursor before the response is committed
+        StreamingResponseBody body = out -> transcriptService.stream(flag, after, out);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType("application/x-ndjson")).body(body);
+    }
+
+    private CrisisFlag findFlagWithSession(UUID id) {
         CrisisFlag flag = repo.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Flag not found"));
-
-        ChatSession session = chatSessionRepository.findById(flag.getChatId())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat session not found"));
-
-        return messageRepository.findByChatSessionOrderByCreatedAtAsc(session).stream()
-                .map(m -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", m.getId());
-                    map.put("content", m.getContent());
-                    map.put("sender", m.getIsUserMessage() ? "user" : "bot");
-                    map.put("createdAt", m.getCreatedAt());
-                    return map;
-                })
-                .collect(Collectors.toList());
+        if (!chatSessionRepository.existsById(flag.getChatId())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Chat session not found");
+        }
+        return flag;
     }
 
     @PostMapping("/{id}/resolve")
@@ -171,32 +176,12 @@ public class AdminCrisisController {
 
     @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("hasRole('ADMIN')")
-    public SseEmitter stream() {
-        if (emitters.size() >= MAX_SSE_CONNECTIONS) {
-            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Maximum SSE connections reached");
-        }
-        SseEmitter emitter = new SseEmitter(0L); // no timeout; client controls
-        emitter.onCompletion(() -> emitters.remove(emitter));
-        emitter.onTimeout(() -> emitters.remove(emitter));
+    public SseEmitter stream(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
         try {
-            emitter.send(SseEmitter.event().name("open").data("ok"));
-            emitters.add(emitter);
-        } catch (IOException e) {
-            emitter.completeWithError(e);
+            return broadcaster.subscribe(lastEventId);
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Maximum SSE connections reached");
         }
-        return emitter;
-    }
-
-    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
-    public void onNewFlag(CrisisFlagCreatedEvent evt) {
-        CrisisFlag flag = evt.getFlag();
-        emitters.forEach(emitter -> {
-            try {
-                emitter.send(SseEmitter.event().name("flag").data(flag));
-            } catch (IOException e) {
-                emitter.complete();
-            }
-        });
     }
 
     private record DateWindow(OffsetDateTime from, OffsetDateTime to) {
@@ -6,23 +6,29 @@ import com.mindease.admin.dto.KeywordStat;
 import com.mindease.admin.dto.RecentAlertDto;
 import com.mindease.crisis.model.CrisisFlag;
 import com.mindease.admin.repository.AnalyticsRepository;
+import com.mindease.admin.service.ActiveUserSketchService;
+import com.mindease.admin.service.AnalyticsExportService;
+import com.mindease.admin.service.DashboardSnapshotService;
 import com.mindease.crisis.repository.CrisisFlagRepository;
-import com.mindease.shared.service.PythonAnalyticsServiceClient;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -36,14 +42,20 @@ public class AdminDashboardController {
 
     private final AnalyticsRepository analyticsRepository;
     private final CrisisFlagRepository crisisFlagRepository;
-    private final PythonAnalyticsServiceClient pythonAnalyticsServiceClient;
+    private final ActiveUserSketchService activeUserSketchService;
+    private final AnalyticsExportService analyticsExportService;
+    private final DashboardSnapshotService dashboardSnapshotService;
 
     public AdminDashboardController(AnalyticsRepository analyticsRepository,
             CrisisFlagRepository crisisFlagRepository,
-            PythonAnalyticsServiceClient pythonAnalyticsServiceClient) {
+            ActiveUserSketchService activeUserSketchService,
+            AnalyticsExportService analyticsExportService,
+            DashboardSnapshotService dashboardSnapshotService) {
         this.analyticsRepository = analyticsRepository;
         this.crisisFlagRepository = crisisFlagRepository;
-        this.pythonAnalyticsServiceClient = pythonAnalyticsServiceClient;
+        this.activeUserSketchService = activeUserSketchService;
+        this.analyticsExportService = analyticsExportService;
+        this.dashboardSnapshotService = dashboardSnapshotService;
     }
 
     private static OffsetDateTime nowUtc() {
@@ -54,67 +66,11 @@ public class AdminDashboardController {
         return nowUtc().minusDays(days);
     }
 
-    private static OffsetDateTime startOfDay(LocalDate date) {
-        return date.atStartOfDay().atOffset(ZoneOffset.UTC);
-    }
-
     @GetMapping("/dashboard/overview")
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Dashboard KPIs", description = "High-level metrics for the admin dashboard")
     public DashboardOverviewResponse overview() {
-        OffsetDateTime to = nowUtc();
-        OffsetDateTime from28 = to.minusDays(28);
-
-        // Active users and AI usage over the last 28 days for simple trend calc
-        // Use Python analytics service
-        List<ActiveUsersPoint> activeLast28 = pythonAnalyticsServiceClient.dailyActiveUsers(from28, to);
-        var aiLast28 = pythonAnalyticsServiceClient.dailyAiUsage(from28, to);
-
-        // Helper to get last and previous values
-        long activeMostRecent = activeLast28.isEmpty() ? 0L : activeLast28.get(activeLast28.size() - 1).activeUsers();
-        long activePrevious = activeLast28.size() < 2 ? 0L : activeLast28.get(activeLast28.size() - 2).activeUsers();
-
-        long aiMostRecent = aiLast28.isEmpty() ? 0L : aiLast28.get(aiLast28.size() - 1).calls();
-        long aiPrevious = aiLast28.size() < 2 ? 0L : aiLast28.get(aiLast28.size() - 2).calls();
-
-        Double activeTrend = percentChange(activePrevious, activeMostRecent);
-        Double aiTrend = percentChange(aiPrevious, aiMostRecent);
-
-        // Daily signups: number of users created today vs yesterday
-        LocalDate today = to.toLocalDate();
-        LocalDate yesterday = today.minusDays(1);
-        long signupsToday = pythonAnalyticsServiceClient.countUsersCreatedBetween(
-                startOfDay(today),
-                startOfDay(today.plusDays(1)));
-        long signupsYesterday = pythonAnalyticsServiceClient.countUsersCreatedBetween(
-                startOfDay(yesterday),
-                startOfDay(today));
-        Double signupsTrend = percentChange(signupsYesterday, signupsToday);
-
-        // Crisis flags last 24h vs previous 24h
-        OffsetDateTime last24From = to.minusHours(24);
-        OffsetDateTime prev24From = to.minusHours(48);
-        long crisisLast24 = crisisFlagRepository.countByCreatedAtBetween(last24From, to);
-        long crisisPrev24 = crisisFlagRepository.countByCreatedAtBetween(prev24From, last24From);
-        Double crisisTrend = percentChange(crisisPrev24, crisisLast24);
-
-        return new DashboardOverviewResponse(
-                activeMostRecent,
-                signupsToday,
-                crisisLast24,
-                aiMostRecent,
-                activeTrend,
-                signupsTrend,
-                crisisTrend,
-                aiTrend);
-    }
-
-    private static Double percentChange(long previous, long current) {
-        if (previous <= 0L) {
-            return null;
-        }
-        double diff = current - previous;
-        return (diff / (double) previous) * 100.0;
+        return dashboardSnapshotService.snapshot().overview();
     }
 
     @GetMapping("/dashboard/activity-trend")
@@ -123,13 +79,16 @@ public class AdminDashboardController {
     public List<ActiveUsersPoint> activityTrend(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        if (from == null && to == null) {
+            return dashboardSnapshotService.snapshot().activityTrend();
+        }
         OffsetDateTime t = to != null ? to : nowUtc();
         OffsetDateTime f = from != null ? from : t.minusDays(30);
         long daysBetween = ChronoUnit.DAYS.between(f, t);
         if (daysBetween > 365 || daysBetween < 0) {
             throw new IllegalArgumentException("Date range must be between 0 and 365 days");
         }
-        return pythonAnalyticsServiceClient.dailyActiveUsers(f, t);
+        return analyticsRepository.dailyActiveUsers(f, t);
     }
 
     @GetMapping("/dashboard/recent-alerts")
@@ -148,26 +107,7 @@ public class AdminDashboardController {
     @PreAuthorize("hasRole('ADMIN')")
     @Operation(summary = "Crisis heatmap", description = "Daily crisis-flag counts for calendar heatmaps (last 90 days)")
     public List<Map<String, Object>> crisisHeatmap() {
-        OffsetDateTime to = nowUtc();
-        OffsetDateTime from = to.minusDays(90);
-        return crisisFlagRepository.aggregateCrisisFlagsByDay(from, to).stream()
-                .map(row -> {
-                    Object dayObj = row[0];
-                    LocalDate day;
-                    if (dayObj instanceof LocalDate d) {
-                        day = d;
-                    } else if (dayObj instanceof java.sql.Date d) {
-                        day = d.toLocalDate();
-                    } else {
-                        day = LocalDate.parse(dayObj.toString());
-                    }
-                    Long count = ((Number) row[1]).longValue();
-                    Map<String, Object> m = new HashMap<>();
-                    m.put("day", day);
-                    m.put("count", count);
-                    return m;
-                })
-                .toList();
+        return dashboardSnapshotService.snapshot().crisisHeatmap();
     }
 
     @GetMapping("/dashboard/trending-topics")
@@ -175,11 +115,9 @@ public class AdminDashboardController {
     @Operation(summary = "Trending topics", description = "Top crisis keywords used as trending wellness topics")
     public List<KeywordStat> trendingTopics(
             @RequestParam(defaultValue = "10") int limit) {
-        OffsetDateTime to = nowUtc();
-        OffsetDateTime from = to.minusDays(30);
-        int max = Math.max(1, Math.min(limit, 20));
-        var pageRequest = org.springframework.data.domain.PageRequest.of(0, max);
-        return crisisFlagRepository.findTopKeywords(from, to, pageRequest);
+        int max = Math.max(1, Math.min(limit, DashboardSnapshotService.MAX_TOPICS));
+        List<KeywordStat> topics = dashboardSnapshotService.snapshot().trendingTopics();
+        return topics.subList(0, Math.min(max, topics.size()));
     }
 
     private static RecentAlertDto toAlert(CrisisFlag flag) {
@@ -224,7 +162,7 @@ public class AdminDashboardController {
         var f = from != null ? from : defaultFrom();
         var t = to != null ? to : defaultTo();
         validateDateRange(f, t);
-        return pythonAnalyticsServiceClient.dailyActiveUsers(f, t);
+        return analyticsRepository.dailyActiveUsers(f, t);
     }
 
     @GetMapping("/ai-usage")
@@ -236,7 +174,7 @@ public class AdminDashboardController {
         var f = from != null ? from : defaultFrom();
         var t = to != null ? to : defaultTo();
         validateDateRange(f, t);
-        return pythonAnalyticsServiceClient.dailyAiUsage(f, t);
+        return analyticsRepository.dailyAiUsage(f, t);
     }
 
     @GetMapping("/mood-correlation")
@@ -248,12 +186,13 @@ public class AdminDashboardController {
         var f = from != null ? from : defaultFrom();
         var t = to != null ? to : defaultTo();
         validateDateRange(f, t);
-        return pythonAnalyticsServiceClient.moodCorrelation(f, t);
+        return analyticsRepository.moodCorrelation(f, t);
     }
 
     @GetMapping("/analytics/overview")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Analytics overview", description = "High-level analytics metrics used by the admin UI")
+    @Operation(summary = "Analytics overview", description = "High-level analytics metrics used by the admin UI. "
+            + "MAU, retention and churn are HyperLogLog estimates (~0.81% relative standard error).")
     public com.mindease.admin.dto.AnalyticsOverviewResponse analyticsOverview(
             @RequestParam(defaultValue = "30d") String range) {
         OffsetDateTime to = defaultTo();
@@ -267,13 +206,18 @@ public class AdminDashboardController {
         }
         validateDateRange(from, to);
 
-        var dauSeries = pythonAnalyticsServiceClient.dailyActiveUsers(to.minusDays(1), to);
+        var dauSeries = analyticsRepository.dailyActiveUsers(to.minusDays(1), to);
         long dau = dauSeries.isEmpty() ? 0L : dauSeries.get(dauSeries.size() - 1).activeUsers();
 
-        long mau = pythonAnalyticsServiceClient.distinctActiveUsers(from, to);
+        // Sketch-based: ~0.81% relative error on mau; retention is period-over-period
+        LocalDate toDay = to.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        LocalDate fromDay = from.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        long days = ChronoUnit.DAYS.between(fromDay, toDay);
+        long mau = activeUserSketchService.distinctUsers(fromDay, toDay);
 
-        Double retention = null;
-        Double churn = null;
+        Double retention = activeUserSketchService.retention(
+                fromDay.minusDays(days + 1), fromDay.minusDays(1), fromDay, toDay);
+        Double churn = retention == null ? null : 1.0 - retention;
 
         return new com.mindease.admin.dto.AnalyticsOverviewResponse(dau, mau, retention, churn);
     }
@@ -287,7 +231,7 @@ public class AdminDashboardController {
         var f = from != null ? from : defaultFrom();
         var t = to != null ? to : defaultTo();
         validateDateRange(f, t);
-        return pythonAnalyticsServiceClient.dailyActiveUsers(f, t);
+        return analyticsRepository.dailyActiveUsers(f, t);
     }
 
     @GetMapping("/analytics/feature-usage")
@@ -308,8 +252,26 @@ public class AdminDashboardController {
 
     @GetMapping("/analytics/export")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Export analytics", description = "Export analytics data (stub implementation)")
-    public Map<String, String> export() {
-        return Map.of("status", "not_implemented", "message", "Analytics export is not yet implemented.");
+    @Operation(summary = "Export analytics", description = "Streams a dataset as gzipped CSV or NDJSON. "
+            + "Datasets: active_users, ai_usage, mood_correlation, crisis_flags, audit_logs")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) {
+        var d = AnalyticsExportService.Dataset.parse(dataset);
+        var fmt = AnalyticsExportService.Format.parse(format);
+        var f = from != null ? from : defaultFrom();
+        var t = to != null ? to : defaultTo();
+        if (f.isAfter(t)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        String fileName = "%s_%s_%s.%s.gz".formatted(d.fileName(), f.toLocalDate(), t.toLocalDate(), fmt.extension());
+        StreamingResponseBody body = out -> analyticsExportService.export(d, fmt, f, t, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName).build().toString())
+                .body(body);
     }
 }
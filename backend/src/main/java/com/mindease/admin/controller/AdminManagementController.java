@@ -2,23 +2,28 @@ package com.mindease.admin.controller;
 
 import com.mindease.admin.dto.AdminSettingsPayload;
 import com.mindease.admin.dto.ContentItemDto;
+import com.mindease.admin.dto.KeysetPage;
 import com.mindease.admin.dto.UserAdminSummary;
 import com.mindease.admin.model.Content;
 import com.mindease.auth.model.User;
 import com.mindease.auth.repository.UserRepository;
 import com.mindease.admin.model.AdminSettings;
 import com.mindease.admin.model.AuditLog;
+import com.mindease.admin.model.UserAdminStats;
 import com.mindease.admin.repository.AdminSettingsRepository;
 import com.mindease.admin.repository.AuditLogRepository;
 import com.mindease.crisis.repository.CrisisFlagRepository;
 import com.mindease.admin.repository.ContentRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
 import com.mindease.subscription.model.Subscription;
 import com.mindease.subscription.repository.SubscriptionRepository;
 import com.mindease.admin.service.AuditService;
+import com.mindease.shared.events.ContentChangedEvent;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
@@ -44,6 +49,7 @@ public class AdminManagementController {
     private static final Logger logger = LoggerFactory.getLogger(AdminManagementController.class);
     private static final int DEFAULT_AUDIT_SIZE = 50;
     private static final int MAX_AUDIT_SIZE = 200;
+    private static final int ACTIVE_WINDOW_DAYS = 30;
 
     private final UserRepository userRepository;
     private final AuditLogRepository auditLogRepository;
@@ -52,6 +58,8 @@ public class AdminManagementController {
     private final AuditService auditService;
     private final ContentRepository contentRepository;
     private final AdminSettingsRepository adminSettingsRepository;
+    private final UserAdminStatsRepository userAdminStatsRepository;
+    private final ApplicationEventPublisher events;
 
     public AdminManagementController(UserRepository userRepository,
             AuditLogRepository auditLogRepository,
@@ -59,7 +67,9 @@ public class AdminManagementController {
             SubscriptionRepository subscriptionRepository,
             AuditService auditService,
             ContentRepository contentRepository,
-            AdminSettingsRepository adminSettingsRepository) {
+            AdminSettingsRepository adminSettingsRepository,
+            UserAdminStatsRepository userAdminStatsRepository,
+            ApplicationEventPublisher events) {
         this.userRepository = userRepository;
         this.auditLogRepository = auditLogRepository;
         this.crisisFlagRepository = crisisFlagRepository;
@@ -67,93 +77,49 @@ public class AdminManagementController {
         this.auditService = auditService;
         this.contentRepository = contentRepository;
         this.adminSettingsRepository = adminSettingsRepository;
+        this.userAdminStatsRepository = userAdminStatsRepository;
+        this.events = events;
     }
 
     // === User management (from AdminUserController) ===
 
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "List users", description = "Paginated list of users with basic admin metadata")
+    @Operation(summary = "List users", description = "Paginated list of users with basic admin metadata; "
+            + "sort is one of createdAt, lastActive, crisisFlags, email")
     public Page<UserAdminSummary> listUsers(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "25") int size,
             @RequestParam(required = false) String search,
-            @RequestParam(required = false, defaultValue = "all") String status) {
+            @RequestParam(required = false, defaultValue = "all") String status,
+            @RequestParam(required = false, defaultValue = "createdAt") String sort) {
         int pageSize = Math.max(1, Math.min(size, 200));
         String effectiveStatus = status == null ? "all" : status.toLowerCase();
+        Pageable pageable = PageRequest.of(Math.max(0, page), pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
 
-        // For "active" and "inactive" statuses, we need to fetch all users first
-        // because status is computed from AuditLog (lastActive), which can't be filtered at DB level
-        boolean requiresFullFetch = "active".equals(effectiveStatus) || "inactive".equals(effectiveStatus);
-
-        Page<User> usersPage;
-        List<User> allUsers;
-        long totalElements;
-
-        if (requiresFullFetch) {
-            // Fetch all non-banned users (no pagination at DB level)
-            if (search != null && !search.isBlank()) {
-                // Fetch all matching users (use a large page size as workaround)
-                Pageable largePageable = PageRequest.of(0, 10000, Sort.by(Sort.Direction.DESC, "createdAt"));
-                usersPage = userRepository.findByEmailContainingIgnoreCaseAndDeletedAtIsNull(search.trim(), largePageable);
-            } else {
-                Pageable largePageable = PageRequest.of(0, 10000, Sort.by(Sort.Direction.DESC, "createdAt"));
-                usersPage = userRepository.findByDeletedAtIsNull(largePageable);
-            }
-            allUsers = usersPage.getContent();
-        } else {
-            // For "all" and "banned" statuses, we can use DB-level pagination
-            Pageable pageable = PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-            if (search != null && !search.isBlank()) {
-                if ("banned".equals(effectiveStatus)) {
-                    usersPage = userRepository.findByEmailContainingIgnoreCaseAndDeletedAtIsNullAndBannedTrue(
-                            search.trim(), pageable);
-                } else {
-                    usersPage = userRepository.findByEmailContainingIgnoreCaseAndDeletedAtIsNull(search.trim(), pageable);
-                }
-            } else {
-                if ("banned".equals(effectiveStatus)) {
-                    usersPage = userRepository.findByDeletedAtIsNullAndBannedTrue(pageable);
-                } else {
-                    usersPage = userRepository.findByDeletedAtIsNull(pageable);
-                }
-            }
-            allUsers = usersPage.getContent();
-        }
+        // Filter, sort and paginate in one query over user_admin_stats; only the page is enriched
+        Page<UserAdminStats> statsPage = userAdminStatsRepository.findPage(
+                search, effectiveStatus, sort, activeThreshold(), pageable);
 
-        List<UUID> userIds = allUsers.stream().map(User::getId).collect(Collectors.toList());
+        return new PageImpl<>(toSummaries(statsPage.getContent()), pageable, statsPage.getTotalElements());
+    }
 
-        Map<UUID, OffsetDateTime> lastActiveMap = fetchLastActiveForUsers(userIds);
-        Map<UUID, Long> crisisCountMap = fetchCrisisCounts(userIds);
+    /** Loads users and subscriptions for one page of stats rows, keeping their order. */
+    private List<UserAdminSummary> toSummaries(List<UserAdminStats> rows) {
+        List<UUID> userIds = rows.stream().map(UserAdminStats::userId).toList();
+        Map<UUID, User> usersById = userRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(User::getId, u -> u));
         Map<UUID, Subscription> subscriptionMap = fetchSubscriptions(userIds);
 
-        List<UserAdminSummary> allSummaries = allUsers.stream()
-                .map(user -> toSummary(
-                        user,
-                        lastActiveMap.get(user.getId()),
-                        crisisCountMap.getOrDefault(user.getId(), 0L),
-                        subscriptionMap.get(user.getId()),
+        return rows.stream()
+                .filter(stats -> usersById.containsKey(stats.userId()))
+                .map(stats -> toSummary(
+                        usersById.get(stats.userId()),
+                        stats.lastActiveAt(),
+                        stats.crisisFlagCount(),
+                        subscriptionMap.get(stats.userId()),
                         true))
-                .filter(summary -> "all".equals(effectiveStatus) ||
-                        (summary.status() != null && summary.status().equalsIgnoreCase(effectiveStatus)))
                 .collect(Collectors.toList());
-
-        // For "active" and "inactive", manually paginate the filtered list
-        if (requiresFullFetch) {
-            totalElements = allSummaries.size();
-            int start = page * pageSize;
-            int end = Math.min(start + pageSize, allSummaries.size());
-            List<UserAdminSummary> content = start < allSummaries.size()
-                    ? allSummaries.subList(start, end)
-                    : Collections.emptyList();
-            Pageable pageable = PageRequest.of(page, pageSize, Sort.by(Sort.Direction.DESC, "createdAt"));
-            return new PageImpl<>(content, pageable, totalElements);
-        } else {
-            // For "all" and "banned", the DB query already filtered correctly,
-            // and status filter above should not remove any items, so use original pagination
-            // However, we still need to apply the status filter for consistency
-            return new PageImpl<>(allSummaries, usersPage.getPageable(), usersPage.getTotalElements());
-        }
     }
 
     @GetMapping("/users/{id}")
@@ -268,12 +234,22 @@ public class AdminManagementController {
 
     @GetMapping("/users/search")
     @PreAuthorize("hasRole('ADMIN')")
-    @Operation(summary = "Search users", description = "Alias for listUsers() with a search query")
-    public Page<UserAdminSummary> searchUsers(
+    @Operation(summary = "Search users", description = "Email search ranked by trigram similarity, "
+            + "keyset-paginated: pass the returned nextCursor to get the following page")
+    public KeysetPage<UserAdminSummary> searchUsers(
             @RequestParam String q,
-            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "25") int size) {
-        return listUsers(page, size, q, "all");
+        if (q.isBlank()) {
+            return new KeysetPage<>(List.of(), null);
+        }
+        KeysetPage<UserAdminStats> matches;
+        try {
+            matches = userAdminStatsRepository.searchByEmail(q, cursor, Math.max(1, Math.min(size, 200)));
+        } catch (IllegalArgumentException e) {
+            throw new org.springframework.web.server.ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        return new KeysetPage<>(toSummaries(matches.items()), matches.nextCursor());
     }
 
     @GetMapping("/users/stats")
@@ -282,8 +258,7 @@ public class AdminManagementController {
     public ResponseEntity<Map<String, Long>> getUserStats() {
         long total = userRepository.countByDeletedAtIsNull();
         long banned = userRepository.countByDeletedAtIsNullAndBannedTrue();
-        OffsetDateTime thirtyDaysAgo = OffsetDateTime.now(ZoneOffset.UTC).minusDays(30);
-        long active = userRepository.countActiveNonBannedUsers(thirtyDaysAgo);
+        long active = userAdminStatsRepository.countActive(activeThreshold());
         long inactive = (total - banned) - active;
 
         Map<String, Long> stats = new HashMap<>();
@@ -344,6 +319,7 @@ public class AdminManagementController {
         Content content = new Content();
         applyContentPayload(content, body, true);
         Content saved = contentRepository.save(content);
+        events.publishEvent(new ContentChangedEvent(saved.getType() != null ? saved.getType() : "content"));
         return toContentDto(saved);
     }
 
@@ -356,6 +332,7 @@ public class AdminManagementController {
                         "Content not found"));
         applyContentPayload(content, body, false);
         Content saved = contentRepository.save(content);
+        events.publishEvent(new ContentChangedEvent(saved.getType() != null ? saved.getType() : "content"));
         return toContentDto(saved);
     }
 
@@ -367,6 +344,7 @@ public class AdminManagementController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("status", "error", "message", "Not found"));
         }
         contentRepository.deleteById(id);
+        events.publishEvent(new ContentChangedEvent("content"));
         return ResponseEntity.ok(Map.of("status", "ok"));
     }
 
@@ -528,33 +506,12 @@ public class AdminManagementController {
         if (lastActive == null) {
             return "inactive";
         }
-        OffsetDateTime thirtyDaysAgo = OffsetDateTime.now(ZoneOffset.UTC).minusDays(30);
-        return lastActive.isBefore(thirtyDaysAgo) ? "inactive" : "active";
+        return lastActive.isBefore(activeThreshold()) ? "inactive" : "active";
     }
 
-    private Map<UUID, OffsetDateTime> fetchLastActiveForUsers(List<UUID> userIds) {
-        if (userIds.isEmpty())
-            return Collections.emptyMap();
-        Map<UUID, OffsetDateTime> map = new HashMap<>();
-        for (Object[] row : auditLogRepository.findLastActiveByUserIds(userIds)) {
-            UUID userId = (UUID) row[0];
-            OffsetDateTime last = (OffsetDateTime) row[1];
-            map.put(userId, last);
-        }
-        return map;
-    }
-
-    private Map<UUID, Long> fetchCrisisCounts(List<UUID> userIds) {
-        if (userIds.isEmpty())
-            return Collections.emptyMap();
-        List<Object[]> rows = crisisFlagRepository.countByUserIdIn(userIds);
-        Map<UUID, Long> map = new HashMap<>();
-        for (Object[] row : rows) {
-            UUID userId = (UUID) row[0];
-            Long count = row[1] == null ? 0L : ((Number) row[1]).longValue();
-            map.put(userId, count);
-        }
-        return map;
+    /** Users seen at or after this instant count as active. */
+    private static OffsetDateTime activeThreshold() {
+        return OffsetDateTime.now(ZoneOffset.UTC).minusDays(ACTIVE_WINDOW_DAYS);
     }
 
     private Map<UUID, Subscription> fetchSubscriptions(List<UUID> userIds) {
@@ -1,6 +1,8 @@
 package com.mindease.admin.controller;
 
-import org.springframework.beans.factory.annotation.Value;
+import com.mindease.shared.service.DependencyHealthMonitor;
+import com.mindease.shared.service.ErrorRateTracker;
+import com.mindease.shared.service.PerformanceMonitorService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -9,12 +11,8 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 
-import javax.sql.DataSource;
-import java.io.File;
-import java.sql.Connection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import org.springframework.web.bind.annotation.CrossOrigin;
@@ -24,45 +22,61 @@ import org.springframework.web.bind.annotation.CrossOrigin;
 @CrossOrigin(origins = { "http://localhost:5173", "http://localhost:5174" })
 public class AdminSystemController {
 
-    private final DataSource dataSource;
-    private final RestTemplate restTemplate;
-    private final String pythonAiUrl;
+    private final PerformanceMonitorService performanceMonitor;
+    private final DependencyHealthMonitor dependencyHealth;
+    private final ErrorRateTracker errorRateTracker;
 
     public AdminSystemController(
-            DataSource dataSource,
-            RestTemplate restTemplate,
-            @Value("${python.ai.service.url:http://localhost:8000}") String pythonAiUrl) {
-        this.dataSource = dataSource;
-        this.restTemplate = restTemplate;
-        this.pythonAiUrl = pythonAiUrl != null ? pythonAiUrl.replaceAll("/$", "") : "http://localhost:8000";
+            PerformanceMonitorService performanceMonitor,
+            DependencyHealthMonitor dependencyHealth,
+            ErrorRateTracker errorRateTracker) {
+        this.performanceMonitor = performanceMonitor;
+        this.dependencyHealth = dependencyHealth;
+        this.errorRateTracker = errorRateTracker;
     }
 
     @GetMapping("/status")
     @PreAuthorize("hasRole('ADMIN')")
     public Map<String, Object> status() {
-        return Map.of(
-                "apiStatus", "operational",
-                "database", isDatabaseHealthy() ? "healthy" : "down",
-                "aiEngine", isPythonServiceHealthy(pythonAiUrl) ? "running" : "down");
+        // Cached background probe results; never blocks on the dependencies themselves
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("apiStatus", "operational");
+        body.put("database", label(dependencyHealth.status(DependencyHealthMonitor.DATABASE), "healthy"));
+        body.put("aiEngine", label(dependencyHealth.status(DependencyHealthMonitor.AI_ENGINE), "running"));
+        body.put("dependencies", dependencyHealth.statuses().values());
+        return body;
+    }
+
+    private static String label(DependencyHealthMonitor.DependencyStatus status, String upLabel) {
+        return switch (status.state()) {
+            case UP -> upLabel;
+            case DOWN -> "down";
+            case UNKNOWN -> "unknown";
+        };
     }
 
     @GetMapping("/health")
     @PreAuthorize("hasRole('ADMIN')")
     public Map<String, Object> health() {
-        int memory = memoryPercent();
-        int disk = diskPercent();
-        // CPU and connected user tracking are not wired in this project yet.
-        return Map.of(
-                "cpu", -1,
-                "memory", memory,
-                "disk", disk,
-                "connectedUsers", 0);
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("cpu", percent(performanceMonitor.cpuPercent()));
+        body.put("memory", percent(performanceMonitor.heapPercent()));
+        body.put("disk", percent(performanceMonitor.diskPercent()));
+        body.put("connectedUsers", performanceMonitor.connections().get("stompUsers"));
+        body.put("errorRate", errorRateTracker.errorRate());
+        body.put("requestsInWindow", errorRateTracker.requestsInWindow());
+        body.put("metrics", performanceMonitor.getSystemMetrics());
+        return body;
+    }
+
+    private static int percent(double value) {
+        return value < 0 ? -1 : (int) Math.round(value);
     }
 
     @GetMapping("/errors")
     @PreAuthorize("hasRole('ADMIN')")
-    public List<Map<String, Object>> errors() {
-        return List.of();
+    public List<ErrorRateTracker.RecentError> errors() {
+        return errorRateTracker.recentErrors();
     }
 
     @PostMapping("/notifications")
@@ -76,44 +90,4 @@ public class AdminSystemController {
         // Not yet broadcast to users; accept request so the admin UI works.
         return ResponseEntity.ok(Map.of("status", "ok"));
     }
-
-    private boolean isDatabaseHealthy() {
-        try (Connection ignored = dataSource.getConnection()) {
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
-    }
-
-    private boolean isPythonServiceHealthy(String baseUrl) {
-        try {
-            restTemplate.getForEntity(baseUrl + "/health", Map.class);
-            return true;
-        } catch (RestClientException e) {
-            return false;
-        }
-    }
-
-    private static int memoryPercent() {
-        Runtime rt = Runtime.getRuntime();
-        long max = rt.maxMemory();
-        if (max <= 0)
-            return -1;
-        long used = rt.totalMemory() - rt.freeMemory();
-        return (int) Math.round((used * 100.0) / max);
-    }
-
-    private static int diskPercent() {
-        try {
-            File root = new File(".");
-            long total = root.getTotalSpace();
-            long free = root.getUsableSpace();
-            if (total <= 0)
-                return -1;
-            long used = total - free;
-            return (int) Math.round((used * 100.0) / total);
-        } catch (Exception e) {
-            return -1;
-        }
-    }
 }
@@ -8,7 +8,9 @@ public record AuditLogSearchRequest(
     OffsetDateTime from,
     OffsetDateTime to,
     Integer page,
-    Integer size
+    Integer size,
+    String query,
+    String cursor
 ) {
     public AuditLogSearchRequest {
         if (page != null && page < 0) {
@@ -0,0 +1,17 @@
+package com.mindease.admin.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Precomputed admin dashboard data. {@code trendingTopics} holds the largest
+ * list any request may ask for; callers take a prefix.
+ */
+public record DashboardSnapshot(
+        DashboardOverviewResponse overview,
+        List<ActiveUsersPoint> activityTrend,
+        List<Map<String, Object>> crisisHeatmap,
+        List<KeywordStat> trendingTopics,
+        Instant computedAt) {
+}
@@ -0,0 +1,14 @@
+package com.mindease.admin.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated result. {@code nextCursor} is {@code null}
+ * on the last page.
+ */
+public record KeysetPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,8 @@
+package com.mindease.admin.dto;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/** One chat message as shown in crisis review; {@code sender} is {@code user} or {@code bot}. */
+public record TranscriptMessage(UUID id, String content, String sender, LocalDateTime createdAt) {
+}
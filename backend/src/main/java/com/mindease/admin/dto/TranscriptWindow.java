@@ -0,0 +1,15 @@
+package com.mindease.admin.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Messages around the one that triggered a crisis flag, oldest first.
+ * {@code anchorMessageId} is {@code null} for an empty session.
+ */
+public record TranscriptWindow(
+        UUID anchorMessageId,
+        List<TranscriptMessage> messages,
+        boolean hasEarlier,
+        boolean hasLater) {
+}
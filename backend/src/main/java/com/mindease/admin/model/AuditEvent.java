@@ -0,0 +1,16 @@
+package com.mindease.admin.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An audit row captured at the call site and queued for the batched writer.
+ * The id and timestamp are assigned on capture so batching does not reorder
+ * or re-time events.
+ */
+public record AuditEvent(UUID id, UUID userId, String actionType, String details, OffsetDateTime createdAt) {
+
+    public static AuditEvent of(UUID userId, String actionType, String details) {
+        return new AuditEvent(UUID.randomUUID(), userId, actionType, details, OffsetDateTime.now());
+    }
+}
@@ -0,0 +1,10 @@
+package com.mindease.admin.model;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Denormalized admin listing stats for one user (row of {@code user_admin_stats}).
+ */
+public record UserAdminStats(UUID userId, OffsetDateTime lastActiveAt, long crisisFlagCount) {
+}
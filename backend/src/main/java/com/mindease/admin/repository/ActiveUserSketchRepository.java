@@ -0,0 +1,115 @@
+package com.mindease.admin.repository;
+
+import com.mindease.shared.util.HyperLogLog;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Stores one {@link HyperLogLog} of active users per UTC day in
+ * {@code daily_active_user_sketches}.
+ */
+@Repository
+public class ActiveUserSketchRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Unions {@code sketch} into the stored sketch for {@code day}. The row is
+     * locked for the read-merge-write, so concurrent instances never lose
+     * registers.
+     */
+    @Transactional
+    public void merge(LocalDate day, HyperLogLog sketch) {
+        em.createNativeQuery("""
+            INSERT INTO daily_active_user_sketches (day, sketch) VALUES (:day, :sketch)
+            ON CONFLICT (day) DO NOTHING
+        """)
+                .setParameter("day", day)
+                .setParameter("sketch", new HyperLogLog(sketch.precision()).toBytes())
+                .executeUpdate();
+        byte[] stored = (byte[]) em.createNativeQuery(
+                "SELECT s.sketch FROM daily_active_user_sketches s WHERE s.day = :day FOR UPDATE")
+                .setParameter("day", day)
+                .getSingleResult();
+        HyperLogLog merged = HyperLogLog.fromBytes(stored);
+        merged.merge(sketch);
+        write(day, merged);
+    }
+
+    /** Overwrites the sketch for {@code day}, e.g. with one rebuilt from exact rollups. */
+    @Transactional
+    public void replace(LocalDate day, HyperLogLog sketch) {
+        em.createNativeQuery("""
+            INSERT INTO daily_active_user_sketches (day, sketch, updated_at) VALUES (:day, :sketch, NOW())
+            ON CONFLICT (day) DO UPDATE SET sketch = EXCLUDED.sketch, updated_at = EXCLUDED.updated_at
+        """)
+                .setParameter("day", day)
+                .setParameter("sketch", sketch.toBytes())
+                .executeUpdate();
+    }
+
+    /** Union of all stored sketches for days in {@code [from, to]}; empty if there are none. */
+    @Transactional(readOnly = true)
+    public HyperLogLog union(LocalDate from, LocalDate to) {
+        @SuppressWarnings("unchecked")
+        List<byte[]> rows = em.createNativeQuery(
+                "SELECT s.sketch FROM daily_active_user_sketches s WHERE s.day BETWEEN :from AND :to")
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getResultList();
+        HyperLogLog union = new HyperLogLog();
+        for (byte[] row : rows) {
+            union.merge(HyperLogLog.fromBytes(row));
+        }
+        return union;
+    }
+
+    /** Users active on a closed day, from the exact rollup. */
+    @Transactional(readOnly = true)
+    public List<UUID> activeUserIds(LocalDate day) {
+        @SuppressWarnings("unchecked")
+        List<UUID> ids = em.createNativeQuery("SELECT r.user_id FROM daily_user_activity r WHERE r.day = :day")
+                .setParameter("day", day)
+                .getResultList();
+        return ids;
+    }
+
+    /** Closed rollup days that have no sketch yet (initial backfill). */
+    @Transactional(readOnly = true)
+    public List<LocalDate> closedDaysWithoutSketch() {
+        @SuppressWarnings("unchecked")
+        List<Object> rows = em.createNativeQuery("""
+            SELECT r.day
+            FROM analytics_rollup_days r
+            LEFT JOIN daily_active_user_sketches s ON s.day = r.day
+            WHERE s.day IS NULL
+            ORDER BY r.day
+        """).getResultList();
+        return rows.stream().map(ActiveUserSketchRepository::toLocalDate).toList();
+    }
+
+    private void write(LocalDate day, HyperLogLog sketch) {
+        em.createNativeQuery(
+                "UPDATE daily_active_user_sketches SET sketch = :sketch, updated_at = NOW() WHERE day = :day")
+                .setParameter("day", day)
+                .setParameter("sketch", sketch.toBytes())
+                .executeUpdate();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date d) {
+            return d.toLocalDate();
+        }
+        if (value instanceof LocalDate ld) {
+            return ld;
+        }
+        return LocalDate.parse(value.toString());
+    }
+}
@@ -0,0 +1,223 @@
+package com.mindease.admin.repository;
+
+import com.mindease.shared.util.StoredTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Forward-only JDBC cursors over the raw event tables and daily series for
+ * exports.
+ *
+ * Rows are handed to the caller one at a time and never collected. Daily
+ * series read closed days from the rollup tables and the rest of the range
+ * from the raw tables, split the same way as {@link AnalyticsRepository}, in
+ * a single ordered query. The
+ * connection runs outside any Spring transaction with auto-commit off, which
+ * is what makes the PostgreSQL driver honour the fetch size instead of
+ * materializing the whole result set client-side.
+ */
+@Repository
+public class AnalyticsExportRepository {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void handle(ResultSet row) throws SQLException, IOException;
+    }
+
+    private final DataSource dataSource;
+    private final int fetchSize;
+
+    public AnalyticsExportRepository(DataSource dataSource,
+            @Value("${analytics.export.fetch-size:1000}") int fetchSize) {
+        this.dataSource = dataSource;
+        this.fetchSize = fetchSize;
+    }
+
+    /** Columns: id, user_id, chat_id, keyword_detected, risk_score, status, escalated, created_at. */
+    public long streamCrisisFlags(OffsetDateTime from, OffsetDateTime to, RowHandler handler)
+            throws SQLException, IOException {
+        var sql = """
+            SELECT id, user_id, chat_id, keyword_detected, risk_score, status, escalated, created_at
+            FROM crisis_flags
+            WHERE created_at >= ? AND created_at <= ?
+            ORDER BY created_at, id
+        """;
+        return stream(sql, handler, from, to);
+    }
+
+    /** Columns: id, user_id, action_type, details, created_at. */
+    public long streamAuditLogs(OffsetDateTime from, OffsetDateTime to, RowHandler handler)
+            throws SQLException, IOException {
+        var sql = """
+            SELECT id, user_id, action_type, details, created_at
+            FROM audit_logs
+            WHERE created_at >= ? AND created_at <= ?
+            ORDER BY created_at, id
+        """;
+        return stream(sql, handler, from, to);
+    }
+
+    /** Columns: day, active_users. */
+    public long streamDailyActiveUsers(OffsetDateTime from, OffsetDateTime to, RowHandler handler)
+            throws SQLException, IOException {
+        AnalyticsRepository.Split split = split(from, to);
+        List<Object> params = new ArrayList<>();
+        List<String> parts = new ArrayList<>(2);
+        if (split.hasClosed()) {
+            parts.add("SELECT r.day AS day, r.user_id FROM daily_user_activity r WHERE r.day BETWEEN ? AND ?");
+            addClosed(params, split);
+        }
+        parts.add("""
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, a.user_id
+            FROM audit_logs a
+            WHERE ((a.created_at >= ? AND a.created_at < ?) OR (a.created_at >= ? AND a.created_at <= ?))
+        """);
+        addLive(params, split.from(), split.closedStart(), split.closedEnd(), split.to());
+        var sql = "SELECT day, COUNT(DISTINCT user_id) AS active_users FROM ("
+                + String.join(" UNION ALL ", parts) + ") u GROUP BY day ORDER BY day";
+        return stream(sql, handler, params.toArray());
+    }
+
+    /** Columns: day, calls. */
+    public long streamDailyAiUsage(OffsetDateTime from, OffsetDateTime to, RowHandler handler)
+            throws SQLException, IOException {
+        AnalyticsRepository.Split split = split(from, to);
+        List<Object> params = new ArrayList<>();
+        List<String> parts = new ArrayList<>(2);
+        if (split.hasClosed()) {
+            parts.add("""
+                SELECT r.day AS day, r.event_count AS calls
+                FROM daily_action_counts r
+                WHERE r.day BETWEEN ? AND ? AND r.action_type = 'CHAT_SENT'
+            """);
+            addClosed(params, split);
+        }
+        parts.add("""
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, COUNT(*) AS calls
+            FROM audit_logs a
+            WHERE ((a.created_at >= ? AND a.created_at < ?) OR (a.created_at >= ? AND a.created_at <= ?))
+              AND a.action_type = 'CHAT_SENT'
+            GROUP BY CAST(a.created_at AT TIME ZONE 'UTC' AS DATE)
+        """);
+        addLive(params, split.from(), split.closedStart(), split.closedEnd(), split.to());
+        // Closed and live days never overlap, so the parts need no merging
+        var sql = "SELECT day, calls FROM (" + String.join(" UNION ALL ", parts) + ") u ORDER BY day";
+        return stream(sql, handler, params.toArray());
+    }
+
+    /** Columns: day, avg_mood, chat_count; one row for every day in the range. */
+    public long streamMoodCorrelation(OffsetDateTime from, OffsetDateTime to, RowHandler handler)
+            throws SQLException, IOException {
+        AnalyticsRepository.Split split = split(from, to);
+        List<Object> params = new ArrayList<>();
+        params.add(split.fromDay());
+        params.add(to.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate());
+        List<String> moods = new ArrayList<>(2);
+        List<String> chats = new ArrayList<>(2);
+        if (split.hasClosed()) {
+            moods.add("""
+                SELECT r.day AS day, CAST(r.mood_sum AS DOUBLE PRECISION) / r.entry_count AS avg_mood
+                FROM daily_mood_stats r
+                WHERE r.day BETWEEN ? AND ?
+            """);
+            addClosed(params, split);
+        }
+        // mood_entries.created_at is stored wall-clock time; see StoredTime
+        moods.add("""
+            SELECT x.day, AVG(x.mood_value) AS avg_mood
+            FROM (SELECT CAST((m.created_at AT TIME ZONE ?) AT TIME ZONE 'UTC' AS DATE) AS day, m.mood_value
+                  FROM mood_entries m
+                  WHERE ((m.created_at >= ? AND m.created_at < ?) OR (m.created_at >= ? AND m.created_at <= ?))) x
+            GROUP BY x.day
+        """);
+        params.add(StoredTime.ZONE.getId());
+        addLive(params, StoredTime.of(split.from()), StoredTime.of(split.closedStart()),
+                StoredTime.of(split.closedEnd()), StoredTime.of(split.to()));
+        if (split.hasClosed()) {
+            chats.add("""
+                SELECT r.day AS day, r.event_count AS chat_count
+                FROM daily_action_counts r
+                WHERE r.day BETWEEN ? AND ? AND r.action_type = 'CHAT_SENT'
+            """);
+            addClosed(params, split);
+        }
+        chats.add("""
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, COUNT(*) AS chat_count
+            FROM audit_logs a
+            WHERE ((a.created_at >= ? AND a.created_at < ?) OR (a.created_at >= ? AND a.created_at <= ?))
+              AND a.action_type = 'CHAT_SENT'
+            GROUP BY CAST(a.created_at AT TIME ZONE 'UTC' AS DATE)
+        """);
+        addLive(params, split.from(), split.closedStart(), split.closedEnd(), split.to());
+        var sql = """
+            SELECT d.day, m.avg_mood, COALESCE(c.chat_count, 0) AS chat_count
+            FROM (SELECT CAST(g AS DATE) AS day
+                  FROM generate_series(CAST(? AS DATE), CAST(? AS DATE), INTERVAL '1 day') g) d
+            LEFT JOIN (%s) m ON m.day = d.day
+            LEFT JOIN (%s) c ON c.day = d.day
+            ORDER BY d.day
+        """.formatted(String.join(" UNION ALL ", moods), String.join(" UNION ALL ", chats));
+        return stream(sql, handler, params.toArray());
+    }
+
+    private AnalyticsRepository.Split split(OffsetDateTime from, OffsetDateTime to) throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement("SELECT MAX(day) FROM analytics_rollup_days");
+                ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return AnalyticsRepository.split(from, to, rs.getObject(1, LocalDate.class));
+        }
+    }
+
+    private static void addClosed(List<Object> params, AnalyticsRepository.Split split) {
+        params.add(split.closedFrom());
+        params.add(split.closedTo());
+    }
+
+    private static void addLive(List<Object> params, Object from, Object closedStart, Object closedEnd, Object to) {
+        params.add(from);
+        params.add(closedStart);
+        params.add(closedEnd);
+        params.add(to);
+    }
+
+    private long stream(String sql, RowHandler handler, Object... params) throws SQLException, IOException {
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            conn.setReadOnly(true);
+            try (PreparedStatement ps = conn.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY)) {
+                ps.setFetchSize(fetchSize);
+                for (int i = 0; i < params.length; i++) {
+                    ps.setObject(i + 1, params[i]);
+                }
+                long rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        handler.handle(rs);
+                        rows++;
+                    }
+                }
+                return rows;
+            } finally {
+                // Read-only work: end the cursor's transaction before the pool reuses the connection
+                conn.rollback();
+                conn.setReadOnly(false);
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+}
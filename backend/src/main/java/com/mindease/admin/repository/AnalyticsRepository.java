@@ -3,16 +3,17 @@ package com.mindease.admin.repository;
 import com.mindease.admin.dto.ActiveUsersPoint;
 import com.mindease.admin.dto.AiUsagePoint;
 import com.mindease.mood.dto.MoodCorrelationPoint;
+import com.mindease.shared.util.StoredTime;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -20,8 +21,6 @@ import java.util.Map;
 @Repository
 @Transactional(readOnly = true)
 public class AnalyticsRepository {
-    private static final Logger log = LoggerFactory.getLogger(AnalyticsRepository.class);
-
     @PersistenceContext
     private EntityManager em;
 
@@ -34,119 +33,176 @@ public class AnalyticsRepository {
         }
     }
 
+    /**
+     * Splits a range at the rollup watermark. Whole UTC days inside the range
+     * up to the last closed day ({@code closedFrom..closedTo}) are read from
+     * the rollup tables; the rest of the range, i.e. a partial first or last
+     * day and anything after the watermark, is read from the raw tables as
+     * {@code [from, closedStart)} plus {@code [closedEnd, to]}. With nothing
+     * closed, {@code closedStart} and {@code closedEnd} are both {@code to}.
+     */
+    record Split(LocalDate fromDay, LocalDate closedFrom, LocalDate closedTo, OffsetDateTime from,
+            OffsetDateTime closedStart, OffsetDateTime closedEnd, OffsetDateTime to) {
+        boolean hasClosed() {
+            return closedFrom != null;
+        }
+    }
+
+    private Split split(OffsetDateTime from, OffsetDateTime to) {
+        return split(from, to, lastClosedDay());
+    }
+
+    static Split split(OffsetDateTime from, OffsetDateTime to, LocalDate lastClosed) {
+        LocalDate fromDay = utcDay(from);
+        OffsetDateTime fromDayStart = fromDay.atStartOfDay().atOffset(ZoneOffset.UTC);
+        // 'to' is inclusive, so its own day is never covered in full
+        LocalDate firstWhole = from.isEqual(fromDayStart) ? fromDay : fromDay.plusDays(1);
+        LocalDate lastWhole = utcDay(to).minusDays(1);
+
+        LocalDate closedTo = lastClosed == null || lastClosed.isAfter(lastWhole) ? lastWhole : lastClosed;
+        if (lastClosed == null || closedTo.isBefore(firstWhole)) {
+            return new Split(fromDay, null, null, from, to, to, to);
+        }
+        return new Split(fromDay, firstWhole, closedTo, from,
+                firstWhole.atStartOfDay().atOffset(ZoneOffset.UTC),
+                closedTo.plusDays(1).atStartOfDay().atOffset(ZoneOffset.UTC), to);
+    }
+
+    private LocalDate lastClosedDay() {
+        return toLocalDate(em.createNativeQuery("SELECT MAX(day) FROM analytics_rollup_days").getSingleResult());
+    }
+
     public List<ActiveUsersPoint> dailyActiveUsers(OffsetDateTime from, OffsetDateTime to) {
         validateRange(from, to);
-        var sql = """
-            SELECT DATE(a.created_at) AS day, COUNT(DISTINCT a.user_id) AS active_users
+        Split split = split(from, to);
+        List<ActiveUsersPoint> result = new ArrayList<>();
+        if (split.hasClosed()) {
+            var closedSql = """
+                SELECT r.day, COUNT(*) AS active_users
+                FROM daily_user_activity r
+                WHERE r.day BETWEEN :fromDay AND :toDay
+                GROUP BY r.day
+                ORDER BY r.day
+            """;
+            for (Object[] r : closedRows(closedSql, split)) {
+                result.add(new ActiveUsersPoint(toLocalDate(r[0]), ((Number) r[1]).longValue()));
+            }
+        }
+        var liveSql = """
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, COUNT(DISTINCT a.user_id) AS active_users
             FROM audit_logs a
-            WHERE a.created_at BETWEEN :from AND :to
+            WHERE ((a.created_at >= :from AND a.created_at < :closedStart)
+                OR (a.created_at >= :closedEnd AND a.created_at <= :to))
             GROUP BY day
             ORDER BY day
         """;
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery(sql)
-                .setParameter("from", from)
-                .setParameter("to", to)
-                .getResultList();
-        return rows.stream()
-                .map(r -> new ActiveUsersPoint(toLocalDate(r[0]), ((Number) r[1]).longValue()))
-                .toList();
+        for (Object[] r : liveRows(liveSql, split)) {
+            result.add(new ActiveUsersPoint(toLocalDate(r[0]), ((Number) r[1]).longValue()));
+        }
+        // A partial first day is read live, after the closed days
+        result.sort(Comparator.comparing(ActiveUsersPoint::day));
+        return result;
     }
 
     public List<AiUsagePoint> dailyAiUsage(OffsetDateTime from, OffsetDateTime to) {
         validateRange(from, to);
-        var sql = """
-            SELECT DATE(a.created_at) AS day, COUNT(*) AS calls
+        Split split = split(from, to);
+        List<AiUsagePoint> result = new ArrayList<>();
+        if (split.hasClosed()) {
+            var closedSql = """
+                SELECT r.day, r.event_count
+                FROM daily_action_counts r
+                WHERE r.day BETWEEN :fromDay AND :toDay
+                  AND r.action_type = 'CHAT_SENT'
+                ORDER BY r.day
+            """;
+            for (Object[] r : closedRows(closedSql, split)) {
+                result.add(new AiUsagePoint(toLocalDate(r[0]), ((Number) r[1]).longValue()));
+            }
+        }
+        var liveSql = """
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, COUNT(*) AS calls
             FROM audit_logs a
-            WHERE a.created_at BETWEEN :from AND :to
+            WHERE ((a.created_at >= :from AND a.created_at < :closedStart)
+                OR (a.created_at >= :closedEnd AND a.created_at <= :to))
               AND a.action_type = 'CHAT_SENT'
             GROUP BY day
             ORDER BY day
         """;
-        @SuppressWarnings("unchecked")
-        List<Object[]> rows = em.createNativeQuery(sql)
-                .setParameter("from", from)
-                .setParameter("to", to)
-                .getResultList();
-        return rows.stream()
-                .map(r -> new AiUsagePoint(toLocalDate(r[0]), ((Number) r[1]).longValue()))
-                .toList();
+        for (Object[] r : liveRows(liveSql, split)) {
+            result.add(new AiUsagePoint(toLocalDate(r[0]), ((Number) r[1]).longValue()));
+        }
+        result.sort(Comparator.comparing(AiUsagePoint::day));
+        return result;
     }
 
     public List<MoodCorrelationPoint> moodCorrelation(OffsetDateTime from, OffsetDateTime to) {
         validateRange(from, to);
-        var sql = """
-            WITH moods AS (
-                SELECT DATE(m.created_at) AS day, AVG(m.mood_value)::float8 AS avg_mood
-                FROM mood_entries m
-                WHERE m.created_at BETWEEN :from AND :to
-                GROUP BY day
-            ),
-            chats AS (
-                SELECT DATE(a.created_at) AS day, COUNT(*) AS chat_count
-                FROM audit_logs a
-                WHERE a.created_at BETWEEN :from AND :to
-                  AND a.action_type = 'CHAT_SENT'
-                GROUP BY day
-            )
-            SELECT d.day,
-                   m.avg_mood,
-                   COALESCE(c.chat_count, 0) AS chat_count
-            FROM (
-                SELECT generate_series(:from::date, :to::date, INTERVAL '1 day')::date AS day
-            ) d
-            LEFT JOIN moods m ON m.day = d.day
-            LEFT JOIN chats c ON c.day = d.day
-            ORDER BY d.day
-        """;
-        try {
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = em.createNativeQuery(sql)
-                    .setParameter("from", from)
-                    .setParameter("to", to)
-                    .getResultList();
-            return rows.stream()
-                    .map(r -> new MoodCorrelationPoint(
-                            toLocalDate(r[0]),
-                            r[1] == null ? null : ((Number) r[1]).doubleValue(),
-                            ((Number) r[2]).longValue()))
-                    .toList();
-        } catch (jakarta.persistence.PersistenceException ex) {
-            if (isGenerateSeriesUnsupported(ex)) {
-                log.warn("Database does not support generate_series; using Java fallback for moodCorrelation");
-                return moodCorrelationFallback(from, to);
-            }
-            throw ex;
+        Split split = split(from, to);
+        Map<LocalDate, Double> avgMoodByDay = new HashMap<>();
+        Map<LocalDate, Long> chatCountByDay = new HashMap<>();
+
+        if (split.hasClosed()) {
+            var moodsSql = """
+                SELECT r.day, CAST(r.mood_sum AS DOUBLE PRECISION) / r.entry_count
+                FROM daily_mood_stats r
+                WHERE r.day BETWEEN :fromDay AND :toDay
+            """;
+            var chatsSql = """
+                SELECT r.day, r.event_count
+                FROM daily_action_counts r
+                WHERE r.day BETWEEN :fromDay AND :toDay
+                  AND r.action_type = 'CHAT_SENT'
+            """;
+            collectMoods(closedRows(moodsSql, split), avgMoodByDay);
+            collectCounts(closedRows(chatsSql, split), chatCountByDay);
         }
-    }
+        // mood_entries.created_at is stored wall-clock time; see StoredTime
+        var liveMoodsSql = """
+            SELECT CAST((m.created_at AT TIME ZONE :storageTz) AT TIME ZONE 'UTC' AS DATE) AS day, AVG(m.mood_value)
+            FROM mood_entries m
+            WHERE ((m.created_at >= :from AND m.created_at < :closedStart)
+                OR (m.created_at >= :closedEnd AND m.created_at <= :to))
+            GROUP BY day
+        """;
+        var liveChatsSql = """
+            SELECT CAST(a.created_at AT TIME ZONE 'UTC' AS DATE) AS day, COUNT(*)
+            FROM audit_logs a
+            WHERE ((a.created_at >= :from AND a.created_at < :closedStart)
+                OR (a.created_at >= :closedEnd AND a.created_at <= :to))
+              AND a.action_type = 'CHAT_SENT'
+            GROUP BY day
+        """;
+        collectMoods(liveMoodRows(liveMoodsSql, split), avgMoodByDay);
+        collectCounts(liveRows(liveChatsSql, split), chatCountByDay);
 
-    private static boolean isGenerateSeriesUnsupported(Throwable ex) {
-        while (ex != null) {
-            String msg = ex.getMessage();
-            if (msg != null) {
-                String m = msg.toLowerCase();
-                if (m.contains("generate_series") || m.contains("function generate_series")
-                        || m.contains("unknown function: generate_series")) {
-                    return true;
-                }
-            }
-            ex = ex.getCause();
+        List<MoodCorrelationPoint> result = new ArrayList<>();
+        LocalDate end = utcDay(to);
+        for (LocalDate d = split.fromDay(); !d.isAfter(end); d = d.plusDays(1)) {
+            result.add(new MoodCorrelationPoint(d, avgMoodByDay.get(d), chatCountByDay.getOrDefault(d, 0L)));
         }
-        return false;
+        return result;
     }
 
     public long distinctActiveUsers(OffsetDateTime from, OffsetDateTime to) {
         validateRange(from, to);
-        var sql = """
-            SELECT COUNT(DISTINCT a.user_id)
-            FROM audit_logs a
-            WHERE a.created_at BETWEEN :from AND :to
-        """;
-        Object result = em.createNativeQuery(sql)
-                .setParameter("from", from)
-                .setParameter("to", to)
-                .getSingleResult();
-        return ((Number) result).longValue();
+        Split split = split(from, to);
+        List<String> parts = new ArrayList<>(2);
+        if (split.hasClosed()) {
+            parts.add("SELECT r.user_id FROM daily_user_activity r WHERE r.day BETWEEN :fromDay AND :toDay");
+        }
+        parts.add("SELECT a.user_id FROM audit_logs a"
+                + " WHERE ((a.created_at >= :from AND a.created_at < :closedStart)"
+                + " OR (a.created_at >= :closedEnd AND a.created_at <= :to))");
+        var query = em.createNativeQuery("SELECT COUNT(*) FROM (" + String.join(" UNION ", parts) + ") u");
+        if (split.hasClosed()) {
+            query.setParameter("fromDay", split.closedFrom()).setParameter("toDay", split.closedTo());
+        }
+        query.setParameter("from", split.from())
+                .setParameter("closedStart", split.closedStart())
+                .setParameter("closedEnd", split.closedEnd())
+                .setParameter("to", split.to());
+        return ((Number) query.getSingleResult()).longValue();
     }
 
     public long countUsersCreatedBetween(OffsetDateTime from, OffsetDateTime to) {
@@ -163,62 +219,50 @@ public class AnalyticsRepository {
         return ((Number) result).longValue();
     }
 
-    private List<MoodCorrelationPoint> moodCorrelationFallback(OffsetDateTime from, OffsetDateTime to) {
-        var moodsSql = """
-            SELECT DATE(m.created_at) AS day, AVG(m.mood_value)
-            FROM mood_entries m
-            WHERE m.created_at BETWEEN :from AND :to
-            GROUP BY DATE(m.created_at)
-            ORDER BY DATE(m.created_at)
-        """;
-
-        var chatsSql = """
-            SELECT DATE(a.created_at) AS day, COUNT(*)
-            FROM audit_logs a
-            WHERE a.created_at BETWEEN :from AND :to
-              AND a.action_type = 'CHAT_SENT'
-            GROUP BY DATE(a.created_at)
-            ORDER BY DATE(a.created_at)
-        """;
+    @SuppressWarnings("unchecked")
+    private List<Object[]> closedRows(String sql, Split split) {
+        return em.createNativeQuery(sql)
+                .setParameter("fromDay", split.closedFrom())
+                .setParameter("toDay", split.closedTo())
+                .getResultList();
+    }
 
-        @SuppressWarnings("unchecked")
-        List<Object[]> moodRows = em.createNativeQuery(moodsSql)
-                .setParameter("from", from)
-                .setParameter("to", to)
+    @SuppressWarnings("unchecked")
+    private List<Object[]> liveRows(String sql, Split split) {
+        return em.createNativeQuery(sql)
+                .setParameter("from", split.from())
+                .setParameter("closedStart", split.closedStart())
+                .setParameter("closedEnd", split.closedEnd())
+                .setParameter("to", split.to())
                 .getResultList();
+    }
 
-        @SuppressWarnings("unchecked")
-        List<Object[]> chatRows = em.createNativeQuery(chatsSql)
-                .setParameter("from", from)
-                .setParameter("to", to)
+    /** {@link #liveRows} for a {@code TIMESTAMP} column without zone. */
+    @SuppressWarnings("unchecked")
+    private List<Object[]> liveMoodRows(String sql, Split split) {
+        return em.createNativeQuery(sql)
+                .setParameter("storageTz", StoredTime.ZONE.getId())
+                .setParameter("from", StoredTime.of(split.from()))
+                .setParameter("closedStart", StoredTime.of(split.closedStart()))
+                .setParameter("closedEnd", StoredTime.of(split.closedEnd()))
+                .setParameter("to", StoredTime.of(split.to()))
                 .getResultList();
+    }
 
-        Map<LocalDate, Double> avgMoodByDay = new HashMap<>();
-        for (Object[] r : moodRows) {
-            LocalDate day = toLocalDate(r[0]);
-            Double avg = r[1] == null ? null : ((Number) r[1]).doubleValue();
-            avgMoodByDay.put(day, avg);
+    private static void collectMoods(List<Object[]> rows, Map<LocalDate, Double> avgMoodByDay) {
+        for (Object[] r : rows) {
+            avgMoodByDay.put(toLocalDate(r[0]), r[1] == null ? null : ((Number) r[1]).doubleValue());
         }
+    }
 
-        Map<LocalDate, Long> chatCountByDay = new HashMap<>();
-        for (Object[] r : chatRows) {
-            LocalDate day = toLocalDate(r[0]);
-            Long count = r[1] == null ? 0L : ((Number) r[1]).longValue();
-            chatCountByDay.put(day, count);
+    private static void collectCounts(List<Object[]> rows, Map<LocalDate, Long> countByDay) {
+        for (Object[] r : rows) {
+            countByDay.put(toLocalDate(r[0]), r[1] == null ? 0L : ((Number) r[1]).longValue());
         }
+    }
 
-        LocalDate start = from.toLocalDate();
-        LocalDate end = to.toLocalDate();
-
-        java.util.ArrayList<MoodCorrelationPoint> result = new java.util.ArrayList<>();
-        LocalDate d = start;
-        while (!d.isAfter(end)) {
-            Double avgMood = avgMoodByDay.getOrDefault(d, null);
-            long chatCount = chatCountByDay.getOrDefault(d, 0L);
-            result.add(new MoodCorrelationPoint(d, avgMood, chatCount));
-            d = d.plusDays(1);
-        }
-        return result;
+    private static LocalDate utcDay(OffsetDateTime value) {
+        return value.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
     }
 
     private static LocalDate toLocalDate(Object value) {
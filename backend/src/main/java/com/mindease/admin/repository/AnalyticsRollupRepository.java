@@ -0,0 +1,118 @@
+package com.mindease.admin.repository;
+
+import com.mindease.shared.util.StoredTime;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes the daily rollup tables created in V45. Each day is recomputed from
+ * raw rows with delete-and-insert, so closing a day twice is harmless.
+ */
+@Repository
+public class AnalyticsRollupRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /** Last day whose rollups are final, or {@code null} if none are. */
+    @Transactional(readOnly = true)
+    public LocalDate lastClosedDay() {
+        Object result = em.createNativeQuery("SELECT MAX(day) FROM analytics_rollup_days").getSingleResult();
+        return toLocalDate(result);
+    }
+
+    /** Earliest UTC day with any audit or mood activity, or {@code null} if there is none. */
+    @Transactional(readOnly = true)
+    public LocalDate earliestActivityDay() {
+        var sql = """
+            SELECT MIN(day) FROM (
+                SELECT CAST(MIN(a.created_at) AT TIME ZONE 'UTC' AS DATE) AS day FROM audit_logs a
+                UNION ALL
+                SELECT CAST((MIN(m.created_at) AT TIME ZONE :storageTz) AT TIME ZONE 'UTC' AS DATE)
+                FROM mood_entries m
+            ) d
+        """;
+        return toLocalDate(em.createNativeQuery(sql)
+                .setParameter("storageTz", StoredTime.ZONE.getId())
+                .getSingleResult());
+    }
+
+    /**
+     * Recomputes all rollups for one UTC day and marks it closed, atomically.
+     */
+    @Transactional
+    public void closeDay(LocalDate day) {
+        OffsetDateTime start = day.atStartOfDay().atOffset(ZoneOffset.UTC);
+        OffsetDateTime end = start.plusDays(1);
+
+        em.createNativeQuery("DELETE FROM daily_user_activity WHERE day = :day")
+                .setParameter("day", day)
+                .executeUpdate();
+        em.createNativeQuery("""
+            INSERT INTO daily_user_activity (day, user_id, event_count)
+            SELECT :day, a.user_id, COUNT(*)
+            FROM audit_logs a
+            WHERE a.created_at >= :start AND a.created_at < :end
+            GROUP BY a.user_id
+        """)
+                .setParameter("day", day)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .executeUpdate();
+
+        em.createNativeQuery("DELETE FROM daily_action_counts WHERE day = :day")
+                .setParameter("day", day)
+                .executeUpdate();
+        em.createNativeQuery("""
+            INSERT INTO daily_action_counts (day, action_type, event_count, user_count)
+            SELECT :day, a.action_type, COUNT(*), COUNT(DISTINCT a.user_id)
+            FROM audit_logs a
+            WHERE a.created_at >= :start AND a.created_at < :end
+            GROUP BY a.action_type
+        """)
+                .setParameter("day", day)
+                .setParameter("start", start)
+                .setParameter("end", end)
+                .executeUpdate();
+
+        // mood_entries.created_at is stored wall-clock time; see StoredTime
+        em.createNativeQuery("DELETE FROM daily_mood_stats WHERE day = :day")
+                .setParameter("day", day)
+                .executeUpdate();
+        em.createNativeQuery("""
+            INSERT INTO daily_mood_stats (day, entry_count, mood_sum, user_count)
+            SELECT :day, COUNT(*), SUM(m.mood_value), COUNT(DISTINCT m.user_id)
+            FROM mood_entries m
+            WHERE m.created_at >= :start AND m.created_at < :end
+            HAVING COUNT(*) > 0
+        """)
+                .setParameter("day", day)
+                .setParameter("start", StoredTime.of(start))
+                .setParameter("end", StoredTime.of(end))
+                .executeUpdate();
+
+        em.createNativeQuery("""
+            INSERT INTO analytics_rollup_days (day, closed_at) VALUES (:day, NOW())
+            ON CONFLICT (day) DO UPDATE SET closed_at = EXCLUDED.closed_at
+        """)
+                .setParameter("day", day)
+                .executeUpdate();
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value == null) return null;
+        if (value instanceof java.sql.Date d) {
+            return d.toLocalDate();
+        }
+        if (value instanceof LocalDate ld) {
+            return ld;
+        }
+        return LocalDate.parse(value.toString());
+    }
+}
@@ -1,10 +1,13 @@
 package com.mindease.admin.repository;
 
+import com.mindease.admin.dto.KeysetPage;
+import com.mindease.admin.model.AuditEvent;
 import com.mindease.admin.model.AuditLog;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.UUID;
 
 public interface AuditLogRepositoryCustom {
@@ -13,5 +16,27 @@ public interface AuditLogRepositoryCustom {
                                   OffsetDateTime from,
                                   OffsetDateTime to,
                                   Pageable pageable);
+
+    /**
+     * Full-text search over {@code details} combined with the same filters as
+     * {@link #findByFilters}. Results are ranked by relevance and then
+     * recency, and keyset-paginated with the opaque {@code cursor} from the
+     * previous page.
+     */
+    KeysetPage<AuditLog> searchDetails(String query,
+                                       UUID userId,
+                                       String actionType,
+                                       OffsetDateTime from,
+                                       OffsetDateTime to,
+                                       String cursor,
+                                       int limit);
+
+    /**
+     * Inserts the events with one multi-row INSERT per
+     * {@code AuditLogRepositoryImpl.MAX_ROWS_PER_STATEMENT} rows.
+     *
+     * @return number of rows inserted
+     */
+    int insertBatch(List<AuditEvent> events);
 }
 
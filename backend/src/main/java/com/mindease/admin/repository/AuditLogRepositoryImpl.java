@@ -1,29 +1,48 @@
 package com.mindease.admin.repository;
 
+import com.mindease.admin.dto.KeysetPage;
+import com.mindease.admin.model.AuditEvent;
 import com.mindease.admin.model.AuditLog;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
 import jakarta.persistence.TypedQuery;
 import jakarta.persistence.criteria.CriteriaBuilder;
 import jakarta.persistence.criteria.CriteriaQuery;
 import jakarta.persistence.criteria.Predicate;
 import jakarta.persistence.criteria.Root;
+import com.mindease.shared.util.DatabaseDialect;
+import com.mindease.shared.util.KeysetCursor;
+import org.hibernate.query.TypedParameterValue;
+import org.hibernate.type.StandardBasicTypes;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 
 @Repository
 public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
 
+    // 5 bind parameters per row; stays well under the 32767-parameter protocol limit
+    static final int MAX_ROWS_PER_STATEMENT = 500;
+
     @PersistenceContext
     private EntityManager em;
 
+
     @Override
     public Slice<AuditLog> findByFilters(UUID userId,
                                          String actionType,
@@ -72,5 +91,139 @@ public class AuditLogRepositoryImpl implements AuditLogRepositoryCustom {
 
         return new SliceImpl<>(rows, pageable, hasNext);
     }
-}
 
+    @Override
+    public KeysetPage<AuditLog> searchDetails(String query,
+                                              UUID userId,
+                                              String actionType,
+                                              OffsetDateTime from,
+                                              OffsetDateTime to,
+                                              String cursorToken,
+                                              int limit) {
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        boolean fullText = DatabaseDialect.isPostgres(em);
+
+        // Same expression as idx_audit_logs_details_fts so the GIN index is used
+        String document = "to_tsvector('simple', COALESCE(a.details, ''))";
+        StringBuilder inner = new StringBuilder("SELECT a.id, a.created_at, ");
+        if (fullText) {
+            inner.append("ts_rank(").append(document).append(", q.query) AS score")
+                    .append(" FROM audit_logs a, websearch_to_tsquery('simple', :query) AS q(query)")
+                    .append(" WHERE ").append(document).append(" @@ q.query");
+        } else {
+            inner.append("CAST(0 AS REAL) AS score FROM audit_logs a WHERE LOWER(a.details) LIKE :query");
+        }
+        if (userId != null) {
+            inner.append(" AND a.user_id = :userId");
+        }
+        if (actionType != null && !actionType.isBlank()) {
+            inner.append(" AND a.action_type = :actionType");
+        }
+        if (from != null) {
+            inner.append(" AND a.created_at >= :from");
+        }
+        if (to != null) {
+            inner.append(" AND a.created_at <= :to");
+        }
+
+        StringBuilder sql = new StringBuilder("SELECT r.id, r.created_at, r.score FROM (").append(inner).append(") r");
+        if (cursor != null) {
+            sql.append(" WHERE r.score < :cursorScore OR (r.score = :cursorScore AND (r.created_at < :cursorAt")
+                    .append(" OR (r.created_at = :cursorAt AND r.id < :cursorId)))");
+        }
+        sql.append(" ORDER BY r.score DESC, r.created_at DESC, r.id DESC LIMIT :limit");
+
+        Query nativeQuery = em.createNativeQuery(sql.toString())
+                .setParameter("query", fullText ? query.trim() : DatabaseDialect.containsPattern(query.trim().toLowerCase(Locale.ROOT)))
+                .setParameter("limit", limit + 1);
+        if (userId != null) {
+            nativeQuery.setParameter("userId", userId);
+        }
+        if (actionType != null && !actionType.isBlank()) {
+            nativeQuery.setParameter("actionType", actionType);
+        }
+        if (from != null) {
+            nativeQuery.setParameter("from", from);
+        }
+        if (to != null) {
+            nativeQuery.setParameter("to", to);
+        }
+        if (cursor != null) {
+            nativeQuery.setParameter("cursorScore", cursor.score());
+            nativeQuery.setParameter("cursorAt", cursor.at().atOffset(ZoneOffset.UTC));
+            nativeQuery.setParameter("cursorId", cursor.id());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = nativeQuery.getResultList();
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+        if (rows.isEmpty()) {
+            return new KeysetPage<>(List.of(), null);
+        }
+
+        List<UUID> ids = rows.stream().map(r -> (UUID) r[0]).toList();
+        Map<UUID, AuditLog> byId = new HashMap<>();
+        for (AuditLog log : em.createQuery("SELECT a FROM AuditLog a WHERE a.id IN :ids", AuditLog.class)
+                .setParameter("ids", ids)
+                .getResultList()) {
+            byId.put(log.getId(), log);
+        }
+        List<AuditLog> items = ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+
+        String next = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            next = new KeysetCursor(((Number) last[2]).floatValue(), toInstant(last[1]), (UUID) last[0]).encode();
+        }
+        return new KeysetPage<>(items, next);
+    }
+
+    private static Instant toInstant(Object value) {
+        if (value instanceof OffsetDateTime odt) {
+            return odt.toInstant();
+        }
+        if (value instanceof Instant instant) {
+            return instant;
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant();
+        }
+        return OffsetDateTime.parse(value.toString()).toInstant();
+    }
+
+    @Override
+    @Transactional
+    public int insertBatch(List<AuditEvent> events) {
+        int inserted = 0;
+        for (int from = 0; from < events.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<AuditEvent> chunk = events.subList(from, Math.min(events.size(), from + MAX_ROWS_PER_STATEMENT));
+
+            StringBuilder sql = new StringBuilder(
+                    "INSERT INTO audit_logs (id, user_id, action_type, details, created_at) VALUES ");
+            for (int i = 0; i < chunk.size(); i++) {
+                int p = i * 5;
+                if (i > 0) {
+                    sql.append(", ");
+                }
+                sql.append("(?").append(p + 1).append(", ?").append(p + 2).append(", ?").append(p + 3)
+                        .append(", ?").append(p + 4).append(", ?").append(p + 5).append(')');
+            }
+
+            Query query = em.createNativeQuery(sql.toString());
+            for (int i = 0; i < chunk.size(); i++) {
+                AuditEvent e = chunk.get(i);
+                int p = i * 5;
+                query.setParameter(p + 1, e.id());
+                query.setParameter(p + 2, e.userId());
+                query.setParameter(p + 3, e.actionType());
+                query.setParameter(p + 4, new TypedParameterValue<>(StandardBasicTypes.STRING, e.details()));
+                query.setParameter(p + 5, e.createdAt());
+            }
+            inserted += query.executeUpdate();
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,118 @@
+package com.mindease.admin.repository;
+
+import com.mindease.admin.dto.TranscriptMessage;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Projection reads of chat messages for crisis review. Rows are mapped
+ * straight from native SQL, never hydrated as {@code Message} entities, and
+ * every read is bounded and keyset-ordered on {@code (created_at, id)} so it
+ * is served by {@code idx_messages_chat_session_created}.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class TranscriptRepository {
+
+    private static final String COLUMNS = "m.id, m.content, m.is_user_message, m.created_at";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * The message a flag raised at {@code at} most likely refers to: the
+     * latest user message at or before it, else the latest message of any
+     * kind, else the first message in the session.
+     */
+    public TranscriptMessage findAnchor(UUID chatId, LocalDateTime at) {
+        var latestUser = """
+            SELECT %s FROM messages m
+            WHERE m.chat_session_id = ?1 AND m.is_user_message = TRUE AND m.created_at <= ?2
+            ORDER BY m.created_at DESC, m.id DESC
+        """.formatted(COLUMNS);
+        var latestAny = """
+            SELECT %s FROM messages m
+            WHERE m.chat_session_id = ?1 AND m.created_at <= ?2
+            ORDER BY m.created_at DESC, m.id DESC
+        """.formatted(COLUMNS);
+        List<TranscriptMessage> rows = query(latestUser, 1, chatId, at);
+        if (rows.isEmpty()) {
+            rows = query(latestAny, 1, chatId, at);
+        }
+        if (rows.isEmpty()) {
+            rows = findAfter(chatId, null, null, 1);
+        }
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /** Up to {@code limit} messages strictly before {@code (at, id)}, newest first. */
+    public List<TranscriptMessage> findBefore(UUID chatId, LocalDateTime at, UUID id, int limit) {
+        var sql = """
+            SELECT %s FROM messages m
+            WHERE m.chat_session_id = ?1 AND (m.created_at, m.id) < (?2, ?3)
+            ORDER BY m.created_at DESC, m.id DESC
+        """.formatted(COLUMNS);
+        return query(sql, limit, chatId, at, id);
+    }
+
+    /**
+     * Up to {@code limit} messages strictly after {@code (at, id)}, oldest
+     * first; from the start of the session when {@code at} is {@code null}.
+     */
+    public List<TranscriptMessage> findAfter(UUID chatId, LocalDateTime at, UUID id, int limit) {
+        if (at == null) {
+            var sql = """
+                SELECT %s FROM messages m
+                WHERE m.chat_session_id = ?1
+                ORDER BY m.created_at, m.id
+            """.formatted(COLUMNS);
+            return query(sql, limit, chatId);
+        }
+        var sql = """
+            SELECT %s FROM messages m
+            WHERE m.chat_session_id = ?1 AND (m.created_at, m.id) > (?2, ?3)
+            ORDER BY m.created_at, m.id
+        """.formatted(COLUMNS);
+        return query(sql, limit, chatId, at, id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<TranscriptMessage> query(String sql, int limit, Object... params) {
+        var query = em.createNativeQuery(sql).setMaxResults(limit);
+        for (int i = 0; i < params.length; i++) {
+            query.setParameter(i + 1, params[i]);
+        }
+        List<Object[]> rows = query.getResultList();
+        List<TranscriptMessage> result = new ArrayList<>(rows.size());
+        for (Object[] r : rows) {
+            result.add(new TranscriptMessage(
+                    toUuid(r[0]),
+                    (String) r[1],
+                    Boolean.TRUE.equals(r[2]) ? "user" : "bot",
+                    toLocalDateTime(r[3])));
+        }
+        return result;
+    }
+
+    private static UUID toUuid(Object value) {
+        return value instanceof UUID u ? u : UUID.fromString(value.toString());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value instanceof LocalDateTime ldt) {
+            return ldt;
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toLocalDateTime();
+        }
+        return LocalDateTime.parse(value.toString());
+    }
+}
@@ -0,0 +1,246 @@
+package com.mindease.admin.repository;
+
+import com.mindease.admin.dto.KeysetPage;
+import com.mindease.admin.model.UserAdminStats;
+import com.mindease.shared.util.DatabaseDialect;
+import com.mindease.shared.util.KeysetCursor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Maintains and queries {@code user_admin_stats}, the denormalized
+ * last-active time and crisis flag count behind the admin user listing.
+ */
+@Repository
+public class UserAdminStatsRepository {
+
+    // 2 bind parameters per row
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    /** Sort keys accepted by {@link #findPage}; values are trusted SQL fragments. */
+    private static final Map<String, String> ORDER_BY = Map.of(
+            "createdat", "u.created_at DESC",
+            "lastactive", "s.last_active_at DESC NULLS LAST",
+            "crisisflags", "COALESCE(s.crisis_flag_count, 0) DESC",
+            "email", "LOWER(u.email) ASC");
+
+    @PersistenceContext
+    private EntityManager em;
+
+
+    /**
+     * Moves a user's last-active time forward; never backwards. Commits on
+     * its own ({@code REQUIRES_NEW}), so a failure here cannot mark the
+     * caller's transaction rollback-only.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void touchLastActive(UUID userId, OffsetDateTime at) {
+        touchLastActive(Map.of(userId, at));
+    }
+
+    /** Batch form of {@link #touchLastActive(UUID, OffsetDateTime)}, one statement per chunk. */
+    @Transactional
+    public void touchLastActive(Map<UUID, OffsetDateTime> lastActiveByUser) {
+        List<Map.Entry<UUID, OffsetDateTime>> entries = new ArrayList<>(lastActiveByUser.entrySet());
+        for (int from = 0; from < entries.size(); from += MAX_ROWS_PER_STATEMENT) {
+            List<Map.Entry<UUID, OffsetDateTime>> chunk =
+                    entries.subList(from, Math.min(entries.size(), from + MAX_ROWS_PER_STATEMENT));
+
+            StringBuilder values = new StringBuilder();
+            for (int i = 0; i < chunk.size(); i++) {
+                int p = i * 2;
+                if (i > 0) {
+                    values.append(", ");
+                }
+                values.append("(CAST(?").append(p + 1).append(" AS uuid), CAST(?").append(p + 2)
+                        .append(" AS timestamptz))");
+            }
+            // Join on users so ids without a user row (e.g. system events) are skipped, not FK errors
+            Query query = em.createNativeQuery("""
+                INSERT INTO user_admin_stats (user_id, last_active_at)
+                SELECT v.user_id, v.at
+                FROM (VALUES %s) AS v(user_id, at)
+                JOIN users u ON u.id = v.user_id
+                ON CONFLICT (user_id) DO UPDATE
+                SET last_active_at = GREATEST(user_admin_stats.last_active_at, EXCLUDED.last_active_at)
+            """.formatted(values));
+            for (int i = 0; i < chunk.size(); i++) {
+                query.setParameter(i * 2 + 1, chunk.get(i).getKey());
+                query.setParameter(i * 2 + 2, chunk.get(i).getValue());
+            }
+            query.executeUpdate();
+        }
+    }
+
+    /** Live, non-banned users seen at or after {@code activeSince}. */
+    @Transactional(readOnly = true)
+    public long countActive(OffsetDateTime activeSince) {
+        Object result = em.createNativeQuery("""
+            SELECT COUNT(*)
+            FROM user_admin_stats s
+            JOIN users u ON u.id = s.user_id
+            WHERE s.last_active_at >= :activeSince
+              AND u.deleted_at IS NULL AND u.banned = false
+        """)
+                .setParameter("activeSince", activeSince)
+                .getSingleResult();
+        return ((Number) result).longValue();
+    }
+
+    @Transactional
+    public void incrementCrisisFlags(UUID userId) {
+        em.createNativeQuery("""
+            INSERT INTO user_admin_stats (user_id, crisis_flag_count) VALUES (:userId, 1)
+            ON CONFLICT (user_id) DO UPDATE SET crisis_flag_count = user_admin_stats.crisis_flag_count + 1
+        """)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * One page of live (non-deleted) users with their stats, filtered by
+     * status ({@code all|active|inactive|banned}) and an optional email
+     * substring, counted and ordered in SQL.
+     */
+    @Transactional(readOnly = true)
+    public Page<UserAdminStats> findPage(String search, String status, String sort,
+            OffsetDateTime activeSince, Pageable pageable) {
+        StringBuilder where = new StringBuilder("u.deleted_at IS NULL");
+        boolean hasSearch = search != null && !search.isBlank();
+        if (hasSearch) {
+            where.append(" AND LOWER(u.email) LIKE :pattern");
+        }
+        boolean needsThreshold = false;
+        switch (status == null ? "all" : status) {
+            case "banned" -> where.append(" AND u.banned = true");
+            case "active" -> {
+                where.append(" AND u.banned = false AND s.last_active_at >= :activeSince");
+                needsThreshold = true;
+            }
+            case "inactive" -> {
+                where.append(" AND u.banned = false AND (s.last_active_at IS NULL OR s.last_active_at < :activeSince)");
+                needsThreshold = true;
+            }
+            default -> {
+                // all
+            }
+        }
+        String orderBy = ORDER_BY.getOrDefault(sort == null ? "" : sort.toLowerCase(Locale.ROOT),
+                ORDER_BY.get("createdat"));
+
+        String from = " FROM users u LEFT JOIN user_admin_stats s ON s.user_id = u.id WHERE " + where;
+        Query pageQuery = em.createNativeQuery(
+                "SELECT u.id, s.last_active_at, COALESCE(s.crisis_flag_count, 0)" + from
+                        + " ORDER BY " + orderBy + ", u.id LIMIT :limit OFFSET :offset");
+        Query countQuery = em.createNativeQuery("SELECT COUNT(*)" + from);
+        for (Query q : List.of(pageQuery, countQuery)) {
+            if (hasSearch) {
+                q.setParameter("pattern", DatabaseDialect.containsPattern(search.trim().toLowerCase(Locale.ROOT)));
+            }
+            if (needsThreshold) {
+                q.setParameter("activeSince", activeSince);
+            }
+        }
+        pageQuery.setParameter("limit", pageable.getPageSize());
+        pageQuery.setParameter("offset", pageable.getOffset());
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = pageQuery.getResultList();
+        List<UserAdminStats> content = rows.stream()
+                .map(r -> new UserAdminStats((UUID) r[0], toOffsetDateTime(r[1]), ((Number) r[2]).longValue()))
+                .toList();
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    /**
+     * Ranked email search: live users whose email contains {@code query} or
+     * is trigram-similar to it, best match first, keyset-paginated on
+     * {@code (similarity, id)}. On databases without pg_trgm (H2 in tests)
+     * only substring matches are returned, unranked.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<UserAdminStats> searchByEmail(String query, String cursorToken, int limit) {
+        String q = query.trim().toLowerCase(Locale.ROOT);
+        KeysetCursor cursor = KeysetCursor.decode(cursorToken);
+        boolean ranked = DatabaseDialect.isPostgres(em);
+
+        String score = ranked ? "similarity(LOWER(u.email), :q)" : "CAST(0 AS REAL)";
+        StringBuilder sql = new StringBuilder("SELECT u.id, s.last_active_at, COALESCE(s.crisis_flag_count, 0), ")
+                .append(score).append(" AS score")
+                .append(" FROM users u LEFT JOIN user_admin_stats s ON s.user_id = u.id")
+                .append(" WHERE u.deleted_at IS NULL AND (LOWER(u.email) LIKE :pattern");
+        if (ranked) {
+            sql.append(" OR LOWER(u.email) % :q");
+        }
+        sql.append(')');
+        if (cursor != null) {
+            sql.append(ranked
+                    ? " AND (" + score + " < :cursorScore OR (" + score + " = :cursorScore AND u.id < :cursorId))"
+                    : " AND u.id < :cursorId");
+        }
+        sql.append(" ORDER BY score DESC, u.id DESC LIMIT :limit");
+
+        Query nativeQuery = em.createNativeQuery(sql.toString())
+                .setParameter("pattern", DatabaseDialect.containsPattern(q))
+                .setParameter("limit", limit + 1);
+        if (ranked) {
+            nativeQuery.setParameter("q", q);
+        }
+        if (cursor != null) {
+            nativeQuery.setParameter("cursorId", cursor.id());
+            if (ranked) {
+                nativeQuery.setParameter("cursorScore", cursor.score());
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = nativeQuery.getResultList();
+        boolean hasNext = rows.size() > limit;
+        if (hasNext) {
+            rows = rows.subList(0, limit);
+        }
+        List<UserAdminStats> items = rows.stream()
+                .map(r -> new UserAdminStats((UUID) r[0], toOffsetDateTime(r[1]), ((Number) r[2]).longValue()))
+                .toList();
+        String next = null;
+        if (hasNext) {
+            Object[] last = rows.get(rows.size() - 1);
+            next = new KeysetCursor(((Number) last[3]).floatValue(), Instant.EPOCH, (UUID) last[0]).encode();
+        }
+        return new KeysetPage<>(items, next);
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return odt;
+        }
+        if (value instanceof Instant instant) {
+            return instant.atOffset(ZoneOffset.UTC);
+        }
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant().atOffset(ZoneOffset.UTC);
+        }
+        return OffsetDateTime.parse(value.toString());
+    }
+}
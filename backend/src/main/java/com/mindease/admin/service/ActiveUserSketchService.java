@@ -0,0 +1,124 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.repository.ActiveUserSketchRepository;
+import com.mindease.shared.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Distinct-user analytics over per-day {@link HyperLogLog} sketches.
+ *
+ * Audited user ids are folded into in-memory sketches per UTC day and merged
+ * into {@code daily_active_user_sketches} every
+ * {@code analytics.sketch.flush-interval-ms}. When a day is closed the rollup
+ * job replaces its sketch with one rebuilt from the exact rollup. A range
+ * query merges one sketch per day, so its cost grows with days, not events.
+ *
+ * Distinct counts carry a relative standard error of about 0.81%
+ * ({@link HyperLogLog#standardError}); retention is an intersection estimate
+ * whose absolute error is about that fraction of the union of both periods.
+ */
+@Service
+public class ActiveUserSketchService {
+
+    private static final Logger log = LoggerFactory.getLogger(ActiveUserSketchService.class);
+
+    private final ActiveUserSketchRepository repository;
+    private final Map<LocalDate, HyperLogLog> pending = new ConcurrentHashMap<>();
+
+    public ActiveUserSketchService(ActiveUserSketchRepository repository) {
+        this.repository = repository;
+    }
+
+    /** Counts {@code userId} as active on the UTC day of {@code at}. Thread-safe. */
+    public void record(UUID userId, OffsetDateTime at) {
+        if (userId == null || at == null) {
+            return;
+        }
+        LocalDate day = at.withOffsetSameInstant(ZoneOffset.UTC).toLocalDate();
+        pending.compute(day, (d, sketch) -> {
+            HyperLogLog s = sketch != null ? sketch : new HyperLogLog();
+            s.add(userId);
+            return s;
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.sketch.flush-interval-ms:60000}")
+    @PreDestroy
+    public void flush() {
+        for (LocalDate day : List.copyOf(pending.keySet())) {
+            HyperLogLog sketch = pending.remove(day);
+            if (sketch == null) {
+                continue;
+            }
+            try {
+                repository.merge(day, sketch);
+            } catch (Exception e) {
+                log.warn("Failed to persist active-user sketch for {}; will retry", day, e);
+                pending.merge(day, sketch, (current, failed) -> {
+                    current.merge(failed);
+                    return current;
+                });
+            }
+        }
+    }
+
+    /** Rebuilds the sketch for a closed day from {@code daily_user_activity}. */
+    public void rebuildDay(LocalDate day) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (UUID userId : repository.activeUserIds(day)) {
+            sketch.add(userId);
+        }
+        repository.replace(day, sketch);
+    }
+
+    /** Approximate number of distinct users active on any UTC day in {@code [from, to]}. */
+    public long distinctUsers(LocalDate from, LocalDate to) {
+        return union(from, to).estimate();
+    }
+
+    /**
+     * Fraction of users active in the cohort period who are active again in
+     * the return period, or {@code null} when the cohort is empty.
+     */
+    public Double retention(LocalDate cohortFrom, LocalDate cohortTo, LocalDate returnFrom, LocalDate returnTo) {
+        HyperLogLog cohort = union(cohortFrom, cohortTo);
+        long cohortSize = cohort.estimate();
+        if (cohortSize == 0) {
+            return null;
+        }
+        long retained = HyperLogLog.intersection(cohort, union(returnFrom, returnTo));
+        return Math.min(1.0, (double) retained / cohortSize);
+    }
+
+    /** Day-N retention: share of {@code cohortDay}'s active users who are active on day N. */
+    public Double dayNRetention(LocalDate cohortDay, int n) {
+        LocalDate returnDay = cohortDay.plusDays(n);
+        return retention(cohortDay, cohortDay, returnDay, returnDay);
+    }
+
+    private HyperLogLog union(LocalDate from, LocalDate to) {
+        HyperLogLog union = repository.union(from, to);
+        // Include events not yet flushed so today's numbers are current
+        for (LocalDate day : pending.keySet()) {
+            if (!day.isBefore(from) && !day.isAfter(to)) {
+                pending.computeIfPresent(day, (d, sketch) -> {
+                    union.merge(sketch);
+                    return sketch;
+                });
+            }
+        }
+        return union;
+    }
+}
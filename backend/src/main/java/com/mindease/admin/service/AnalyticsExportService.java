@@ -0,0 +1,234 @@
+package com.mindease.admin.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mindease.admin.repository.AnalyticsExportRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.time.temporal.TemporalAccessor;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes analytics exports as gzipped CSV or NDJSON straight to the response
+ * stream, one row at a time.
+ *
+ * Every dataset, raw events and daily series alike, comes from a
+ * forward-only JDBC cursor, so memory stays flat however long the range is.
+ * Errors after the first byte cannot change the status code; they abort the
+ * stream instead, leaving a truncated gzip that clients reject.
+ */
+@Service
+public class AnalyticsExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsExportService.class);
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    public enum Dataset {
+        ACTIVE_USERS("day", "active_users"),
+        AI_USAGE("day", "calls"),
+        MOOD_CORRELATION("day", "avg_mood", "chat_count"),
+        CRISIS_FLAGS("id", "user_id", "chat_id", "keyword_detected", "risk_score", "status", "escalated",
+                "created_at"),
+        AUDIT_LOGS("id", "user_id", "action_type", "details", "created_at");
+
+        private final List<String> columns;
+
+        Dataset(String... columns) {
+            this.columns = List.of(columns);
+        }
+
+        public List<String> columns() {
+            return columns;
+        }
+
+        public String fileName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+
+        public static Dataset parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unknown export dataset: " + value);
+            }
+        }
+    }
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String mediaType;
+        private final String extension;
+
+        Format(String mediaType, String extension) {
+            this.mediaType = mediaType;
+            this.extension = extension;
+        }
+
+        public String mediaType() {
+            return mediaType;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Unknown export format: " + value);
+            }
+        }
+    }
+
+    private final AnalyticsExportRepository exportRepository;
+    private final ObjectWriter jsonWriter;
+
+    public AnalyticsExportService(AnalyticsExportRepository exportRepository, ObjectMapper objectMapper) {
+        this.exportRepository = exportRepository;
+        this.jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    /** Writes the export gzipped to {@code out}, which is left open. Returns the number of rows. */
+    public long export(Dataset dataset, Format format, OffsetDateTime from, OffsetDateTime to, OutputStream out)
+            throws IOException {
+        long start = System.nanoTime();
+        GZIPOutputStream gzip = new GZIPOutputStream(out, BUFFER_BYTES);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_BYTES);
+        RowWriter rows = format == Format.CSV
+                ? new CsvRowWriter(writer, dataset.columns())
+                : new NdjsonRowWriter(writer, dataset.columns(), jsonWriter);
+
+        long count;
+        try {
+            count = switch (dataset) {
+                case ACTIVE_USERS -> exportRepository.streamDailyActiveUsers(from, to,
+                        rs -> rows.write(values(rs, 2)));
+                case AI_USAGE -> exportRepository.streamDailyAiUsage(from, to, rs -> rows.write(values(rs, 2)));
+                case MOOD_CORRELATION -> exportRepository.streamMoodCorrelation(from, to,
+                        rs -> rows.write(values(rs, 3)));
+                case CRISIS_FLAGS -> exportRepository.streamCrisisFlags(from, to, rs -> rows.write(values(rs, 8)));
+                case AUDIT_LOGS -> exportRepository.streamAuditLogs(from, to, rs -> rows.write(values(rs, 5)));
+            };
+        } catch (SQLException e) {
+            throw new IOException("Export query failed for " + dataset, e);
+        }
+        writer.flush();
+        gzip.finish();
+        log.info("Exported {} {} rows as {} in {}ms", count, dataset, format,
+                (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private static Object[] values(ResultSet rs, int columns) throws SQLException {
+        Object[] row = new Object[columns];
+        for (int i = 0; i < columns; i++) {
+            row[i] = rs.getObject(i + 1);
+        }
+        return row;
+    }
+
+    /** Normalizes JDBC values: timestamps as ISO-8601 instants, UUIDs and dates as strings. */
+    static Object normalize(Object value) {
+        if (value instanceof Timestamp ts) {
+            return ts.toInstant().toString();
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return odt.toInstant().toString();
+        }
+        if (value instanceof TemporalAccessor || value instanceof java.util.UUID) {
+            return value.toString();
+        }
+        return value;
+    }
+
+    abstract static class RowWriter {
+        final Writer out;
+        final List<String> columns;
+
+        RowWriter(Writer out, List<String> columns) {
+            this.out = out;
+            this.columns = columns;
+        }
+
+        abstract void write(Object[] row) throws IOException;
+    }
+
+    static final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer out, List<String> columns) throws IOException {
+            super(out, columns);
+            out.write(String.join(",", columns));
+            out.write("\r\n");
+        }
+
+        @Override
+        void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                Object value = normalize(row[i]);
+                if (value != null) {
+                    out.write(value instanceof String s ? escape(s) : value.toString());
+                }
+            }
+            out.write("\r\n");
+        }
+
+        /** RFC 4180 quoting, plus a leading quote on values a spreadsheet would run as a formula. */
+        static String escape(String value) {
+            String v = value;
+            if (!v.isEmpty() && "=+-@\t\r".indexOf(v.charAt(0)) >= 0) {
+                v = "'" + v;
+            }
+            boolean quote = false;
+            for (int i = 0; i < v.length() && !quote; i++) {
+                char c = v.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            return quote ? '"' + v.replace("\"", "\"\"") + '"' : v;
+        }
+    }
+
+    static final class NdjsonRowWriter extends RowWriter {
+        private final ObjectWriter json;
+        private final Map<String, Object> record = new LinkedHashMap<>();
+
+        NdjsonRowWriter(Writer out, List<String> columns, ObjectWriter json) {
+            super(out, columns);
+            this.json = json;
+        }
+
+        @Override
+        void write(Object[] row) throws IOException {
+            for (int i = 0; i < row.length; i++) {
+                record.put(columns.get(i), normalize(row[i]));
+            }
+            json.writeValue(out, record);
+            out.write('\n');
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.repository.ActiveUserSketchRepository;
+import com.mindease.admin.repository.AnalyticsRollupRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Closes off completed UTC days into the daily rollup tables read by
+ * {@link com.mindease.admin.repository.AnalyticsRepository}.
+ *
+ * Each run closes every day after the watermark up to yesterday, and
+ * re-closes the last {@code reclose-days} already-closed days so late writes
+ * (batched audit flushes, Python jobs) are folded in. Each closed day's
+ * active-user sketch is rebuilt from the exact rollup. The scheduled run
+ * happens on one node of the cluster.
+ */
+@Service
+public class AnalyticsRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(AnalyticsRollupService.class);
+
+    private static final JobSpec JOB = JobSpec.of("analytics-rollup", Duration.ofHours(1));
+
+    private final AnalyticsRollupRepository rollupRepository;
+    private final ActiveUserSketchService activeUserSketches;
+    private final ActiveUserSketchRepository sketchRepository;
+    private final ClusterJobRunner clusterJobRunner;
+    private final int recloseDays;
+    private final Clock clock;
+
+    public AnalyticsRollupService(AnalyticsRollupRepository rollupRepository,
+            ActiveUserSketchService activeUserSketches,
+            ActiveUserSketchRepository sketchRepository,
+            ClusterJobRunner clusterJobRunner,
+            @Value("${analytics.rollup.reclose-days:1}") int recloseDays) {
+        this(rollupRepository, activeUserSketches, sketchRepository, clusterJobRunner, recloseDays,
+                Clock.systemUTC());
+    }
+
+    AnalyticsRollupService(AnalyticsRollupRepository rollupRepository,
+            ActiveUserSketchService activeUserSketches,
+            ActiveUserSketchRepository sketchRepository,
+            ClusterJobRunner clusterJobRunner,
+            int recloseDays, Clock clock) {
+        this.rollupRepository = rollupRepository;
+        this.activeUserSketches = activeUserSketches;
+        this.sketchRepository = sketchRepository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.recloseDays = Math.max(0, recloseDays);
+        this.clock = clock;
+    }
+
+    @Scheduled(cron = "${analytics.rollup.cron:0 10 0 * * ?}", zone = "UTC")
+    public void closeCompletedDaysOnCluster() {
+        clusterJobRunner.run(JOB, ctx -> closeCompletedDays());
+    }
+
+    /** Closes the pending days on this node and returns how many were closed. */
+    public int closeCompletedDays() {
+        LocalDate yesterday = LocalDate.now(clock.withZone(ZoneOffset.UTC)).minusDays(1);
+        LocalDate lastClosed = rollupRepository.lastClosedDay();
+
+        LocalDate start;
+        if (lastClosed != null) {
+            start = lastClosed.plusDays(1).minusDays(recloseDays);
+        } else {
+            start = rollupRepository.earliestActivityDay();
+            if (start == null) {
+                start = yesterday;
+            }
+        }
+
+        int closed = 0;
+        long begin = System.currentTimeMillis();
+        for (LocalDate day = start; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            try {
+                rollupRepository.closeDay(day);
+                activeUserSketches.rebuildDay(day);
+                closed++;
+            } catch (Exception e) {
+                // Stop at the first failure so the watermark never skips a day
+                log.error("Failed to close analytics rollups for {}", day, e);
+                break;
+            }
+        }
+        try {
+            for (LocalDate day : sketchRepository.closedDaysWithoutSketch()) {
+                activeUserSketches.rebuildDay(day);
+            }
+        } catch (Exception e) {
+            log.error("Failed to backfill active-user sketches", e);
+        }
+        if (closed > 0) {
+            log.info("Closed {} analytics rollup day(s) through {} in {}ms", closed, yesterday,
+                    System.currentTimeMillis() - begin);
+        }
+        return closed;
+    }
+}
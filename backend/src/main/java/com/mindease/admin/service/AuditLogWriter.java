@@ -0,0 +1,250 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.model.AuditEvent;
+import com.mindease.admin.repository.AuditLogRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
+import com.mindease.shared.util.MpscRingBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Write-behind audit pipeline. Request threads enqueue into a bounded
+ * lock-free ring buffer; a single dedicated thread drains it and writes one
+ * multi-row INSERT per batch, either when {@code batch-size} events are
+ * queued or {@code flush-interval-ms} after the oldest queued event.
+ *
+ * When the ring is full the configured {@link OverflowPolicy} applies. All
+ * outcomes are counted under {@code audit.writer.events}; flush latency is
+ * timed under {@code audit.writer.flush}. Written events also feed the
+ * daily active-user sketches and {@code user_admin_stats.last_active_at}.
+ */
+@Component
+public class AuditLogWriter implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLogWriter.class);
+    private static final long SHUTDOWN_TIMEOUT_MS = 5000;
+
+    // Below the web server's start/stop and graceful-shutdown phases, so the writer
+    // starts before requests arrive and drains only after in-flight requests finished
+    static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    public enum OverflowPolicy {
+        /** Discard the new event and count it; request threads never wait on the database. */
+        DROP,
+        /** Insert the event synchronously on the calling thread; nothing is lost, callers absorb the latency. */
+        CALLER_RUNS
+    }
+
+    private final AuditLogRepository repo;
+    private final ActiveUserSketchService activeUsers;
+    private final UserAdminStatsRepository userAdminStats;
+    private final MpscRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final Counter enqueued;
+    private final Counter dropped;
+    private final Counter callerRuns;
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    private volatile boolean running;
+    private volatile boolean stopped;
+    private volatile Thread drainThread;
+
+    public AuditLogWriter(AuditLogRepository repo,
+            ActiveUserSketchService activeUsers,
+            UserAdminStatsRepository userAdminStats,
+            MeterRegistry meterRegistry,
+            @Value("${audit.writer.capacity:8192}") int capacity,
+            @Value("${audit.writer.batch-size:256}") int batchSize,
+            @Value("${audit.writer.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.writer.overflow-policy:DROP}") OverflowPolicy overflowPolicy) {
+        this.repo = repo;
+        this.activeUsers = activeUsers;
+        this.userAdminStats = userAdminStats;
+        this.buffer = new MpscRingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = overflowPolicy;
+
+        this.enqueued = eventCounter(meterRegistry, "enqueued");
+        this.dropped = eventCounter(meterRegistry, "dropped");
+        this.callerRuns = eventCounter(meterRegistry, "caller_runs");
+        this.written = eventCounter(meterRegistry, "written");
+        this.failed = eventCounter(meterRegistry, "failed");
+        this.flushTimer = Timer.builder("audit.writer.flush")
+                .description("Latency of one batched audit INSERT")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("audit.writer.batch.size")
+                .description("Audit events written per flush")
+                .register(meterRegistry);
+        Gauge.builder("audit.writer.queue.size", buffer, MpscRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    private static Counter eventCounter(MeterRegistry registry, String outcome) {
+        return Counter.builder("audit.writer.events").tag("outcome", outcome).register(registry);
+    }
+
+    /**
+     * Queues an event without blocking. Returns {@code false} if it was
+     * dropped under the {@link OverflowPolicy#DROP} policy.
+     */
+    public boolean enqueue(AuditEvent event) {
+        if (stopped) {
+            // The drain thread is gone; write directly rather than strand the event
+            callerRuns.increment();
+            flush(List.of(event));
+            return true;
+        }
+        if (buffer.offer(event)) {
+            enqueued.increment();
+            if (buffer.size() >= batchSize) {
+                Thread t = drainThread;
+                if (t != null) {
+                    LockSupport.unpark(t);
+                }
+            }
+            return true;
+        }
+        if (overflowPolicy == OverflowPolicy.CALLER_RUNS) {
+            callerRuns.increment();
+            flush(List.of(event));
+            return true;
+        }
+        dropped.increment();
+        log.debug("Audit buffer full; dropped {} event for userId={}", event.actionType(), event.userId());
+        return false;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        stopped = false;
+        Thread t = new Thread(this::drainLoop, "audit-writer");
+        t.setDaemon(true);
+        drainThread = t;
+        t.start();
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        Thread t = drainThread;
+        LockSupport.unpark(t);
+        try {
+            t.join(SHUTDOWN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        stopped = true;
+        if (t.isAlive()) {
+            log.warn("Audit writer did not drain within {}ms; {} events pending", SHUTDOWN_TIMEOUT_MS, buffer.size());
+        } else {
+            // Anything that slipped in while the drain thread was finishing
+            List<AuditEvent> leftover = new ArrayList<>();
+            buffer.drainTo(leftover, Integer.MAX_VALUE);
+            if (!leftover.isEmpty()) {
+                flush(leftover);
+            }
+        }
+        drainThread = null;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        long oldestQueuedAt = 0;
+        while (running || !buffer.isEmpty() || !batch.isEmpty()) {
+            int drained = buffer.drainTo(batch, batchSize - batch.size());
+            if (drained > 0 && batch.size() == drained) {
+                oldestQueuedAt = System.nanoTime();
+            }
+            if (batch.isEmpty()) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+                continue;
+            }
+            long waited = System.nanoTime() - oldestQueuedAt;
+            if (batch.size() >= batchSize || waited >= flushIntervalNanos || !running) {
+                // The batch list is reused; hand the repository its own copy
+                flush(List.copyOf(batch));
+                batch.clear();
+            } else if (drained == 0) {
+                LockSupport.parkNanos(this, flushIntervalNanos - waited);
+            }
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        long start = System.nanoTime();
+        try {
+            int rows = repo.insertBatch(batch);
+            written.increment(rows);
+            batchSizes.record(rows);
+        } catch (Exception e) {
+            failed.increment(batch.size());
+            log.error("Failed to write batch of {} audit events", batch.size(), e);
+            return;
+        } finally {
+            flushTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        updateDerivedStats(batch);
+    }
+
+    /** Feeds written events into the active-user sketches and per-user last-active times. */
+    private void updateDerivedStats(List<AuditEvent> batch) {
+        Map<UUID, OffsetDateTime> lastActive = new HashMap<>();
+        for (AuditEvent event : batch) {
+            activeUsers.record(event.userId(), event.createdAt());
+            if (event.userId() != null) {
+                lastActive.merge(event.userId(), event.createdAt(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        if (lastActive.isEmpty()) {
+            return;
+        }
+        try {
+            userAdminStats.touchLastActive(lastActive);
+        } catch (Exception e) {
+            log.warn("Failed to update last-active times for {} users", lastActive.size(), e);
+        }
+    }
+}
@@ -1,10 +1,8 @@
 package com.mindease.admin.service;
 
-import com.mindease.admin.model.AuditLog;
-import com.mindease.admin.repository.AuditLogRepository;
+import com.mindease.admin.model.AuditEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
@@ -19,32 +17,29 @@ public class AuditService {
     private static final String ACTION_JOURNAL_ADDED = "JOURNAL_ADDED";
     private static final int DETAILS_MAX = 4000;
 
-    private final AuditLogRepository repo;
+    private final AuditLogWriter writer;
 
-    public AuditService(AuditLogRepository repo) {
-        this.repo = repo;
+    public AuditService(AuditLogWriter writer) {
+        this.writer = writer;
     }
 
-    @Async
+    /**
+     * Queues an audit row for the batched {@link AuditLogWriter}; never blocks
+     * on the database.
+     */
     public void logAction(UUID userId, String actionType, String details) {
         if (userId == null || actionType == null) {
             log.error("Failed to log audit action: userId or actionType is null");
             return;
         }
         try {
-            AuditLog auditLog = new AuditLog();
-            auditLog.setUserId(userId);
-            auditLog.setActionType(actionType);
-
             if (details != null && details.length() > DETAILS_MAX) {
-                auditLog.setDetails(details.substring(0, DETAILS_MAX));
+                details = details.substring(0, DETAILS_MAX);
                 log.warn("Audit details truncated for userId={}, actionType={}", userId, actionType);
-            } else {
-                auditLog.setDetails(details);
             }
-            repo.save(auditLog);
+            writer.enqueue(AuditEvent.of(userId, actionType, details));
         } catch (Exception e) {
-            log.error("Failed to persist audit log for userId={}, actionType={}", userId, actionType, e);
+            log.error("Failed to queue audit log for userId={}, actionType={}", userId, actionType, e);
         }
     }
 
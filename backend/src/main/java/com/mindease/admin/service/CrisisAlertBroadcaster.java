@@ -0,0 +1,336 @@
+package com.mindease.admin.service;
+
+import com.mindease.crisis.model.CrisisFlag;
+import com.mindease.shared.events.CrisisFlagCreatedEvent;
+import com.mindease.shared.util.DaemonThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans crisis flags out to admin SSE subscribers without blocking the
+ * publishing thread.
+ *
+ * Each subscriber has a bounded queue drained by a writer pool, at most one
+ * drain task per subscriber at a time. The pool keeps {@code writer-threads}
+ * threads and grows by one for each write blocked on a stalled socket, so a
+ * stalled browser only ever holds its own queue and thread. A subscriber
+ * whose queue overflows, or whose write has been blocked for longer than
+ * {@code send-timeout-ms}, is evicted and its browser reconnects. Heartbeat
+ * comments keep proxies from closing idle streams and also expose dead
+ * connections.
+ *
+ * The last {@code replay-size} flags are kept in a ring. Event ids are
+ * {@code <boot>-<seq>}: a reconnecting EventSource sends the last id it saw
+ * as {@code Last-Event-ID} and gets every retained flag after it, or a
+ * {@code resync} event when the gap is older than the ring or spans a
+ * restart.
+ */
+@Component
+public class CrisisAlertBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(CrisisAlertBroadcaster.class);
+
+    static final String EVENT_FLAG = "flag";
+    static final String EVENT_OPEN = "open";
+    static final String EVENT_RESYNC = "resync";
+
+    private record Outbound(String id, String name, Object data, boolean comment) {
+
+        static Outbound event(String id, String name, Object data) {
+            return new Outbound(id, name, data, false);
+        }
+
+        static Outbound heartbeat() {
+            return new Outbound(null, null, "keepalive", true);
+        }
+
+        SseEmitter.SseEventBuilder toSse() {
+            if (comment) {
+                return SseEmitter.event().comment((String) data);
+            }
+            SseEmitter.SseEventBuilder builder = SseEmitter.event().name(name).data(data);
+            return id != null ? builder.id(id) : builder;
+        }
+    }
+
+    private record RecentFlag(long seq, Outbound event) {
+    }
+
+    private final class Subscriber {
+        final long id;
+        final SseEmitter emitter;
+        final ArrayBlockingQueue<Outbound> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean released = new AtomicBoolean();
+        volatile long sendStartedAt; // System.nanoTime() of the write in progress, 0 when idle
+        volatile boolean closed;
+
+        Subscriber(long id, SseEmitter emitter) {
+            this.id = id;
+            this.emitter = emitter;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    private final int maxSubscribers;
+    private final int queueCapacity;
+    private final int replaySize;
+    private final long sendTimeoutMs;
+    private final String bootId = Long.toString(System.currentTimeMillis(), 36);
+
+    private final Map<Long, Subscriber> subscribers = new ConcurrentHashMap<>();
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicInteger reserved = new AtomicInteger(); // slots taken, including subscribers still opening
+    private final ArrayDeque<RecentFlag> recent;
+    private long seq; // guarded by recent
+
+    private final ExecutorService writers;
+    private final ScheduledExecutorService heartbeats;
+    private final Counter evictedSlow;
+    private final Counter evictedFailed;
+
+    public CrisisAlertBroadcaster(MeterRegistry meterRegistry,
+            @Value("${crisis.alert-stream.max-subscribers:1000}") int maxSubscribers,
+            @Value("${crisis.alert-stream.queue-capacity:64}") int queueCapacity,
+            @Value("${crisis.alert-stream.replay-size:256}") int replaySize,
+            @Value("${crisis.alert-stream.heartbeat-interval-ms:15000}") long heartbeatIntervalMs,
+            @Value("${crisis.alert-stream.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${crisis.alert-stream.writer-threads:2}") int writerThreads) {
+        this.maxSubscribers = maxSubscribers;
+        this.queueCapacity = queueCapacity;
+        this.replaySize = replaySize;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.recent = new ArrayDeque<>(replaySize);
+        // No queue: a drain task gets a free thread or a new one, never waits behind a blocked write
+        this.writers = new ThreadPoolExecutor(writerThreads, Math.max(writerThreads, maxSubscribers),
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), DaemonThreads.named("crisis-sse-writer"));
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(DaemonThreads.named("crisis-sse-heartbeat"));
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeatIntervalMs, heartbeatIntervalMs,
+                TimeUnit.MILLISECONDS);
+        heartbeats.scheduleAtFixedRate(this::evictBlocked, sendTimeoutMs, sendTimeoutMs, TimeUnit.MILLISECONDS);
+
+        Gauge.builder("crisis.alerts.subscribers", subscribers, Map::size)
+                .description("Connected admin crisis-alert SSE subscribers")
+                .register(meterRegistry);
+        this.evictedSlow = Counter.builder("crisis.alerts.evicted").tag("reason", "slow")
+                .register(meterRegistry);
+        this.evictedFailed = Counter.builder("crisis.alerts.evicted").tag("reason", "failed")
+                .register(meterRegistry);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * Opens a stream, replaying flags after {@code lastEventId} when given.
+     *
+     * @throws IllegalStateException when {@code max-subscribers} are connected
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        if (reserved.incrementAndGet() > maxSubscribers) {
+            reserved.decrementAndGet();
+            throw new IllegalStateException("Maximum SSE subscribers reached");
+        }
+        SseEmitter emitter;
+        try {
+            emitter = newEmitter();
+        } catch (RuntimeException e) {
+            reserved.decrementAndGet();
+            throw e;
+        }
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+
+        // Replay and registration happen under the ring lock so no flag is missed or repeated
+        synchronized (recent) {
+            subscriber.queue.offer(Outbound.event(null, EVENT_OPEN, "ok"));
+            replay(subscriber, lastEventId);
+            subscribers.put(subscriber.id, subscriber);
+        }
+        schedule(subscriber);
+        return emitter;
+    }
+
+    /** No timeout; heartbeats detect dead clients. Overridable for tests. */
+    protected SseEmitter newEmitter() {
+        return new SseEmitter(0L);
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return;
+        }
+        long lastSeq = parseSeq(lastEventId);
+        long oldest = recent.isEmpty() ? seq + 1 : recent.peekFirst().seq();
+        if (lastSeq < 0 || lastSeq + 1 < oldest) {
+            subscriber.queue.offer(Outbound.event(null, EVENT_RESYNC, "missed events; reload"));
+            if (lastSeq < 0) {
+                return;
+            }
+        }
+        for (RecentFlag flag : recent) {
+            if (flag.seq() > lastSeq && !subscriber.queue.offer(flag.event())) {
+                // More missed flags than the queue holds: ask for a reload instead
+                subscriber.queue.clear();
+                subscriber.queue.offer(Outbound.event(null, EVENT_RESYNC, "missed events; reload"));
+                return;
+            }
+        }
+    }
+
+    /** Sequence number of an id from this boot, or -1 if it is from another boot or malformed. */
+    private long parseSeq(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash <= 0 || !eventId.substring(0, dash).equals(bootId)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNewFlag(CrisisFlagCreatedEvent evt) {
+        publish(evt.getFlag());
+    }
+
+    /** Records the flag for replay and queues it for every subscriber; never blocks on I/O. */
+    public void publish(CrisisFlag flag) {
+        synchronized (recent) {
+            long next = ++seq;
+            Outbound event = Outbound.event(bootId + "-" + next, EVENT_FLAG, flag);
+            if (recent.size() == replaySize) {
+                recent.pollFirst();
+            }
+            recent.addLast(new RecentFlag(next, event));
+            for (Subscriber subscriber : subscribers.values()) {
+                enqueue(subscriber, event);
+            }
+        }
+    }
+
+    private void heartbeat() {
+        Outbound ping = Outbound.heartbeat();
+        for (Subscriber subscriber : subscribers.values()) {
+            enqueue(subscriber, ping);
+        }
+    }
+
+    /** Evicts subscribers whose current write has been blocked for longer than {@code send-timeout-ms}. */
+    private void evictBlocked() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers.values()) {
+            long started = subscriber.sendStartedAt;
+            if (started != 0 && now - started > TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs)) {
+                evictedSlow.increment();
+                log.info("Evicting crisis-alert subscriber {}: write blocked for over {}ms", subscriber.id,
+                        sendTimeoutMs);
+                // The emitter is completed by its writer once the blocked write returns
+                remove(subscriber);
+            }
+        }
+    }
+
+    private void enqueue(Subscriber subscriber, Outbound event) {
+        if (subscriber.closed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            evictedSlow.increment();
+            log.info("Evicting slow crisis-alert subscriber {} ({} events queued)", subscriber.id, queueCapacity);
+            remove(subscriber);
+            // Completing waits for the emitter's write lock, so leave it to the writer
+            schedule(subscriber);
+            return;
+        }
+        schedule(subscriber);
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            try {
+                writers.execute(() -> drain(subscriber));
+            } catch (RuntimeException e) {
+                subscriber.draining.set(false); // executor shut down
+            }
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            Outbound event;
+            while (!subscriber.closed && (event = subscriber.queue.poll()) != null) {
+                subscriber.sendStartedAt = System.nanoTime();
+                subscriber.emitter.send(event.toSse());
+                subscriber.sendStartedAt = 0;
+            }
+        } catch (Exception e) {
+            if (!subscriber.closed) {
+                evictedFailed.increment();
+                log.debug("Crisis-alert subscriber {} disconnected: {}", subscriber.id, e.getMessage());
+            }
+            remove(subscriber);
+        } finally {
+            subscriber.sendStartedAt = 0;
+            subscriber.draining.set(false);
+            if (subscriber.closed) {
+                close(subscriber);
+            } else if (!subscriber.queue.isEmpty()) {
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        remove(subscriber);
+        try {
+            subscriber.emitter.complete();
+        } catch (Exception ignored) {
+            // already completed
+        }
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscriber.closed = true;
+        subscriber.queue.clear();
+        subscribers.remove(subscriber.id);
+        if (subscriber.released.compareAndSet(false, true)) {
+            reserved.decrementAndGet();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(this::close);
+        writers.shutdown();
+    }
+}
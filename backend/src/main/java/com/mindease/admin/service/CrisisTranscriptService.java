@@ -0,0 +1,134 @@
+package com.mindease.admin.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mindease.admin.dto.TranscriptMessage;
+import com.mindease.admin.dto.TranscriptWindow;
+import com.mindease.admin.repository.TranscriptRepository;
+import com.mindease.crisis.model.CrisisFlag;
+import com.mindease.shared.util.KeysetCursor;
+import com.mindease.shared.util.StoredTime;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Crisis-review transcripts without loading whole sessions.
+ *
+ * {@link #window} returns a bounded slice around the message that triggered
+ * the flag. {@link #stream} writes the full session as NDJSON, fetching
+ * {@code stream-chunk-size} rows at a time by keyset; every line carries the
+ * cursor to resume after it.
+ */
+@Service
+public class CrisisTranscriptService {
+
+    private final TranscriptRepository transcriptRepository;
+    private final ObjectWriter jsonWriter;
+    private final int defaultWindow;
+    private final int maxWindow;
+    private final int chunkSize;
+
+    public CrisisTranscriptService(TranscriptRepository transcriptRepository,
+            ObjectMapper objectMapper,
+            @Value("${crisis.transcript.default-window:25}") int defaultWindow,
+            @Value("${crisis.transcript.max-window:200}") int maxWindow,
+            @Value("${crisis.transcript.stream-chunk-size:500}") int chunkSize) {
+        this.transcriptRepository = transcriptRepository;
+        this.jsonWriter = objectMapper.writer()
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.defaultWindow = defaultWindow;
+        this.maxWindow = maxWindow;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Up to {@code before} messages before the anchor, the anchor, and up to
+     * {@code after} after it. Null counts use {@code default-window}; all are
+     * capped at {@code max-window}.
+     */
+    public TranscriptWindow window(CrisisFlag flag, Integer before, Integer after) {
+        int nBefore = clamp(before);
+        int nAfter = clamp(after);
+        LocalDateTime flaggedAt = StoredTime.of(flag.getCreatedAt());
+        TranscriptMessage anchor = transcriptRepository.findAnchor(flag.getChatId(), flaggedAt);
+        if (anchor == null) {
+            return new TranscriptWindow(null, List.of(), false, false);
+        }
+
+        // One extra row each way tells us whether more exist
+        List<TranscriptMessage> earlier = transcriptRepository.findBefore(flag.getChatId(), anchor.createdAt(),
+                anchor.id(), nBefore + 1);
+        List<TranscriptMessage> later = transcriptRepository.findAfter(flag.getChatId(), anchor.createdAt(),
+                anchor.id(), nAfter + 1);
+
+        boolean hasEarlier = earlier.size() > nBefore;
+        boolean hasLater = later.size() > nAfter;
+
+        List<TranscriptMessage> messages = new ArrayList<>(nBefore + nAfter + 1);
+        for (int i = Math.min(earlier.size(), nBefore) - 1; i >= 0; i--) {
+            messages.add(earlier.get(i));
+        }
+        messages.add(anchor);
+        messages.addAll(later.subList(0, Math.min(later.size(), nAfter)));
+        return new TranscriptWindow(anchor.id(), messages, hasEarlier, hasLater);
+    }
+
+    private int clamp(Integer requested) {
+        int n = requested == null ? defaultWindow : requested;
+        return Math.max(0, Math.min(n, maxWindow));
+    }
+
+    /**
+     * Writes the flagged session as NDJSON, oldest first, starting after
+     * {@code afterCursor} when given. Returns the number of messages written.
+     */
+    public long stream(CrisisFlag flag, String afterCursor, OutputStream out) throws IOException {
+        KeysetCursor cursor = KeysetCursor.decode(afterCursor);
+        LocalDateTime at = cursor == null ? null : LocalDateTime.ofInstant(cursor.at(), StoredTime.ZONE);
+        var id = cursor == null ? null : cursor.id();
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        Map<String, Object> line = new LinkedHashMap<>();
+        long written = 0;
+        while (true) {
+            List<TranscriptMessage> chunk = transcriptRepository.findAfter(flag.getChatId(), at, id, chunkSize);
+            for (TranscriptMessage m : chunk) {
+                line.put("id", m.id());
+                line.put("content", m.content());
+                line.put("sender", m.sender());
+                line.put("createdAt", m.createdAt());
+                line.put("cursor", cursorAfter(m));
+                jsonWriter.writeValue(writer, line);
+                writer.write('\n');
+            }
+            written += chunk.size();
+            writer.flush();
+            if (chunk.size() < chunkSize) {
+                return written;
+            }
+            TranscriptMessage last = chunk.get(chunk.size() - 1);
+            at = last.createdAt();
+            id = last.id();
+        }
+    }
+
+    /** Opaque resume token; the timestamp is only an encoding of the stored wall-clock value. */
+    static String cursorAfter(TranscriptMessage message) {
+        return new KeysetCursor(0f, StoredTime.toInstant(message.createdAt()), message.id()).encode();
+    }
+}
@@ -0,0 +1,248 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.dto.ActiveUsersPoint;
+import com.mindease.admin.dto.AiUsagePoint;
+import com.mindease.admin.dto.DashboardOverviewResponse;
+import com.mindease.admin.dto.DashboardSnapshot;
+import com.mindease.admin.dto.KeywordStat;
+import com.mindease.admin.repository.AnalyticsRepository;
+import com.mindease.crisis.repository.CrisisFlagRepository;
+import com.mindease.shared.events.CrisisFlagCreatedEvent;
+import com.mindease.shared.service.PythonAnalyticsServiceClient;
+import com.mindease.shared.util.DaemonThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a precomputed snapshot of the admin dashboard (overview KPIs,
+ * activity trend, crisis heatmap, trending topics) so dashboard reads are a
+ * field load instead of eight queries.
+ *
+ * The snapshot is refreshed every {@code refresh-interval-ms} and after each
+ * committed crisis flag. Refreshes are single-flight: concurrent triggers and
+ * cache misses share one computation, whose independent sub-queries run in
+ * parallel. A flag that arrives mid-refresh schedules one more refresh when
+ * the current one finishes. A failed refresh keeps serving the previous
+ * snapshot; reads only block when there is none or it is older than
+ * {@code max-age-ms}.
+ */
+@Service
+public class DashboardSnapshotService {
+
+    private static final Logger log = LoggerFactory.getLogger(DashboardSnapshotService.class);
+
+    static final int TREND_DAYS = 30;
+    static final int HEATMAP_DAYS = 90;
+    static final int TOPIC_DAYS = 30;
+    public static final int MAX_TOPICS = 20;
+
+    private final AnalyticsRepository analyticsRepository;
+    private final CrisisFlagRepository crisisFlagRepository;
+    private final PythonAnalyticsServiceClient pythonAnalyticsServiceClient;
+    private final Duration maxAge;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Clock clock;
+
+    private volatile DashboardSnapshot current;
+    private final AtomicReference<CompletableFuture<DashboardSnapshot>> inFlight = new AtomicReference<>();
+    private final AtomicBoolean dirty = new AtomicBoolean();
+
+    public DashboardSnapshotService(AnalyticsRepository analyticsRepository,
+            CrisisFlagRepository crisisFlagRepository,
+            PythonAnalyticsServiceClient pythonAnalyticsServiceClient,
+            @Value("${analytics.dashboard.max-age-ms:300000}") long maxAgeMs,
+            @Value("${analytics.dashboard.refresh-threads:4}") int refreshThreads) {
+        this(analyticsRepository, crisisFlagRepository, pythonAnalyticsServiceClient, maxAgeMs,
+                Executors.newFixedThreadPool(refreshThreads, DaemonThreads.named("dashboard-refresh")), Clock.systemUTC());
+    }
+
+    DashboardSnapshotService(AnalyticsRepository analyticsRepository,
+            CrisisFlagRepository crisisFlagRepository,
+            PythonAnalyticsServiceClient pythonAnalyticsServiceClient,
+            long maxAgeMs, Executor executor, Clock clock) {
+        this.analyticsRepository = analyticsRepository;
+        this.crisisFlagRepository = crisisFlagRepository;
+        this.pythonAnalyticsServiceClient = pythonAnalyticsServiceClient;
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+        this.executor = executor;
+        this.ownedExecutor = executor instanceof ExecutorService es ? es : null;
+        this.clock = clock;
+    }
+
+    /** The current snapshot, computing one first if there is none or it has expired. */
+    public DashboardSnapshot snapshot() {
+        DashboardSnapshot snapshot = current;
+        if (snapshot != null && !isExpired(snapshot)) {
+            return snapshot;
+        }
+        try {
+            return refresh().join();
+        } catch (CompletionException e) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            throw e.getCause() instanceof RuntimeException re ? re : e;
+        }
+    }
+
+    private boolean isExpired(DashboardSnapshot snapshot) {
+        return snapshot.computedAt().plus(maxAge).isBefore(clock.instant());
+    }
+
+    /** Starts a refresh, or joins the one already running. */
+    public CompletableFuture<DashboardSnapshot> refresh() {
+        while (true) {
+            CompletableFuture<DashboardSnapshot> running = inFlight.get();
+            if (running != null) {
+                return running;
+            }
+            CompletableFuture<DashboardSnapshot> mine = new CompletableFuture<>();
+            if (!inFlight.compareAndSet(null, mine)) {
+                continue;
+            }
+            dirty.set(false);
+            compute().whenComplete((snapshot, error) -> {
+                if (error == null) {
+                    current = snapshot;
+                } else {
+                    log.warn("Dashboard snapshot refresh failed; serving previous snapshot", error);
+                }
+                inFlight.set(null);
+                if (error == null) {
+                    mine.complete(snapshot);
+                } else {
+                    mine.completeExceptionally(error);
+                }
+                if (dirty.get()) {
+                    refresh();
+                }
+            });
+            return mine;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${analytics.dashboard.refresh-interval-ms:60000}",
+            initialDelayString = "${analytics.dashboard.initial-delay-ms:5000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onNewFlag(CrisisFlagCreatedEvent evt) {
+        dirty.set(true);
+        refresh();
+    }
+
+    private CompletableFuture<DashboardSnapshot> compute() {
+        OffsetDateTime to = OffsetDateTime.now(clock.withZone(ZoneOffset.UTC)).truncatedTo(ChronoUnit.SECONDS);
+        LocalDate today = to.toLocalDate();
+        LocalDate yesterday = today.minusDays(1);
+        OffsetDateTime last24From = to.minusHours(24);
+
+        var trend = async(() -> analyticsRepository.dailyActiveUsers(to.minusDays(TREND_DAYS), to));
+        var ai = async(() -> analyticsRepository.dailyAiUsage(to.minusDays(28), to));
+        var signupsToday = async(() -> pythonAnalyticsServiceClient.countUsersCreatedBetween(
+                startOfDay(today), startOfDay(today.plusDays(1))));
+        var signupsYesterday = async(() -> pythonAnalyticsServiceClient.countUsersCreatedBetween(
+                startOfDay(yesterday), startOfDay(today)));
+        var crisisLast24 = async(() -> crisisFlagRepository.countByCreatedAtBetween(last24From, to));
+        var crisisPrev24 = async(() -> crisisFlagRepository.countByCreatedAtBetween(to.minusHours(48), last24From));
+        var heatmap = async(() -> toHeatmap(crisisFlagRepository.aggregateCrisisFlagsByDay(
+                to.minusDays(HEATMAP_DAYS), to)));
+        var topics = async(() -> crisisFlagRepository.findTopKeywords(to.minusDays(TOPIC_DAYS), to,
+                PageRequest.of(0, MAX_TOPICS)));
+
+        return CompletableFuture.allOf(trend, ai, signupsToday, signupsYesterday, crisisLast24, crisisPrev24,
+                heatmap, topics).thenApply(v -> new DashboardSnapshot(
+                        overview(trend.join(), ai.join(), signupsToday.join(), signupsYesterday.join(),
+                                crisisLast24.join(), crisisPrev24.join()),
+                        List.copyOf(trend.join()),
+                        heatmap.join(),
+                        List.copyOf(topics.join()),
+                        clock.instant()));
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static DashboardOverviewResponse overview(List<ActiveUsersPoint> active, List<AiUsagePoint> ai,
+            long signupsToday, long signupsYesterday, long crisisLast24, long crisisPrev24) {
+        // Most recent day against the day before
+        long activeMostRecent = active.isEmpty() ? 0L : active.get(active.size() - 1).activeUsers();
+        long activePrevious = active.size() < 2 ? 0L : active.get(active.size() - 2).activeUsers();
+        long aiMostRecent = ai.isEmpty() ? 0L : ai.get(ai.size() - 1).calls();
+        long aiPrevious = ai.size() < 2 ? 0L : ai.get(ai.size() - 2).calls();
+
+        return new DashboardOverviewResponse(
+                activeMostRecent,
+                signupsToday,
+                crisisLast24,
+                aiMostRecent,
+                percentChange(activePrevious, activeMostRecent),
+                percentChange(signupsYesterday, signupsToday),
+                percentChange(crisisPrev24, crisisLast24),
+                percentChange(aiPrevious, aiMostRecent));
+    }
+
+    private static Double percentChange(long previous, long current) {
+        if (previous <= 0L) {
+            return null;
+        }
+        double diff = current - previous;
+        return (diff / (double) previous) * 100.0;
+    }
+
+    private static List<Map<String, Object>> toHeatmap(List<Object[]> rows) {
+        return rows.stream()
+                .map(row -> {
+                    Object dayObj = row[0];
+                    LocalDate day;
+                    if (dayObj instanceof LocalDate d) {
+                        day = d;
+                    } else if (dayObj instanceof java.sql.Date d) {
+                        day = d.toLocalDate();
+                    } else {
+                        day = LocalDate.parse(dayObj.toString());
+                    }
+                    return Map.<String, Object>of("day", day, "count", ((Number) row[1]).longValue());
+                })
+                .toList();
+    }
+
+    private static OffsetDateTime startOfDay(LocalDate date) {
+        return date.atStartOfDay().atOffset(ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+}
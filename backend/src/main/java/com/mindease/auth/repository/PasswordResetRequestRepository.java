@@ -40,7 +40,7 @@ public interface PasswordResetRequestRepository extends JpaRepository<PasswordRe
      */
     @Modifying
     @Query("DELETE FROM PasswordResetRequest p WHERE p.requestedAt < :before")
-    void deleteOldRequests(@Param("before") LocalDateTime before);
+    int deleteOldRequests(@Param("before") LocalDateTime before);
 
     /**
      * Find the most recent uncompleted request by email.
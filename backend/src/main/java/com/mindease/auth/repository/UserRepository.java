@@ -64,7 +64,8 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      * messages, user context, etc.) before invoking this method to prevent orphaned
      * records and foreign key constraint violations.
      *
-     * See RetentionPolicyService.cleanupSingleUser() for proper usage pattern.
+     * Scheduled retention no longer uses this; see RetentionPurgeRepository,
+     * which deletes in id-bounded chunks.
      *
      * NOTE: Transaction management should be handled at the service layer.
      * The calling service method must be annotated with @Transactional.
@@ -4,6 +4,8 @@ import com.mindease.auth.model.EmailVerificationToken;
 import com.mindease.auth.model.User;
 import com.mindease.auth.repository.EmailVerificationTokenRepository;
 import com.mindease.auth.repository.UserRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +16,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
@@ -22,6 +25,9 @@ public class EmailVerificationService {
 
     private static final Logger logger = LoggerFactory.getLogger(EmailVerificationService.class);
 
+    private static final JobSpec CLEANUP_JOB = JobSpec.of("email-verification-token-cleanup",
+            Duration.ofMinutes(10)).inTransaction();
+
     /**
      * Mask email address for logging to reduce PII exposure
      */
@@ -38,6 +44,9 @@ public class EmailVerificationService {
     @Autowired
     private EmailVerificationTokenRepository tokenRepository;
 
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
     @Autowired(required = false)
     private JavaMailSender mailSender;
 
@@ -157,21 +166,23 @@ public class EmailVerificationService {
 
     /**
      * Scheduled job to clean up expired and old used tokens
-     * Runs daily at 4 AM
+     * Runs daily at 4 AM, on one node of the cluster
      */
     @Scheduled(cron = "0 0 4 * * ?")
-    @Transactional
     public void cleanupExpiredTokens() {
-        logger.info("Starting cleanup of expired email verification tokens");
-
-        // Delete expired tokens
-        int expiredCount = tokenRepository.deleteExpiredTokens(LocalDateTime.now());
-        logger.info("Deleted {} expired verification tokens", expiredCount);
-
-        // Delete used tokens older than 7 days
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
-        int oldUsedCount = tokenRepository.deleteOldUsedTokens(cutoffDate);
-        logger.info("Deleted {} old used verification tokens", oldUsedCount);
+        clusterJobRunner.run(CLEANUP_JOB, ctx -> {
+            logger.info("Starting cleanup of expired email verification tokens");
+
+            // Delete expired tokens
+            int expiredCount = tokenRepository.deleteExpiredTokens(LocalDateTime.now());
+            logger.info("Deleted {} expired verification tokens", expiredCount);
+
+            // Delete used tokens older than 7 days
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(7);
+            int oldUsedCount = tokenRepository.deleteOldUsedTokens(cutoffDate);
+            logger.info("Deleted {} old used verification tokens", oldUsedCount);
+            return expiredCount + oldUsedCount;
+        });
     }
 
     /**
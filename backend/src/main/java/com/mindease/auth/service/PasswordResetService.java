@@ -4,6 +4,8 @@ import com.mindease.auth.model.PasswordResetRequest;
 import com.mindease.auth.model.RefreshToken;
 import com.mindease.auth.repository.PasswordResetRequestRepository;
 import com.mindease.auth.repository.RefreshTokenRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -11,6 +13,7 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,8 +26,12 @@ public class PasswordResetService {
 
     private static final Logger logger = LoggerFactory.getLogger(PasswordResetService.class);
 
+    private static final JobSpec CLEANUP_JOB = JobSpec.of("password-reset-request-cleanup", Duration.ofMinutes(10))
+            .inTransaction();
+
     private final PasswordResetRequestRepository passwordResetRequestRepository;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final ClusterJobRunner clusterJobRunner;
 
     @Value("${password-reset.rate-limit.max-per-email:3}")
     private int maxRequestsPerEmail;
@@ -40,9 +47,11 @@ public class PasswordResetService {
 
     public PasswordResetService(
             PasswordResetRequestRepository passwordResetRequestRepository,
-            RefreshTokenRepository refreshTokenRepository) {
+            RefreshTokenRepository refreshTokenRepository,
+            ClusterJobRunner clusterJobRunner) {
         this.passwordResetRequestRepository = passwordResetRequestRepository;
         this.refreshTokenRepository = refreshTokenRepository;
+        this.clusterJobRunner = clusterJobRunner;
     }
 
     /**
@@ -162,18 +171,16 @@ public class PasswordResetService {
 
     /**
      * Scheduled cleanup of old password reset requests.
-     * Runs daily at 2 AM.
+     * Runs daily at 2 AM, on one node of the cluster; failures are logged and
+     * recorded by {@link ClusterJobRunner}.
      */
     @Scheduled(cron = "0 0 2 * * ?")
-    @Transactional
     public void cleanupOldRequests() {
-        LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
-
-        try {
-            passwordResetRequestRepository.deleteOldRequests(cutoffDate);
-            logger.info("Cleaned up password reset requests older than {} days", retentionDays);
-        } catch (Exception e) {
-            logger.error("Error cleaning up old password reset requests", e);
-        }
+        clusterJobRunner.run(CLEANUP_JOB, ctx -> {
+            LocalDateTime cutoffDate = LocalDateTime.now().minusDays(retentionDays);
+            int deleted = passwordResetRequestRepository.deleteOldRequests(cutoffDate);
+            logger.info("Cleaned up {} password reset requests older than {} days", deleted, retentionDays);
+            return deleted;
+        });
     }
 }
@@ -3,14 +3,18 @@ package com.mindease.auth.service;
 import com.mindease.auth.model.RefreshToken;
 import com.mindease.auth.model.User;
 import com.mindease.auth.repository.RefreshTokenRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.UUID;
@@ -21,9 +25,15 @@ public class RefreshTokenService {
 
     private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
 
+    private static final JobSpec CLEANUP_JOB = JobSpec.of("refresh-token-cleanup", Duration.ofMinutes(10))
+            .inTransaction();
+
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private ClusterJobRunner clusterJobRunner;
+
     @Value("${jwt.refresh-expiration:604800000}") // Default: 7 days in milliseconds
     private Long refreshTokenDuration;
 
@@ -101,12 +111,16 @@ public class RefreshTokenService {
 
     /**
      * Scheduled job to clean up expired refresh tokens
-     * Runs daily at 3 AM
+     * Runs daily at 3 AM, on one node of the cluster
      */
     @Scheduled(cron = "0 0 3 * * ?")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // the runner opens the job's transaction
     public void cleanupExpiredTokens() {
-        logger.info("Starting cleanup of expired refresh tokens");
-        int deletedCount = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
-        logger.info("Cleaned up {} expired refresh tokens", deletedCount);
+        clusterJobRunner.run(CLEANUP_JOB, ctx -> {
+            logger.info("Starting cleanup of expired refresh tokens");
+            int deletedCount = refreshTokenRepository.deleteExpiredTokens(LocalDateTime.now());
+            logger.info("Cleaned up {} expired refresh tokens", deletedCount);
+            return deletedCount;
+        });
     }
 }
@@ -1,5 +1,6 @@
 package com.mindease.auth.service;
 
+import com.mindease.admin.repository.UserAdminStatsRepository;
 import com.mindease.auth.model.Role;
 import com.mindease.auth.model.User;
 import com.mindease.auth.model.UserActivity;
@@ -16,6 +17,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -31,6 +34,9 @@ public class UserService {
     @Autowired
     private UserActivityRepository userActivityRepository;
 
+    @Autowired
+    private UserAdminStatsRepository userAdminStatsRepository;
+
     @Value("${account.lockout.max-attempts:5}")
     private int maxFailedAttempts;
 
@@ -155,6 +161,13 @@ public class UserService {
             throw new IllegalArgumentException("User cannot be null");
         }
 
+        try {
+            // Own transaction: a failure here must not abort the activity update below
+            userAdminStatsRepository.touchLastActive(user.getId(), OffsetDateTime.now(ZoneOffset.UTC));
+        } catch (Exception e) {
+            logger.warn("Failed to update admin stats for user {}: {}", user.getId(), e.getMessage());
+        }
+
         try {
             Optional<UserActivity> existing = userActivityRepository.findByUser(user);
 
@@ -7,10 +7,13 @@ import com.mindease.chat.dto.ChatResponse;
 import com.mindease.chat.dto.TypingEvent;
 import com.mindease.chat.model.ChatSession;
 import com.mindease.chat.model.Message;
+import com.mindease.chat.model.enums.ChatLanguage;
 import com.mindease.chat.repository.ChatSessionRepository;
 import com.mindease.chat.repository.MessageRepository;
 import com.mindease.chat.service.AIProviderManager;
+import com.mindease.chat.service.ChatLanguageResolver;
 import com.mindease.chat.service.ChatService;
+import com.mindease.chat.service.ChatTurnEventLogger;
 import com.mindease.crisis.service.CrisisFlaggingService;
 import com.mindease.subscription.service.PremiumAccessService;
 import com.mindease.shared.config.ChatConfig;
@@ -86,6 +89,12 @@ public class ChatApiController {
     @Autowired
     private com.mindease.crisis.service.CrisisResponseService crisisResponseService;
 
+    @Autowired
+    private ChatTurnEventLogger chatTurnEventLogger;
+
+    @Autowired
+    private ChatLanguageResolver chatLanguageResolver;
+
     private static final Logger logger = LoggerFactory.getLogger(ChatApiController.class);
 
     @Operation(summary = "Send a chat message", description = "Send a message to the AI assistant and receive a response. Optionally specify sessionId to send to a specific chat session.")
@@ -98,22 +107,19 @@ public class ChatApiController {
     @PostMapping("/send")
     @AuditChatSent
     public ResponseEntity<?> sendMessage(@RequestBody SendMessageRequest request, Authentication authentication) {
+        ChatTurnEventLogger.Turn turn = chatTurnEventLogger.start().messageLength(request.getMessage());
         try {
-            logger.info("=== INCOMING MESSAGE REQUEST ===");
-            logger.info("Message: {}", request.getMessage());
-            logger.info("SessionId: {}", request.getSessionId());
-            logger.info("Authentication: {}", authentication.getName());
-
             String email = authentication.getName();
             Optional<User> userOptional = userRepository.findByEmail(email);
 
             if (userOptional.isEmpty()) {
-                logger.error("User not found for email: {}", email);
+                logger.warn("Chat message rejected: user not found");
+                chatTurnEventLogger.finish(turn, "user_not_found");
                 return ResponseEntity.badRequest().body(createErrorResponse("User not found"));
             }
 
             User user = userOptional.get();
-            logger.info("Processing message for user ID: {}", user.getId());
+            turn.userId(user.getId());
 
             // Track user activity (async - fire-and-forget)
             userService.trackUserActivityAsync(user);
@@ -128,11 +134,12 @@ public class ChatApiController {
                     UUID sessionId = UUID.fromString(request.getSessionId());
                     Optional<ChatSession> sessionOptional = chatService.getChatSessionById(sessionId, user);
                     if (sessionOptional.isEmpty()) {
+                        chatTurnEventLogger.finish(turn, "session_not_found");
                         return ResponseEntity.status(404).body(createErrorResponse("Session not found"));
                     }
                     chatSession = sessionOptional.get();
-                    logger.info("Using specified chat session: {}", sessionId);
                 } catch (IllegalArgumentException e) {
+                    chatTurnEventLogger.finish(turn, "invalid_session_id");
                     return ResponseEntity.badRequest().body(createErrorResponse("Invalid session ID format"));
                 }
             } else {
@@ -140,20 +147,22 @@ public class ChatApiController {
                 chatSession = chatSessionRepository.findByUserOrderByUpdatedAtDesc(user)
                         .stream()
                         .findFirst()
-                        .orElseGet(() -> {
-                            logger.info("Creating new chat session for user: {}", user.getId());
-                            return chatSessionRepository.save(new ChatSession(user));
-                        });
+                        .orElseGet(() -> chatSessionRepository.save(new ChatSession(user)));
                 // Check if this is a brand new session (no messages yet)
                 isNewSession = chatService.getMessageCount(chatSession) == 0;
             }
+            turn.sessionId(chatSession.getId()).newSession(isNewSession);
 
             chatSession.setUpdatedAt(java.time.LocalDateTime.now());
             chatSessionRepository.save(chatSession);
 
+            // Resolve the turn's language once; reused for prompts and crisis resources
+            ChatLanguage language = chatLanguageResolver.resolve(chatSession.getId(), request.getMessage(),
+                    user.getPreferredLanguage());
+
             // Check for crisis
             boolean isCrisis = aiProviderManager.isCrisisMessage(request.getMessage());
-            logger.info("Crisis detection result: {}", isCrisis);
+            turn.crisis(isCrisis);
 
             // Enforce soft daily message limit for free users (non-crisis only)
             // Crisis messages ALWAYS bypass rate limits for user safety
@@ -166,22 +175,20 @@ public class ChatApiController {
                     LocalDateTime end = today.plusDays(1).atStartOfDay();
                     long sentToday = messageRepository
                             .countByChatSession_UserAndIsUserMessageTrueAndCreatedAtBetween(user, start, end);
-                    logger.info("Free daily usage: userId={}, sentToday={}, limit={}", user.getId(), sentToday, limit);
                     if (sentToday >= limit) {
-                        logger.info("Free daily limit reached for user: {}", user.getId());
+                        logger.debug("Free daily limit reached: userId={}, sentToday={}, limit={}",
+                                user.getId(), sentToday, limit);
+                        chatTurnEventLogger.finish(turn, "rate_limited");
                         return ResponseEntity.status(429).body(createErrorResponse(
                                 "You've reached today's free chat limit. You can continue tomorrow or upgrade to Premium for unlimited chat."));
                     }
                 }
-            } else if (isCrisis) {
-                logger.info("Crisis message detected - bypassing rate limits for user safety: userId={}", user.getId());
             }
 
             // Save user message
             Message userMessage = new Message(chatSession, request.getMessage(), true);
             userMessage.setIsCrisisFlagged(isCrisis);
             userMessage = messageRepository.save(userMessage);
-            logger.info("Saved user message with ID: {}", userMessage.getId());
 
             // Auto-generate title from first message if session is new
             chatService.autoGenerateTitle(chatSession);
@@ -198,31 +205,26 @@ public class ChatApiController {
 
             // Send user message via WebSocket
             String userTopic = "/topic/user/" + user.getId();
-            logger.info("Sending user message to topic: {}", userTopic);
-            logger.info("User message payload: {}", userMessagePayload);
-
             messagingTemplate.convertAndSend(userTopic, userMessagePayload);
 
             // Send typing indicator - bot is "typing"
             TypingEvent typingStart = new TypingEvent(user.getId(), true);
             messagingTemplate.convertAndSend(userTopic + "/typing", typingStart);
-            logger.debug("Sent typing start event to: {}", userTopic + "/typing");
 
             // Handle crisis response first if needed
             Message crisisMessage = null;
+            List<com.mindease.crisis.model.CrisisResource> crisisResources = null;
             Message botMessage = null;
             Map<String, Object> botMessagePayload = null;
             String aiProvider = null;
 
             if (isCrisis) {
                 // Get localized crisis response message
-                String userLanguage = user.getPreferredLanguage() != null ? user.getPreferredLanguage() : "en";
-                String crisisResponse = crisisResponseService.getCrisisResponseMessage(userLanguage);
+                String crisisResponse = crisisResponseService.getCrisisResponseMessage(language.getResourceLanguage());
 
-                // Get crisis resources for user's language and region
+                // Get crisis resources for the turn's language and user's region
                 String userRegion = user.getRegion() != null ? user.getRegion() : "global";
-                List<com.mindease.crisis.model.CrisisResource> crisisResources = crisisResponseService
-                        .getCrisisResources(userLanguage, userRegion);
+                crisisResources = crisisResponseService.getCrisisResources(language.getResourceLanguage(), userRegion);
 
                 crisisMessage = new Message(chatSession, crisisResponse, false);
                 crisisMessage.setIsCrisisFlagged(true);
@@ -234,16 +236,11 @@ public class ChatApiController {
                     crisisMessagePayload.put("crisisResources", convertCrisisResourcesToMap(crisisResources));
                 }
 
-                logger.info("Sending crisis message to topic: {} with {} resources", userTopic,
-                        crisisResources != null ? crisisResources.size() : 0);
-                logger.info("Crisis message payload: {}", crisisMessagePayload);
-
                 messagingTemplate.convertAndSend(userTopic, crisisMessagePayload);
 
                 // Send typing indicator - bot stopped "typing"
                 TypingEvent typingStop = new TypingEvent(user.getId(), false);
                 messagingTemplate.convertAndSend(userTopic + "/typing", typingStop);
-                logger.debug("Sent typing stop event to: {}", userTopic + "/typing");
             } else {
                 // Only generate AI response if NOT a crisis (crisis already handled above)
                 // Prepare recent conversation history using DB pagination
@@ -267,39 +264,33 @@ public class ChatApiController {
                 }
 
                 // Generate AI response with context using AIProviderManager
-                logger.info("Generating AI response with {} history messages...", recentHistory.size());
+                turn.historySize(recentHistory.size());
 
                 // Build user context including preferred language
                 Map<String, String> userContext = new HashMap<>();
                 String userLanguage = user.getPreferredLanguage() != null ? user.getPreferredLanguage() : "en";
                 userContext.put("preferredLanguage", userLanguage);
-                logger.info("User preferred language: {}", userLanguage);
+                userContext.put(ChatLanguage.CONTEXT_KEY, language.getTag());
 
                 ChatResponse aiResponse = aiProviderManager.generateResponse(
                         request.getMessage(),
                         user.getId().toString(),
                         recentHistory,
                         userContext);
-                logger.info("Generated AI response using provider: {}", aiResponse.getProvider());
-                logger.info("Generated AI response: {}", aiResponse.getContent());
 
                 botMessage = new Message(chatSession, aiResponse.getContent(), false);
                 botMessage = messageRepository.save(botMessage);
-                logger.info("Saved bot message with ID: {}", botMessage.getId());
 
                 // Create bot message payload for WebSocket
                 botMessagePayload = createMessagePayload(botMessage, false);
                 // Add provider info to help identify which AI is being used
                 aiProvider = aiResponse.getProvider();
                 botMessagePayload.put("provider", aiProvider);
-
-                logger.info("Sending bot message to topic: {}", userTopic);
-                logger.info("Bot message payload: {}", botMessagePayload);
+                turn.provider(aiProvider);
 
                 // Send typing indicator - bot stopped "typing"
                 TypingEvent typingStop = new TypingEvent(user.getId(), false);
                 messagingTemplate.convertAndSend(userTopic + "/typing", typingStop);
-                logger.debug("Sent typing stop event to: {}", userTopic + "/typing");
 
                 messagingTemplate.convertAndSend(userTopic, botMessagePayload);
             }
@@ -315,29 +306,22 @@ public class ChatApiController {
                 data.put("botMessage", botMessagePayload);
             }
             if (crisisMessage != null) {
-                // Recreate crisis message payload with resources if needed
+                // Recreate crisis message payload with the resources already sent over WebSocket
                 Map<String, Object> crisisPayload = createMessagePayload(crisisMessage, false);
-                // If we have crisis resources, attach them (they should already be in the
-                // WebSocket payload)
-                if (isCrisis) {
-                    String userLanguage = user.getPreferredLanguage() != null ? user.getPreferredLanguage() : "en";
-                    String userRegion = user.getRegion() != null ? user.getRegion() : "global";
-                    List<com.mindease.crisis.model.CrisisResource> crisisResources = crisisResponseService
-                            .getCrisisResources(userLanguage, userRegion);
-                    if (crisisResources != null && !crisisResources.isEmpty()) {
-                        crisisPayload.put("crisisResources", convertCrisisResourcesToMap(crisisResources));
-                    }
+                if (crisisResources != null && !crisisResources.isEmpty()) {
+                    crisisPayload.put("crisisResources", convertCrisisResourcesToMap(crisisResources));
                 }
                 data.put("crisisMessage", crisisPayload);
             }
 
             response.put("data", data);
 
-            logger.info("=== MESSAGE PROCESSING COMPLETED SUCCESSFULLY ===");
+            chatTurnEventLogger.finish(turn, isCrisis ? "crisis" : "ok");
             return ResponseEntity.ok(response);
 
         } catch (Exception e) {
-            logger.error("=== ERROR PROCESSING MESSAGE ===", e);
+            chatTurnEventLogger.finish(turn, "error");
+            logger.error("Failed to process chat message", e);
             return ResponseEntity.badRequest().body(createErrorResponse("Failed to send message: " + e.getMessage()));
         }
     }
@@ -369,7 +353,7 @@ public class ChatApiController {
             }
 
             User user = userOptional.get();
-            logger.info("Fetching chat history for user: {}, sessionId: {}", user.getId(), sessionId);
+            logger.debug("Fetching chat history for user: {}, sessionId: {}", user.getId(), sessionId);
 
             Optional<ChatSession> chatSessionOptional;
 
@@ -651,7 +635,7 @@ public class ChatApiController {
                 return ResponseEntity.status(404).body(createErrorResponse("Session not found"));
             }
 
-            logger.info("Updated chat session {} title to '{}'", sessionId, request.getTitle());
+            logger.info("Updated chat session {} title", sessionId);
             String preview = chatService.getSessionPreview(updatedSession.get()).orElse(null);
             return ResponseEntity.ok(createSessionPayload(updatedSession.get(), preview));
         } catch (Exception e) {
@@ -0,0 +1,61 @@
+package com.mindease.chat.model.enums;
+
+import java.util.Locale;
+
+/**
+ * Language a chat turn is conducted in, resolved once per turn by
+ * {@link com.mindease.chat.service.ChatLanguageResolver} and carried in the
+ * chat context under {@link #CONTEXT_KEY}.
+ */
+public enum ChatLanguage {
+    ENGLISH("en", "en", "English"),
+    NEPALI("ne", "ne", "Nepali (नेपाली)"),
+    /** Nepali typed in Latin script ("malai thik chaina"). */
+    NEPALI_ROMANIZED("ne-Latn", "ne", "Nepali written in Latin script (romanized Nepali)");
+
+    public static final String CONTEXT_KEY = "responseLanguage";
+
+    private final String tag;
+    private final String resourceLanguage;
+    private final String promptName;
+
+    ChatLanguage(String tag, String resourceLanguage, String promptName) {
+        this.tag = tag;
+        this.resourceLanguage = resourceLanguage;
+        this.promptName = promptName;
+    }
+
+    /** Value stored in the chat context map. */
+    public String getTag() {
+        return tag;
+    }
+
+    /** Language code used for crisis resources and localized messages ("en", "ne"). */
+    public String getResourceLanguage() {
+        return resourceLanguage;
+    }
+
+    /** Human-readable name used in the response-language prompt instruction. */
+    public String getPromptName() {
+        return promptName;
+    }
+
+    public boolean isNepali() {
+        return this != ENGLISH;
+    }
+
+    /**
+     * Maps a context tag or a stored preference ("en", "ne", "nep", "ne-Latn")
+     * to a language, defaulting to English.
+     */
+    public static ChatLanguage fromTag(String tag) {
+        if (tag == null || tag.isBlank()) {
+            return ENGLISH;
+        }
+        return switch (tag.trim().toLowerCase(Locale.ROOT)) {
+            case "ne", "nep" -> NEPALI;
+            case "ne-latn" -> NEPALI_ROMANIZED;
+            default -> ENGLISH;
+        };
+    }
+}
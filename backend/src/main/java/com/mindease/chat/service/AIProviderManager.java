@@ -41,7 +41,7 @@ public class AIProviderManager {
             Map<String, String> userContext) {
 
         AIProvider selectedProvider = selectProvider(userId, userContext);
-        log.info("Selected AI provider: {}", selectedProvider);
+        log.debug("Selected AI provider: {}", selectedProvider);
 
         try {
             return generateWithProvider(selectedProvider, message, userId, history, userContext);
@@ -145,7 +145,7 @@ public class AIProviderManager {
 
         AIProvider fallbackProvider = failedProvider == AIProvider.OPENAI ? AIProvider.LOCAL : AIProvider.OPENAI;
 
-        log.info("Falling back to provider: {}", fallbackProvider);
+        log.warn("Falling back to provider: {}", fallbackProvider);
 
         try {
             return generateWithProvider(fallbackProvider, message, userId, history, userContext);
@@ -0,0 +1,58 @@
+package com.mindease.chat.service;
+
+import com.mindease.chat.model.enums.ChatLanguage;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the language of a chat turn once, so prompt assembly, crisis
+ * resources and safety keyword sets all agree.
+ *
+ * Order: the message itself when it is long enough to call, then the last
+ * confident detection for the session, then the user's stored preference.
+ */
+@Service
+public class ChatLanguageResolver {
+
+    static final String CACHE_NAME = "chatLanguage";
+
+    private final LanguageDetector detector;
+    private final Cache sessionLanguages;
+
+    public ChatLanguageResolver(LanguageDetector detector, CacheManager cacheManager) {
+        this.detector = detector;
+        this.sessionLanguages = cacheManager.getCache(CACHE_NAME);
+    }
+
+    public ChatLanguage resolve(UUID sessionId, String message, String preferredLanguage) {
+        Optional<ChatLanguage> detected = detector.detect(message);
+        if (detected.isPresent()) {
+            if (sessionId != null && sessionLanguages != null) {
+                sessionLanguages.put(sessionId, detected.get());
+            }
+            return detected.get();
+        }
+        if (sessionId != null && sessionLanguages != null) {
+            ChatLanguage cached = sessionLanguages.get(sessionId, ChatLanguage.class);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        return ChatLanguage.fromTag(preferredLanguage);
+    }
+
+    /**
+     * Reads the language resolved upstream from the chat context, if any.
+     */
+    public static Optional<ChatLanguage> fromContext(Map<String, String> userContext) {
+        if (userContext == null || !userContext.containsKey(ChatLanguage.CONTEXT_KEY)) {
+            return Optional.empty();
+        }
+        return Optional.of(ChatLanguage.fromTag(userContext.get(ChatLanguage.CONTEXT_KEY)));
+    }
+}
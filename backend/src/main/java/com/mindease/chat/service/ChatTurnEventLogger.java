@@ -0,0 +1,107 @@
+package com.mindease.chat.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Emits one structured, sampled log event per chat turn instead of a line per
+ * processing step.
+ *
+ * Events carry identifiers, sizes and timings only; message content is never
+ * formatted. Crisis turns and failures are always logged, everything else is
+ * sampled at {@code logging.events.chat-turn.sample-rate}.
+ */
+@Component
+public class ChatTurnEventLogger {
+
+    private static final Logger log = LoggerFactory.getLogger("com.mindease.events.ChatTurn");
+
+    private final double sampleRate;
+
+    public ChatTurnEventLogger(@Value("${logging.events.chat-turn.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    public Turn start() {
+        return new Turn(System.nanoTime());
+    }
+
+    public void finish(Turn turn, String outcome) {
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+        boolean alwaysLog = turn.crisis || "error".equals(outcome);
+        if (!alwaysLog && !sampled()) {
+            return;
+        }
+        long durationMs = (System.nanoTime() - turn.startNanos) / 1_000_000;
+        log.info("chat_turn outcome={} userId={} sessionId={} newSession={} crisis={} provider={} historySize={} messageLength={} durationMs={}",
+                outcome, turn.userId, turn.sessionId, turn.newSession, turn.crisis, turn.provider,
+                turn.historySize, turn.messageLength, durationMs);
+    }
+
+    private boolean sampled() {
+        if (sampleRate >= 1.0) {
+            return true;
+        }
+        return sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate;
+    }
+
+    /**
+     * Mutable per-request accumulator; confined to the request thread.
+     */
+    public static final class Turn {
+        private final long startNanos;
+        private UUID userId;
+        private UUID sessionId;
+        private boolean newSession;
+        private boolean crisis;
+        private String provider;
+        private int historySize = -1;
+        private int messageLength;
+
+        private Turn(long startNanos) {
+            this.startNanos = startNanos;
+        }
+
+        public Turn userId(UUID userId) {
+            this.userId = userId;
+            return this;
+        }
+
+        public Turn sessionId(UUID sessionId) {
+            this.sessionId = sessionId;
+            return this;
+        }
+
+        public Turn newSession(boolean newSession) {
+            this.newSession = newSession;
+            return this;
+        }
+
+        public Turn crisis(boolean crisis) {
+            this.crisis = crisis;
+            return this;
+        }
+
+        public Turn provider(String provider) {
+            this.provider = provider;
+            return this;
+        }
+
+        public Turn historySize(int historySize) {
+            this.historySize = historySize;
+            return this;
+        }
+
+        public Turn messageLength(String message) {
+            this.messageLength = message != null ? message.length() : 0;
+            return this;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.mindease.chat.service;
+
+import com.mindease.chat.model.enums.ChatLanguage;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+
+/**
+ * Tiny in-process language identifier for chat messages: English, Nepali
+ * (Devanagari) and romanized Nepali.
+ *
+ * Devanagari is recognised from the script alone. Latin text is scored
+ * against character-trigram profiles built at startup from the seed texts in
+ * {@code resources/lang}; trigrams over {@code [a-z ]} index a dense table
+ * directly (27^3 slots), which is the collision-free limit of feature
+ * hashing. The scan stops as soon as the log-likelihood margin is decisive
+ * and never reads past {@link #MAX_SCAN_CHARS}.
+ */
+@Component
+public class LanguageDetector {
+
+    static final int MAX_SCAN_CHARS = 160;
+    private static final int MIN_TRIGRAMS = 3;
+    private static final int EARLY_EXIT_TRIGRAMS = 8;
+    private static final double EARLY_EXIT_MARGIN = 6.0;
+    private static final double DECISION_MARGIN = 1.0;
+
+    private static final int ALPHABET = 27; // ' ' + a-z
+    private static final int TABLE_SIZE = ALPHABET * ALPHABET * ALPHABET;
+
+    /** log P(trigram | romanized Nepali) - log P(trigram | English). */
+    private final float[] nepaliMinusEnglish;
+
+    public LanguageDetector() {
+        this(read("lang/en.txt"), read("lang/ne-latn.txt"));
+    }
+
+    LanguageDetector(String englishSeed, String romanizedNepaliSeed) {
+        double[] en = logProbabilities(englishSeed);
+        double[] ne = logProbabilities(romanizedNepaliSeed);
+        nepaliMinusEnglish = new float[TABLE_SIZE];
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            nepaliMinusEnglish[i] = (float) (ne[i] - en[i]);
+        }
+    }
+
+    /**
+     * Detects the message language, or returns empty when the text is too
+     * short or too mixed to call (e.g. "ok", "hmm").
+     */
+    public Optional<ChatLanguage> detect(String text) {
+        if (text == null || text.isEmpty()) {
+            return Optional.empty();
+        }
+        double margin = 0;
+        int trigrams = 0;
+        int c1 = 0;
+        int c2 = 0; // previous two symbols; 0 is the word boundary
+        int n = Math.min(text.length(), MAX_SCAN_CHARS);
+
+        for (int i = 0; i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (c >= '\u0900' && c <= '\u097F') {
+                return Optional.of(ChatLanguage.NEPALI);
+            }
+            if (c == '\'' || c == '\u2019') {
+                continue;
+            }
+            int symbol = symbol(c);
+            if (symbol == 0 && c2 == 0) {
+                continue; // collapse runs of separators
+            }
+            if (c1 != 0 || c2 != 0) {
+                margin += nepaliMinusEnglish[index(c1, c2, symbol)];
+                trigrams++;
+            }
+            c1 = c2;
+            c2 = symbol;
+            if (trigrams >= EARLY_EXIT_TRIGRAMS && Math.abs(margin) >= EARLY_EXIT_MARGIN) {
+                break;
+            }
+        }
+
+        if (trigrams < MIN_TRIGRAMS || Math.abs(margin) < DECISION_MARGIN) {
+            return Optional.empty();
+        }
+        return Optional.of(margin > 0 ? ChatLanguage.NEPALI_ROMANIZED : ChatLanguage.ENGLISH);
+    }
+
+    private static int symbol(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 1;
+        }
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A' + 1;
+        }
+        return 0;
+    }
+
+    private static int index(int c1, int c2, int c3) {
+        return (c1 * ALPHABET + c2) * ALPHABET + c3;
+    }
+
+    /** Add-one smoothed trigram log-probabilities over the seed text. */
+    private static double[] logProbabilities(String seed) {
+        long[] counts = new long[TABLE_SIZE];
+        long total = 0;
+        int c1 = 0;
+        int c2 = 0;
+        for (int i = 0, n = seed.length(); i <= n; i++) {
+            char c = i < n ? seed.charAt(i) : ' ';
+            if (c == '\'' || c == '\u2019') {
+                continue;
+            }
+            int symbol = symbol(c);
+            if (symbol == 0 && c2 == 0) {
+                continue;
+            }
+            if (c1 != 0 || c2 != 0) {
+                counts[index(c1, c2, symbol)]++;
+                total++;
+            }
+            c1 = c2;
+            c2 = symbol;
+        }
+        double[] logProb = new double[TABLE_SIZE];
+        double denominator = Math.log(total + TABLE_SIZE);
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            logProb[i] = Math.log(counts[i] + 1) - denominator;
+        }
+        return logProb;
+    }
+
+    private static String read(String path) {
+        try (InputStream in = new ClassPathResource(path).getInputStream();
+                BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            StringBuilder text = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("#")) {
+                    text.append(line).append(' ');
+                }
+            }
+            return text.toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read language profile " + path, e);
+        }
+    }
+}
@@ -61,15 +61,11 @@ public class LocalAIChatBotService implements ChatBotService {
 
             Map<String, Object> profile = buildUserProfile(userId, userContext);
 
-            // Log profile contents for debugging (excluding sensitive data)
             if (log.isDebugEnabled()) {
-                log.debug("User profile built for userId: {}, contains {} fields", userId, profile.size());
-                if (profile.containsKey("days_indoors") || profile.containsKey("changes_habits") ||
-                        profile.containsKey("work_interest") || profile.containsKey("social_weakness")) {
-                    log.info("Enhanced AI model will be used - behavioral data present in profile");
-                } else {
-                    log.info("Falling back to basic model - no behavioral data in profile");
-                }
+                boolean behavioral = profile.containsKey("days_indoors") || profile.containsKey("changes_habits") ||
+                        profile.containsKey("work_interest") || profile.containsKey("social_weakness");
+                log.debug("User profile built for userId: {}, fields={}, behavioralModel={}",
+                        userId, profile.size(), behavioral);
             }
 
             LocalAIChatRequest request = LocalAIChatRequest.builder()
@@ -83,10 +79,8 @@ public class LocalAIChatBotService implements ChatBotService {
             headers.setContentType(MediaType.APPLICATION_JSON);
             HttpEntity<LocalAIChatRequest> entity = new HttpEntity<>(request, headers);
 
-            log.info("Calling Local AI Service at: {}/chat with profile containing {} fields", serviceUrl,
-                    profile.size());
             if (log.isDebugEnabled()) {
-                log.debug("Request profile keys: {}", profile.keySet());
+                log.debug("Calling Local AI Service at: {}/chat with profile keys {}", serviceUrl, profile.keySet());
             }
 
             long startTime = System.currentTimeMillis();
@@ -95,7 +89,7 @@ public class LocalAIChatBotService implements ChatBotService {
                 responseEntity = restTemplate.postForEntity(
                         serviceUrl + "/chat", entity, LocalAIChatResponse.class);
                 long duration = System.currentTimeMillis() - startTime;
-                log.info("Local AI Service responded in {}ms", duration);
+                log.debug("Local AI Service responded in {}ms", duration);
             } catch (org.springframework.web.client.ResourceAccessException e) {
                 long duration = System.currentTimeMillis() - startTime;
                 log.error("Local AI Service timeout after {}ms. Is the service running at {}? Error: {}",
@@ -114,7 +108,7 @@ public class LocalAIChatBotService implements ChatBotService {
             boolean isCrisis = response.getMeta() != null && "CRISIS".equals(response.getMeta().getSafety());
 
             if (response.getMeta() != null && response.getMeta().getRisk_score() != null) {
-                log.info("Risk score calculated: {}", response.getMeta().getRisk_score());
+                log.debug("Risk score calculated: {}", response.getMeta().getRisk_score());
             }
 
             // Provider identifier: "local-llama3.2" indicates Local AI is being used
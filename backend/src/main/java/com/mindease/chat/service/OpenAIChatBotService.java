@@ -2,6 +2,7 @@ package com.mindease.chat.service;
 
 import com.mindease.chat.dto.ChatResponse;
 import com.mindease.chat.model.Message;
+import com.mindease.chat.model.enums.ChatLanguage;
 import com.mindease.shared.config.ChatConfig;
 import com.mindease.shared.service.PythonAIServiceClient;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
@@ -27,6 +28,9 @@ public class OpenAIChatBotService implements ChatBotService {
     @Autowired
     private PythonAIServiceClient pythonAIServiceClient;
 
+    @Autowired
+    private LanguageDetector languageDetector;
+
     private static final Logger log = LoggerFactory.getLogger(OpenAIChatBotService.class);
 
     @Override
@@ -85,28 +89,12 @@ public class OpenAIChatBotService implements ChatBotService {
                         "- If crisis indicators appear, acknowledge pain and encourage immediate human help.",
                         "Response format: 1) Acknowledge emotion 2) One reflective/grounding prompt 3) Encouraging close."));
 
-                // Detect language from message content (check for Nepali/Devanagari characters)
-                String detectedLanguage = detectLanguageFromMessage(message);
-
-                // Use detected language from message if available, otherwise use preferred
-                // language
-                String responseLanguage = (detectedLanguage != null && !detectedLanguage.isEmpty())
-                        ? detectedLanguage
-                        : (preferredLanguage != null && !preferredLanguage.isEmpty() ? preferredLanguage : "en");
-
-                // Add language instruction
-                if (responseLanguage != null && !responseLanguage.isEmpty()) {
-                    String languageName;
-                    if ("ne".equalsIgnoreCase(responseLanguage)) {
-                        languageName = "Nepali (नेपाली)";
-                    } else {
-                        languageName = "English";
-                    }
-                    personaBuilder.append("\n\nIMPORTANT: You MUST respond in ").append(languageName)
-                            .append(". The user is communicating in ").append(languageName)
-                            .append(", so you must respond in ").append(languageName)
-                            .append(" as well. Do not respond in a different language. Always match the language of the user's message.");
-                }
+                // Language resolved once per turn upstream; detect locally only for direct callers
+                ChatLanguage responseLanguage = resolveResponseLanguage(message, userContext, preferredLanguage);
+                personaBuilder.append("\n\nIMPORTANT: You MUST respond in ").append(responseLanguage.getPromptName())
+                        .append(". The user is communicating in ").append(responseLanguage.getPromptName())
+                        .append(", so you must respond in ").append(responseLanguage.getPromptName())
+                        .append(" as well. Do not respond in a different language. Always match the language of the user's message.");
 
                 String persona = personaBuilder.toString() + contextBuilder.toString();
 
@@ -255,28 +243,11 @@ public class OpenAIChatBotService implements ChatBotService {
                         java.util.LinkedHashMap::new));
     }
 
-    /**
-     * Detects language from message content by checking for Nepali/Devanagari
-     * characters.
-     *
-     * @param message the message text to analyze
-     * @return "ne" if Nepali characters detected, "en" otherwise
-     */
-    private String detectLanguageFromMessage(String message) {
-        if (message == null || message.isEmpty()) {
-            return "en";
-        }
-
-        // Check for Nepali/Devanagari script characters (Unicode range: U+0900 to
-        // U+097F)
-        for (int i = 0; i < message.length(); i++) {
-            char c = message.charAt(i);
-            if (c >= '\u0900' && c <= '\u097F') {
-                return "ne";
-            }
-        }
-
-        return "en";
+    private ChatLanguage resolveResponseLanguage(String message, Map<String, String> userContext,
+            String preferredLanguage) {
+        return ChatLanguageResolver.fromContext(userContext)
+                .or(() -> languageDetector.detect(message))
+                .orElseGet(() -> ChatLanguage.fromTag(preferredLanguage));
     }
 
     /**
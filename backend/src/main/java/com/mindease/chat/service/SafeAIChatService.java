@@ -3,6 +3,7 @@ package com.mindease.chat.service;
 import com.mindease.auth.model.User;
 import com.mindease.chat.dto.ChatResponse;
 import com.mindease.chat.model.Message;
+import com.mindease.chat.model.enums.ChatLanguage;
 import com.mindease.chat.service.GuardrailService.GuardrailResult;
 import com.mindease.crisis.model.CrisisResource;
 import com.mindease.crisis.model.ModerationAction;
@@ -43,6 +44,9 @@ public class SafeAIChatService implements ChatBotService {
     @Autowired
     private com.mindease.auth.repository.UserContextRepository userContextRepository;
 
+    @Autowired
+    private ChatLanguageResolver chatLanguageResolver;
+
     @Override
     public ChatResponse generateResponse(String message, String userId, List<Message> history) {
         return generateResponse(message, userId, history, null);
@@ -74,8 +78,14 @@ public class SafeAIChatService implements ChatBotService {
                 }
             }
 
+            // Use the turn's language resolved by the caller; resolve here only for direct callers
+            String preferredLanguage = user != null ? user.getPreferredLanguage() : null;
+            ChatLanguage language = ChatLanguageResolver.fromContext(userContext)
+                    .orElseGet(() -> chatLanguageResolver.resolve(null, message, preferredLanguage));
+            userContext.put(ChatLanguage.CONTEXT_KEY, language.getTag());
+
             // Step 1: Classify user message risk level
-            RiskLevel riskLevel = safetyService.classifyMessage(message, history);
+            RiskLevel riskLevel = safetyService.classifyMessage(message, history, language);
             log.info("Message classified as risk level: {} for user: {}", riskLevel, userId);
 
             // Step 2: Get base AI response (which already includes some safety logic)
@@ -103,19 +113,14 @@ public class SafeAIChatService implements ChatBotService {
 
             // Step 5: Attach crisis resources for high-risk situations
             if (riskLevel.isHighOrCritical()) {
-                String userLanguage = "en";
                 String userRegion = "global";
-
-                if (user != null) {
-                    if (user.getPreferredLanguage() != null)
-                        userLanguage = user.getPreferredLanguage();
-                    if (user.getRegion() != null)
-                        userRegion = user.getRegion();
+                if (user != null && user.getRegion() != null) {
+                    userRegion = user.getRegion();
                 }
 
                 List<CrisisResource> resources = safetyService.getCrisisResources(
                         riskLevel,
-                        userLanguage,
+                        language.getResourceLanguage(),
                         userRegion);
                 enhancedResponse.setCrisisResources(resources);
 
@@ -1,9 +1,11 @@
 package com.mindease.chat.service;
 
 import com.mindease.chat.model.Message;
+import com.mindease.chat.model.enums.ChatLanguage;
 import com.mindease.crisis.model.CrisisResource;
 import com.mindease.crisis.model.RiskLevel;
 import com.mindease.crisis.repository.CrisisResourceRepository;
+import com.mindease.crisis.service.RiskScorer;
 import com.mindease.shared.service.PythonAIServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,6 +34,15 @@ public class SafetyClassificationService {
     @Autowired(required = false)
     private PythonAIServiceClient pythonAIServiceClient;
 
+    @Autowired(required = false)
+    private RiskScorer riskScorer;
+
+    // Model probabilities that escalate a keyword-only classification.
+    // The model alone never yields CRITICAL, and yields HIGH (which alerts
+    // admins) only on top of a keyword hit; without one it stops at MEDIUM.
+    private static final double MODEL_HIGH_THRESHOLD = 0.85;
+    private static final double MODEL_MEDIUM_THRESHOLD = 0.6;
+
     // Risk classification keywords by level
     private static final Map<RiskLevel, List<String>> RISK_KEYWORDS = new HashMap<>();
 
@@ -61,6 +72,20 @@ public class SafetyClassificationService {
                 "exhausted", "burned out", "can't take it"));
     }
 
+    // Nepali keyword sets, checked in addition to English (users code-mix freely).
+    // Devanagari phrases are matched as substrings: \b does not treat vowel signs as word characters.
+    private static final Map<RiskLevel, List<String>> RISK_KEYWORDS_NE = Map.of(
+            RiskLevel.CRITICAL, List.of("आत्महत्या गर्छु", "आज मर्छु", "मर्ने योजना"),
+            RiskLevel.HIGH, List.of("आत्महत्या", "मर्न मन", "बाँच्न मन छैन", "मर्न चाहन्छु"),
+            RiskLevel.MEDIUM, List.of("आफैंलाई चोट", "कुनै अर्थ छैन", "बाँचेर के काम"),
+            RiskLevel.LOW, List.of("निराश", "एक्लो", "थकित", "सहन सक्दिन"));
+
+    private static final Map<RiskLevel, List<String>> RISK_KEYWORDS_NE_LATN = Map.of(
+            RiskLevel.CRITICAL, List.of("atmahatya garchu", "aaja marchu", "marne yojana"),
+            RiskLevel.HIGH, List.of("atmahatya", "marna man", "bachna man chaina", "marna chahanchu"),
+            RiskLevel.MEDIUM, List.of("aafailai chot", "afailai chot", "kunai artha chaina", "bachera ke kaam"),
+            RiskLevel.LOW, List.of("nirash", "niraash", "eklo", "thakit", "sahana sakdina"));
+
     /**
      * Classify a message's risk level based on content and context.
      * Uses Python AI service if available, falls back to Java implementation.
@@ -70,6 +95,14 @@ public class SafetyClassificationService {
      * @return The assessed risk level
      */
     public RiskLevel classifyMessage(String content, List<Message> recentHistory) {
+        return classifyMessage(content, recentHistory, ChatLanguage.ENGLISH);
+    }
+
+    /**
+     * Classify a message using the keyword sets for the turn's resolved
+     * language (see {@link ChatLanguageResolver}).
+     */
+    public RiskLevel classifyMessage(String content, List<Message> recentHistory, ChatLanguage language) {
         if (content == null || content.isBlank()) {
             return RiskLevel.NONE;
         }
@@ -85,34 +118,39 @@ public class SafetyClassificationService {
         }
 
         // Fallback to Java implementation
-        return classifyMessageJava(content, recentHistory);
+        return classifyMessageJava(content, recentHistory, language);
     }
 
     /**
      * Java-based classification implementation (fallback).
      */
-    private RiskLevel classifyMessageJava(String content, List<Message> recentHistory) {
+    private RiskLevel classifyMessageJava(String content, List<Message> recentHistory, ChatLanguage language) {
         String normalized = content.toLowerCase(Locale.ROOT);
 
         // Check from highest risk to lowest
-        if (containsKeywords(normalized, RISK_KEYWORDS.get(RiskLevel.CRITICAL))) {
+        if (matchesLevel(normalized, RiskLevel.CRITICAL, language)) {
             log.warn("CRITICAL risk detected in message");
             return RiskLevel.CRITICAL;
         }
 
-        if (containsKeywords(normalized, RISK_KEYWORDS.get(RiskLevel.HIGH))) {
+        if (matchesLevel(normalized, RiskLevel.HIGH, language)) {
             log.warn("HIGH risk detected in message");
             return RiskLevel.HIGH;
         }
 
-        if (containsKeywords(normalized, RISK_KEYWORDS.get(RiskLevel.MEDIUM))) {
+        if (matchesLevel(normalized, RiskLevel.MEDIUM, language)) {
             log.info("MEDIUM risk detected in message");
-            return RiskLevel.MEDIUM;
+            return escalateWithModel(RiskLevel.MEDIUM, content);
         }
 
-        if (containsKeywords(normalized, RISK_KEYWORDS.get(RiskLevel.LOW))) {
+        if (matchesLevel(normalized, RiskLevel.LOW, language)) {
             log.debug("LOW risk detected in message");
-            return RiskLevel.LOW;
+            return escalateWithModel(RiskLevel.LOW, content);
+        }
+
+        RiskLevel modelRisk = escalateWithModel(RiskLevel.NONE, content);
+        if (modelRisk != RiskLevel.NONE) {
+            return modelRisk;
         }
 
         // Check history for escalating distress patterns
@@ -126,6 +164,41 @@ public class SafetyClassificationService {
         return RiskLevel.NONE;
     }
 
+    private boolean matchesLevel(String normalized, RiskLevel level, ChatLanguage language) {
+        if (containsKeywords(normalized, RISK_KEYWORDS.get(level))) {
+            return true;
+        }
+        if (language == ChatLanguage.NEPALI) {
+            return RISK_KEYWORDS_NE.get(level).stream().anyMatch(normalized::contains);
+        }
+        if (language == ChatLanguage.NEPALI_ROMANIZED) {
+            return containsKeywords(normalized, RISK_KEYWORDS_NE_LATN.get(level));
+        }
+        return false;
+    }
+
+    /**
+     * Raises a keyword-based level when the in-process risk model scores the
+     * message higher, catching phrasings the keyword lists miss. With no
+     * keyword hit the model can raise it to MEDIUM at most.
+     */
+    private RiskLevel escalateWithModel(RiskLevel keywordLevel, String content) {
+        if (riskScorer == null) {
+            return keywordLevel;
+        }
+        boolean keywordHit = keywordLevel != RiskLevel.NONE;
+        RiskLevel modelLevel = riskScorer.score(content)
+                .map(score -> score >= MODEL_HIGH_THRESHOLD && keywordHit ? RiskLevel.HIGH
+                        : score >= MODEL_MEDIUM_THRESHOLD ? RiskLevel.MEDIUM
+                        : RiskLevel.NONE)
+                .orElse(RiskLevel.NONE);
+        if (modelLevel.ordinal() > keywordLevel.ordinal()) {
+            log.info("{} risk assigned by risk model (keywords: {})", modelLevel, keywordLevel);
+            return modelLevel;
+        }
+        return keywordLevel;
+    }
+
     /**
      * Get appropriate crisis resources for a risk level and user language.
      *
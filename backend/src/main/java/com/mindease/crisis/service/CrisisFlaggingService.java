@@ -4,6 +4,7 @@ import com.mindease.crisis.model.CrisisFlag;
 import com.mindease.admin.model.AdminSettings;
 import com.mindease.notification.service.NotificationService;
 import com.mindease.admin.repository.AdminSettingsRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
 import com.mindease.crisis.repository.CrisisFlagRepository;
 import com.mindease.notification.service.EmailService;
 import org.slf4j.Logger;
@@ -29,6 +30,7 @@ public class CrisisFlaggingService {
     private final NotificationService notificationService;
     private final EmailService emailService;
     private final ApplicationEventPublisher events;
+    private final UserAdminStatsRepository userAdminStats;
 
     public CrisisFlaggingService(CrisisKeywordDetector detector,
             RiskScorer riskScorer,
@@ -36,7 +38,8 @@ public class CrisisFlaggingService {
             AdminSettingsRepository settingsRepo,
             NotificationService notificationService,
             EmailService emailService,
-            ApplicationEventPublisher events) {
+            ApplicationEventPublisher events,
+            UserAdminStatsRepository userAdminStats) {
         this.detector = detector;
         this.riskScorer = riskScorer;
         this.flagRepo = flagRepo;
@@ -44,6 +47,7 @@ public class CrisisFlaggingService {
         this.notificationService = notificationService;
         this.emailService = emailService;
         this.events = events;
+        this.userAdminStats = userAdminStats;
     }
 
     private boolean alertsEnabled() {
@@ -85,6 +89,7 @@ public class CrisisFlaggingService {
                 risk.ifPresent(flag::setRiskScore);
 
                 CrisisFlag saved = flagRepo.save(flag);
+                userAdminStats.incrementCrisisFlags(userId);
 
                 log.info("Crisis flag created: chatId={}, userId={}, keyword={}, riskScore={}",
                         chatId, userId, keyword, risk.orElse(null));
@@ -103,12 +108,8 @@ public class CrisisFlaggingService {
             String body = risk.map(r -> "A potential crisis was detected (risk=" + String.format("%.2f", r) + ").")
                     .orElse("A potential crisis was detected.");
             notificationService.notifyAdmins(title, body);
-
-            try {
-                notificationService.emailAdmins(title, "User " + userId + " flagged: " + keyword);
-            } catch (Exception mailEx) {
-                log.warn("Failed sending crisis alert email for userId={}, chatId={}", userId, chatId, mailEx);
-            }
+            // Queued in this transaction: the flag and its alert emails commit together
+            notificationService.emailAdmins(title, "User " + userId + " flagged: " + keyword);
         } catch (Exception e) {
             log.error("Crisis evaluation failed for chatId={}, userId={}", chatId, userId, e);
         }
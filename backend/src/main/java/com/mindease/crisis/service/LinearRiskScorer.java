@@ -0,0 +1,187 @@
+package com.mindease.crisis.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * In-process risk scorer: logistic regression over hashed word unigrams and
+ * bigrams. The model is a dense weight table loaded once from a text resource
+ * (see {@code backend/scripts/train_risk_model.py}, which shares the tokenizer
+ * and hash functions below).
+ *
+ * Scoring hashes tokens in a single pass over the input without building
+ * strings or feature arrays, and the weight table is never mutated after
+ * construction, so one instance is safe to share across threads.
+ */
+@Component
+@Profile("!test")
+public class LinearRiskScorer implements RiskScorer {
+
+    private static final Logger log = LoggerFactory.getLogger(LinearRiskScorer.class);
+
+    private static final String FORMAT = "hashed-ngram-lr";
+
+    private static final int FNV_OFFSET = 0x811c9dc5;
+    private static final int FNV_PRIME = 0x01000193;
+    private static final int BIGRAM_SEED = 0x9e3779b1;
+
+    private final String version;
+    private final float bias;
+    private final float[] weights;
+    private final int mask;
+
+    @Autowired
+    public LinearRiskScorer(@Value("${crisis.risk-model.location:classpath:models/crisis-risk-model.txt}") Resource model) {
+        this(parse(model));
+        log.info("Loaded risk model {} ({} buckets)", version, weights.length);
+    }
+
+    private LinearRiskScorer(Model model) {
+        if (model.weights().length == 0 || Integer.bitCount(model.weights().length) != 1) {
+            throw new IllegalArgumentException("bucket count must be a power of two: " + model.weights().length);
+        }
+        this.version = model.version();
+        this.bias = model.bias();
+        this.weights = model.weights();
+        this.mask = weights.length - 1;
+    }
+
+    /** Loads a scorer from a model stream outside the Spring context (tests, benchmarks). */
+    public static LinearRiskScorer fromStream(InputStream in) throws IOException {
+        return new LinearRiskScorer(parse(in));
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public Optional<Double> score(String text) {
+        return Optional.of(probability(text));
+    }
+
+    /**
+     * Same as {@link #score(String)} without the boxing; used by the benchmark
+     * and accuracy harness.
+     */
+    public double probability(String text) {
+        Objects.requireNonNull(text, "text must not be null");
+        double z = bias;
+        int prev = 0;
+        boolean hasPrev = false;
+        int h = FNV_OFFSET;
+        boolean inToken = false;
+
+        for (int i = 0, n = text.length(); i <= n; i++) {
+            char c = i < n ? text.charAt(i) : ' ';
+            if (c == '\'' || c == '\u2019') {
+                continue; // "don't" and "dont" hash to the same token
+            }
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            boolean tokenChar = (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                    || (c > 127 && Character.isLetter(c));
+            if (tokenChar) {
+                h = (h ^ c) * FNV_PRIME;
+                inToken = true;
+            } else if (inToken) {
+                z += weights[fmix(h) & mask];
+                if (hasPrev) {
+                    z += weights[fmix(prev * BIGRAM_SEED + h) & mask];
+                }
+                prev = h;
+                hasPrev = true;
+                h = FNV_OFFSET;
+                inToken = false;
+            }
+        }
+        return 1.0 / (1.0 + Math.exp(-z));
+    }
+
+    /** MurmurHash3 32-bit finalizer. */
+    private static int fmix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static Model parse(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return parse(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read risk model from " + resource.getDescription(), e);
+        }
+    }
+
+    /**
+     * Parses the model format: {@code key=value} header lines ({@code format},
+     * {@code version}, {@code buckets}, {@code bias}) followed by sparse
+     * {@code <bucket> <weight>} lines. Blank lines and {@code #} comments are
+     * ignored.
+     */
+    private static Model parse(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String version = "unknown";
+        Float bias = null;
+        float[] weights = null;
+        String line;
+        int lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            int eq = line.indexOf('=');
+            if (eq > 0) {
+                String key = line.substring(0, eq).strip();
+                String value = line.substring(eq + 1).strip();
+                switch (key) {
+                    case "format" -> {
+                        if (!FORMAT.equals(value)) {
+                            throw new IllegalArgumentException("Unsupported risk model format: " + value);
+                        }
+                    }
+                    case "version" -> version = value;
+                    case "buckets" -> weights = new float[Integer.parseInt(value)];
+                    case "bias" -> bias = Float.parseFloat(value);
+                    default -> log.debug("Ignoring unknown risk model header {}", key);
+                }
+                continue;
+            }
+            if (weights == null) {
+                throw new IllegalArgumentException("Risk model line " + lineNo + ": weights before 'buckets' header");
+            }
+            int sep = line.indexOf(' ');
+            if (sep < 0) {
+                throw new IllegalArgumentException("Risk model line " + lineNo + ": expected '<bucket> <weight>'");
+            }
+            weights[Integer.parseInt(line.substring(0, sep))] = Float.parseFloat(line.substring(sep + 1).strip());
+        }
+        if (weights == null || bias == null) {
+            throw new IllegalArgumentException("Risk model is missing 'buckets' or 'bias' header");
+        }
+        return new Model(version, bias, weights);
+    }
+
+    private record Model(String version, float bias, float[] weights) {
+    }
+}
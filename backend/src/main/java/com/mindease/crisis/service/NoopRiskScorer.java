@@ -6,11 +6,11 @@ import org.springframework.stereotype.Component;
 import java.util.Optional;
 
 @Component
-@Profile({"dev", "test"})
+@Profile("test")
 public class NoopRiskScorer implements RiskScorer {
     @Override
     public Optional<Double> score(String text) {
         if (text == null) throw new NullPointerException("text must not be null");
-        return Optional.empty(); // placeholder (can swap with real model bean later)
+        return Optional.empty(); // tests supply their own scores; LinearRiskScorer serves every other profile
     }
 }
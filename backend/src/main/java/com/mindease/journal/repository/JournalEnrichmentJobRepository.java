@@ -0,0 +1,165 @@
+package com.mindease.journal.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable queue of journal entries waiting for AI enrichment, in
+ * {@code journal_enrichment_jobs}.
+ *
+ * Workers on any number of instances claim due rows with
+ * {@code FOR UPDATE SKIP LOCKED}, so each job runs once at a time without
+ * blocking other claimers. A claimed row is leased until
+ * {@code locked_until}; if its worker dies the job becomes due again when
+ * the lease runs out. Each claim bumps {@code attempts}, which the outcome
+ * writes check, so a worker whose lease was taken over writes nothing.
+ */
+@Repository
+public class JournalEnrichmentJobRepository {
+
+    public record ClaimedJob(UUID journalEntryId, UUID userId, int attempts, String content) {
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /** Queues an entry in the caller's transaction; a second enqueue of the same entry is a no-op. */
+    @Transactional
+    public void enqueue(UUID journalEntryId, UUID userId) {
+        em.createNativeQuery("""
+            INSERT INTO journal_enrichment_jobs (journal_entry_id, user_id) VALUES (:entryId, :userId)
+            ON CONFLICT (journal_entry_id) DO NOTHING
+        """)
+                .setParameter("entryId", journalEntryId)
+                .setParameter("userId", userId)
+                .executeUpdate();
+    }
+
+    /**
+     * Claims up to {@code limit} due jobs (pending and past their backoff, or
+     * running with an expired lease), oldest first. Each claim counts as an
+     * attempt; the returned {@code attempts} includes it.
+     */
+    @Transactional
+    public List<ClaimedJob> claim(int limit, int leaseSeconds) {
+        var sql = """
+            SELECT j.journal_entry_id, j.user_id, j.attempts, e.content
+            FROM journal_enrichment_jobs j
+            JOIN journal_entries e ON e.id = j.journal_entry_id
+            WHERE (j.status = 'PENDING' AND j.next_attempt_at <= NOW())
+               OR (j.status = 'RUNNING' AND j.locked_until < NOW())
+            ORDER BY j.next_attempt_at
+            LIMIT :limit
+            FOR UPDATE OF j SKIP LOCKED
+        """;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(sql)
+                .setParameter("limit", limit)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> ids = rows.stream().map(row -> (UUID) row[0]).toList();
+        em.createNativeQuery("""
+            UPDATE journal_enrichment_jobs
+            SET status = 'RUNNING', attempts = attempts + 1,
+                locked_until = NOW() + :lease * INTERVAL '1 second', updated_at = NOW()
+            WHERE journal_entry_id IN (:ids)
+        """)
+                .setParameter("lease", leaseSeconds)
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        return rows.stream()
+                .map(row -> new ClaimedJob((UUID) row[0], (UUID) row[1], ((Number) row[2]).intValue() + 1,
+                        (String) row[3]))
+                .toList();
+    }
+
+    /**
+     * Stores the enrichment on the entry and removes the job, atomically.
+     * Returns {@code false}, writing nothing, if the claim that made
+     * {@code attempts} no longer holds the job.
+     */
+    @Transactional
+    public boolean complete(UUID journalEntryId, int attempts, String aiSummary, String moodInsight) {
+        int deleted = em.createNativeQuery("""
+            DELETE FROM journal_enrichment_jobs
+            WHERE journal_entry_id = :entryId AND status = 'RUNNING' AND attempts = :attempts
+        """)
+                .setParameter("entryId", journalEntryId)
+                .setParameter("attempts", attempts)
+                .executeUpdate();
+        if (deleted == 0) {
+            return false;
+        }
+        writeEnrichment(journalEntryId, aiSummary, moodInsight);
+        return true;
+    }
+
+    /**
+     * Releases the lease and makes the job due again after {@code delayMillis}.
+     * Returns {@code false} if the claim no longer holds the job.
+     */
+    @Transactional
+    public boolean retryLater(UUID journalEntryId, int attempts, long delayMillis, String error) {
+        return em.createNativeQuery("""
+            UPDATE journal_enrichment_jobs
+            SET status = 'PENDING', locked_until = NULL, last_error = :error,
+                next_attempt_at = NOW() + :delay * INTERVAL '1 millisecond', updated_at = NOW()
+            WHERE journal_entry_id = :entryId AND status = 'RUNNING' AND attempts = :attempts
+        """)
+                .setParameter("entryId", journalEntryId)
+                .setParameter("attempts", attempts)
+                .setParameter("delay", delayMillis)
+                .setParameter("error", error)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Gives up: stores the fallback text on the entry and keeps the job as
+     * FAILED. Returns {@code false}, writing nothing, if the claim no longer
+     * holds the job.
+     */
+    @Transactional
+    public boolean fail(UUID journalEntryId, int attempts, String aiSummary, String moodInsight, String error) {
+        int updated = em.createNativeQuery("""
+            UPDATE journal_enrichment_jobs
+            SET status = 'FAILED', locked_until = NULL, last_error = :error, updated_at = NOW()
+            WHERE journal_entry_id = :entryId AND status = 'RUNNING' AND attempts = :attempts
+        """)
+                .setParameter("entryId", journalEntryId)
+                .setParameter("attempts", attempts)
+                .setParameter("error", error)
+                .executeUpdate();
+        if (updated == 0) {
+            return false;
+        }
+        writeEnrichment(journalEntryId, aiSummary, moodInsight);
+        return true;
+    }
+
+    /** Jobs for the user that are still waiting or running. */
+    @Transactional(readOnly = true)
+    public long countQueued(UUID userId) {
+        return ((Number) em.createNativeQuery(
+                "SELECT COUNT(*) FROM journal_enrichment_jobs WHERE user_id = :userId AND status <> 'FAILED'")
+                .setParameter("userId", userId)
+                .getSingleResult()).longValue();
+    }
+
+    private void writeEnrichment(UUID journalEntryId, String aiSummary, String moodInsight) {
+        em.createNativeQuery(
+                "UPDATE journal_entries SET ai_summary = :summary, mood_insight = :insight WHERE id = :entryId")
+                .setParameter("entryId", journalEntryId)
+                .setParameter("summary", aiSummary)
+                .setParameter("insight", moodInsight)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,369 @@
+package com.mindease.journal.service;
+
+import com.mindease.chat.service.OpenAIService;
+import com.mindease.journal.model.JournalEntry;
+import com.mindease.journal.repository.JournalEnrichmentJobRepository;
+import com.mindease.journal.repository.JournalEnrichmentJobRepository.ClaimedJob;
+import com.mindease.shared.events.JournalEnrichmentQueuedEvent;
+import com.mindease.shared.service.PythonAIServiceClient;
+import com.mindease.shared.util.DaemonThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates journal AI summaries and mood insights in the background.
+ *
+ * Saving an entry only queues a row in {@code journal_enrichment_jobs}; once
+ * the save commits, the worker pool is woken to claim it. The summary and
+ * insight calls for a job run in parallel. A job with a missing result or a
+ * failed call is retried with exponential backoff up to {@code max-attempts},
+ * after which the entry gets the "unavailable" text. Either way the user is
+ * told on {@code /topic/user/{id}/journal}. The queue is also polled every
+ * {@code poll-interval-ms}, which picks up retries and jobs left behind by a
+ * restart.
+ *
+ * A job whose AI calls take longer than {@code call-timeout-seconds}, below
+ * the claim's {@code lease-seconds}, is retried; outcomes are only recorded
+ * while the claim still holds the job, so a job is never enriched twice by
+ * overlapping claims. The job keeps its in-flight slot until its calls
+ * actually return, so a hung provider stops new claims instead of queueing
+ * them behind the stuck calls.
+ */
+@Service
+public class JournalEnrichmentService {
+
+    private static final Logger log = LoggerFactory.getLogger(JournalEnrichmentService.class);
+
+    static final String SUMMARY_UNAVAILABLE =
+            "Summary unavailable due to temporary technical issues. Please try again later.";
+    static final String INSIGHT_UNAVAILABLE = "Mood insight unavailable due to temporary technical issues.";
+    static final String SUMMARY_NOT_CONFIGURED =
+            "Summary unavailable - AI service not configured. Please contact support.";
+    static final String INSIGHT_NOT_CONFIGURED = "Mood insight unavailable - AI service not configured.";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JournalEnrichmentJobRepository jobs;
+    private final PythonAIServiceClient pythonAIServiceClient;
+    private final OpenAIService openAIService; // fallback, may be null
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher events;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final int batchSize;
+    private final int maxInFlight;
+    private final int leaseSeconds;
+    private final int callTimeoutSeconds;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private final Counter completed;
+    private final Counter retried;
+    private final Counter failed;
+    private final Counter superseded;
+
+    @Autowired
+    public JournalEnrichmentService(JournalEnrichmentJobRepository jobs,
+            PythonAIServiceClient pythonAIServiceClient,
+            ObjectProvider<OpenAIService> openAIService,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher events,
+            MeterRegistry meterRegistry,
+            @Value("${journal.enrichment.max-attempts:5}") int maxAttempts,
+            @Value("${journal.enrichment.base-backoff-ms:5000}") long baseBackoffMs,
+            @Value("${journal.enrichment.max-backoff-ms:600000}") long maxBackoffMs,
+            @Value("${journal.enrichment.batch-size:20}") int batchSize,
+            @Value("${journal.enrichment.worker-threads:4}") int workerThreads,
+            @Value("${journal.enrichment.lease-seconds:120}") int leaseSeconds,
+            @Value("${journal.enrichment.call-timeout-seconds:90}") int callTimeoutSeconds) {
+        // Each job keeps two AI calls in flight
+        this(jobs, pythonAIServiceClient, openAIService.getIfAvailable(), messagingTemplate, events, meterRegistry,
+                maxAttempts, baseBackoffMs, maxBackoffMs, batchSize, workerThreads, leaseSeconds, callTimeoutSeconds,
+                Executors.newFixedThreadPool(workerThreads * 2, DaemonThreads.named("journal-enrichment")));
+    }
+
+    JournalEnrichmentService(JournalEnrichmentJobRepository jobs,
+            PythonAIServiceClient pythonAIServiceClient,
+            OpenAIService openAIService,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher events,
+            MeterRegistry meterRegistry,
+            int maxAttempts, long baseBackoffMs, long maxBackoffMs,
+            int batchSize, int maxInFlight, int leaseSeconds, int callTimeoutSeconds,
+            Executor executor) {
+        if (callTimeoutSeconds >= leaseSeconds) {
+            throw new IllegalArgumentException("journal.enrichment.call-timeout-seconds (" + callTimeoutSeconds
+                    + ") must be below lease-seconds (" + leaseSeconds + ")");
+        }
+        this.jobs = jobs;
+        this.pythonAIServiceClient = pythonAIServiceClient;
+        this.openAIService = openAIService;
+        this.messagingTemplate = messagingTemplate;
+        this.events = events;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.batchSize = batchSize;
+        this.maxInFlight = maxInFlight;
+        this.leaseSeconds = leaseSeconds;
+        this.callTimeoutSeconds = callTimeoutSeconds;
+        this.executor = executor;
+        this.ownedExecutor = executor instanceof ExecutorService es ? es : null;
+        this.completed = outcome(meterRegistry, "completed");
+        this.retried = outcome(meterRegistry, "retried");
+        this.failed = outcome(meterRegistry, "failed");
+        this.superseded = outcome(meterRegistry, "superseded");
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("journal.enrichment.jobs")
+                .description("Journal enrichment job attempts by outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    /** Queues enrichment for a saved entry; must run inside the transaction that saved it. */
+    public void enqueue(JournalEntry entry) {
+        jobs.enqueue(entry.getId(), entry.getUserId());
+        events.publishEvent(new JournalEnrichmentQueuedEvent(entry.getId()));
+    }
+
+    /** Jobs for the user that have not finished yet; they count toward the free-tier limit. */
+    public long countQueued(UUID userId) {
+        return jobs.countQueued(userId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onQueued(JournalEnrichmentQueuedEvent evt) {
+        wake();
+    }
+
+    @Scheduled(fixedDelayString = "${journal.enrichment.poll-interval-ms:5000}",
+            initialDelayString = "${journal.enrichment.initial-delay-ms:10000}")
+    public void poll() {
+        wake();
+    }
+
+    /** Asks the pool to claim due jobs; a wake during a running drain makes that drain go round again. */
+    public void wake() {
+        wakeRequested.set(true);
+        try {
+            executor.execute(this::drain);
+        } catch (RejectedExecutionException e) {
+            log.debug("Journal enrichment pool is shut down; skipping drain");
+        }
+    }
+
+    void drain() {
+        while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                wakeRequested.set(false);
+                claimAndStart();
+            } catch (RuntimeException e) {
+                log.warn("Failed to claim journal enrichment jobs: {}", e.getMessage());
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    private void claimAndStart() {
+        while (true) {
+            int capacity = Math.min(batchSize, maxInFlight - inFlight.get());
+            if (capacity <= 0) {
+                return; // a finishing job wakes the pool again
+            }
+            List<ClaimedJob> claimed = jobs.claim(capacity, leaseSeconds);
+            for (ClaimedJob job : claimed) {
+                inFlight.incrementAndGet();
+                process(job).whenComplete((v, e) -> {
+                    inFlight.decrementAndGet();
+                    wake();
+                });
+            }
+            if (claimed.size() < capacity) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Runs the job and records its outcome. The returned future completes
+     * once the outcome is recorded and both AI calls have returned, which is
+     * later than the outcome when a call times out.
+     */
+    CompletableFuture<Void> process(ClaimedJob job) {
+        CompletableFuture<Optional<String>> summary =
+                CompletableFuture.supplyAsync(() -> summarize(job.content()), executor);
+        CompletableFuture<Optional<String>> insight =
+                CompletableFuture.supplyAsync(() -> moodInsight(job.content()), executor);
+        CompletableFuture<Void> calls = CompletableFuture.allOf(summary, insight);
+        CompletableFuture<Void> outcome = calls.copy()
+                .orTimeout(callTimeoutSeconds, TimeUnit.SECONDS)
+                .thenRun(() -> finish(job, summary.join(), insight.join()))
+                .exceptionally(e -> {
+                    handleFailure(job, e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+                    return null;
+                });
+        return CompletableFuture.allOf(outcome, calls.exceptionally(e -> null));
+    }
+
+    private Optional<String> summarize(String content) {
+        Optional<String> summary = pythonAIServiceClient.generateJournalSummary(content);
+        if (summary.isEmpty() && openAIService != null) {
+            log.debug("Python service unavailable, falling back to Java OpenAIService for summary");
+            summary = openAIService.generateJournalSummary(content);
+        }
+        return summary;
+    }
+
+    private Optional<String> moodInsight(String content) {
+        Optional<String> insight = pythonAIServiceClient.generateMoodInsight(content);
+        if (insight.isEmpty() && openAIService != null) {
+            log.debug("Python service unavailable, falling back to Java OpenAIService for insight");
+            insight = openAIService.generateMoodInsight(content);
+        }
+        return insight;
+    }
+
+    private void finish(ClaimedJob job, Optional<String> summary, Optional<String> insight) {
+        if (summary.isPresent() && insight.isPresent()) {
+            if (!jobs.complete(job.journalEntryId(), job.attempts(), summary.get(), insight.get())) {
+                superseded(job);
+                return;
+            }
+            completed.increment();
+            log.info("Saved AI summary for journal entry {} (attempt {})", job.journalEntryId(), job.attempts());
+            notifyUser(job, summary.get(), insight.get(), "completed");
+            return;
+        }
+        String error = "AI service returned no " + (summary.isEmpty() ? "summary" : "mood insight");
+        if (job.attempts() < maxAttempts) {
+            retry(job, error);
+        } else {
+            giveUp(job, summary.orElse(SUMMARY_UNAVAILABLE), insight.orElse(INSIGHT_UNAVAILABLE), error);
+        }
+    }
+
+    private void handleFailure(ClaimedJob job, Throwable error) {
+        String message = error.getMessage();
+        try {
+            if (isConfigError(message)) {
+                // Retrying will not fix a missing or rejected API key
+                log.error("Configuration error generating AI summary for journal entry {}: {}. "
+                        + "Check OpenAI API key configuration.", job.journalEntryId(), message, error);
+                giveUp(job, SUMMARY_NOT_CONFIGURED, INSIGHT_NOT_CONFIGURED, describe(error));
+            } else if (job.attempts() < maxAttempts) {
+                retry(job, describe(error));
+            } else {
+                log.warn("Giving up on AI summary for journal entry {} after {} attempts",
+                        job.journalEntryId(), job.attempts(), error);
+                giveUp(job, SUMMARY_UNAVAILABLE, INSIGHT_UNAVAILABLE, describe(error));
+            }
+        } catch (RuntimeException e) {
+            // The lease runs out and the job is claimed again
+            log.warn("Failed to record outcome for journal enrichment job {}: {}", job.journalEntryId(),
+                    e.getMessage());
+        }
+    }
+
+    private void retry(ClaimedJob job, String error) {
+        long delay = backoffMillis(job.attempts(), baseBackoffMs, maxBackoffMs);
+        if (!jobs.retryLater(job.journalEntryId(), job.attempts(), delay, error)) {
+            superseded(job);
+            return;
+        }
+        retried.increment();
+        log.warn("AI enrichment attempt {} for journal entry {} failed ({}); retrying in {}ms",
+                job.attempts(), job.journalEntryId(), error, delay);
+    }
+
+    private void giveUp(ClaimedJob job, String summary, String insight, String error) {
+        if (!jobs.fail(job.journalEntryId(), job.attempts(), summary, insight, error)) {
+            superseded(job);
+            return;
+        }
+        failed.increment();
+        notifyUser(job, summary, insight, "failed");
+    }
+
+    /** The lease ran out and the job was claimed again; that claim records the outcome. */
+    private void superseded(ClaimedJob job) {
+        superseded.increment();
+        log.warn("Journal enrichment attempt {} for entry {} outlived its lease; discarding its result",
+                job.attempts(), job.journalEntryId());
+    }
+
+    /** {@code base * 2^(attempts-1)}, capped at {@code max}. */
+    static long backoffMillis(int attempts, long base, long max) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(max, base << shift);
+    }
+
+    private static boolean isConfigError(String message) {
+        return message != null && (message.contains("API key")
+                || message.contains("authentication")
+                || message.contains("401")
+                || message.contains("403"));
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getClass().getSimpleName()
+                + (error.getMessage() != null ? ": " + error.getMessage() : "");
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    private void notifyUser(ClaimedJob job, String summary, String insight, String status) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", "journal_enrichment");
+        payload.put("entryId", job.journalEntryId());
+        payload.put("status", status);
+        payload.put("aiSummary", summary);
+        payload.put("moodInsight", insight);
+        try {
+            messagingTemplate.convertAndSend("/topic/user/" + job.userId() + "/journal", payload);
+        } catch (RuntimeException e) {
+            // The entry is already stored; clients see it on their next fetch
+            log.debug("Failed to push journal enrichment for entry {}: {}", job.journalEntryId(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+}
@@ -5,24 +5,20 @@ import com.mindease.auth.repository.UserRepository;
 import com.mindease.journal.model.JournalEntry;
 import com.mindease.journal.repository.JournalEntryRepository;
 import com.mindease.chat.service.OpenAIService;
-import com.mindease.shared.service.PythonAIServiceClient;
 import com.mindease.mood.model.MoodEntry;
-import com.mindease.mood.repository.MoodEntryRepository;
+import com.mindease.mood.service.MoodService;
 import java.time.YearMonth;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 @Service
 public class JournalService {
@@ -33,13 +29,13 @@ public class JournalService {
     private JournalEntryRepository journalEntryRepository;
 
     @Autowired
-    private PythonAIServiceClient pythonAIServiceClient;
+    private JournalEnrichmentService journalEnrichmentService;
 
     @Autowired(required = false)
     private OpenAIService openAIService; // Keep for fallback
 
     @Autowired
-    private MoodEntryRepository moodEntryRepository;
+    private MoodService moodService;
 
     @Autowired
     private UserRepository userRepository;
@@ -76,8 +72,7 @@ public class JournalService {
             User user = userRepository.findById(userId)
                     .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
 
-            MoodEntry moodEntry = new MoodEntry(user, moodValue, null);
-            moodEntry = moodEntryRepository.save(moodEntry);
+            MoodEntry moodEntry = moodService.saveMoodEntry(user, moodValue, null);
             entry.setMoodEntry(moodEntry);
 
             logger.info("Created linked mood entry (value: {}) for journal entry", moodValue);
@@ -85,9 +80,9 @@ public class JournalService {
 
         JournalEntry savedEntry = journalEntryRepository.save(entry);
 
-        // Generate AI summary asynchronously only if within limits or premium
+        // Queue AI enrichment only if within limits or premium; workers pick it up after commit
         if (isPremium || canGenerateAISummary(userId)) {
-            generateAndSaveAISummary(savedEntry);
+            journalEnrichmentService.enqueue(savedEntry);
         } else {
             logger.info("Skipping AI summary generation for free user (monthly limit reached): userId={}", userId);
             savedEntry.setAiSummary(
@@ -126,61 +121,6 @@ public class JournalService {
         return trimmed.length() > MAX_TITLE_LENGTH ? trimmed.substring(0, MAX_TITLE_LENGTH) : trimmed;
     }
 
-    @Async
-    public CompletableFuture<Void> generateAndSaveAISummary(JournalEntry entry) {
-        try {
-            logger.info("Generating AI summary for journal entry: {}", entry.getId());
-
-            // Call Python AI service for summaries
-            Optional<String> summaryOpt = pythonAIServiceClient.generateJournalSummary(entry.getContent());
-            Optional<String> insightOpt = pythonAIServiceClient.generateMoodInsight(entry.getContent());
-
-            // Fallback to Java OpenAIService if Python service unavailable
-            if (summaryOpt.isEmpty() && openAIService != null) {
-                logger.debug("Python service unavailable, falling back to Java OpenAIService for summary");
-                summaryOpt = openAIService.generateJournalSummary(entry.getContent());
-            }
-            if (insightOpt.isEmpty() && openAIService != null) {
-                logger.debug("Python service unavailable, falling back to Java OpenAIService for insight");
-                insightOpt = openAIService.generateMoodInsight(entry.getContent());
-            }
-
-            String summary = summaryOpt.orElse("Summary unavailable at this time.");
-            String insight = insightOpt.orElse("Mood insight unavailable at this time.");
-
-            // Update the entry with AI-generated content
-            entry.setAiSummary(summary);
-            entry.setMoodInsight(insight);
-            journalEntryRepository.save(entry);
-
-            logger.info("Successfully saved AI summary for journal entry: {}", entry.getId());
-
-        } catch (Exception e) {
-            // Log error with context
-            String errorMessage = e.getMessage();
-            boolean isConfigError = errorMessage != null &&
-                    (errorMessage.contains("API key") ||
-                            errorMessage.contains("authentication") ||
-                            errorMessage.contains("401") ||
-                            errorMessage.contains("403"));
-
-            if (isConfigError) {
-                logger.error("Configuration error generating AI summary for journal entry {}: {}. " +
-                        "Check OpenAI API key configuration.", entry.getId(), errorMessage, e);
-                entry.setAiSummary("Summary unavailable - AI service not configured. Please contact support.");
-                entry.setMoodInsight("Mood insight unavailable - AI service not configured.");
-            } else {
-                logger.warn("Temporary failure generating AI summary for journal entry {}: {}. " +
-                        "Will retry on next entry.", entry.getId(), errorMessage, e);
-                entry.setAiSummary("Summary unavailable due to temporary technical issues. Please try again later.");
-                entry.setMoodInsight("Mood insight unavailable due to temporary technical issues.");
-            }
-            journalEntryRepository.save(entry);
-        }
-
-        return CompletableFuture.completedFuture(null);
-    }
-
     public Page<JournalEntry> getJournalHistory(UUID userId, Pageable pageable) {
         return journalEntryRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
@@ -209,8 +149,9 @@ public class JournalService {
     private boolean canGenerateAISummary(UUID userId) {
         YearMonth currentMonth = YearMonth.now();
         LocalDateTime startOfMonth = currentMonth.atDay(1).atStartOfDay();
+        // Entries still queued for enrichment have no summary yet but already use the allowance
         long summariesThisMonth = journalEntryRepository.countByUserIdWithAISummaryAndCreatedAtAfter(userId,
-                startOfMonth);
+                startOfMonth) + journalEnrichmentService.countQueued(userId);
         int freeMonthlyAILimit = 1; // Free users: 1 AI summary per month
 
         boolean canGenerate = summariesThisMonth < freeMonthlyAILimit;
@@ -6,10 +6,12 @@ import com.mindease.mindfulness.model.MindfulnessSession;
 import com.mindease.mindfulness.model.MindfulnessSessionActivity;
 import com.mindease.mindfulness.model.UserMindfulnessPreferences;
 import com.mindease.mindfulness.repository.UserMindfulnessPreferencesRepository;
+import com.mindease.mindfulness.service.MindfulnessCatalog;
 import com.mindease.mindfulness.service.MindfulnessRecommendationService;
 import com.mindease.mindfulness.service.MindfulnessService;
 import com.mindease.shared.security.CurrentUserId;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -18,7 +20,6 @@ import java.time.LocalTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -37,6 +38,10 @@ public class MindfulnessController {
     @Autowired
     private UserMindfulnessPreferencesRepository preferencesRepository;
 
+    // The catalog endpoints below are answered from one in-memory snapshot and
+    // tagged with its ETag; a request whose If-None-Match matches gets a 304
+    // without a body (handled by Spring for ResponseEntity return values).
+
     @GetMapping("/list")
     public ResponseEntity<?> getAllSessions(
             @RequestParam(required = false) String type,
@@ -45,27 +50,28 @@ public class MindfulnessController {
             @RequestParam(required = false) Integer maxDuration) {
 
         try {
+            MindfulnessCatalog.Snapshot catalog = mindfulnessService.getCatalog();
             List<MindfulnessSession> sessions;
 
             if (type != null) {
-                sessions = mindfulnessService.getSessionsByType(type);
+                sessions = catalog.ofType(type);
             } else if (category != null) {
-                sessions = mindfulnessService.getSessionsByCategory(category);
+                sessions = catalog.inCategory(category);
             } else if (difficulty != null) {
-                sessions = mindfulnessService.getSessionsByDifficulty(difficulty);
+                sessions = catalog.atDifficulty(difficulty);
             } else if (maxDuration != null) {
-                sessions = mindfulnessService.getQuickSessions(maxDuration);
+                sessions = catalog.upTo(maxDuration);
             } else {
-                sessions = mindfulnessService.getAllSessions();
+                sessions = catalog.sessions();
             }
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("sessions", sessions);
             response.put("count", sessions.size());
-            response.put("categories", mindfulnessService.getAllCategories());
+            response.put("categories", catalog.categories());
 
-            return ResponseEntity.ok(response);
+            return cacheable(catalog, response);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -83,21 +89,22 @@ public class MindfulnessController {
                 return ResponseEntity.badRequest().body("Invalid session ID format");
             }
 
-            Optional<MindfulnessSession> session = mindfulnessService.getSessionById(sessionId);
+            MindfulnessCatalog.Snapshot catalog = mindfulnessService.getCatalog();
+            MindfulnessSession session = catalog.byId().get(sessionId);
 
-            if (session.isPresent()) {
+            if (session != null) {
                 Map<String, Object> response = new HashMap<>();
                 response.put("success", true);
-                response.put("session", session.get());
+                response.put("session", session);
 
                 // Add media URL for streaming
                 Map<String, String> mediaInfo = new HashMap<>();
-                mediaInfo.put("url", session.get().getMediaUrl());
-                mediaInfo.put("type", session.get().getType());
-                mediaInfo.put("duration", session.get().getDuration() + " minutes");
+                mediaInfo.put("url", session.getMediaUrl());
+                mediaInfo.put("type", session.getType());
+                mediaInfo.put("duration", session.getDuration() + " minutes");
                 response.put("media", mediaInfo);
 
-                return ResponseEntity.ok(response);
+                return cacheable(catalog, response);
             } else {
                 return ResponseEntity.notFound().build();
             }
@@ -111,13 +118,13 @@ public class MindfulnessController {
     @GetMapping("/categories")
     public ResponseEntity<?> getAllCategories() {
         try {
-            List<String> categories = mindfulnessService.getAllCategories();
+            MindfulnessCatalog.Snapshot catalog = mindfulnessService.getCatalog();
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
-            response.put("categories", categories);
+            response.put("categories", catalog.categories());
 
-            return ResponseEntity.ok(response);
+            return cacheable(catalog, response);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -128,7 +135,8 @@ public class MindfulnessController {
     @GetMapping("/quick")
     public ResponseEntity<?> getQuickSessions(@RequestParam(defaultValue = "5") int maxDuration) {
         try {
-            List<MindfulnessSession> quickSessions = mindfulnessService.getQuickSessions(maxDuration);
+            MindfulnessCatalog.Snapshot catalog = mindfulnessService.getCatalog();
+            List<MindfulnessSession> quickSessions = catalog.upTo(maxDuration);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -136,7 +144,7 @@ public class MindfulnessController {
             response.put("maxDuration", maxDuration);
             response.put("count", quickSessions.size());
 
-            return ResponseEntity.ok(response);
+            return cacheable(catalog, response);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError()
@@ -287,6 +295,7 @@ public class MindfulnessController {
             }
 
             preferencesRepository.save(preferences);
+            recommendationService.invalidate(userId);
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -365,6 +374,16 @@ public class MindfulnessController {
         }
     }
 
+    /** 200 response tagged with the catalog snapshot's ETag, revalidated on every reuse. */
+    private static ResponseEntity<Map<String, Object>> cacheable(MindfulnessCatalog.Snapshot catalog,
+            Map<String, Object> body) {
+        // Clients may keep the response but must revalidate before reusing it
+        return ResponseEntity.ok()
+                .eTag(catalog.etag())
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body);
+    }
+
     /**
      * Convert a MindfulnessSessionActivity to a Map for safe serialization.
      * Includes activity fields and session fields (id, title, category, type,
@@ -0,0 +1,134 @@
+package com.mindease.mindfulness.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.BitSet;
+import java.util.UUID;
+
+/**
+ * Days on which a user completed a mindfulness session, as a bitset, plus
+ * streak counters kept up to date as days are added.
+ *
+ * Bit {@code i} stands for day {@code startDay + i} (epoch days). The
+ * current streak is the run of consecutive days ending at
+ * {@code lastActiveDay}; it still counts while the user has until the end of
+ * today to extend it, i.e. while {@code lastActiveDay} is today or
+ * yesterday.
+ */
+@Entity
+@Table(name = "mindfulness_activity_calendars")
+public class MindfulnessActivityCalendar {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "start_day")
+    private Integer startDay;
+
+    @Column(name = "active_days", nullable = false, columnDefinition = "bytea")
+    private byte[] activeDays = new byte[0];
+
+    @Column(name = "last_active_day")
+    private Integer lastActiveDay;
+
+    @Column(name = "current_streak", nullable = false)
+    private int currentStreak;
+
+    @Column(name = "longest_streak", nullable = false)
+    private int longestStreak;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public MindfulnessActivityCalendar() {
+    }
+
+    public MindfulnessActivityCalendar(UUID userId) {
+        this.userId = userId;
+    }
+
+    /**
+     * Marks {@code date} active and updates the streaks. Returns
+     * {@code false} if it was already active.
+     */
+    public boolean record(LocalDate date) {
+        int day = (int) date.toEpochDay();
+        BitSet bits = bits();
+        if (startDay == null) {
+            startDay = day;
+        } else if (day < startDay) {
+            bits = rebase(bits, startDay - day);
+            startDay = day;
+        }
+        int index = day - startDay;
+        if (bits.get(index)) {
+            return false;
+        }
+        bits.set(index);
+        activeDays = bits.toByteArray();
+
+        if (lastActiveDay == null || day > lastActiveDay) {
+            currentStreak = lastActiveDay != null && day == lastActiveDay + 1 ? currentStreak + 1 : 1;
+            lastActiveDay = day;
+            longestStreak = Math.max(longestStreak, currentStreak);
+        } else {
+            // A day before the latest one, e.g. from a backfill: measure the run it joins
+            int first = index;
+            while (first > 0 && bits.get(first - 1)) {
+                first--;
+            }
+            int end = bits.nextClearBit(index); // exclusive
+            int run = end - first;
+            if (startDay + end - 1 == lastActiveDay) {
+                currentStreak = run;
+            }
+            longestStreak = Math.max(longestStreak, run);
+        }
+        return true;
+    }
+
+    public boolean isActiveOn(LocalDate date) {
+        if (startDay == null) {
+            return false;
+        }
+        long index = date.toEpochDay() - startDay;
+        return index >= 0 && index < Integer.MAX_VALUE && bits().get((int) index);
+    }
+
+    /** Streak as of {@code today}: zero once a whole day has passed without a session. */
+    public int currentStreak(LocalDate today) {
+        if (lastActiveDay == null || lastActiveDay < today.toEpochDay() - 1) {
+            return 0;
+        }
+        return currentStreak;
+    }
+
+    public int getLongestStreak() {
+        return longestStreak;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public Integer getLastActiveDay() {
+        return lastActiveDay;
+    }
+
+    private BitSet bits() {
+        return BitSet.valueOf(activeDays);
+    }
+
+    private static BitSet rebase(BitSet bits, int shift) {
+        BitSet shifted = new BitSet(bits.length() + shift);
+        for (int i = bits.nextSetBit(0); i >= 0; i = bits.nextSetBit(i + 1)) {
+            shifted.set(i + shift);
+        }
+        return shifted;
+    }
+}
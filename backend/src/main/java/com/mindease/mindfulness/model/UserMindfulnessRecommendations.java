@@ -0,0 +1,103 @@
+package com.mindease.mindfulness.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A user's precomputed recommendation lists, stored as session ids in
+ * display order. {@code catalogEtag} identifies the catalog snapshot the
+ * lists were computed from.
+ */
+@Entity
+@Table(name = "user_mindfulness_recommendations")
+public class UserMindfulnessRecommendations {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "mood_based", nullable = false, columnDefinition = "uuid[]")
+    private UUID[] moodBased = new UUID[0];
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "continue_journey", nullable = false, columnDefinition = "uuid[]")
+    private UUID[] continueJourney = new UUID[0];
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "similar_sessions", nullable = false, columnDefinition = "uuid[]")
+    private UUID[] similarSessions = new UUID[0];
+
+    @JdbcTypeCode(SqlTypes.ARRAY)
+    @Column(name = "recommended_for_you", nullable = false, columnDefinition = "uuid[]")
+    private UUID[] recommendedForYou = new UUID[0];
+
+    @Column(name = "catalog_etag", length = 64)
+    private String catalogEtag;
+
+    @Column(name = "computed_at", nullable = false)
+    private LocalDateTime computedAt;
+
+    public UserMindfulnessRecommendations() {
+    }
+
+    public UserMindfulnessRecommendations(UUID userId) {
+        this.userId = userId;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID[] getMoodBased() {
+        return moodBased;
+    }
+
+    public void setMoodBased(UUID[] moodBased) {
+        this.moodBased = moodBased;
+    }
+
+    public UUID[] getContinueJourney() {
+        return continueJourney;
+    }
+
+    public void setContinueJourney(UUID[] continueJourney) {
+        this.continueJourney = continueJourney;
+    }
+
+    public UUID[] getSimilarSessions() {
+        return similarSessions;
+    }
+
+    public void setSimilarSessions(UUID[] similarSessions) {
+        this.similarSessions = similarSessions;
+    }
+
+    public UUID[] getRecommendedForYou() {
+        return recommendedForYou;
+    }
+
+    public void setRecommendedForYou(UUID[] recommendedForYou) {
+        this.recommendedForYou = recommendedForYou;
+    }
+
+    public String getCatalogEtag() {
+        return catalogEtag;
+    }
+
+    public void setCatalogEtag(String catalogEtag) {
+        this.catalogEtag = catalogEtag;
+    }
+
+    public LocalDateTime getComputedAt() {
+        return computedAt;
+    }
+
+    public void setComputedAt(LocalDateTime computedAt) {
+        this.computedAt = computedAt;
+    }
+}
@@ -0,0 +1,81 @@
+package com.mindease.mindfulness.repository;
+
+import com.mindease.mindfulness.model.GuidedSession;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Step progression for {@code guided_sessions} as single conditional
+ * updates. The row lock taken by the update serializes concurrent
+ * submissions for one session, so there is no read-modify-write to retry;
+ * a step's response is merged into {@code responses} with {@code jsonb_set}
+ * instead of rewriting the whole map from Java.
+ */
+@Repository
+public class GuidedSessionProgressRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public record Owner(UUID userId, UUID programId) {
+    }
+
+    /** Owner and program of the session, without loading its responses. */
+    @Transactional(readOnly = true)
+    public Optional<Owner> findOwner(UUID sessionId) {
+        List<?> rows = em.createNativeQuery("SELECT user_id, program_id FROM guided_sessions WHERE id = :id")
+                .setParameter("id", sessionId)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        return Optional.of(new Owner((UUID) row[0], (UUID) row[1]));
+    }
+
+    /**
+     * Records {@code responseJson} (a JSON object, or null to keep the
+     * responses as they are) for {@code stepNumber} and moves the session on
+     * to the next step, completing it at {@code totalSteps}. Only updates
+     * the session if it belongs to {@code userId}; returns the updated row.
+     */
+    @Transactional
+    public Optional<GuidedSession> advance(UUID sessionId, UUID userId, int stepNumber, int totalSteps,
+            String responseJson, LocalDateTime now) {
+        var setResponses = responseJson == null ? "" : """
+                responses = jsonb_set(COALESCE(responses, CAST('{}' AS jsonb)), ARRAY[CAST(:stepKey AS text)],
+                                      CAST(:response AS jsonb)),
+            """;
+        var sql = """
+            UPDATE guided_sessions
+            SET %s
+                current_step_number = CASE WHEN :last THEN :totalSteps ELSE :stepNumber + 1 END,
+                status = CASE WHEN :last THEN 'completed' ELSE status END,
+                completed_at = CASE WHEN :last THEN CAST(:now AS timestamp) ELSE completed_at END,
+                updated_at = :now,
+                version = COALESCE(version, 0) + 1
+            WHERE id = :id AND user_id = :userId
+            RETURNING *
+        """.formatted(setResponses);
+        var query = em.createNativeQuery(sql, GuidedSession.class)
+                .setParameter("last", stepNumber >= totalSteps)
+                .setParameter("totalSteps", totalSteps)
+                .setParameter("stepNumber", stepNumber)
+                .setParameter("now", now)
+                .setParameter("id", sessionId)
+                .setParameter("userId", userId);
+        if (responseJson != null) {
+            query.setParameter("stepKey", String.valueOf(stepNumber))
+                    .setParameter("response", responseJson);
+        }
+        List<?> rows = query.getResultList();
+        return rows.isEmpty() ? Optional.empty() : Optional.of((GuidedSession) rows.get(0));
+    }
+}
@@ -9,4 +9,6 @@ import java.util.UUID;
 @Repository
 public interface GuidedStepRepository extends JpaRepository<GuidedStep, UUID> {
     List<GuidedStep> findByProgramIdOrderByStepNumberAsc(UUID programId);
+
+    long countByProgramId(UUID programId);
 }
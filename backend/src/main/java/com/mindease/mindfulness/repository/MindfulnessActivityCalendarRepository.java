@@ -0,0 +1,28 @@
+package com.mindease.mindfulness.repository;
+
+import com.mindease.mindfulness.model.MindfulnessActivityCalendar;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface MindfulnessActivityCalendarRepository extends JpaRepository<MindfulnessActivityCalendar, UUID> {
+
+    /** Creates an empty calendar; returns 0 if the user already has one. */
+    @Modifying
+    @Query(value = "INSERT INTO mindfulness_activity_calendars (user_id) VALUES (:userId) ON CONFLICT (user_id) DO NOTHING",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("userId") UUID userId);
+
+    /** Locks the calendar so concurrent completions update the streaks one at a time. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM MindfulnessActivityCalendar c WHERE c.userId = :userId")
+    Optional<MindfulnessActivityCalendar> findForUpdate(@Param("userId") UUID userId);
+}
@@ -43,4 +43,12 @@ public interface MindfulnessSessionActivityRepository extends JpaRepository<Mind
     Long countByUserAndCompletedAtBetween(@Param("user") User user, @Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
     boolean existsByUserAndSessionId(User user, UUID sessionId);
+
+    // [sessionId, completions] for each session the user has completed
+    @Query("SELECT a.session.id, COUNT(a) FROM MindfulnessSessionActivity a WHERE a.user.id = :userId GROUP BY a.session.id")
+    List<Object[]> countCompletionsBySession(@Param("userId") UUID userId);
+
+    // Epoch days with at least one completion, oldest first; used once to build a user's activity calendar
+    @Query(value = "SELECT DISTINCT CAST(a.completed_at AS DATE) - DATE '1970-01-01' AS day FROM mindfulness_session_activities a WHERE a.user_id = :userId ORDER BY day", nativeQuery = true)
+    List<Integer> findDistinctCompletionEpochDays(@Param("userId") UUID userId);
 }
@@ -0,0 +1,11 @@
+package com.mindease.mindfulness.repository;
+
+import com.mindease.mindfulness.model.UserMindfulnessRecommendations;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface UserMindfulnessRecommendationsRepository extends JpaRepository<UserMindfulnessRecommendations, UUID> {
+}
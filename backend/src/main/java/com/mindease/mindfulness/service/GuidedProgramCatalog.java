@@ -0,0 +1,109 @@
+package com.mindease.mindfulness.service;
+
+import com.mindease.mindfulness.model.GuidedProgram;
+import com.mindease.mindfulness.model.GuidedStep;
+import com.mindease.mindfulness.repository.GuidedProgramRepository;
+import com.mindease.mindfulness.repository.GuidedStepRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the guided programs and their steps.
+ *
+ * Programs and steps are seeded by migrations and change rarely, so they
+ * are loaded into an immutable {@link Snapshot} that is swapped whole every
+ * {@code refresh-interval-ms}. Step counts come from the snapshot; a
+ * program created since the last reload falls back to a count query.
+ *
+ * Entities in a snapshot are detached, shared by all readers and must not
+ * be modified.
+ */
+@Component
+public class GuidedProgramCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(GuidedProgramCatalog.class);
+
+    public record Snapshot(List<GuidedProgram> activePrograms, Map<UUID, GuidedProgram> programs,
+            Map<UUID, List<GuidedStep>> steps) {
+
+        public List<GuidedStep> stepsOf(UUID programId) {
+            return steps.getOrDefault(programId, List.of());
+        }
+    }
+
+    private final GuidedProgramRepository programRepository;
+    private final GuidedStepRepository stepRepository;
+    private volatile Snapshot snapshot;
+
+    public GuidedProgramCatalog(GuidedProgramRepository programRepository, GuidedStepRepository stepRepository) {
+        this.programRepository = programRepository;
+        this.stepRepository = stepRepository;
+    }
+
+    /** Current snapshot, loading it on first use. */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    public Optional<GuidedProgram> findProgram(UUID programId) {
+        return Optional.ofNullable(snapshot().programs().get(programId));
+    }
+
+    /** Number of steps in the program. */
+    public int stepCount(UUID programId) {
+        Snapshot current = snapshot();
+        if (current.programs().containsKey(programId)) {
+            return current.stepsOf(programId).size();
+        }
+        return (int) stepRepository.countByProgramId(programId);
+    }
+
+    public synchronized Snapshot reload() {
+        List<GuidedProgram> programs = programRepository.findAll();
+        Map<UUID, List<GuidedStep>> steps = new HashMap<>();
+        for (GuidedStep step : stepRepository.findAll()) {
+            steps.computeIfAbsent(step.getProgramId(), id -> new ArrayList<>()).add(step);
+        }
+        Map<UUID, List<GuidedStep>> frozen = new HashMap<>();
+        steps.forEach((programId, list) -> {
+            list.sort(Comparator.comparing(GuidedStep::getStepNumber));
+            frozen.put(programId, List.copyOf(list));
+        });
+        List<GuidedProgram> active = programs.stream()
+                .filter(GuidedProgram::isActive)
+                .sorted(Comparator.comparing(GuidedProgram::getDisplayOrder,
+                        Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+
+        Snapshot next = new Snapshot(active,
+                programs.stream().collect(Collectors.toUnmodifiableMap(GuidedProgram::getId, Function.identity())),
+                Map.copyOf(frozen));
+        snapshot = next;
+        log.debug("Loaded {} guided programs", programs.size());
+        return next;
+    }
+
+    @Scheduled(fixedDelayString = "${mindfulness.guided-programs.refresh-interval-ms:300000}",
+            initialDelayString = "${mindfulness.guided-programs.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep serving the current snapshot
+            log.warn("Failed to reload guided programs: {}", e.getMessage());
+        }
+    }
+}
@@ -4,57 +4,64 @@ import com.mindease.mindfulness.model.GuidedProgram;
 import com.mindease.mindfulness.model.GuidedSession;
 import com.mindease.mindfulness.model.GuidedStep;
 import com.mindease.mindfulness.repository.GuidedProgramRepository;
+import com.mindease.mindfulness.repository.GuidedSessionProgressRepository;
 import com.mindease.mindfulness.repository.GuidedSessionRepository;
-import com.mindease.mindfulness.repository.GuidedStepRepository;
 import com.mindease.shared.exception.SessionNotFoundException;
 import com.mindease.shared.exception.ProgramNotFoundException;
 import com.mindease.shared.exception.AccessDeniedException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
 
+/**
+ * Guided programs and users' progress through them.
+ *
+ * Programs and steps are served from {@link GuidedProgramCatalog}. A step
+ * submission checks the session's owner and the step against the cached
+ * step count, then advances the session with one conditional update that
+ * merges the step's response into the stored responses, so concurrent
+ * submissions for a session queue on its row lock instead of failing and
+ * retrying.
+ */
 @Service
 public class GuidedProgramService {
 
-    private static final Logger logger = LoggerFactory.getLogger(GuidedProgramService.class);
-    private static final int MAX_RETRY_ATTEMPTS = 3;
+    @Autowired
+    private GuidedProgramCatalog catalog;
 
     @Autowired
     private GuidedProgramRepository guidedProgramRepository;
 
     @Autowired
-    private GuidedStepRepository guidedStepRepository;
+    private GuidedSessionRepository guidedSessionRepository;
 
     @Autowired
-    private GuidedSessionRepository guidedSessionRepository;
+    private GuidedSessionProgressRepository progressRepository;
 
     @Autowired
-    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
 
     public List<GuidedProgram> getAllActivePrograms() {
-        return guidedProgramRepository.findByActiveTrueOrderByDisplayOrderAsc();
+        return catalog.snapshot().activePrograms();
     }
 
     public Optional<GuidedProgram> getProgramById(UUID id) {
-        return guidedProgramRepository.findById(id);
+        return catalog.findProgram(id);
     }
 
     public List<GuidedStep> getProgramSteps(UUID programId) {
-        return guidedStepRepository.findByProgramIdOrderByStepNumberAsc(programId);
+        return catalog.snapshot().stepsOf(programId);
     }
 
     @Transactional
     public GuidedSession startSession(UUID userId, UUID programId) {
-        // Verify that the program exists
-        Optional<GuidedProgram> program = guidedProgramRepository.findById(programId);
-        if (program.isEmpty()) {
+        // Verify that the program exists; one created since the last catalog load is looked up directly
+        if (catalog.findProgram(programId).isEmpty() && !guidedProgramRepository.existsById(programId)) {
             throw new ProgramNotFoundException("Program not found: " + programId);
         }
 
@@ -73,45 +80,15 @@ public class GuidedProgramService {
 
     public GuidedSession updateSessionStep(UUID userId, UUID sessionId, Integer stepNumber,
             Map<String, Object> responseData) {
-        int attempt = 0;
-        while (attempt < MAX_RETRY_ATTEMPTS) {
-            try {
-                return transactionTemplate.execute(status -> {
-                    return updateSessionStepInternal(userId, sessionId, stepNumber, responseData);
-                });
-            } catch (OptimisticLockingFailureException e) {
-                attempt++;
-                if (attempt >= MAX_RETRY_ATTEMPTS) {
-                    logger.warn("Optimistic locking failure after {} attempts for session {}", attempt, sessionId);
-                    throw new IllegalArgumentException("Session was modified by another operation. Please try again.");
-                }
-                logger.debug("Optimistic locking failure, retrying (attempt {}/{}) for session {}", attempt,
-                        MAX_RETRY_ATTEMPTS, sessionId);
-                // Brief pause before retry to reduce contention (outside transactional scope)
-                try {
-                    Thread.sleep(50);
-                } catch (InterruptedException ie) {
-                    Thread.currentThread().interrupt();
-                    throw new RuntimeException("Interrupted during retry", ie);
-                }
-            }
-        }
-        throw new IllegalStateException("Unexpected state after retry attempts");
-    }
-
-    private GuidedSession updateSessionStepInternal(UUID userId, UUID sessionId, Integer stepNumber,
-            Map<String, Object> responseData) {
-        GuidedSession session = guidedSessionRepository.findById(sessionId)
+        GuidedSessionProgressRepository.Owner owner = progressRepository.findOwner(sessionId)
                 .orElseThrow(() -> new SessionNotFoundException("Session not found: " + sessionId));
 
         // Verify ownership
-        if (!session.getUserId().equals(userId)) {
+        if (!owner.userId().equals(userId)) {
             throw new AccessDeniedException("You do not have permission to update this session");
         }
 
-        // Get total steps for validation
-        List<GuidedStep> steps = guidedStepRepository.findByProgramIdOrderByStepNumberAsc(session.getProgramId());
-        int totalSteps = steps.size();
+        int totalSteps = catalog.stepCount(owner.programId());
 
         // Validate stepNumber before any mutations
         if (stepNumber == null) {
@@ -125,27 +102,17 @@ public class GuidedProgramService {
                     String.format("stepNumber %d exceeds total steps %d for this program", stepNumber, totalSteps));
         }
 
-        // Update responses if provided (only after validation)
-        if (responseData != null) {
-            Map<String, Object> currentResponses = session.getResponses();
-            if (currentResponses == null) {
-                currentResponses = new HashMap<>();
-            }
-            // Store response keyed by step number
-            currentResponses.put(String.valueOf(stepNumber), responseData);
-            session.setResponses(currentResponses);
-        }
-
-        // Update step number based on validation
-        if (stepNumber >= totalSteps) {
-            session.setStatus("completed");
-            session.setCompletedAt(LocalDateTime.now());
-            session.setCurrentStepNumber(totalSteps); // Stay on last step
-        } else {
-            session.setCurrentStepNumber(Math.min(stepNumber + 1, totalSteps));
+        String responseJson;
+        try {
+            responseJson = responseData != null ? objectMapper.writeValueAsString(responseData) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("response could not be stored: " + e.getOriginalMessage());
         }
 
-        return guidedSessionRepository.save(session);
+        // Stays on the last step once it is submitted; the session is then completed
+        return progressRepository.advance(sessionId, userId, stepNumber, totalSteps, responseJson,
+                LocalDateTime.now())
+                .orElseThrow(() -> new SessionNotFoundException("Session not found: " + sessionId));
     }
 
     public List<GuidedSession> getUserSessions(UUID userId) {
@@ -0,0 +1,186 @@
+package com.mindease.mindfulness.service;
+
+import com.mindease.mindfulness.model.MindfulnessSession;
+import com.mindease.mindfulness.repository.MindfulnessSessionRepository;
+import com.mindease.shared.events.ContentChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory copy of the mindfulness session catalog.
+ *
+ * The catalog is small and changes rarely, so it is loaded once into an
+ * immutable {@link Snapshot} with lists pre-grouped by type, category and
+ * difficulty (each sorted by duration, as the repository queries were).
+ * Readers always see one whole snapshot; a reload builds a new one and
+ * swaps it in. Reloads happen after admin content changes commit and every
+ * {@code refresh-interval-ms}, which also picks up changes made on other
+ * nodes. A reload that finds identical content keeps the current snapshot,
+ * so its version and ETag only change when the catalog does.
+ *
+ * Sessions in a snapshot are detached entities shared by all readers and
+ * must not be modified.
+ */
+@Component
+public class MindfulnessCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(MindfulnessCatalog.class);
+
+    private static final Comparator<MindfulnessSession> BY_DURATION =
+            Comparator.comparing(MindfulnessSession::getDuration, Comparator.nullsLast(Comparator.naturalOrder()));
+
+    /**
+     * @param etag strong ETag (quoted) derived from the catalog content
+     */
+    public record Snapshot(long version, String etag, List<MindfulnessSession> sessions,
+            Map<UUID, MindfulnessSession> byId, Map<String, List<MindfulnessSession>> byType,
+            Map<String, List<MindfulnessSession>> byCategory, Map<String, List<MindfulnessSession>> byDifficulty,
+            List<String> categories) {
+
+        public List<MindfulnessSession> ofType(String type) {
+            return byType.getOrDefault(type, List.of());
+        }
+
+        public List<MindfulnessSession> inCategory(String category) {
+            return byCategory.getOrDefault(category, List.of());
+        }
+
+        public List<MindfulnessSession> atDifficulty(String difficultyLevel) {
+            return byDifficulty.getOrDefault(difficultyLevel, List.of());
+        }
+
+        /** Sessions of at most {@code maxDuration} minutes; a prefix of the duration-sorted list. */
+        public List<MindfulnessSession> upTo(int maxDuration) {
+            int lo = 0;
+            int hi = sessions.size();
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                Integer d = sessions.get(mid).getDuration();
+                if (d != null && d <= maxDuration) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return sessions.subList(0, lo);
+        }
+    }
+
+    private final MindfulnessSessionRepository sessionRepository;
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    public MindfulnessCatalog(MindfulnessSessionRepository sessionRepository) {
+        this.sessionRepository = sessionRepository;
+    }
+
+    /** Current snapshot, loading it on first use. */
+    public Snapshot snapshot() {
+        Snapshot current = snapshot;
+        return current != null ? current : reload();
+    }
+
+    public Optional<MindfulnessSession> findById(UUID id) {
+        return Optional.ofNullable(snapshot().byId().get(id));
+    }
+
+    /** Loads the catalog and swaps it in if it changed; returns the snapshot now in use. */
+    public synchronized Snapshot reload() {
+        List<MindfulnessSession> sessions = new ArrayList<>(sessionRepository.findAll());
+        sessions.sort(BY_DURATION);
+        String etag = etagOf(sessions);
+        Snapshot current = snapshot;
+        if (current != null && current.etag().equals(etag)) {
+            return current;
+        }
+        Snapshot next = build(versions.incrementAndGet(), etag, sessions);
+        snapshot = next;
+        log.info("Loaded mindfulness catalog version {} ({} sessions)", next.version(), sessions.size());
+        return next;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onContentChanged(ContentChangedEvent evt) {
+        refresh();
+    }
+
+    @Scheduled(fixedDelayString = "${mindfulness.catalog.refresh-interval-ms:300000}",
+            initialDelayString = "${mindfulness.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep serving the current snapshot
+            log.warn("Failed to reload mindfulness catalog: {}", e.getMessage());
+        }
+    }
+
+    static Snapshot build(long version, String etag, List<MindfulnessSession> sorted) {
+        List<MindfulnessSession> sessions = List.copyOf(sorted);
+        Map<UUID, MindfulnessSession> byId = sessions.stream()
+                .collect(Collectors.toUnmodifiableMap(MindfulnessSession::getId, Function.identity(), (a, b) -> a));
+        List<String> categories = sessions.stream()
+                .map(MindfulnessSession::getCategory)
+                .filter(Objects::nonNull)
+                .distinct()
+                .sorted()
+                .toList();
+        return new Snapshot(version, etag, sessions, byId,
+                groupBy(sessions, MindfulnessSession::getType),
+                groupBy(sessions, MindfulnessSession::getCategory),
+                groupBy(sessions, MindfulnessSession::getDifficultyLevel),
+                categories);
+    }
+
+    private static Map<String, List<MindfulnessSession>> groupBy(List<MindfulnessSession> sessions,
+            Function<MindfulnessSession, String> key) {
+        Map<String, List<MindfulnessSession>> groups = new LinkedHashMap<>();
+        for (MindfulnessSession s : sessions) {
+            String k = key.apply(s);
+            if (k != null) {
+                groups.computeIfAbsent(k, x -> new ArrayList<>()).add(s);
+            }
+        }
+        Map<String, List<MindfulnessSession>> frozen = new LinkedHashMap<>();
+        groups.forEach((k, v) -> frozen.put(k, List.copyOf(v)));
+        return Map.copyOf(frozen);
+    }
+
+    static String etagOf(List<MindfulnessSession> sessions) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        for (MindfulnessSession s : sessions) {
+            String row = String.join("\u001f", String.valueOf(s.getId()), String.valueOf(s.getTitle()),
+                    String.valueOf(s.getDescription()), String.valueOf(s.getType()),
+                    String.valueOf(s.getDuration()), String.valueOf(s.getMediaUrl()),
+                    String.valueOf(s.getCategory()), String.valueOf(s.getDifficultyLevel()));
+            digest.update(row.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return "\"" + HexFormat.of().formatHex(digest.digest(), 0, 16) + "\"";
+    }
+}
@@ -3,29 +3,62 @@ package com.mindease.mindfulness.service;
 import com.mindease.auth.model.User;
 import com.mindease.mindfulness.model.MindfulnessSession;
 import com.mindease.mindfulness.model.UserMindfulnessPreferences;
+import com.mindease.mindfulness.model.UserMindfulnessRecommendations;
 import com.mindease.mindfulness.repository.MindfulnessSessionActivityRepository;
-import com.mindease.mindfulness.repository.MindfulnessSessionRepository;
 import com.mindease.mindfulness.repository.UserMindfulnessPreferencesRepository;
+import com.mindease.mindfulness.repository.UserMindfulnessRecommendationsRepository;
+import com.mindease.mood.model.MoodEntry;
 import com.mindease.mood.repository.MoodEntryRepository;
+import com.mindease.shared.events.MindfulnessRecommendationsStaleEvent;
+import com.mindease.shared.util.DaemonThreads;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
+/**
+ * Personalized mindfulness recommendations.
+ *
+ * The user-dependent lists (mood based, continue your journey, similar
+ * sessions, recommended for you) are precomputed into
+ * {@code user_mindfulness_recommendations} as session ids, so a request is
+ * one primary-key read plus lookups in the in-memory {@link MindfulnessCatalog}.
+ * A new mood entry, session completion or preferences change marks the
+ * user's lists stale; once that change commits they are recomputed on a
+ * background thread, coalescing repeated triggers for the same user. The
+ * recomputation reads only the newest mood, per-session completion counts
+ * and the preferences; everything else comes from the catalog. Lists
+ * computed against an older catalog are still served (dropping sessions
+ * that no longer exist) while a recompute runs. Time-based suggestions
+ * depend on the clock, not the user, and are built from the catalog on
+ * each request.
+ */
 @Service
-@Transactional(readOnly = true)
 public class MindfulnessRecommendationService {
 
     private static final Logger logger = LoggerFactory.getLogger(MindfulnessRecommendationService.class);
 
+    private static final int REFRESH_THREADS = 2;
+    private static final int LIST_SIZE = 5;
+
     @Autowired
-    private MindfulnessSessionRepository sessionRepository;
+    private MindfulnessCatalog catalog;
 
     @Autowired
     private MindfulnessSessionActivityRepository activityRepository;
@@ -36,153 +69,190 @@ public class MindfulnessRecommendationService {
     @Autowired
     private UserMindfulnessPreferencesRepository preferencesRepository;
 
+    @Autowired
+    private UserMindfulnessRecommendationsRepository recommendationsRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final ExecutorService refresher = Executors.newFixedThreadPool(REFRESH_THREADS, DaemonThreads.named("mindfulness-recommendations"));
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
     /**
      * Get personalized recommendations for a user
      */
     public Map<String, List<MindfulnessSession>> getRecommendations(User user) {
         Map<String, List<MindfulnessSession>> recommendations = new HashMap<>();
+        MindfulnessCatalog.Snapshot sessions = catalog.snapshot();
 
         try {
-            // Get user preferences
-            UserMindfulnessPreferences preferences = preferencesRepository.findByUser(user)
-                    .orElse(new UserMindfulnessPreferences(user));
-
-            // 1. Mood-based recommendations
-            try {
-                recommendations.put("moodBased", getMoodBasedRecommendations(user));
-            } catch (Exception e) {
-                logger.error("Failed to get mood-based recommendations for user {}", user.getId(), e);
-                recommendations.put("moodBased", new ArrayList<>());
+            UserMindfulnessRecommendations stored = recommendationsRepository.findById(user.getId())
+                    .orElse(null);
+            if (stored == null) {
+                // First request for this user: compute in line so there is something to show
+                stored = recompute(user.getId());
+            } else if (!sessions.etag().equals(stored.getCatalogEtag())) {
+                invalidate(user.getId());
             }
 
-            // 2. Continue your journey (difficulty progression)
-            try {
-                recommendations.put("continueJourney", getDifficultyProgressionRecommendations(user));
-            } catch (Exception e) {
-                logger.error("Failed to get difficulty progression recommendations for user {}", user.getId(), e);
-                recommendations.put("continueJourney", new ArrayList<>());
-            }
-
-            // 3. Similar to completed sessions
-            try {
-                recommendations.put("similarSessions", getSimilarSessionRecommendations(user));
-            } catch (Exception e) {
-                logger.error("Failed to get similar session recommendations for user {}", user.getId(), e);
-                recommendations.put("similarSessions", new ArrayList<>());
-            }
-
-            // 4. Time-based suggestions
-            try {
-                ZoneId userZone = getUserTimezone(user);
-                recommendations.put("timeBased", getTimeBasedRecommendations(userZone));
-            } catch (Exception e) {
-                logger.error("Failed to get time-based recommendations for user {}", user.getId(), e);
-                recommendations.put("timeBased", new ArrayList<>());
-            }
-
-            // 5. Recommended for you (based on preferences)
-            try {
-                recommendations.put("recommendedForYou", getPreferenceBasedRecommendations(preferences));
-            } catch (Exception e) {
-                logger.error("Failed to get preference-based recommendations for user {}", user.getId(), e);
-                recommendations.put("recommendedForYou", new ArrayList<>());
-            }
+            recommendations.put("moodBased", resolve(sessions, stored.getMoodBased()));
+            recommendations.put("continueJourney", resolve(sessions, stored.getContinueJourney()));
+            recommendations.put("similarSessions", resolve(sessions, stored.getSimilarSessions()));
+            recommendations.put("recommendedForYou", resolve(sessions, stored.getRecommendedForYou()));
         } catch (Exception e) {
-            logger.error("Failed to assemble recommendations for user {}", user.getId(), e);
+            logger.error("Failed to load recommendations for user {}", user.getId(), e);
             // Return empty recommendations if everything fails
             recommendations.put("moodBased", new ArrayList<>());
             recommendations.put("continueJourney", new ArrayList<>());
             recommendations.put("similarSessions", new ArrayList<>());
-            recommendations.put("timeBased", new ArrayList<>());
             recommendations.put("recommendedForYou", new ArrayList<>());
         }
 
+        try {
+            ZoneId userZone = getUserTimezone(user);
+            recommendations.put("timeBased", getTimeBasedRecommendations(sessions, userZone));
+        } catch (Exception e) {
+            logger.error("Failed to get time-based recommendations for user {}", user.getId(), e);
+            recommendations.put("timeBased", new ArrayList<>());
+        }
+
         return recommendations;
     }
 
+    /** Recomputes the user's lists after the current transaction commits (or now, outside one). */
+    public void invalidate(UUID userId) {
+        events.publishEvent(new MindfulnessRecommendationsStaleEvent(userId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStale(MindfulnessRecommendationsStaleEvent evt) {
+        UUID userId = evt.getUserId();
+        if (!pending.add(userId)) {
+            return; // Already queued; that run will see this change
+        }
+        try {
+            refresher.execute(() -> {
+                pending.remove(userId);
+                try {
+                    recompute(userId);
+                } catch (RuntimeException e) {
+                    // The previous lists stay in place; the next trigger tries again
+                    logger.warn("Failed to recompute recommendations for user {}: {}", userId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(userId);
+        }
+    }
+
+    /** Computes and stores the user's lists against the current catalog. */
+    public UserMindfulnessRecommendations recompute(UUID userId) {
+        MindfulnessCatalog.Snapshot sessions = catalog.snapshot();
+        UserMindfulnessRecommendations computed = transactionTemplate.execute(status -> {
+            UserMindfulnessRecommendations r = new UserMindfulnessRecommendations(userId);
+            Integer latestMood = moodEntryRepository.findFirstByUserIdOrderByCreatedAtDesc(userId)
+                    .map(MoodEntry::getMoodValue)
+                    .orElse(null);
+            Map<UUID, Long> completions = new HashMap<>();
+            for (Object[] row : activityRepository.countCompletionsBySession(userId)) {
+                completions.put((UUID) row[0], ((Number) row[1]).longValue());
+            }
+            Optional<UserMindfulnessPreferences> preferences = preferencesRepository.findByUserId(userId);
+
+            r.setMoodBased(ids(getMoodBasedRecommendations(sessions, latestMood)));
+            r.setContinueJourney(ids(getDifficultyProgressionRecommendations(sessions, completions)));
+            r.setSimilarSessions(ids(getSimilarSessionRecommendations(sessions, completions)));
+            r.setRecommendedForYou(ids(preferences
+                    .map(p -> getPreferenceBasedRecommendations(sessions, p.getPreferredCategories(),
+                            p.getPreferredDifficulty()))
+                    .orElse(List.of())));
+            r.setCatalogEtag(sessions.etag());
+            r.setComputedAt(LocalDateTime.now());
+            return r;
+        });
+        try {
+            return recommendationsRepository.save(computed);
+        } catch (DataAccessException e) {
+            // Another node stored the same user's lists first; ours are equally fresh
+            logger.debug("Could not store recommendations for user {}: {}", userId, e.getMessage());
+            return computed;
+        }
+    }
+
+    private static UUID[] ids(List<MindfulnessSession> sessions) {
+        return sessions.stream().map(MindfulnessSession::getId).toArray(UUID[]::new);
+    }
+
+    private static List<MindfulnessSession> resolve(MindfulnessCatalog.Snapshot sessions, UUID[] ids) {
+        List<MindfulnessSession> resolved = new ArrayList<>(ids.length);
+        for (UUID id : ids) {
+            MindfulnessSession session = sessions.byId().get(id);
+            if (session != null) {
+                resolved.add(session);
+            }
+        }
+        return resolved;
+    }
+
+    private static List<MindfulnessSession> first(List<MindfulnessSession> sessions, int n) {
+        return sessions.subList(0, Math.min(n, sessions.size()));
+    }
+
     /**
      * Get recommendations based on current mood
      */
-    private List<MindfulnessSession> getMoodBasedRecommendations(User user) {
-        // Get most recent mood
-        var recentMoods = moodEntryRepository.findByUserOrderByCreatedAtDesc(user);
-        if (recentMoods.isEmpty()) {
+    private List<MindfulnessSession> getMoodBasedRecommendations(MindfulnessCatalog.Snapshot sessions,
+            Integer currentMood) {
+        if (currentMood == null) {
             // Default recommendations if no mood data
-            return sessionRepository.findByDifficultyLevelOrderByDurationAsc("beginner")
-                    .stream().limit(5).collect(Collectors.toList());
+            return List.copyOf(first(sessions.atDifficulty("beginner"), LIST_SIZE));
         }
 
-        int currentMood = recentMoods.get(0).getMoodValue();
         List<MindfulnessSession> recommendations = new ArrayList<>();
-
-        try {
-            if (currentMood <= 4) {
-                // Low mood - suggest uplifting, energizing sessions
-                List<MindfulnessSession> energizing = sessionRepository.findByCategoryOrderByDurationAsc("energizing");
-                if (!energizing.isEmpty()) {
-                    recommendations.addAll(energizing.stream().limit(3).collect(Collectors.toList()));
-                }
-                List<MindfulnessSession> breathing = sessionRepository.findByCategoryOrderByDurationAsc("breathing");
-                if (!breathing.isEmpty()) {
-                    recommendations.addAll(breathing.stream().limit(2).collect(Collectors.toList()));
-                }
-            } else if (currentMood <= 6) {
-                // Neutral mood - suggest balanced sessions
-                List<MindfulnessSession> beginner = sessionRepository
-                        .findByDifficultyLevelOrderByDurationAsc("beginner");
-                if (!beginner.isEmpty()) {
-                    recommendations.addAll(beginner.stream().limit(3).collect(Collectors.toList()));
-                }
-                List<MindfulnessSession> relaxation = sessionRepository.findByCategoryOrderByDurationAsc("relaxation");
-                if (!relaxation.isEmpty()) {
-                    recommendations.addAll(relaxation.stream().limit(2).collect(Collectors.toList()));
-                }
-            } else {
-                // High mood - suggest maintaining sessions
-                List<MindfulnessSession> gratitude = sessionRepository.findByCategoryOrderByDurationAsc("gratitude");
-                if (!gratitude.isEmpty()) {
-                    recommendations.addAll(gratitude.stream().limit(3).collect(Collectors.toList()));
-                }
-                List<MindfulnessSession> mindfulness = sessionRepository
-                        .findByCategoryOrderByDurationAsc("mindfulness");
-                if (!mindfulness.isEmpty()) {
-                    recommendations.addAll(mindfulness.stream().limit(2).collect(Collectors.toList()));
-                }
-            }
-        } catch (Exception e) {
-            // If category queries fail, fall back to beginner sessions
-            List<MindfulnessSession> beginner = sessionRepository.findByDifficultyLevelOrderByDurationAsc("beginner");
-            if (!beginner.isEmpty()) {
-                recommendations.addAll(beginner.stream().limit(5).collect(Collectors.toList()));
-            }
+        if (currentMood <= 4) {
+            // Low mood - suggest uplifting, energizing sessions
+            recommendations.addAll(first(sessions.inCategory("energizing"), 3));
+            recommendations.addAll(first(sessions.inCategory("breathing"), 2));
+        } else if (currentMood <= 6) {
+            // Neutral mood - suggest balanced sessions
+            recommendations.addAll(first(sessions.atDifficulty("beginner"), 3));
+            recommendations.addAll(first(sessions.inCategory("relaxation"), 2));
+        } else {
+            // High mood - suggest maintaining sessions
+            recommendations.addAll(first(sessions.inCategory("gratitude"), 3));
+            recommendations.addAll(first(sessions.inCategory("mindfulness"), 2));
         }
 
-        return recommendations.stream().distinct().limit(5).collect(Collectors.toList());
+        return recommendations.stream().distinct().limit(LIST_SIZE).collect(Collectors.toList());
     }
 
     /**
      * Get recommendations based on difficulty progression
      */
-    private List<MindfulnessSession> getDifficultyProgressionRecommendations(User user) {
-        // Get completed sessions to determine current level
-        var completedActivities = activityRepository.findByUserOrderByCompletedAtDesc(user);
-
-        if (completedActivities.isEmpty()) {
+    private List<MindfulnessSession> getDifficultyProgressionRecommendations(MindfulnessCatalog.Snapshot sessions,
+            Map<UUID, Long> completions) {
+        if (completions.isEmpty()) {
             // Start with beginner sessions
-            return sessionRepository.findByDifficultyLevelOrderByDurationAsc("beginner")
-                    .stream().limit(5).collect(Collectors.toList());
+            return List.copyOf(first(sessions.atDifficulty("beginner"), LIST_SIZE));
         }
 
-        // Find most common difficulty level
-        String currentLevel = completedActivities.stream()
-                .map(activity -> {
-                    if (activity.getSession() == null)
-                        return null;
-                    return activity.getSession().getDifficultyLevel();
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.groupingBy(level -> level, Collectors.counting()))
-                .entrySet().stream()
+        // Find most common difficulty level, counting each completion
+        Map<String, Long> byLevel = new HashMap<>();
+        completions.forEach((sessionId, count) -> {
+            MindfulnessSession session = sessions.byId().get(sessionId);
+            if (session != null && session.getDifficultyLevel() != null) {
+                byLevel.merge(session.getDifficultyLevel(), count, Long::sum);
+            }
+        });
+        String currentLevel = byLevel.entrySet().stream()
                 .max(Map.Entry.comparingByValue())
                 .map(Map.Entry::getKey)
                 .orElse("beginner");
@@ -194,73 +264,43 @@ public class MindfulnessRecommendationService {
             default -> "advanced";
         };
 
-        return sessionRepository.findByDifficultyLevelOrderByDurationAsc(nextLevel)
-                .stream().limit(5).collect(Collectors.toList());
+        return List.copyOf(first(sessions.atDifficulty(nextLevel), LIST_SIZE));
     }
 
     /**
      * Get sessions similar to completed ones
      */
-    private List<MindfulnessSession> getSimilarSessionRecommendations(User user) {
-        var completedActivities = activityRepository.findByUserOrderByCompletedAtDesc(user);
-
-        if (completedActivities.isEmpty()) {
+    private List<MindfulnessSession> getSimilarSessionRecommendations(MindfulnessCatalog.Snapshot sessions,
+            Map<UUID, Long> completions) {
+        if (completions.isEmpty()) {
             return new ArrayList<>();
         }
 
         // Get categories and types from completed sessions
-        Set<String> preferredCategories = completedActivities.stream()
-                .map(activity -> {
-                    if (activity.getSession() == null)
-                        return null;
-                    return activity.getSession().getCategory();
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        Set<String> preferredTypes = completedActivities.stream()
-                .map(activity -> {
-                    if (activity.getSession() == null)
-                        return null;
-                    return activity.getSession().getType();
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        // Get completed session IDs to exclude
-        Set<UUID> completedSessionIds = completedActivities.stream()
-                .map(activity -> {
-                    if (activity.getSession() == null)
-                        return null;
-                    return activity.getSession().getId();
-                })
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-
-        // TEMPORARILY DISABLED - findSimilarSessions has Hibernate 6.6 compatibility
-        // issues
-        // Enhanced fallback: use multiple categories and types
-        List<MindfulnessSession> candidates = new ArrayList<>();
-
-        // Gather sessions from all preferred categories
-        preferredCategories.stream()
-                .limit(3) // Limit categories to avoid excessive queries
-                .forEach(category -> {
-                    candidates.addAll(sessionRepository.findByCategoryOrderByDurationAsc(category));
-                });
+        Set<String> preferredCategories = new LinkedHashSet<>();
+        Set<String> preferredTypes = new LinkedHashSet<>();
+        for (UUID sessionId : completions.keySet()) {
+            MindfulnessSession session = sessions.byId().get(sessionId);
+            if (session != null) {
+                if (session.getCategory() != null) {
+                    preferredCategories.add(session.getCategory());
+                }
+                if (session.getType() != null) {
+                    preferredTypes.add(session.getType());
+                }
+            }
+        }
 
-        // Also gather sessions from preferred types
-        preferredTypes.stream()
-                .limit(3)
-                .forEach(type -> {
-                    candidates.addAll(sessionRepository.findByTypeOrderByDurationAsc(type));
-                });
+        // Gather sessions from up to three preferred categories and types
+        List<MindfulnessSession> candidates = new ArrayList<>();
+        preferredCategories.stream().limit(3).forEach(category -> candidates.addAll(sessions.inCategory(category)));
+        preferredTypes.stream().limit(3).forEach(type -> candidates.addAll(sessions.ofType(type)));
 
         // Filter out completed sessions and return top 5
         return candidates.stream()
                 .distinct()
-                .filter(session -> !completedSessionIds.contains(session.getId()))
-                .limit(5)
+                .filter(session -> !completions.containsKey(session.getId()))
+                .limit(LIST_SIZE)
                 .collect(Collectors.toList());
     }
 
@@ -277,76 +317,48 @@ public class MindfulnessRecommendationService {
     /**
      * Get time-based recommendations
      */
-    private List<MindfulnessSession> getTimeBasedRecommendations(ZoneId userZone) {
+    private List<MindfulnessSession> getTimeBasedRecommendations(MindfulnessCatalog.Snapshot sessions,
+            ZoneId userZone) {
         LocalTime now = LocalTime.now(userZone);
         List<MindfulnessSession> recommendations = new ArrayList<>();
 
-        try {
-            if (now.isAfter(LocalTime.of(5, 0)) && now.isBefore(LocalTime.of(12, 0))) {
-                // Morning - energizing, short sessions
-                List<MindfulnessSession> energizing = sessionRepository.findByCategoryOrderByDurationAsc("energizing");
-                if (!energizing.isEmpty()) {
-                    recommendations.addAll(energizing.stream()
-                            .filter(s -> s.getDuration() != null && s.getDuration() <= 10)
-                            .limit(3).collect(Collectors.toList()));
-                }
-                List<MindfulnessSession> morning = sessionRepository.findByCategoryOrderByDurationAsc("morning");
-                if (!morning.isEmpty()) {
-                    recommendations.addAll(morning.stream().limit(2).collect(Collectors.toList()));
-                }
-            } else if (now.isAfter(LocalTime.of(12, 0)) && now.isBefore(LocalTime.of(18, 0))) {
-                // Afternoon - balanced sessions
-                List<MindfulnessSession> mindfulness = sessionRepository
-                        .findByCategoryOrderByDurationAsc("mindfulness");
-                if (!mindfulness.isEmpty()) {
-                    recommendations.addAll(mindfulness.stream()
-                            .filter(s -> s.getDuration() != null && s.getDuration() <= 15)
-                            .limit(5).collect(Collectors.toList()));
-                }
-            } else {
-                // Evening - relaxation, wind-down sessions
-                List<MindfulnessSession> relaxation = sessionRepository.findByCategoryOrderByDurationAsc("relaxation");
-                if (!relaxation.isEmpty()) {
-                    recommendations.addAll(relaxation.stream().limit(3).collect(Collectors.toList()));
-                }
-                List<MindfulnessSession> sleep = sessionRepository.findByCategoryOrderByDurationAsc("sleep");
-                if (!sleep.isEmpty()) {
-                    recommendations.addAll(sleep.stream().limit(2).collect(Collectors.toList()));
-                }
-            }
-        } catch (Exception e) {
-            // Fall back to any available sessions if time-based queries fail
-            List<MindfulnessSession> allSessions = sessionRepository.findAllByOrderByDurationAsc();
-            if (!allSessions.isEmpty()) {
-                recommendations.addAll(allSessions.stream().limit(5).collect(Collectors.toList()));
-            }
+        if (now.isAfter(LocalTime.of(5, 0)) && now.isBefore(LocalTime.of(12, 0))) {
+            // Morning - energizing, short sessions
+            recommendations.addAll(sessions.inCategory("energizing").stream()
+                    .filter(s -> s.getDuration() != null && s.getDuration() <= 10)
+                    .limit(3).collect(Collectors.toList()));
+            recommendations.addAll(first(sessions.inCategory("morning"), 2));
+        } else if (now.isAfter(LocalTime.of(12, 0)) && now.isBefore(LocalTime.of(18, 0))) {
+            // Afternoon - balanced sessions
+            recommendations.addAll(sessions.inCategory("mindfulness").stream()
+                    .filter(s -> s.getDuration() != null && s.getDuration() <= 15)
+                    .limit(5).collect(Collectors.toList()));
+        } else {
+            // Evening - relaxation, wind-down sessions
+            recommendations.addAll(first(sessions.inCategory("relaxation"), 3));
+            recommendations.addAll(first(sessions.inCategory("sleep"), 2));
         }
 
-        return recommendations.stream().distinct().limit(5).collect(Collectors.toList());
+        return recommendations.stream().distinct().limit(LIST_SIZE).collect(Collectors.toList());
     }
 
     /**
      * Get recommendations based on user preferences
      */
-    private List<MindfulnessSession> getPreferenceBasedRecommendations(UserMindfulnessPreferences preferences) {
+    private List<MindfulnessSession> getPreferenceBasedRecommendations(MindfulnessCatalog.Snapshot sessions,
+            List<String> preferredCategories, String preferredDifficulty) {
         List<MindfulnessSession> recommendations = new ArrayList<>();
 
         // Based on preferred categories - null-safe check
-        List<String> preferredCategories = preferences.getPreferredCategories();
-        if (preferredCategories != null && !preferredCategories.isEmpty()) {
-            preferredCategories.forEach(category -> {
-                recommendations.addAll(sessionRepository.findByCategoryOrderByDurationAsc(category)
-                        .stream().limit(2).collect(Collectors.toList()));
-            });
+        if (preferredCategories != null) {
+            preferredCategories.forEach(category -> recommendations.addAll(first(sessions.inCategory(category), 2)));
         }
 
         // Based on preferred difficulty
-        if (preferences.getPreferredDifficulty() != null) {
-            recommendations.addAll(sessionRepository.findByDifficultyLevelOrderByDurationAsc(
-                    preferences.getPreferredDifficulty())
-                    .stream().limit(3).collect(Collectors.toList()));
+        if (preferredDifficulty != null) {
+            recommendations.addAll(first(sessions.atDifficulty(preferredDifficulty), 3));
         }
 
-        return recommendations.stream().distinct().limit(5).collect(Collectors.toList());
+        return recommendations.stream().distinct().limit(LIST_SIZE).collect(Collectors.toList());
     }
 }
@@ -1,11 +1,15 @@
 package com.mindease.mindfulness.service;
 
 import com.mindease.auth.model.User;
+import com.mindease.mindfulness.model.MindfulnessActivityCalendar;
 import com.mindease.mindfulness.model.MindfulnessSession;
 import com.mindease.mindfulness.model.MindfulnessSessionActivity;
+import com.mindease.mindfulness.repository.MindfulnessActivityCalendarRepository;
 import com.mindease.mindfulness.repository.MindfulnessSessionActivityRepository;
 import com.mindease.mindfulness.repository.MindfulnessSessionRepository;
+import com.mindease.shared.events.MindfulnessRecommendationsStaleEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,37 +31,47 @@ public class MindfulnessService {
     @Autowired
     private MindfulnessSessionActivityRepository activityRepository;
 
-    // --- Session catalog operations ---
+    @Autowired
+    private MindfulnessActivityCalendarRepository calendarRepository;
+
+    @Autowired
+    private MindfulnessCatalog catalog;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
+    // --- Session catalog operations (served from the in-memory snapshot) ---
+
+    public MindfulnessCatalog.Snapshot getCatalog() {
+        return catalog.snapshot();
+    }
 
     public List<MindfulnessSession> getAllSessions() {
-        return mindfulnessSessionRepository.findAllByOrderByDurationAsc();
+        return catalog.snapshot().sessions();
     }
 
     public List<MindfulnessSession> getSessionsByType(String type) {
-        return mindfulnessSessionRepository.findByTypeOrderByDurationAsc(type);
+        return catalog.snapshot().ofType(type);
     }
 
     public List<MindfulnessSession> getSessionsByCategory(String category) {
-        return mindfulnessSessionRepository.findByCategoryOrderByDurationAsc(category);
+        return catalog.snapshot().inCategory(category);
     }
 
     public List<MindfulnessSession> getSessionsByDifficulty(String difficultyLevel) {
-        return mindfulnessSessionRepository.findByDifficultyLevelOrderByDurationAsc(difficultyLevel);
+        return catalog.snapshot().atDifficulty(difficultyLevel);
     }
 
     public Optional<MindfulnessSession> getSessionById(UUID id) {
-        return mindfulnessSessionRepository.findById(id);
+        return catalog.findById(id);
     }
 
     public List<String> getAllCategories() {
-        return mindfulnessSessionRepository.findDistinctCategories();
+        return catalog.snapshot().categories();
     }
 
     public List<MindfulnessSession> getQuickSessions(int maxDuration) {
-        return mindfulnessSessionRepository.findAllByOrderByDurationAsc()
-                .stream()
-                .filter(session -> session.getDuration() <= maxDuration)
-                .toList();
+        return catalog.snapshot().upTo(maxDuration);
     }
 
     // --- Activity tracking operations (merged from MindfulnessActivityService) ---
@@ -75,80 +89,43 @@ public class MindfulnessService {
         activity.setMoodBefore(moodBefore);
         activity.setMoodAfter(moodAfter);
 
-        return activityRepository.save(activity);
+        MindfulnessActivityCalendar calendar = lockCalendar(user);
+        calendar.record(activity.getCompletedAt().toLocalDate());
+        MindfulnessSessionActivity saved = activityRepository.save(activity);
+        events.publishEvent(new MindfulnessRecommendationsStaleEvent(user.getId()));
+        return saved;
     }
 
+    /**
+     * Current and longest streak, read from the user's activity calendar
+     * without loading any session history.
+     */
     public Map<String, Object> getUserStreak(User user) {
-        List<MindfulnessSessionActivity> allActivities = activityRepository.findByUserOrderByCompletedAtDesc(user);
-
-        if (allActivities.isEmpty()) {
-            return Map.of(
-                    "currentStreak", 0,
-                    "longestStreak", 0,
-                    "isActive", false);
-        }
-
-        int currentStreak = 0;
-        LocalDate today = LocalDate.now();
-        LocalDate checkDate = today;
-        boolean countingFromToday = true;
-
-        while (true) {
-            LocalDate finalCheckDate = checkDate;
-            boolean hasSessionOnDate = allActivities.stream()
-                    .anyMatch(activity -> activity.getCompletedAt().toLocalDate().equals(finalCheckDate));
-
-            if (hasSessionOnDate) {
-                currentStreak++;
-                countingFromToday = false;
-                checkDate = checkDate.minusDays(1);
-            } else if (countingFromToday && checkDate.equals(today)) {
-                checkDate = checkDate.minusDays(1);
-            } else {
-                break;
-            }
-
-            if (checkDate.isBefore(today.minusYears(1))) {
-                break;
-            }
-        }
-
-        int longestStreak = calculateLongestStreak(allActivities);
+        MindfulnessActivityCalendar calendar = calendarRepository.findById(user.getId())
+                .orElseGet(() -> lockCalendar(user));
 
+        int currentStreak = calendar.currentStreak(LocalDate.now());
         return Map.of(
                 "currentStreak", currentStreak,
-                "longestStreak", longestStreak,
+                "longestStreak", calendar.getLongestStreak(),
                 "isActive", currentStreak > 0);
     }
 
-    private int calculateLongestStreak(List<MindfulnessSessionActivity> activities) {
-        if (activities.isEmpty()) {
-            return 0;
-        }
-
-        int maxStreak = 0;
-        int currentStreak = 0;
-        LocalDate previousDate = null;
-
-        for (MindfulnessSessionActivity activity : activities) {
-            LocalDate activityDate = activity.getCompletedAt().toLocalDate();
-
-            if (previousDate == null) {
-                currentStreak = 1;
-                previousDate = activityDate;
-            } else if (activityDate.equals(previousDate)) {
-                continue;
-            } else if (activityDate.equals(previousDate.minusDays(1))) {
-                currentStreak++;
-                previousDate = activityDate;
-            } else {
-                maxStreak = Math.max(maxStreak, currentStreak);
-                currentStreak = 1;
-                previousDate = activityDate;
+    /**
+     * Locks the user's calendar for update, creating it on first use. A new
+     * calendar is filled from the user's existing completions, so users with
+     * history from before calendars existed keep their streaks.
+     */
+    private MindfulnessActivityCalendar lockCalendar(User user) {
+        boolean created = calendarRepository.insertIfAbsent(user.getId()) > 0;
+        MindfulnessActivityCalendar calendar = calendarRepository.findForUpdate(user.getId())
+                .orElseThrow(() -> new IllegalStateException("Activity calendar missing for user " + user.getId()));
+        if (created) {
+            for (Integer epochDay : activityRepository.findDistinctCompletionEpochDays(user.getId())) {
+                calendar.record(LocalDate.ofEpochDay(epochDay));
             }
         }
-
-        return Math.max(maxStreak, currentStreak);
+        return calendar;
     }
 
     public Long getTotalMinutes(User user, LocalDateTime since) {
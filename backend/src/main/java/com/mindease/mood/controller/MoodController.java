@@ -7,7 +7,7 @@ import com.mindease.chat.model.ChatSession;
 import com.mindease.chat.repository.ChatSessionRepository;
 import com.mindease.mood.dto.MoodCheckInRequest;
 import com.mindease.mood.dto.MoodCheckInResponse;
-import com.mindease.mood.dto.UnifiedMoodRecord;
+import com.mindease.mood.dto.UnifiedMoodSummary;
 import com.mindease.mood.model.MoodCheckIn;
 import com.mindease.mood.model.MoodEntry;
 import com.mindease.mood.service.MoodPredictionService;
@@ -28,11 +28,20 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -63,6 +72,9 @@ public class MoodController {
     @Autowired
     private ChatSessionRepository chatSessionRepository;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     // ---- MoodEntry endpoints (from original MoodController) ----
 
     @Operation(summary = "Add a mood entry", description = "Add a new mood entry for the authenticated user")
@@ -149,7 +161,8 @@ public class MoodController {
     public ResponseEntity<?> getUnifiedMoodHistory(
             Authentication authentication,
             @RequestParam(defaultValue = "30") int days,
-            @RequestParam(defaultValue = "true") boolean includeAnalytics) {
+            @RequestParam(defaultValue = "true") boolean includeAnalytics,
+            @RequestParam(defaultValue = "UTC") String tz) {
         try {
             String email = authentication.getName();
             Optional<User> userOptional = userRepository.findByEmail(email);
@@ -158,24 +171,45 @@ public class MoodController {
                 return ResponseEntity.badRequest().body(createErrorResponse("User not found"));
             }
 
-            User user = userOptional.get();
-            List<UnifiedMoodRecord> unifiedHistory = moodService.getUnifiedMoodHistory(user, days);
-
-            Map<String, Object> response = new HashMap<>();
-            response.put("status", "success");
-            response.put("data", unifiedHistory);
-            response.put("days", days);
-
-            if (includeAnalytics) {
-                Map<String, Double> trend = moodService.getUnifiedMoodTrend(user, days);
-                Double averageMood = moodService.getAverageUnifiedMood(user, days);
-                Map<String, Long> countBySource = moodService.getMoodCountBySource(user, days);
-                response.put("trend", trend);
-                response.put("averageMood", averageMood);
-                response.put("countBySource", countBySource);
+            ZoneId zone;
+            try {
+                zone = ZoneId.of(tz);
+            } catch (DateTimeException e) {
+                return ResponseEntity.badRequest().body(createErrorResponse("Invalid timezone: " + tz));
             }
 
-            return ResponseEntity.ok(response);
+            UUID userId = userOptional.get().getId();
+            // One window start for both, so the summary describes exactly the streamed rows
+            LocalDateTime since = LocalDateTime.now().minusDays(days);
+            UnifiedMoodSummary summary = includeAnalytics
+                    ? moodService.getUnifiedMoodSummary(userId, since, zone)
+                    : null;
+
+            // History rows are written to the response as they come off the cursor,
+            // so large windows never sit in memory as a List.
+            StreamingResponseBody body = out -> {
+                try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+                    gen.writeStartObject();
+                    gen.writeStringField("status", "success");
+                    gen.writeNumberField("days", days);
+                    if (summary != null) {
+                        gen.writeObjectField("trend", summary.trend());
+                        gen.writeObjectField("averageMood", summary.averageMood());
+                        gen.writeObjectField("countBySource", summary.countBySource());
+                    }
+                    gen.writeArrayFieldStart("data");
+                    moodService.streamUnifiedMoodHistory(userId, since, record -> {
+                        try {
+                            gen.writeObject(record);
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    });
+                    gen.writeEndArray();
+                    gen.writeEndObject();
+                }
+            };
+            return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
 
         } catch (Exception e) {
             return ResponseEntity.badRequest()
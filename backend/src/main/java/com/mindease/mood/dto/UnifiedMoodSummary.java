@@ -0,0 +1,17 @@
+package com.mindease.mood.dto;
+
+import java.util.Map;
+
+/**
+ * Analytics over the unified (entry + check-in) mood timeline, on the 1-10 scale.
+ *
+ * @param trend         average mood per local day, ordered by day
+ * @param averageMood   average over the whole window, or null when there are no records
+ * @param countBySource record counts keyed by "mood_entry" / "mood_checkin"
+ */
+public record UnifiedMoodSummary(
+        Map<String, Double> trend,
+        Double averageMood,
+        Map<String, Long> countBySource
+) {
+}
@@ -0,0 +1,116 @@
+package com.mindease.mood.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Running mood totals for one user. Rows are written only through the atomic
+ * upserts in {@link com.mindease.mood.repository.UserMoodAggregateRepository}.
+ */
+@Entity
+@Immutable
+@Table(name = "user_mood_aggregates")
+public class UserMoodAggregate {
+
+    public static final int HISTOGRAM_BUCKETS = 10;
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "entry_count", nullable = false)
+    private long entryCount;
+
+    @Column(name = "entry_sum", nullable = false)
+    private long entrySum;
+
+    /** histogram[v - 1] = number of mood entries with value v (1-10). */
+    @Column(name = "histogram", columnDefinition = "INTEGER[]", nullable = false)
+    private Integer[] histogram;
+
+    @Column(name = "latest_value")
+    private Integer latestValue;
+
+    @Column(name = "previous_value")
+    private Integer previousValue;
+
+    @Column(name = "last_entry_at")
+    private LocalDateTime lastEntryAt;
+
+    @Column(name = "checkin_count", nullable = false)
+    private long checkinCount;
+
+    @Column(name = "checkin_sum", nullable = false)
+    private long checkinSum;
+
+    @Column(name = "last_checkin_score")
+    private Integer lastCheckinScore;
+
+    @Column(name = "last_checkin_at")
+    private LocalDateTime lastCheckinAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    protected UserMoodAggregate() {
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public long getEntryCount() {
+        return entryCount;
+    }
+
+    public long getEntrySum() {
+        return entrySum;
+    }
+
+    public Integer[] getHistogram() {
+        return histogram;
+    }
+
+    public long getHistogramCount(int moodValue) {
+        if (histogram == null || moodValue < 1 || moodValue > histogram.length) {
+            return 0;
+        }
+        Integer count = histogram[moodValue - 1];
+        return count != null ? count : 0;
+    }
+
+    public Integer getLatestValue() {
+        return latestValue;
+    }
+
+    public Integer getPreviousValue() {
+        return previousValue;
+    }
+
+    public LocalDateTime getLastEntryAt() {
+        return lastEntryAt;
+    }
+
+    public long getCheckinCount() {
+        return checkinCount;
+    }
+
+    public long getCheckinSum() {
+        return checkinSum;
+    }
+
+    public Integer getLastCheckinScore() {
+        return lastCheckinScore;
+    }
+
+    public LocalDateTime getLastCheckinAt() {
+        return lastCheckinAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+}
@@ -12,6 +12,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -21,6 +22,10 @@ public interface MoodEntryRepository extends JpaRepository<MoodEntry, UUID> {
 
     Page<MoodEntry> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
 
+    MoodEntry findFirstByUserOrderByCreatedAtDesc(User user);
+
+    Optional<MoodEntry> findFirstByUserIdOrderByCreatedAtDesc(UUID userId);
+
     List<MoodEntry> findByUserAndCreatedAtBetweenOrderByCreatedAtDesc(User user, LocalDateTime start,
                                                                       LocalDateTime end);
 
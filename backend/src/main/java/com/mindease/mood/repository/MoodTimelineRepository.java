@@ -0,0 +1,198 @@
+package com.mindease.mood.repository;
+
+import com.mindease.mood.dto.UnifiedMoodRecord;
+import com.mindease.mood.dto.UnifiedMoodSummary;
+import com.mindease.shared.util.DatabaseDialect;
+import com.mindease.shared.util.StoredTime;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Unified mood timeline (mood entries on the 1-10 scale plus check-ins mapped
+ * from 1-5 to 1-10) computed in SQL via UNION ALL projections, without
+ * hydrating entities.
+ *
+ * {@code created_at} columns follow the {@link StoredTime} convention.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class MoodTimelineRepository {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    private static final String UNIFIED_PROJECTION = """
+            SELECT m.id AS id, m.mood_value AS mood_value, 'mood_entry' AS source, m.notes AS notes,
+                   CAST(NULL AS VARCHAR(20)) AS checkin_type, m.created_at AS created_at
+            FROM mood_entries m
+            WHERE m.user_id = :userId AND m.created_at > :since
+            UNION ALL
+            SELECT c.id, c.score * 2, 'mood_checkin', CAST(NULL AS TEXT), c.checkin_type, c.created_at
+            FROM mood_checkins c
+            WHERE c.user_id = :userId AND c.created_at > :since
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Per-day trend, window average and per-source counts in one round trip,
+     * bucketed by calendar day in {@code zone}. On PostgreSQL the days are
+     * computed in SQL; elsewhere (H2 in tests) rows are bucketed as they are
+     * read.
+     */
+    public UnifiedMoodSummary summarize(UUID userId, LocalDateTime since, ZoneId zone) {
+        List<Object[]> rows = DatabaseDialect.isPostgres(em)
+                ? summarizeByDay(userId, since, zone)
+                : bucketByDay(userId, since, zone);
+
+        Map<String, long[]> byDay = new LinkedHashMap<>();
+        Map<String, Long> countBySource = new HashMap<>();
+        long records = 0;
+        long total = 0;
+        for (Object[] r : rows) {
+            String day = toLocalDate(r[0]).toString();
+            String source = (String) r[1];
+            long count = ((Number) r[2]).longValue();
+            long sum = r[3] == null ? 0L : ((Number) r[3]).longValue();
+
+            long[] dayTotals = byDay.computeIfAbsent(day, d -> new long[2]);
+            dayTotals[0] += count;
+            dayTotals[1] += sum;
+            countBySource.merge(source, count, Long::sum);
+            records += count;
+            total += sum;
+        }
+
+        Map<String, Double> trend = new LinkedHashMap<>();
+        byDay.forEach((day, totals) -> trend.put(day, (double) totals[1] / totals[0]));
+        Double average = records == 0 ? null : (double) total / records;
+        return new UnifiedMoodSummary(trend, average, countBySource);
+    }
+
+    /** Rows of (day, source, records, total) ordered by day. */
+    private List<Object[]> summarizeByDay(UUID userId, LocalDateTime since, ZoneId zone) {
+        var sql = """
+                SELECT CAST((u.created_at AT TIME ZONE :storageTz) AT TIME ZONE :tz AS DATE) AS day,
+                       u.source,
+                       COUNT(*) AS records,
+                       SUM(u.mood_value) AS total
+                FROM (
+                """ + UNIFIED_PROJECTION + """
+                ) u
+                GROUP BY day, u.source
+                ORDER BY day
+                """;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("since", since)
+                .setParameter("storageTz", StoredTime.ZONE.getId())
+                .setParameter("tz", zone.getId())
+                .getResultList();
+        return rows;
+    }
+
+    /** Same rows as {@link #summarizeByDay}, grouped in Java for databases without {@code AT TIME ZONE}. */
+    private List<Object[]> bucketByDay(UUID userId, LocalDateTime since, ZoneId zone) {
+        var sql = "SELECT u.created_at, u.source, u.mood_value FROM (" + UNIFIED_PROJECTION + ") u";
+        Map<LocalDate, Map<String, long[]>> days = new TreeMap<>();
+        @SuppressWarnings("unchecked")
+        Stream<Object[]> rows = em.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("since", since)
+                .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+        try (rows) {
+            rows.forEach(r -> {
+                LocalDate day = dayOf(toLocalDateTime(r[0]), zone);
+                long[] totals = days.computeIfAbsent(day, d -> new LinkedHashMap<>())
+                        .computeIfAbsent((String) r[1], s -> new long[2]);
+                totals[0]++;
+                totals[1] += r[2] == null ? 0L : ((Number) r[2]).longValue();
+            });
+        }
+        List<Object[]> grouped = new ArrayList<>();
+        days.forEach((day, bySource) -> bySource.forEach((source, totals) ->
+                grouped.add(new Object[] { day, source, totals[0], totals[1] })));
+        return grouped;
+    }
+
+    /** Calendar day in {@code zone} of a stored timestamp. */
+    static LocalDate dayOf(LocalDateTime stored, ZoneId zone) {
+        return StoredTime.toInstant(stored).atZone(zone).toLocalDate();
+    }
+
+    /**
+     * Streams the unified history newest-first through a forward-only cursor.
+     * Must be called inside a transaction; rows are handed to {@code sink} as
+     * they are fetched and never collected.
+     */
+    public void streamHistory(UUID userId, LocalDateTime since, Consumer<UnifiedMoodRecord> sink) {
+        var sql = "SELECT * FROM (" + UNIFIED_PROJECTION + ") u ORDER BY u.created_at DESC";
+        @SuppressWarnings("unchecked")
+        Stream<Object[]> rows = em.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("since", since)
+                .setHint("org.hibernate.fetchSize", STREAM_FETCH_SIZE)
+                .setHint("org.hibernate.readOnly", true)
+                .getResultStream();
+        try (rows) {
+            rows.forEach(r -> sink.accept(new UnifiedMoodRecord(
+                    toUuid(r[0]),
+                    r[1] == null ? null : ((Number) r[1]).intValue(),
+                    (String) r[2],
+                    (String) r[3],
+                    (String) r[4],
+                    toLocalDateTime(r[5]))));
+        }
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null) return null;
+        if (value instanceof UUID uuid) {
+            return uuid;
+        }
+        return UUID.fromString(value.toString());
+    }
+
+    private static LocalDateTime toLocalDateTime(Object value) {
+        if (value == null) return null;
+        if (value instanceof LocalDateTime ldt) {
+            return ldt;
+        }
+        if (value instanceof java.sql.Timestamp ts) {
+            return ts.toLocalDateTime();
+        }
+        if (value instanceof OffsetDateTime odt) {
+            return StoredTime.of(odt);
+        }
+        return LocalDateTime.parse(value.toString());
+    }
+
+    private static LocalDate toLocalDate(Object value) {
+        if (value instanceof java.sql.Date d) {
+            return d.toLocalDate();
+        }
+        if (value instanceof LocalDate ld) {
+            return ld;
+        }
+        return LocalDate.parse(value.toString());
+    }
+}
@@ -0,0 +1,191 @@
+package com.mindease.mood.repository;
+
+import com.mindease.mood.model.UserMoodAggregate;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Aggregate rows are written two ways: increments on every mood write, and
+ * rebuilds from raw history ({@link #REBUILD_SELECT}). A rebuild must lock its
+ * rows first ({@link #ensureExistFor}, then {@link #lockFor}) so it never
+ * overwrites an increment committed while it was reading the history.
+ */
+@Repository
+public interface UserMoodAggregateRepository extends JpaRepository<UserMoodAggregate, UUID> {
+
+    /**
+     * The one definition of an aggregate in terms of mood_entries and
+     * mood_checkins, for the users in {@code :userIds}. Each derived table
+     * filters on the ids itself so only those users' history is read.
+     */
+    String REBUILD_SELECT = """
+            INSERT INTO user_mood_aggregates (user_id, entry_count, entry_sum, histogram, latest_value, previous_value,
+                last_entry_at, checkin_count, checkin_sum, last_checkin_score, last_checkin_at, updated_at)
+            SELECT u.id,
+                   COALESCE(e.entry_count, 0),
+                   COALESCE(e.entry_sum, 0),
+                   COALESCE(e.histogram, ARRAY[0,0,0,0,0,0,0,0,0,0]),
+                   l.latest_value,
+                   l.previous_value,
+                   l.last_entry_at,
+                   COALESCE(c.checkin_count, 0),
+                   COALESCE(c.checkin_sum, 0),
+                   c.last_checkin_score,
+                   c.last_checkin_at,
+                   NOW()
+            FROM users u
+            LEFT JOIN (
+                SELECT user_id,
+                       COUNT(*) AS entry_count,
+                       SUM(mood_value) AS entry_sum,
+                       ARRAY[
+                           COUNT(*) FILTER (WHERE mood_value = 1)::int, COUNT(*) FILTER (WHERE mood_value = 2)::int,
+                           COUNT(*) FILTER (WHERE mood_value = 3)::int, COUNT(*) FILTER (WHERE mood_value = 4)::int,
+                           COUNT(*) FILTER (WHERE mood_value = 5)::int, COUNT(*) FILTER (WHERE mood_value = 6)::int,
+                           COUNT(*) FILTER (WHERE mood_value = 7)::int, COUNT(*) FILTER (WHERE mood_value = 8)::int,
+                           COUNT(*) FILTER (WHERE mood_value = 9)::int, COUNT(*) FILTER (WHERE mood_value = 10)::int
+                       ] AS histogram
+                FROM mood_entries
+                WHERE user_id IN (:userIds)
+                GROUP BY user_id
+            ) e ON e.user_id = u.id
+            LEFT JOIN (
+                SELECT user_id,
+                       MAX(mood_value) FILTER (WHERE rn = 1) AS latest_value,
+                       MAX(mood_value) FILTER (WHERE rn = 2) AS previous_value,
+                       MAX(created_at) FILTER (WHERE rn = 1) AS last_entry_at
+                FROM (
+                    SELECT user_id, mood_value, created_at,
+                           ROW_NUMBER() OVER (PARTITION BY user_id ORDER BY created_at DESC) AS rn
+                    FROM mood_entries
+                    WHERE user_id IN (:userIds)
+                ) ranked
+                WHERE rn <= 2
+                GROUP BY user_id
+            ) l ON l.user_id = u.id
+            LEFT JOIN (
+                SELECT user_id,
+                       COUNT(*) AS checkin_count,
+                       SUM(score) AS checkin_sum,
+                       (ARRAY_AGG(score ORDER BY created_at DESC))[1] AS last_checkin_score,
+                       MAX(created_at) AS last_checkin_at
+                FROM mood_checkins
+                WHERE user_id IN (:userIds)
+                GROUP BY user_id
+            ) c ON c.user_id = u.id
+            WHERE u.id IN (:userIds)
+            """;
+
+    String REBUILD_UPSERT = """
+            ON CONFLICT (user_id) DO UPDATE SET
+                entry_count = EXCLUDED.entry_count,
+                entry_sum = EXCLUDED.entry_sum,
+                histogram = EXCLUDED.histogram,
+                latest_value = EXCLUDED.latest_value,
+                previous_value = EXCLUDED.previous_value,
+                last_entry_at = EXCLUDED.last_entry_at,
+                checkin_count = EXCLUDED.checkin_count,
+                checkin_sum = EXCLUDED.checkin_sum,
+                last_checkin_score = EXCLUDED.last_checkin_score,
+                last_checkin_at = EXCLUDED.last_checkin_at,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    /**
+     * Creates an empty aggregate row if none exists so the increment statements
+     * below always have a row to lock.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_mood_aggregates (user_id, updated_at) VALUES (:userId, NOW()) " +
+            "ON CONFLICT (user_id) DO NOTHING", nativeQuery = true)
+    int ensureExists(@Param("userId") UUID userId);
+
+    /**
+     * Folds one mood entry into the aggregate. The UPDATE row lock serializes
+     * concurrent writers, and SET expressions read the pre-update row, so
+     * previous_value receives the old latest_value.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE user_mood_aggregates SET
+                entry_count = entry_count + 1,
+                entry_sum = entry_sum + :moodValue,
+                histogram[:moodValue] = histogram[:moodValue] + 1,
+                previous_value = latest_value,
+                latest_value = :moodValue,
+                last_entry_at = :createdAt,
+                updated_at = NOW()
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int applyMoodEntry(@Param("userId") UUID userId, @Param("moodValue") int moodValue,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_mood_aggregates SET
+                checkin_count = checkin_count + 1,
+                checkin_sum = checkin_sum + :score,
+                last_checkin_score = :score,
+                last_checkin_at = :createdAt,
+                updated_at = NOW()
+            WHERE user_id = :userId
+            """, nativeQuery = true)
+    int applyCheckIn(@Param("userId") UUID userId, @Param("score") int score,
+            @Param("createdAt") LocalDateTime createdAt);
+
+    /** Creates empty rows for {@code userIds} so {@link #lockFor} has every row to lock. */
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_mood_aggregates (user_id, updated_at)
+            SELECT u.id, NOW() FROM users u WHERE u.id IN (:userIds)
+            ON CONFLICT (user_id) DO NOTHING
+            """, nativeQuery = true)
+    int ensureExistFor(@Param("userIds") Collection<UUID> userIds);
+
+    /**
+     * Locks the aggregate rows of {@code userIds} until the transaction ends.
+     * Increments already committed are then visible to the next statement,
+     * and increments still running wait for the rebuild and apply on top of it.
+     */
+    @Query(value = """
+            SELECT user_id FROM user_mood_aggregates
+            WHERE user_id IN (:userIds)
+            ORDER BY user_id
+            FOR UPDATE
+            """, nativeQuery = true)
+    List<UUID> lockFor(@Param("userIds") Collection<UUID> userIds);
+
+    /** Recomputes the aggregates of {@code userIds}; callers lock the rows first. */
+    @Modifying
+    @Query(value = REBUILD_SELECT + REBUILD_UPSERT, nativeQuery = true)
+    int rebuildFor(@Param("userIds") Collection<UUID> userIds);
+
+    /** Next {@code limit} users after {@code afterId} with any mood history, in id order. */
+    @Query(value = """
+            SELECT u.id FROM users u
+            WHERE u.id > :afterId
+              AND (EXISTS (SELECT 1 FROM mood_entries e WHERE e.user_id = u.id)
+                   OR EXISTS (SELECT 1 FROM mood_checkins c WHERE c.user_id = u.id))
+            ORDER BY u.id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findUsersWithHistoryAfter(@Param("afterId") UUID afterId, @Param("limit") int limit);
+
+    /** Next {@code limit} users after {@code afterId} with a mood entry created at or after {@code since}. */
+    @Query(value = """
+            SELECT DISTINCT e.user_id FROM mood_entries e
+            WHERE e.created_at >= :since AND e.user_id > :afterId
+            ORDER BY e.user_id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<UUID> findUsersWithEntriesSince(@Param("since") LocalDateTime since, @Param("afterId") UUID afterId,
+            @Param("limit") int limit);
+}
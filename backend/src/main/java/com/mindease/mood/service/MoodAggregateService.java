@@ -0,0 +1,152 @@
+package com.mindease.mood.service;
+
+import com.mindease.mood.model.MoodCheckIn;
+import com.mindease.mood.model.MoodEntry;
+import com.mindease.mood.model.UserMoodAggregate;
+import com.mindease.mood.repository.UserMoodAggregateRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maintains {@code user_mood_aggregates} so mood statistics are O(1) reads.
+ *
+ * Writes join the caller's transaction: the aggregate increment commits or
+ * rolls back together with the mood row it describes. Rebuilds from raw
+ * history run in chunks of {@link #REBUILD_CHUNK} users, each in its own
+ * short transaction that locks the chunk's rows before reading the history,
+ * so concurrent increments are never overwritten.
+ */
+@Service
+public class MoodAggregateService {
+
+    private static final Logger log = LoggerFactory.getLogger(MoodAggregateService.class);
+
+    private static final JobSpec REBUILD_JOB = JobSpec.of("mood-aggregate-rebuild", Duration.ofHours(1));
+    static final int REBUILD_CHUNK = 500;
+    // Smallest UUID in PostgreSQL's ordering; starts a scan with no checkpoint
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final UserMoodAggregateRepository aggregateRepository;
+    private final ClusterJobRunner clusterJobRunner;
+    private final TransactionTemplate transactionTemplate;
+
+    public MoodAggregateService(UserMoodAggregateRepository aggregateRepository,
+            ClusterJobRunner clusterJobRunner,
+            TransactionTemplate transactionTemplate) {
+        this.aggregateRepository = aggregateRepository;
+        this.clusterJobRunner = clusterJobRunner;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    @Transactional
+    public void recordMoodEntry(MoodEntry entry) {
+        Integer value = entry.getMoodValue();
+        if (value == null || value < 1 || value > UserMoodAggregate.HISTOGRAM_BUCKETS) {
+            log.warn("Skipping aggregate update for out-of-range mood value: {}", value);
+            return;
+        }
+        UUID userId = entry.getUser().getId();
+        aggregateRepository.ensureExists(userId);
+        aggregateRepository.applyMoodEntry(userId, value, entry.getCreatedAt());
+    }
+
+    @Transactional
+    public void recordCheckIn(MoodCheckIn checkIn) {
+        UUID userId = checkIn.getUser().getId();
+        aggregateRepository.ensureExists(userId);
+        aggregateRepository.applyCheckIn(userId, checkIn.getScore(), checkIn.getCreatedAt());
+    }
+
+    /**
+     * Returns the user's aggregate, rebuilding it from history the first time it
+     * is requested (e.g. for rows written before the table existed).
+     */
+    @Transactional
+    public Optional<UserMoodAggregate> getAggregate(UUID userId) {
+        Optional<UserMoodAggregate> aggregate = aggregateRepository.findById(userId);
+        if (aggregate.isPresent()) {
+            return aggregate;
+        }
+        if (rebuild(List.of(userId)) == 0) {
+            return Optional.empty();
+        }
+        return aggregateRepository.findById(userId);
+    }
+
+    @Transactional
+    public int rebuildForUser(UUID userId) {
+        return rebuild(List.of(userId));
+    }
+
+    /**
+     * Rebuilds the users with a mood entry created at or after {@code since},
+     * e.g. after the Python auto-mood job inserted entries directly.
+     */
+    public int rebuildUsersWithEntriesSince(LocalDateTime since) {
+        int rows = 0;
+        UUID afterId = FIRST_ID;
+        List<UUID> ids;
+        do {
+            ids = aggregateRepository.findUsersWithEntriesSince(since, afterId, REBUILD_CHUNK);
+            rows += rebuildChunk(ids);
+            afterId = ids.isEmpty() ? afterId : ids.get(ids.size() - 1);
+        } while (ids.size() == REBUILD_CHUNK);
+        log.info("Rebuilt {} user mood aggregates with entries since {}", rows, since);
+        return rows;
+    }
+
+    /**
+     * Recomputes all aggregates from raw history. Runs nightly on one node to
+     * reconcile rows written outside this service (e.g. by the Python
+     * background jobs service) and to backfill users who have none yet.
+     */
+    @Scheduled(cron = "${mood.aggregates.rebuild-cron:0 30 3 * * ?}")
+    public void rebuildAll() {
+        clusterJobRunner.run(REBUILD_JOB, this::rebuildAll);
+    }
+
+    private long rebuildAll(ClusterJobRunner.JobContext ctx) {
+        long start = System.currentTimeMillis();
+        long rows = 0;
+        UUID afterId = ctx.checkpoint() != null ? UUID.fromString(ctx.checkpoint()) : FIRST_ID;
+        List<UUID> ids;
+        do {
+            ids = aggregateRepository.findUsersWithHistoryAfter(afterId, REBUILD_CHUNK);
+            if (ids.isEmpty()) {
+                break;
+            }
+            rows += rebuildChunk(ids);
+            afterId = ids.get(ids.size() - 1);
+            ctx.saveCheckpoint(afterId.toString());
+        } while (ids.size() == REBUILD_CHUNK);
+        log.info("Rebuilt {} user mood aggregates in {}ms", rows, System.currentTimeMillis() - start);
+        return rows;
+    }
+
+    private int rebuildChunk(List<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return 0;
+        }
+        Integer rows = transactionTemplate.execute(status -> rebuild(userIds));
+        return rows == null ? 0 : rows;
+    }
+
+    /** Must run in a transaction: the row locks are what keep concurrent increments. */
+    private int rebuild(List<UUID> userIds) {
+        aggregateRepository.ensureExistFor(userIds);
+        aggregateRepository.lockFor(userIds);
+        return aggregateRepository.rebuildFor(userIds);
+    }
+}
@@ -3,23 +3,30 @@ package com.mindease.mood.service;
 import com.mindease.auth.model.User;
 import com.mindease.chat.model.ChatSession;
 import com.mindease.mood.dto.UnifiedMoodRecord;
+import com.mindease.mood.dto.UnifiedMoodSummary;
 import com.mindease.mood.model.MoodCheckIn;
 import com.mindease.mood.model.MoodEntry;
+import com.mindease.mood.model.UserMoodAggregate;
 import com.mindease.mood.repository.MoodCheckInRepository;
 import com.mindease.mood.repository.MoodEntryRepository;
+import com.mindease.mood.repository.MoodTimelineRepository;
 import com.mindease.shared.config.MoodConfig;
+import com.mindease.shared.events.MindfulnessRecommendationsStaleEvent;
 import com.mindease.shared.service.PythonAnalyticsServiceClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -41,22 +48,33 @@ public class MoodService {
     @Autowired(required = false)
     private PythonAnalyticsServiceClient pythonAnalyticsServiceClient;
 
+    @Autowired
+    private MoodAggregateService moodAggregateService;
+
+    @Autowired
+    private MoodTimelineRepository moodTimelineRepository;
+
+    @Autowired
+    private ApplicationEventPublisher events;
+
     // ---- MoodEntry operations (from OptimizedMoodService + existing controller)
     // ----
 
     public MoodEntry saveMoodEntry(User user, Integer moodValue, String notes) {
         MoodEntry entry = new MoodEntry(user, moodValue, notes);
-        return moodEntryRepository.save(entry);
+        MoodEntry saved = moodEntryRepository.save(entry);
+        moodAggregateService.recordMoodEntry(saved);
+        events.publishEvent(new MindfulnessRecommendationsStaleEvent(user.getId()));
+        return saved;
     }
 
     public Page<MoodEntry> getMoodHistory(User user, Pageable pageable) {
         return moodEntryRepository.findByUserOrderByCreatedAtDesc(user, pageable);
     }
 
-    @Cacheable(value = "moodStats", key = "#user.id")
     public Map<String, Object> getMoodStatistics(User user) {
-        List<MoodEntry> entries = moodEntryRepository.findByUserOrderByCreatedAtDesc(user);
-        if (entries.isEmpty()) {
+        Optional<UserMoodAggregate> aggregate = moodAggregateService.getAggregate(user.getId());
+        if (aggregate.isEmpty() || aggregate.get().getEntryCount() == 0) {
             return Map.of(
                     "average", 0.0,
                     "total", 0,
@@ -64,13 +82,10 @@ public class MoodService {
                     "latest", 0);
         }
 
-        double average = entries.stream()
-                .mapToInt(MoodEntry::getMoodValue)
-                .average()
-                .orElse(0.0);
-
-        int latest = entries.get(0).getMoodValue();
-        int previous = entries.size() > 1 ? entries.get(1).getMoodValue() : latest;
+        UserMoodAggregate stats = aggregate.get();
+        double average = (double) stats.getEntrySum() / stats.getEntryCount();
+        int latest = stats.getLatestValue() != null ? stats.getLatestValue() : 0;
+        int previous = stats.getPreviousValue() != null ? stats.getPreviousValue() : latest;
 
         String trend = "stable";
         if (latest > previous)
@@ -80,16 +95,22 @@ public class MoodService {
 
         return Map.of(
                 "average", Math.round(average * 10.0) / 10.0,
-                "total", entries.size(),
+                "total", (int) stats.getEntryCount(),
                 "trend", trend,
                 "latest", latest);
     }
 
-    @Cacheable(value = "moodDistribution", key = "#user.id")
     public Map<Integer, Long> getMoodDistribution(User user) {
-        List<MoodEntry> entries = moodEntryRepository.findByUserOrderByCreatedAtDesc(user);
-        return entries.stream()
-                .collect(Collectors.groupingBy(MoodEntry::getMoodValue, Collectors.counting()));
+        Map<Integer, Long> distribution = new HashMap<>();
+        moodAggregateService.getAggregate(user.getId()).ifPresent(stats -> {
+            for (int value = 1; value <= UserMoodAggregate.HISTOGRAM_BUCKETS; value++) {
+                long count = stats.getHistogramCount(value);
+                if (count > 0) {
+                    distribution.put(value, count);
+                }
+            }
+        });
+        return distribution;
     }
 
     public boolean hasMoodEntryToday(User user) {
@@ -115,6 +136,7 @@ public class MoodService {
             checkIn.setSession(session);
         }
         MoodCheckIn saved = moodCheckInRepository.save(checkIn);
+        moodAggregateService.recordCheckIn(saved);
         log.info("Created mood check-in for user {}: score={}, type={}", user.getId(), score, checkinType);
         return saved;
     }
@@ -239,41 +261,42 @@ public class MoodService {
     }
 
     public List<UnifiedMoodRecord> getUnifiedMoodHistory(User user, int days) {
-        LocalDateTime since = LocalDateTime.now().minusDays(days);
-
-        List<MoodEntry> moodEntries = moodEntryRepository
-                .findByUserAndCreatedAtAfterOrderByCreatedAtAsc(user, since);
-        List<MoodCheckIn> moodCheckIns = moodCheckInRepository
-                .findByUserIdAndCreatedAtAfterOrderByCreatedAtDesc(user.getId(), since);
-
         List<UnifiedMoodRecord> records = new ArrayList<>();
-
-        for (MoodEntry entry : moodEntries) {
-            records.add(new UnifiedMoodRecord(
-                    entry.getId(),
-                    entry.getMoodValue(),
-                    "mood_entry",
-                    entry.getNotes(),
-                    null,
-                    entry.getCreatedAt()));
-        }
-
-        for (MoodCheckIn checkIn : moodCheckIns) {
-            records.add(new UnifiedMoodRecord(
-                    checkIn.getId(),
-                    mapCheckInScoreToTenScale(checkIn.getScore()),
-                    "mood_checkin",
-                    null,
-                    checkIn.getCheckinType(),
-                    checkIn.getCreatedAt()));
-        }
-
-        records.sort((a, b) -> b.getCreatedAt().compareTo(a.getCreatedAt()));
+        streamUnifiedMoodHistory(user.getId(), days, records::add);
         log.debug("Retrieved {} unified mood records for user {} ({} days)",
                 records.size(), user.getId(), days);
         return records;
     }
 
+    /**
+     * Streams the unified history newest-first without materializing it, for
+     * windows too large to hold in memory.
+     */
+    @Transactional(readOnly = true)
+    public void streamUnifiedMoodHistory(UUID userId, int days, Consumer<UnifiedMoodRecord> sink) {
+        streamUnifiedMoodHistory(userId, LocalDateTime.now().minusDays(days), sink);
+    }
+
+    /** As above, for records after {@code since}; pass the same {@code since} as the summary it goes with. */
+    @Transactional(readOnly = true)
+    public void streamUnifiedMoodHistory(UUID userId, LocalDateTime since, Consumer<UnifiedMoodRecord> sink) {
+        moodTimelineRepository.streamHistory(userId, since, sink);
+    }
+
+    /**
+     * Trend, average and per-source counts for the unified timeline in a single
+     * query, bucketed by calendar day in {@code zone}.
+     */
+    @Transactional(readOnly = true)
+    public UnifiedMoodSummary getUnifiedMoodSummary(UUID userId, int days, ZoneId zone) {
+        return getUnifiedMoodSummary(userId, LocalDateTime.now().minusDays(days), zone);
+    }
+
+    @Transactional(readOnly = true)
+    public UnifiedMoodSummary getUnifiedMoodSummary(UUID userId, LocalDateTime since, ZoneId zone) {
+        return moodTimelineRepository.summarize(userId, since, zone);
+    }
+
     public Map<String, Double> getUnifiedMoodTrend(User user, int days) {
         // Use Python analytics service if available
         if (pythonAnalyticsServiceClient != null) {
@@ -289,45 +312,28 @@ public class MoodService {
             }
         }
 
-        // Fallback to Java implementation
-        List<UnifiedMoodRecord> records = getUnifiedMoodHistory(user, days);
-        Map<String, Double> trend = records.stream()
-                .filter(record -> record.getMoodValue() != null)
-                .collect(Collectors.groupingBy(
-                        record -> record.getCreatedAt().toLocalDate().toString(),
-                        Collectors.averagingInt(UnifiedMoodRecord::getMoodValue)));
-
+        // Fallback to SQL aggregation
+        Map<String, Double> trend = getUnifiedMoodSummary(user.getId(), days, ZoneOffset.UTC).trend();
         log.debug("Calculated mood trend for user {}: {} days of data", user.getId(), trend.size());
         return trend;
     }
 
     public Double getAverageUnifiedMood(User user, int days) {
-        List<UnifiedMoodRecord> records = getUnifiedMoodHistory(user, days);
-        if (records.isEmpty()) {
-            return null;
-        }
-        return records.stream()
-                .filter(record -> record.getMoodValue() != null)
-                .mapToInt(UnifiedMoodRecord::getMoodValue)
-                .average()
-                .orElse(0.0);
+        return getUnifiedMoodSummary(user.getId(), days, ZoneOffset.UTC).averageMood();
     }
 
     public Map<String, Long> getMoodCountBySource(User user, int days) {
-        List<UnifiedMoodRecord> records = getUnifiedMoodHistory(user, days);
-        return records.stream()
-                .collect(Collectors.groupingBy(UnifiedMoodRecord::getSource, Collectors.counting()));
+        return getUnifiedMoodSummary(user.getId(), days, ZoneOffset.UTC).countBySource();
     }
 
     public UnifiedMoodRecord getMostRecentMood(User user) {
-        List<MoodEntry> recentEntries = moodEntryRepository.findByUserOrderByCreatedAtDesc(user);
+        MoodEntry entry = moodEntryRepository.findFirstByUserOrderByCreatedAtDesc(user);
         MoodCheckIn recentCheckIn = moodCheckInRepository.findFirstByUserIdOrderByCreatedAtDesc(user.getId());
 
         UnifiedMoodRecord mostRecent = null;
         LocalDateTime mostRecentDate = null;
 
-        if (!recentEntries.isEmpty()) {
-            MoodEntry entry = recentEntries.get(0);
+        if (entry != null) {
             mostRecentDate = entry.getCreatedAt();
             mostRecent = new UnifiedMoodRecord(
                     entry.getId(),
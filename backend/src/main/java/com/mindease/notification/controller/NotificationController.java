@@ -5,6 +5,7 @@ import com.mindease.auth.repository.UserRepository;
 import com.mindease.auth.service.UserService;
 import com.mindease.notification.model.Notification;
 import com.mindease.notification.repository.NotificationRepository;
+import com.mindease.notification.service.UnreadCountService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -47,6 +48,9 @@ public class NotificationController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UnreadCountService unreadCountService;
+
     @Operation(summary = "List notifications (paginated)", description = "Get paginated list of notifications for the authenticated user")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Notifications retrieved successfully"),
@@ -87,11 +91,10 @@ public class NotificationController {
     public ResponseEntity<?> getUnreadCount(Authentication authentication) {
         String principalEmail = authentication != null ? authentication.getName() : "unknown";
         try {
-            User user = userService.findByEmail(principalEmail)
+            // Reads the trigger-maintained counter; clients also get it pushed on every change
+            long unreadCount = unreadCountService.unreadCountForEmail(principalEmail)
                     .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "User not found"));
 
-            long unreadCount = notificationRepository.countByUserAndIsReadFalse(user);
-
             Map<String, Object> response = new HashMap<>();
             response.put("unreadCount", unreadCount);
 
@@ -130,8 +133,11 @@ public class NotificationController {
             }
 
             Notification n = nOpt.get();
-            n.setIsRead(true);
-            notificationRepository.save(n);
+            if (!n.getIsRead()) {
+                n.setIsRead(true);
+                notificationRepository.save(n);
+                unreadCountService.changed(userOpt.get().getId());
+            }
             return ResponseEntity.ok(Map.of("status", "ok"));
 
         } catch (Exception e) {
@@ -155,6 +161,9 @@ public class NotificationController {
 
             // Bulk update to mark all notifications as read (performance optimized)
             int count = notificationRepository.markAllAsReadForUser(user);
+            if (count > 0) {
+                unreadCountService.changed(user.getId());
+            }
 
             Map<String, Object> response = new HashMap<>();
             response.put("message", "All notifications marked as read");
@@ -199,6 +208,9 @@ public class NotificationController {
             }
 
             notificationRepository.delete(notification);
+            if (!notification.getIsRead()) {
+                unreadCountService.changed(user.getId());
+            }
 
             return ResponseEntity.ok(createSuccessResponse("Notification deleted"));
 
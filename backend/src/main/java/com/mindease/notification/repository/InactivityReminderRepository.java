@@ -0,0 +1,89 @@
+package com.mindease.notification.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Set-based inactivity reminders: each call inserts the reminders for one
+ * keyset batch of inactive users with a single {@code INSERT ... SELECT},
+ * so no user rows are loaded into the application.
+ *
+ * These rows bypass {@code NotificationService}: no push or email is queued
+ * for them, and no live unread-count update is sent. The unread counter
+ * itself stays correct through the {@code notifications} triggers (V53), and
+ * users inactive for days are not connected to receive a live update anyway.
+ * Route reminders through the notification outbox if they ever need
+ * delivery beyond the in-app list.
+ */
+@Repository
+public class InactivityReminderRepository {
+
+    public static final String TYPE = "INACTIVITY_REMINDER";
+
+    /**
+     * @param scanned    inactive users in the batch (before exclusions); fewer than the limit means done
+     * @param lastUserId highest user id in the batch, to continue after; {@code null} when empty
+     * @param inserted   reminders created
+     */
+    public record Batch(int scanned, UUID lastUserId, int inserted) {
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Creates reminders for up to {@code limit} users of shard
+     * {@code shard}/{@code shards} with {@code user_id > afterUserId} who have
+     * not been active since {@code inactiveBefore}. Anonymous, banned and
+     * deleted accounts are skipped, as is anyone reminded since
+     * {@code remindedSince}.
+     */
+    @Transactional
+    public Batch insertBatch(UUID afterUserId, int limit, int shard, int shards, LocalDateTime inactiveBefore,
+            LocalDateTime remindedSince, String message, LocalDateTime now) {
+        var sql = """
+            WITH batch AS (
+                SELECT ua.user_id
+                FROM user_activity ua
+                WHERE ua.user_id > :after
+                  AND ua.last_active_at < :inactiveBefore
+                  AND get_byte(uuid_send(ua.user_id), 15) % :shards = :shard
+                ORDER BY ua.user_id
+                LIMIT :limit
+            ), inserted AS (
+                INSERT INTO notifications (user_id, type, message, created_at, is_sent, is_read)
+                SELECT b.user_id, :type, :message, :now, FALSE, FALSE
+                FROM batch b
+                JOIN users u ON u.id = b.user_id
+                WHERE COALESCE(u.anonymous_mode, FALSE) = FALSE
+                  AND u.banned = FALSE
+                  AND u.deleted_at IS NULL
+                  AND NOT EXISTS (
+                      SELECT 1 FROM notifications n
+                      WHERE n.user_id = b.user_id AND n.type = :type AND n.created_at > :remindedSince
+                  )
+                RETURNING 1
+            )
+            SELECT (SELECT COUNT(*) FROM batch),
+                   (SELECT b.user_id FROM batch b ORDER BY b.user_id DESC LIMIT 1),
+                   (SELECT COUNT(*) FROM inserted)
+        """;
+        Object[] row = (Object[]) em.createNativeQuery(sql)
+                .setParameter("after", afterUserId)
+                .setParameter("inactiveBefore", inactiveBefore)
+                .setParameter("shards", shards)
+                .setParameter("shard", shard)
+                .setParameter("limit", limit)
+                .setParameter("type", TYPE)
+                .setParameter("message", message)
+                .setParameter("now", now)
+                .setParameter("remindedSince", remindedSince)
+                .getSingleResult();
+        return new Batch(((Number) row[0]).intValue(), (UUID) row[1], ((Number) row[2]).intValue());
+    }
+}
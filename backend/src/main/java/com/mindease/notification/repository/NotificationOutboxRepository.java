@@ -0,0 +1,190 @@
+package com.mindease.notification.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Outbound email and push messages waiting for delivery, in
+ * {@code notification_outbox}.
+ *
+ * Messages are inserted in the caller's transaction. Dispatchers claim due
+ * rows of one channel with {@code FOR UPDATE SKIP LOCKED} and hold them
+ * until {@code locked_until}; a batch whose dispatcher died becomes due
+ * again when the lease runs out. Each claim bumps {@code attempts}, which the
+ * outcome writes check, so a dispatcher whose lease was taken over cannot
+ * move a message another claim now owns.
+ */
+@Repository
+public class NotificationOutboxRepository {
+
+    public static final String EMAIL = "EMAIL";
+    public static final String PUSH = "PUSH";
+
+    public record OutboxMessage(UUID id, String channel, String recipient, UUID userId, String subject,
+            String body, int attempts) {
+    }
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Queues a message in the caller's transaction. A message for a stored
+     * notification is queued at most once per channel.
+     */
+    @Transactional
+    public void enqueue(String channel, String recipient, UUID userId, UUID notificationId, String subject,
+            String body) {
+        em.createNativeQuery("""
+            INSERT INTO notification_outbox (channel, recipient, user_id, notification_id, subject, body)
+            VALUES (:channel, :recipient, :userId, :notificationId, CAST(:subject AS TEXT), :body)
+            ON CONFLICT (notification_id, channel) WHERE notification_id IS NOT NULL DO NOTHING
+        """)
+                .setParameter("channel", channel)
+                .setParameter("recipient", recipient)
+                .setParameter("userId", userId)
+                .setParameter("notificationId", notificationId)
+                .setParameter("subject", subject)
+                .setParameter("body", body)
+                .executeUpdate();
+    }
+
+    /**
+     * Claims up to {@code limit} due messages of one channel, oldest first.
+     * Each claim counts as an attempt; the returned {@code attempts}
+     * includes it.
+     */
+    @Transactional
+    public List<OutboxMessage> claim(String channel, int limit, int leaseSeconds) {
+        var sql = """
+            SELECT id, channel, recipient, user_id, subject, body, attempts
+            FROM notification_outbox
+            WHERE channel = :channel
+              AND ((status = 'PENDING' AND next_attempt_at <= NOW())
+                OR (status = 'SENDING' AND locked_until < NOW()))
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+        """;
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = em.createNativeQuery(sql)
+                .setParameter("channel", channel)
+                .setParameter("limit", limit)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<UUID> ids = rows.stream().map(row -> (UUID) row[0]).toList();
+        em.createNativeQuery("""
+            UPDATE notification_outbox
+            SET status = 'SENDING', attempts = attempts + 1,
+                locked_until = NOW() + :lease * INTERVAL '1 second', updated_at = NOW()
+            WHERE id IN (:ids)
+        """)
+                .setParameter("lease", leaseSeconds)
+                .setParameter("ids", ids)
+                .executeUpdate();
+
+        return rows.stream()
+                .map(row -> new OutboxMessage((UUID) row[0], (String) row[1], (String) row[2], (UUID) row[3],
+                        (String) row[4], (String) row[5], ((Number) row[6]).intValue() + 1))
+                .toList();
+    }
+
+    /**
+     * Marks messages delivered, and their stored notifications as sent.
+     * Returns how many were still held by the claims that sent them; the
+     * others are left alone.
+     */
+    @Transactional
+    public int markSent(List<OutboxMessage> messages) {
+        int marked = 0;
+        Map<Integer, List<UUID>> byAttempt = messages.stream().collect(Collectors.groupingBy(
+                OutboxMessage::attempts, Collectors.mapping(OutboxMessage::id, Collectors.toList())));
+        for (Map.Entry<Integer, List<UUID>> claim : byAttempt.entrySet()) {
+            marked += em.createNativeQuery("""
+                UPDATE notification_outbox
+                SET status = 'SENT', sent_at = NOW(), locked_until = NULL, last_error = NULL, updated_at = NOW()
+                WHERE id IN (:ids) AND status = 'SENDING' AND attempts = :attempts
+            """)
+                    .setParameter("ids", claim.getValue())
+                    .setParameter("attempts", claim.getKey())
+                    .executeUpdate();
+        }
+        if (marked > 0) {
+            em.createNativeQuery("""
+                UPDATE notifications SET is_sent = TRUE
+                WHERE id IN (SELECT notification_id FROM notification_outbox
+                             WHERE id IN (:ids) AND status = 'SENT' AND notification_id IS NOT NULL)
+            """)
+                    .setParameter("ids", messages.stream().map(OutboxMessage::id).toList())
+                    .executeUpdate();
+        }
+        return marked;
+    }
+
+    /**
+     * Releases the lease and makes the message due again after {@code delayMillis}.
+     * Returns {@code false} if the claim no longer holds the message.
+     */
+    @Transactional
+    public boolean retryLater(UUID id, int attempts, long delayMillis, String error) {
+        return em.createNativeQuery("""
+            UPDATE notification_outbox
+            SET status = 'PENDING', locked_until = NULL, last_error = :error,
+                next_attempt_at = NOW() + :delay * INTERVAL '1 millisecond', updated_at = NOW()
+            WHERE id = :id AND status = 'SENDING' AND attempts = :attempts
+        """)
+                .setParameter("id", id)
+                .setParameter("attempts", attempts)
+                .setParameter("delay", delayMillis)
+                .setParameter("error", error)
+                .executeUpdate() > 0;
+    }
+
+    /**
+     * Gives up on a message; it stays as FAILED for inspection. Returns
+     * {@code false} if the claim no longer holds the message.
+     */
+    @Transactional
+    public boolean fail(UUID id, int attempts, String error) {
+        return em.createNativeQuery("""
+            UPDATE notification_outbox
+            SET status = 'FAILED', locked_until = NULL, last_error = :error, updated_at = NOW()
+            WHERE id = :id AND status = 'SENDING' AND attempts = :attempts
+        """)
+                .setParameter("id", id)
+                .setParameter("attempts", attempts)
+                .setParameter("error", error)
+                .executeUpdate() > 0;
+    }
+
+    /** Deletes delivered messages older than {@code days}; returns the number removed. */
+    @Transactional
+    public int deleteSentOlderThan(int days) {
+        return em.createNativeQuery("""
+            DELETE FROM notification_outbox
+            WHERE status = 'SENT' AND sent_at < NOW() - :days * INTERVAL '1 day'
+        """)
+                .setParameter("days", days)
+                .executeUpdate();
+    }
+
+    /** Forgets FCM tokens that FCM reported as no longer registered. */
+    @Transactional
+    public int clearFcmTokens(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return 0;
+        }
+        return em.createNativeQuery("UPDATE users SET fcm_token = NULL WHERE fcm_token IN (:tokens)")
+                .setParameter("tokens", tokens)
+                .executeUpdate();
+    }
+}
@@ -47,5 +47,18 @@ public interface NotificationRepository extends JpaRepository<Notification, UUID
     @Transactional
     @Query("UPDATE Notification n SET n.isRead = true WHERE n.user = :user AND n.isRead = false")
     int markAllAsReadForUser(@Param("user") User user);
-}
 
+    // 8️⃣ Unread badge from the trigger-maintained counter (V53); empty if no such user
+    @Query(value = """
+            SELECT CAST(GREATEST(0, COALESCE(c.unread_count, 0)) AS BIGINT)
+            FROM users u LEFT JOIN notification_unread_counts c ON c.user_id = u.id
+            WHERE u.email = :email
+            """, nativeQuery = true)
+    java.util.Optional<Long> findUnreadCountByEmail(@Param("email") String email);
+
+    @Query(value = """
+            SELECT CAST(GREATEST(0, COALESCE(MAX(c.unread_count), 0)) AS BIGINT)
+            FROM notification_unread_counts c WHERE c.user_id = :userId
+            """, nativeQuery = true)
+    long findUnreadCountByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,120 @@
+package com.mindease.notification.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MessagingErrorCode;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.Notification;
+import com.google.firebase.messaging.SendResponse;
+import com.mindease.notification.repository.NotificationOutboxRepository;
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends outbox push messages with FCM multicast. Messages with the same
+ * title and body share one multicast of up to {@link #MAX_TOKENS} tokens.
+ * Tokens that FCM reports as unregistered are cleared from their users so
+ * they are not tried again. A multicast that fails as a whole marks only its
+ * own messages for retry; chunks already sent keep their results.
+ */
+@Component
+public class FcmNotificationSender implements NotificationChannelSender {
+
+    private static final Logger log = LoggerFactory.getLogger(FcmNotificationSender.class);
+
+    /** FCM's limit on tokens per multicast request. */
+    public static final int MAX_TOKENS = 500;
+
+    private final NotificationOutboxRepository outbox;
+
+    public FcmNotificationSender(NotificationOutboxRepository outbox) {
+        this.outbox = outbox;
+    }
+
+    @Override
+    public String channel() {
+        return NotificationOutboxRepository.PUSH;
+    }
+
+    @Override
+    public List<DeliveryResult> send(List<OutboxMessage> batch) {
+        DeliveryResult[] results = new DeliveryResult[batch.size()];
+        List<String> staleTokens = new ArrayList<>();
+
+        Map<List<String>, List<Integer>> byContent = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage m = batch.get(i);
+            byContent.computeIfAbsent(Arrays.asList(m.subject(), m.body()), k -> new ArrayList<>()).add(i);
+        }
+
+        for (Map.Entry<List<String>, List<Integer>> group : byContent.entrySet()) {
+            List<Integer> indexes = group.getValue();
+            for (int from = 0; from < indexes.size(); from += MAX_TOKENS) {
+                List<Integer> chunk = indexes.subList(from, Math.min(from + MAX_TOKENS, indexes.size()));
+                List<String> tokens = chunk.stream().map(i -> batch.get(i).recipient()).toList();
+                MulticastMessage message = MulticastMessage.builder()
+                        .addAllTokens(tokens)
+                        .setNotification(Notification.builder()
+                                .setTitle(group.getKey().get(0))
+                                .setBody(group.getKey().get(1))
+                                .build())
+                        .putData("click_action", "FLUTTER_NOTIFICATION_CLICK")
+                        .build();
+
+                BatchResponse response;
+                try {
+                    response = messaging().sendEachForMulticast(message);
+                } catch (FirebaseMessagingException e) {
+                    log.warn("FCM multicast to {} tokens failed: {}", tokens.size(), e.getMessage());
+                    DeliveryResult failed = DeliveryResult.retry(e.getMessagingErrorCode() + ": " + e.getMessage());
+                    chunk.forEach(i -> results[i] = failed);
+                    continue;
+                }
+                List<SendResponse> responses = response.getResponses();
+                for (int j = 0; j < chunk.size(); j++) {
+                    SendResponse r = responses.get(j);
+                    results[chunk.get(j)] = r.isSuccessful() ? DeliveryResult.ok()
+                            : classify(r.getException(), tokens.get(j), staleTokens);
+                }
+                log.debug("FCM multicast to {} tokens: {} sent, {} failed", tokens.size(),
+                        response.getSuccessCount(), response.getFailureCount());
+            }
+        }
+
+        if (!staleTokens.isEmpty()) {
+            try {
+                log.info("Cleared {} unregistered FCM tokens", outbox.clearFcmTokens(staleTokens));
+            } catch (RuntimeException e) {
+                log.warn("Failed to clear unregistered FCM tokens: {}", e.getMessage());
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    FirebaseMessaging messaging() {
+        return FirebaseMessaging.getInstance();
+    }
+
+    private static DeliveryResult classify(FirebaseMessagingException e, String token, List<String> staleTokens) {
+        MessagingErrorCode code = e != null ? e.getMessagingErrorCode() : null;
+        String error = code + ": " + (e != null ? e.getMessage() : "unknown error");
+        if (code == MessagingErrorCode.UNREGISTERED || code == MessagingErrorCode.SENDER_ID_MISMATCH) {
+            staleTokens.add(token);
+            return DeliveryResult.rejected(error);
+        }
+        if (code == MessagingErrorCode.INVALID_ARGUMENT) {
+            return DeliveryResult.rejected(error);
+        }
+        // QUOTA_EXCEEDED, UNAVAILABLE, INTERNAL and auth errors may clear up
+        return DeliveryResult.retry(error);
+    }
+}
@@ -0,0 +1,41 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Delivers batches of outbox messages over one channel. Implementations are
+ * Spring beans picked up by {@link NotificationOutboxDispatcher}; tests and
+ * local setups can register their own for a channel instead.
+ */
+public interface NotificationChannelSender {
+
+    /** Channel this sender handles, e.g. {@code EMAIL} or {@code PUSH}. */
+    String channel();
+
+    /**
+     * Sends a batch and returns one result per message, in the same order.
+     * Throwing means nothing is known to be delivered; the whole batch is
+     * retried.
+     */
+    List<DeliveryResult> send(List<OutboxMessage> batch) throws Exception;
+
+    /**
+     * @param retryable whether a failed message may succeed on a later attempt
+     */
+    record DeliveryResult(boolean delivered, boolean retryable, String error) {
+
+        public static DeliveryResult ok() {
+            return new DeliveryResult(true, false, null);
+        }
+
+        public static DeliveryResult retry(String error) {
+            return new DeliveryResult(false, true, error);
+        }
+
+        public static DeliveryResult rejected(String error) {
+            return new DeliveryResult(false, false, error);
+        }
+    }
+}
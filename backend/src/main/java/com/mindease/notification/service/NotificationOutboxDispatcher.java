@@ -0,0 +1,331 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationOutboxRepository;
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+import com.mindease.notification.service.NotificationChannelSender.DeliveryResult;
+import com.mindease.shared.events.NotificationQueuedEvent;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
+import com.mindease.shared.util.DaemonThreads;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Delivers queued email and push notifications from
+ * {@code notification_outbox}.
+ *
+ * Callers only insert outbox rows in their own transaction; once it
+ * commits, the worker for that channel is woken to claim a batch, hand it to
+ * the channel's {@link NotificationChannelSender} and record each message's
+ * outcome. Each channel drains on its own thread, at most
+ * {@code batch-size} messages per send and {@code max-per-second} messages
+ * per node. Failed messages are retried with exponential backoff up to
+ * {@code max-attempts}; rejected ones (bad address, unregistered token) fail
+ * at once. The outbox is also polled every {@code poll-interval-ms} for
+ * retries and rows left behind by a restart. Outcomes of a batch whose lease
+ * ran out mid-send are dropped; the claim that took it over records its own.
+ */
+@Service
+public class NotificationOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxDispatcher.class);
+
+    private static final JobSpec PURGE_JOB = JobSpec.of("notification-outbox-purge", Duration.ofMinutes(30));
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    /** Per-channel batch size and send rate. */
+    record ChannelLimits(int batchSize, double maxPerSecond) {
+    }
+
+    private final NotificationOutboxRepository outbox;
+    private final ApplicationEventPublisher events;
+    private final ClusterJobRunner clusterJobRunner;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final int leaseSeconds;
+    private final int retentionDays;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private final Map<String, ChannelWorker> workers = new LinkedHashMap<>();
+
+    @Autowired
+    public NotificationOutboxDispatcher(NotificationOutboxRepository outbox,
+            List<NotificationChannelSender> senders,
+            ApplicationEventPublisher events,
+            ClusterJobRunner clusterJobRunner,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${notifications.outbox.base-backoff-ms:10000}") long baseBackoffMs,
+            @Value("${notifications.outbox.max-backoff-ms:3600000}") long maxBackoffMs,
+            @Value("${notifications.outbox.lease-seconds:120}") int leaseSeconds,
+            @Value("${notifications.outbox.retention-days:7}") int retentionDays,
+            @Value("${notifications.outbox.email.batch-size:50}") int emailBatchSize,
+            @Value("${notifications.outbox.email.max-per-second:10}") double emailPerSecond,
+            @Value("${notifications.outbox.push.batch-size:500}") int pushBatchSize,
+            @Value("${notifications.outbox.push.max-per-second:500}") double pushPerSecond) {
+        this(outbox, senders, events, clusterJobRunner, meterRegistry, maxAttempts, baseBackoffMs, maxBackoffMs,
+                leaseSeconds, retentionDays,
+                Map.of(NotificationOutboxRepository.EMAIL, new ChannelLimits(emailBatchSize, emailPerSecond),
+                        NotificationOutboxRepository.PUSH,
+                        new ChannelLimits(Math.min(pushBatchSize, FcmNotificationSender.MAX_TOKENS),
+                                pushPerSecond)),
+                Executors.newFixedThreadPool(Math.max(1, senders.size()), DaemonThreads.named("notification-outbox")));
+    }
+
+    NotificationOutboxDispatcher(NotificationOutboxRepository outbox,
+            List<NotificationChannelSender> senders,
+            ApplicationEventPublisher events,
+            ClusterJobRunner clusterJobRunner,
+            MeterRegistry meterRegistry,
+            int maxAttempts, long baseBackoffMs, long maxBackoffMs, int leaseSeconds, int retentionDays,
+            Map<String, ChannelLimits> limits,
+            Executor executor) {
+        this.outbox = outbox;
+        this.events = events;
+        this.clusterJobRunner = clusterJobRunner;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseSeconds = leaseSeconds;
+        this.retentionDays = retentionDays;
+        this.executor = executor;
+        this.ownedExecutor = executor instanceof ExecutorService es ? es : null;
+        for (NotificationChannelSender sender : senders) {
+            ChannelLimits channelLimits = limits.getOrDefault(sender.channel(), new ChannelLimits(50, 10));
+            ChannelWorker previous = workers.put(sender.channel(), new ChannelWorker(sender, channelLimits));
+            if (previous != null) {
+                throw new IllegalStateException("Two senders for " + sender.channel() + " notifications: "
+                        + previous.sender.getClass().getSimpleName() + " and "
+                        + sender.getClass().getSimpleName());
+            }
+        }
+        for (String channel : limits.keySet()) {
+            if (!workers.containsKey(channel)) {
+                log.warn("No sender for {} notifications; they stay queued", channel);
+            }
+        }
+    }
+
+    /** Queues an email; runs in the caller's transaction when there is one. */
+    public void enqueueEmail(String to, UUID userId, UUID notificationId, String subject, String body) {
+        outbox.enqueue(NotificationOutboxRepository.EMAIL, to, userId, notificationId, subject, body);
+        events.publishEvent(new NotificationQueuedEvent(NotificationOutboxRepository.EMAIL));
+    }
+
+    /** Queues a push notification; runs in the caller's transaction when there is one. */
+    public void enqueuePush(String fcmToken, UUID userId, String title, String body) {
+        outbox.enqueue(NotificationOutboxRepository.PUSH, fcmToken, userId, null, title, body);
+        events.publishEvent(new NotificationQueuedEvent(NotificationOutboxRepository.PUSH));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onQueued(NotificationQueuedEvent evt) {
+        ChannelWorker worker = workers.get(evt.getChannel());
+        if (worker != null) {
+            worker.wake();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:15000}",
+            initialDelayString = "${notifications.outbox.initial-delay-ms:20000}")
+    public void poll() {
+        workers.values().forEach(ChannelWorker::wake);
+    }
+
+    /** Drops delivered rows once they are older than {@code retention-days}. */
+    @Scheduled(cron = "0 45 3 * * ?")
+    public void purgeDelivered() {
+        clusterJobRunner.run(PURGE_JOB, ctx -> outbox.deleteSentOlderThan(retentionDays));
+    }
+
+    /** Sleeps to honour a channel's rate; returns {@code false} if interrupted (shutdown). */
+    protected boolean pause(Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            return true;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** {@code base * 2^(attempts-1)}, capped at {@code max}. */
+    static long backoffMillis(int attempts, long base, long max) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 30);
+        return Math.min(max, base << shift);
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    private static String describe(Throwable error) {
+        return truncate(error.getClass().getSimpleName()
+                + (error.getMessage() != null ? ": " + error.getMessage() : ""));
+    }
+
+    /** Drains one channel; a wake during a running drain makes that drain go round again. */
+    private final class ChannelWorker {
+        private final NotificationChannelSender sender;
+        private final ChannelLimits limits;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean wakeRequested = new AtomicBoolean();
+        private final Counter sent;
+        private final Counter retried;
+        private final Counter failed;
+        private final Counter superseded;
+
+        ChannelWorker(NotificationChannelSender sender, ChannelLimits limits) {
+            this.sender = sender;
+            this.limits = limits;
+            this.sent = outcome("sent");
+            this.retried = outcome("retried");
+            this.failed = outcome("failed");
+            this.superseded = outcome("superseded");
+        }
+
+        private Counter outcome(String outcome) {
+            return Counter.builder("notifications.outbox.messages")
+                    .description("Outbox notification delivery attempts by outcome")
+                    .tag("channel", sender.channel())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+
+        void wake() {
+            wakeRequested.set(true);
+            try {
+                executor.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                log.debug("Notification outbox pool is shut down; skipping drain");
+            }
+        }
+
+        void drain() {
+            while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+                try {
+                    wakeRequested.set(false);
+                    drainOnce();
+                } catch (RuntimeException e) {
+                    log.warn("Failed to drain {} notifications: {}", sender.channel(), e.getMessage());
+                } finally {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drainOnce() {
+            while (true) {
+                long start = System.nanoTime();
+                List<OutboxMessage> batch = outbox.claim(sender.channel(), limits.batchSize(), leaseSeconds);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                deliver(batch);
+                if (batch.size() < limits.batchSize()) {
+                    return;
+                }
+                long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+                long minMs = limits.maxPerSecond() > 0 ? (long) (batch.size() * 1000 / limits.maxPerSecond()) : 0;
+                if (!pause(Duration.ofMillis(minMs - elapsedMs))) {
+                    return;
+                }
+            }
+        }
+
+        void deliver(List<OutboxMessage> batch) {
+            List<DeliveryResult> results;
+            try {
+                results = sender.send(batch);
+                if (results.size() != batch.size()) {
+                    throw new IllegalStateException(
+                            "Sender returned " + results.size() + " results for " + batch.size() + " messages");
+                }
+            } catch (Exception e) {
+                log.warn("{} batch of {} failed: {}", sender.channel(), batch.size(), e.getMessage());
+                DeliveryResult retry = DeliveryResult.retry(describe(e));
+                results = batch.stream().map(m -> retry).toList();
+            }
+
+            List<OutboxMessage> delivered = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxMessage message = batch.get(i);
+                DeliveryResult result = results.get(i);
+                try {
+                    if (result.delivered()) {
+                        delivered.add(message);
+                    } else if (result.retryable() && message.attempts() < maxAttempts) {
+                        long delay = backoffMillis(message.attempts(), baseBackoffMs, maxBackoffMs);
+                        if (outbox.retryLater(message.id(), message.attempts(), delay, truncate(result.error()))) {
+                            retried.increment();
+                        } else {
+                            superseded(1);
+                        }
+                    } else if (outbox.fail(message.id(), message.attempts(), truncate(result.error()))) {
+                        failed.increment();
+                        log.warn("Giving up on {} notification {} after {} attempts: {}", sender.channel(),
+                                message.id(), message.attempts(), result.error());
+                    } else {
+                        superseded(1);
+                    }
+                } catch (RuntimeException e) {
+                    // The lease runs out and the message is claimed again
+                    log.warn("Failed to record outcome for notification {}: {}", message.id(), e.getMessage());
+                }
+            }
+            if (!delivered.isEmpty()) {
+                int marked = outbox.markSent(delivered);
+                sent.increment(marked);
+                superseded(delivered.size() - marked);
+            }
+            log.debug("{} batch: {} of {} delivered", sender.channel(), delivered.size(), batch.size());
+        }
+
+        /** Results for messages whose lease ran out mid-send; the claim that took them over records its own. */
+        private void superseded(int count) {
+            if (count > 0) {
+                superseded.increment(count);
+                log.warn("Dropped {} {} notification outcome(s) that outlived their lease", count,
+                        sender.channel());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdownNow();
+        }
+    }
+}
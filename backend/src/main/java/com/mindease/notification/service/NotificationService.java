@@ -5,7 +5,6 @@ import com.mindease.auth.model.User;
 import com.mindease.auth.repository.UserRepository;
 import com.mindease.notification.model.Notification;
 import com.mindease.notification.repository.NotificationRepository;
-import com.mindease.notification.service.EmailService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,8 +23,11 @@ public class NotificationService {
     @Autowired
     private NotificationRepository notificationRepository;
 
-    @Autowired(required = false)
-    private EmailService emailService;
+    @Autowired
+    private NotificationOutboxDispatcher outboxDispatcher;
+
+    @Autowired
+    private UnreadCountService unreadCountService;
 
     @Autowired
     private UserRepository userRepository;
@@ -38,6 +40,7 @@ public class NotificationService {
 
         Notification notification = new Notification(user, type, message);
         notificationRepository.save(notification);
+        unreadCountService.changed(user.getId());
     }
 
     /**
@@ -48,24 +51,20 @@ public class NotificationService {
     }
 
     /**
-     * Attempt to send queued notifications.
-     * Emails are sent individually with error handling to avoid transaction issues.
+     * Queue the user's unsent notifications for email delivery. Each one is
+     * marked sent by the outbox dispatcher once the email goes out, and is
+     * queued at most once however often this is called.
      */
     @Transactional
     public void sendQueuedNotifications(User user) {
-        if (user == null || emailService == null) {
+        if (user == null || user.getEmail() == null || user.getEmail().isBlank()) {
             return;
         }
 
-        List<Notification> pending = notificationRepository.findByUserAndIsSentFalse(user);
+        List<Notification> pending = notificationRepository.findTop100ByUserAndIsSentFalseOrderByCreatedAtAsc(user);
         for (Notification n : pending) {
-            try {
-                emailService.sendEmail(user.getEmail(), "MindEase Notification", n.getMessage());
-                n.setIsSent(true);
-                notificationRepository.save(n);
-            } catch (Exception e) {
-                logger.warn("Failed to send notification to user {}: {}", user.getEmail(), e.getMessage());
-            }
+            outboxDispatcher.enqueueEmail(user.getEmail(), user.getId(), n.getId(), "MindEase Notification",
+                    n.getMessage());
         }
     }
 
@@ -86,44 +85,30 @@ public class NotificationService {
         }
     }
 
+    /**
+     * Queue an email to every admin in the caller's transaction; delivery
+     * happens on the outbox dispatcher, not on the caller's thread. Failures
+     * propagate so the caller's changes do not commit without their emails.
+     */
+    @Transactional
     public void emailAdmins(String subject, String body) {
-        if (emailService == null)
-            return;
-        try {
-            var admins = userRepository.findByRole(Role.ADMIN);
-            for (User admin : admins) {
-                try {
-                    emailService.sendEmail(admin.getEmail(),
-                            subject != null ? subject : DEFAULT_ADMIN_EMAIL_SUBJECT,
-                            body != null ? body : "");
-                } catch (Exception e) {
-                    logger.warn("Failed emailing admin {}: {}", admin.getEmail(), e.getMessage());
-                }
+        var admins = userRepository.findByRole(Role.ADMIN);
+        for (User admin : admins) {
+            if (admin.getEmail() == null || admin.getEmail().isBlank()) {
+                continue;
             }
-        } catch (Exception e) {
-            logger.error("emailAdmins failed: {}", e.getMessage(), e);
+            outboxDispatcher.enqueueEmail(admin.getEmail(), admin.getId(), null,
+                    subject != null ? subject : DEFAULT_ADMIN_EMAIL_SUBJECT,
+                    body != null ? body : "");
         }
     }
 
+    /** Queue a push notification to the user's registered device, if any. */
+    @Transactional
     public void sendPushNotification(User user, String title, String body) {
         if (user == null || user.getFcmToken() == null || user.getFcmToken().isEmpty()) {
             return;
         }
-
-        try {
-            com.google.firebase.messaging.Message message = com.google.firebase.messaging.Message.builder()
-                    .setToken(user.getFcmToken())
-                    .setNotification(com.google.firebase.messaging.Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build())
-                    .putData("click_action", "FLUTTER_NOTIFICATION_CLICK")
-                    .build();
-
-            String response = com.google.firebase.messaging.FirebaseMessaging.getInstance().send(message);
-            logger.info("Sent push notification to user {}: {}", user.getId(), response);
-        } catch (Exception e) {
-            logger.error("Failed to send push notification to user {}: {}", user.getId(), e.getMessage());
-        }
+        outboxDispatcher.enqueuePush(user.getFcmToken(), user.getId(), title, body);
     }
 }
@@ -0,0 +1,85 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationOutboxRepository;
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.AddressException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailParseException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends outbox emails through {@link JavaMailSender}. A whole batch goes
+ * through one {@code send} call, which {@code JavaMailSenderImpl} delivers
+ * over a single SMTP connection instead of one connection per message.
+ */
+@Component
+public class SmtpNotificationSender implements NotificationChannelSender {
+
+    private static final String DEFAULT_SUBJECT = "MindEase Notification";
+
+    private final JavaMailSender mailSender;
+    private final String fromAddress;
+
+    public SmtpNotificationSender(JavaMailSender mailSender,
+            @Value("${mindease.mail.from:noreply@mindease.com}") String fromAddress) {
+        this.mailSender = mailSender;
+        this.fromAddress = fromAddress;
+    }
+
+    @Override
+    public String channel() {
+        return NotificationOutboxRepository.EMAIL;
+    }
+
+    @Override
+    public List<DeliveryResult> send(List<OutboxMessage> batch) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            OutboxMessage m = batch.get(i);
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromAddress);
+            message.setTo(m.recipient());
+            message.setSubject(m.subject() != null && !m.subject().isBlank() ? m.subject() : DEFAULT_SUBJECT);
+            message.setText(m.body());
+            messages[i] = message;
+        }
+
+        Map<Object, Exception> failures = Map.of();
+        try {
+            mailSender.send(messages);
+        } catch (MailSendException e) {
+            // Per-message failures; a lost connection reports every remaining message here.
+            // Authentication and other connection-level errors propagate and retry the batch.
+            failures = e.getFailedMessages();
+        }
+
+        List<DeliveryResult> results = new ArrayList<>(batch.size());
+        for (SimpleMailMessage message : messages) {
+            Exception failure = failures.get(message);
+            if (failure == null) {
+                results.add(DeliveryResult.ok());
+            } else if (isBadAddress(failure)) {
+                results.add(DeliveryResult.rejected(failure.getMessage()));
+            } else {
+                results.add(DeliveryResult.retry(failure.getMessage()));
+            }
+        }
+        return results;
+    }
+
+    private static boolean isBadAddress(Exception failure) {
+        if (failure instanceof MailParseException || failure instanceof AddressException) {
+            return true;
+        }
+        return failure instanceof SendFailedException sfe
+                && sfe.getInvalidAddresses() != null && sfe.getInvalidAddresses().length > 0;
+    }
+}
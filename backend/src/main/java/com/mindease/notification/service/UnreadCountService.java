@@ -0,0 +1,74 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationRepository;
+import com.mindease.shared.events.UnreadNotificationsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Unread notification badge.
+ *
+ * The count lives in {@code notification_unread_counts}, which triggers on
+ * {@code notifications} keep in step with every insert, read-state change
+ * and delete (V53), so reading it is a single primary-key lookup. Java code
+ * that changes a user's notifications calls {@link #changed(UUID)}; once the
+ * change commits the new count is pushed to
+ * {@code /topic/user/{id}/notifications}, so clients only need to fetch it
+ * when they connect. Bulk reminders created by the inactivity job are not
+ * pushed; users see them on their next connect.
+ */
+@Service
+public class UnreadCountService {
+
+    private static final Logger log = LoggerFactory.getLogger(UnreadCountService.class);
+
+    private final NotificationRepository notificationRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ApplicationEventPublisher events;
+
+    public UnreadCountService(NotificationRepository notificationRepository,
+            SimpMessagingTemplate messagingTemplate,
+            ApplicationEventPublisher events) {
+        this.notificationRepository = notificationRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.events = events;
+    }
+
+    /** Unread count for the user with this email, or empty if there is no such user. */
+    public Optional<Long> unreadCountForEmail(String email) {
+        return notificationRepository.findUnreadCountByEmail(email);
+    }
+
+    public long unreadCount(UUID userId) {
+        return notificationRepository.findUnreadCountByUserId(userId);
+    }
+
+    /** Pushes the user's new count after the current transaction commits (or now, outside one). */
+    public void changed(UUID userId) {
+        events.publishEvent(new UnreadNotificationsChangedEvent(userId));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onChanged(UnreadNotificationsChangedEvent evt) {
+        UUID userId = evt.getUserId();
+        try {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("type", "notification_unread_count");
+            payload.put("unreadCount", unreadCount(userId));
+            messagingTemplate.convertAndSend("/topic/user/" + userId + "/notifications", payload);
+        } catch (RuntimeException e) {
+            // The count is stored; clients get it on their next fetch
+            log.debug("Failed to push unread count for user {}: {}", userId, e.getMessage());
+        }
+    }
+}
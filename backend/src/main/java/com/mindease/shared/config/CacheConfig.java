@@ -17,12 +17,11 @@ public class CacheConfig {
             @Value("${spring.cache.type:}") String cacheType,
             @Value("${spring.cache.caffeine.spec:expireAfterWrite=5m,maximumSize=5000}") String caffeineSpec) {
         String[] cacheNames = new String[] {
-                "moodStats",
-                "moodDistribution",
                 "chatSession",
                 "recentMessages",
                 "subscription_status",
-                "crisisResources"
+                "crisisResources",
+                "chatLanguage"
         };
 
         if ("caffeine".equalsIgnoreCase(cacheType)) {
@@ -0,0 +1,15 @@
+package com.mindease.shared.events;
+
+import java.util.Objects;
+
+public class ContentChangedEvent {
+    private final String contentType;
+
+    public ContentChangedEvent(String contentType) {
+        this.contentType = Objects.requireNonNull(contentType, "Content type cannot be null");
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+}
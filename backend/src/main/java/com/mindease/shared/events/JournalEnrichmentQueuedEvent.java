@@ -0,0 +1,16 @@
+package com.mindease.shared.events;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public class JournalEnrichmentQueuedEvent {
+    private final UUID journalEntryId;
+
+    public JournalEnrichmentQueuedEvent(UUID journalEntryId) {
+        this.journalEntryId = Objects.requireNonNull(journalEntryId, "Journal entry ID cannot be null");
+    }
+
+    public UUID getJournalEntryId() {
+        return journalEntryId;
+    }
+}
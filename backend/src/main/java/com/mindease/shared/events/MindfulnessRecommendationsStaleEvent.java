@@ -0,0 +1,16 @@
+package com.mindease.shared.events;
+
+import java.util.Objects;
+import java.util.UUID;
+
+public class MindfulnessRecommendationsStaleEvent {
+    private final UUID userId;
+
+    public MindfulnessRecommendationsStaleEvent(UUID userId) {
+        this.userId = Objects.requireNonNull(userId, "User ID cannot be null");
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,15 @@
+package com.mindease.shared.events;
+
+import java.util.Objects;
+
+public class NotificationQueuedEvent {
+    private final String channel;
+
+    public NotificationQueuedEvent(String channel) {
+        this.channel = Objects.requireNonNull(channel, "Channel cannot be null");
+    }
+
+    public String getChannel() {
+        return channel;
+    }
+}
@@ -0,0 +1,52 @@
+package com.mindease.shared.filter;
+
+import com.mindease.shared.service.ErrorRateTracker;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.DispatcherServlet;
+
+import java.io.IOException;
+
+/**
+ * Feeds every finished request into {@link ErrorRateTracker}. Exceptions
+ * handled by {@code GlobalExceptionHandler} are still visible here through
+ * the dispatcher's exception attribute. The tracker is optional so web
+ * test slices that do not load it still start.
+ */
+@Component
+public class ErrorTrackingFilter extends OncePerRequestFilter {
+
+    private final ObjectProvider<ErrorRateTracker> errorRateTracker;
+
+    public ErrorTrackingFilter(ObjectProvider<ErrorRateTracker> errorRateTracker) {
+        this.errorRateTracker = errorRateTracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        ErrorRateTracker tracker = errorRateTracker.getIfAvailable();
+        if (tracker == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        Throwable failure = null;
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            failure = e;
+            throw e;
+        } finally {
+            int status = failure != null ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            if (failure == null && request.getAttribute(DispatcherServlet.EXCEPTION_ATTRIBUTE) instanceof Throwable t) {
+                failure = t;
+            }
+            tracker.record(status, request.getMethod(), request.getRequestURI(), failure);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.mindease.shared.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Set-based deletes for the retention purge.
+ *
+ * Expired anonymous users are read in keyset chunks, and each chunk's rows
+ * are removed with one {@code DELETE ... WHERE user_id = ANY(?)} per table
+ * in a single short transaction. Each transaction sets a local
+ * {@code lock_timeout}, so a chunk that would queue behind user traffic
+ * fails and is retried on the next run rather than building a lock queue.
+ * Users with audit logs ({@code ON DELETE RESTRICT}) keep their
+ * {@code users} row; their personal data is still deleted and the row is
+ * stamped with {@code retention_purged_at}, so later runs pass over it until
+ * another retention period has gone by.
+ */
+@Repository
+public class RetentionPurgeRepository {
+
+    /** Tables in delete order; children first so no cascade does the work unbounded. */
+    private static final Map<String, String> DELETES = orderedDeletes();
+
+    /** Runs after the deletes, so it only touches users kept for their audit logs. */
+    private static final String MARK_RETAINED =
+            "UPDATE users SET retention_purged_at = NOW() WHERE id = ANY(?)";
+
+    private final DataSource dataSource;
+    private final String lockTimeout;
+    private volatile Boolean hasUserContext;
+
+    public RetentionPurgeRepository(DataSource dataSource,
+            @Value("${retention.purge.lock-timeout:5s}") String lockTimeout) {
+        this.dataSource = dataSource;
+        this.lockTimeout = lockTimeout;
+    }
+
+    private static Map<String, String> orderedDeletes() {
+        Map<String, String> deletes = new LinkedHashMap<>();
+        deletes.put("messages", """
+            DELETE FROM messages
+            WHERE chat_session_id IN (SELECT s.id FROM chat_sessions s WHERE s.user_id = ANY(?))
+        """);
+        deletes.put("chat_sessions", "DELETE FROM chat_sessions WHERE user_id = ANY(?)");
+        deletes.put("journal_entries", "DELETE FROM journal_entries WHERE user_id = ANY(?)");
+        deletes.put("mood_entries", "DELETE FROM mood_entries WHERE user_id = ANY(?)");
+        deletes.put("user_context", "DELETE FROM user_context WHERE user_id = ANY(?)");
+        deletes.put("users", """
+            DELETE FROM users u
+            WHERE u.id = ANY(?)
+              AND NOT EXISTS (SELECT 1 FROM audit_logs a WHERE a.user_id = u.id)
+        """);
+        return deletes;
+    }
+
+    /**
+     * Next {@code limit} anonymous users created before {@code createdBefore}
+     * with {@code id > afterId}, leaving out users already purged since
+     * {@code createdBefore}.
+     */
+    public List<UUID> findExpiredAnonymousUserIds(LocalDateTime createdBefore, UUID afterId, int limit)
+            throws SQLException {
+        var sql = """
+            SELECT u.id
+            FROM users u
+            WHERE u.anonymous_mode = TRUE
+              AND u.created_at < ?
+              AND (u.retention_purged_at IS NULL OR u.retention_purged_at < ?)
+              AND u.id > ?
+            ORDER BY u.id
+            LIMIT ?
+        """;
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setTimestamp(1, Timestamp.valueOf(createdBefore));
+            ps.setTimestamp(2, Timestamp.valueOf(createdBefore));
+            ps.setObject(3, afterId);
+            ps.setInt(4, limit);
+            List<UUID> ids = new ArrayList<>(limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getObject(1, UUID.class));
+                }
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Deletes everything belonging to {@code userIds} in one transaction,
+     * marks the users that had to be kept, and returns the rows removed per
+     * table, in delete order.
+     */
+    public Map<String, Integer> purge(List<UUID> userIds) throws SQLException {
+        Map<String, Integer> deleted = new LinkedHashMap<>();
+        try (Connection conn = dataSource.getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                boolean userContext = hasUserContext(conn);
+                try (PreparedStatement ps = conn.prepareStatement("SELECT set_config('lock_timeout', ?, true)")) {
+                    ps.setString(1, lockTimeout);
+                    ps.execute();
+                }
+                Array ids = conn.createArrayOf("uuid", userIds.toArray());
+                for (Map.Entry<String, String> delete : DELETES.entrySet()) {
+                    if (delete.getKey().equals("user_context") && !userContext) {
+                        continue;
+                    }
+                    try (PreparedStatement ps = conn.prepareStatement(delete.getValue())) {
+                        ps.setArray(1, ids);
+                        deleted.put(delete.getKey(), ps.executeUpdate());
+                    }
+                }
+                try (PreparedStatement ps = conn.prepareStatement(MARK_RETAINED)) {
+                    ps.setArray(1, ids);
+                    ps.executeUpdate();
+                }
+                conn.commit();
+                return deleted;
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /** user_context is mapped by JPA but not created by every migration history. */
+    private boolean hasUserContext(Connection conn) throws SQLException {
+        Boolean known = hasUserContext;
+        if (known == null) {
+            try (PreparedStatement ps = conn.prepareStatement("SELECT to_regclass('user_context') IS NOT NULL");
+                    ResultSet rs = ps.executeQuery()) {
+                known = rs.next() && rs.getBoolean(1);
+            }
+            hasUserContext = known;
+        }
+        return known;
+    }
+}
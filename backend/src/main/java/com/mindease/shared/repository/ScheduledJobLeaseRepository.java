@@ -0,0 +1,113 @@
+package com.mindease.shared.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Lease rows in {@code scheduled_job_leases}.
+ *
+ * Every method commits on its own ({@code REQUIRES_NEW}) so lease state is
+ * visible to other nodes immediately, whatever transaction the job itself
+ * runs in. All times come from the database clock, so node clock skew does
+ * not matter.
+ */
+@Repository
+public class ScheduledJobLeaseRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Takes the lease for {@code lockAtMost} if it is free, expired, or
+     * already ours. The conditional update is atomic, so at most one node
+     * wins.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean tryAcquire(String jobName, int shard, String owner, Duration lockAtMost) {
+        em.createNativeQuery("""
+            INSERT INTO scheduled_job_leases (job_name, shard) VALUES (:job, :shard)
+            ON CONFLICT (job_name, shard) DO NOTHING
+        """)
+                .setParameter("job", jobName)
+                .setParameter("shard", shard)
+                .executeUpdate();
+        int updated = em.createNativeQuery("""
+            UPDATE scheduled_job_leases
+            SET owner = :owner, locked_until = NOW() + :leaseMs * INTERVAL '1 millisecond',
+                last_started_at = NOW(), last_status = 'RUNNING'
+            WHERE job_name = :job AND shard = :shard
+              AND (locked_until IS NULL OR locked_until < NOW() OR owner = :owner)
+        """)
+                .setParameter("job", jobName)
+                .setParameter("shard", shard)
+                .setParameter("owner", owner)
+                .setParameter("leaseMs", lockAtMost.toMillis())
+                .executeUpdate();
+        return updated == 1;
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public String checkpoint(String jobName, int shard) {
+        @SuppressWarnings("unchecked")
+        List<String> rows = em.createNativeQuery(
+                "SELECT checkpoint FROM scheduled_job_leases WHERE job_name = :job AND shard = :shard")
+                .setParameter("job", jobName)
+                .setParameter("shard", shard)
+                .getResultList();
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    /**
+     * Stores progress and extends the lease. Returns {@code false} if the
+     * lease is no longer ours, in which case nothing is written.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public boolean saveCheckpoint(String jobName, int shard, String owner, String checkpoint, Duration lockAtMost) {
+        return em.createNativeQuery("""
+            UPDATE scheduled_job_leases
+            SET checkpoint = :checkpoint, locked_until = NOW() + :leaseMs * INTERVAL '1 millisecond'
+            WHERE job_name = :job AND shard = :shard AND owner = :owner
+        """)
+                .setParameter("job", jobName)
+                .setParameter("shard", shard)
+                .setParameter("owner", owner)
+                .setParameter("checkpoint", checkpoint)
+                .setParameter("leaseMs", lockAtMost.toMillis())
+                .executeUpdate() == 1;
+    }
+
+    /**
+     * Records the outcome ({@code SUCCEEDED}, {@code INCOMPLETE} or
+     * {@code FAILED}) and releases the lease, keeping it held until
+     * {@code lockAtLeast} after the run started so a node whose schedule
+     * fires a little late does not repeat the run. Only a run that
+     * succeeded clears the checkpoint; an incomplete or failed one keeps it
+     * for the next run.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(String jobName, int shard, String owner, Duration lockAtLeast, String status,
+            long rows, String error) {
+        em.createNativeQuery("""
+            UPDATE scheduled_job_leases
+            SET locked_until = GREATEST(NOW(), last_started_at + :holdMs * INTERVAL '1 millisecond'),
+                checkpoint = CASE WHEN :status = 'SUCCEEDED' THEN NULL ELSE checkpoint END,
+                last_finished_at = NOW(), last_status = :status, last_rows = :rows,
+                last_error = CAST(:error AS TEXT)
+            WHERE job_name = :job AND shard = :shard AND owner = :owner
+        """)
+                .setParameter("job", jobName)
+                .setParameter("shard", shard)
+                .setParameter("owner", owner)
+                .setParameter("holdMs", lockAtLeast.toMillis())
+                .setParameter("status", status)
+                .setParameter("rows", rows)
+                .setParameter("error", error)
+                .executeUpdate();
+    }
+}
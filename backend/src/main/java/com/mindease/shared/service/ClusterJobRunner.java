@@ -0,0 +1,280 @@
+package com.mindease.shared.service;
+
+import com.mindease.shared.repository.ScheduledJobLeaseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@code @Scheduled} work once per cluster instead of once per node.
+ *
+ * Each job (or each shard of a sharded job) is guarded by a lease row in
+ * {@code scheduled_job_leases}: a node runs it only after taking the lease,
+ * and the lease expires after {@code lockAtMost} so a crashed node cannot
+ * block it forever. Sharded jobs split the user space by
+ * {@link #shardOf(UUID, int)}; nodes that fire together take different
+ * shards. Jobs may save a checkpoint as they go (which also extends the
+ * lease); a run that fails, dies, or stops early through
+ * {@link JobContext#resumeNextRun()} leaves it in place and the next run
+ * resumes from it.
+ *
+ * Per-run metrics: {@code scheduled.job.runs} (by outcome),
+ * {@code scheduled.job.duration} and {@code scheduled.job.rows}, all tagged
+ * with the job name. Only use this for work that touches shared state;
+ * per-node housekeeping such as in-memory rate-limiter sweeps must keep
+ * running on every node.
+ */
+@Component
+public class ClusterJobRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(ClusterJobRunner.class);
+
+    public static final int MAX_SHARDS = 256;
+    private static final Duration DEFAULT_LOCK_AT_LEAST = Duration.ofMinutes(1);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    /**
+     * @param lockAtMost   lease length; a run that neither finishes nor checkpoints within it may be taken over
+     * @param lockAtLeast  minimum time between run starts, covering schedules that fire a little apart
+     * @param shards       number of independently leased slices of the user space
+     * @param transactional run the whole body in one transaction (for short bulk statements)
+     */
+    public record JobSpec(String name, Duration lockAtMost, Duration lockAtLeast, int shards,
+            boolean transactional) {
+
+        public JobSpec {
+            Objects.requireNonNull(name, "Job name cannot be null");
+            if (shards < 1 || shards > MAX_SHARDS) {
+                throw new IllegalArgumentException("Shards must be between 1 and " + MAX_SHARDS);
+            }
+        }
+
+        public static JobSpec of(String name, Duration lockAtMost) {
+            return new JobSpec(name, lockAtMost, DEFAULT_LOCK_AT_LEAST, 1, false);
+        }
+
+        public JobSpec sharded(int shardCount) {
+            return new JobSpec(name, lockAtMost, lockAtLeast, shardCount, transactional);
+        }
+
+        public JobSpec inTransaction() {
+            return new JobSpec(name, lockAtMost, lockAtLeast, shards, true);
+        }
+    }
+
+    @FunctionalInterface
+    public interface Job {
+        /** Does the work for {@code ctx.shard()} and returns the number of rows processed. */
+        long run(JobContext ctx) throws Exception;
+    }
+
+    /** What a running job knows about its shard and checkpoint. */
+    public final class JobContext {
+        private final JobSpec spec;
+        private final int shard;
+        private final String checkpoint;
+        private boolean incomplete;
+
+        private JobContext(JobSpec spec, int shard, String checkpoint) {
+            this.spec = spec;
+            this.shard = shard;
+            this.checkpoint = checkpoint;
+        }
+
+        public int shard() {
+            return shard;
+        }
+
+        public int shardCount() {
+            return spec.shards();
+        }
+
+        public boolean ownsUser(UUID userId) {
+            return shardOf(userId, spec.shards()) == shard;
+        }
+
+        /** Progress saved by an earlier run of this shard that did not finish, or {@code null}. */
+        public String checkpoint() {
+            return checkpoint;
+        }
+
+        /**
+         * Persists progress and extends the lease.
+         *
+         * @throws IllegalStateException if another node has taken the lease; the job must stop
+         */
+        public void saveCheckpoint(String value) {
+            if (!leases.saveCheckpoint(spec.name(), shard, nodeId, value, spec.lockAtMost())) {
+                throw new IllegalStateException("Lost lease for job " + spec.name() + " shard " + shard);
+            }
+        }
+
+        /**
+         * Marks this run as stopped before the end of its work (e.g. at a time
+         * budget). It is recorded as incomplete and the saved checkpoint is
+         * kept for the next run.
+         */
+        public void resumeNextRun() {
+            incomplete = true;
+        }
+    }
+
+    private final ScheduledJobLeaseRepository leases;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String nodeId;
+
+    public ClusterJobRunner(ScheduledJobLeaseRepository leases,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${jobs.node-id:}") String nodeId) {
+        this.leases = leases;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.nodeId = nodeId.isBlank() ? defaultNodeId() : nodeId;
+        log.info("Scheduled jobs run as node {}", this.nodeId);
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        // Suffix keeps two instances on one host apart
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Shard of a user: the UUID's last byte modulo {@code shards}. The SQL
+     * equivalent is {@code get_byte(uuid_send(user_id), 15) % :shards}.
+     */
+    public static int shardOf(UUID userId, int shards) {
+        return (int) (userId.getLeastSignificantBits() & 0xFF) % shards;
+    }
+
+    /**
+     * Runs every shard of {@code spec} whose lease this node can take and
+     * returns how many it ran. Failures are logged and recorded, not thrown.
+     */
+    public int run(JobSpec spec, Job job) {
+        int ran = 0;
+        // Start at a node-specific shard so nodes firing together spread out
+        int offset = Math.floorMod(nodeId.hashCode(), spec.shards());
+        for (int i = 0; i < spec.shards(); i++) {
+            int shard = (offset + i) % spec.shards();
+            if (runShard(spec, shard, job)) {
+                ran++;
+            }
+        }
+        return ran;
+    }
+
+    private boolean runShard(JobSpec spec, int shard, Job job) {
+        boolean acquired;
+        try {
+            acquired = leases.tryAcquire(spec.name(), shard, nodeId, spec.lockAtMost());
+        } catch (RuntimeException e) {
+            log.warn("Could not take lease for job {} shard {}: {}", spec.name(), shard, e.getMessage());
+            acquired = false;
+        }
+        if (!acquired) {
+            runs(spec, "skipped").increment();
+            log.debug("Job {} shard {} is held by another node; skipping", spec.name(), shard);
+            return false;
+        }
+
+        long start = System.nanoTime();
+        String status = "FAILED";
+        long rows = 0;
+        String error = null;
+        try {
+            JobContext ctx = new JobContext(spec, shard, leases.checkpoint(spec.name(), shard));
+            if (ctx.checkpoint() != null) {
+                log.info("Job {} shard {} resuming from checkpoint {}", spec.name(), shard, ctx.checkpoint());
+            }
+            rows = spec.transactional() ? runInTransaction(job, ctx) : job.run(ctx);
+            status = ctx.incomplete ? "INCOMPLETE" : "SUCCEEDED";
+        } catch (Exception e) {
+            error = describe(e);
+            log.error("Job {} shard {} failed", spec.name(), shard, e);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            String outcome = status.toLowerCase(Locale.ROOT);
+            runs(spec, outcome).increment();
+            Timer.builder("scheduled.job.duration")
+                    .tag("job", spec.name())
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            Counter.builder("scheduled.job.rows")
+                    .tag("job", spec.name())
+                    .register(meterRegistry)
+                    .increment(rows);
+            try {
+                leases.release(spec.name(), shard, nodeId, spec.lockAtLeast(), status, rows, error);
+            } catch (RuntimeException e) {
+                // The lease simply expires at lockAtMost
+                log.warn("Could not release lease for job {} shard {}: {}", spec.name(), shard, e.getMessage());
+            }
+            log.info("Job {} shard {}/{} {} in {}ms ({} rows)", spec.name(), shard, spec.shards(), outcome,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed), rows);
+        }
+        return true;
+    }
+
+    private long runInTransaction(Job job, JobContext ctx) throws Exception {
+        try {
+            Long rows = transactionTemplate.execute(status -> {
+                try {
+                    return job.run(ctx);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new JobFailedException(e);
+                }
+            });
+            return rows == null ? 0 : rows;
+        } catch (JobFailedException e) {
+            throw (Exception) e.getCause();
+        }
+    }
+
+    private Counter runs(JobSpec spec, String outcome) {
+        return Counter.builder("scheduled.job.runs")
+                .description("Scheduled job shard runs by outcome")
+                .tag("job", spec.name())
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String describe(Throwable error) {
+        String message = error.getClass().getSimpleName()
+                + (error.getMessage() != null ? ": " + error.getMessage() : "");
+        return message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message;
+    }
+
+    /** Carries a checked exception out of a {@link TransactionTemplate} callback. */
+    private static final class JobFailedException extends RuntimeException {
+        JobFailedException(Exception cause) {
+            super(cause);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.mindease.shared.service;
+
+import com.mindease.shared.util.DaemonThreads;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Probes downstream dependencies in the background and caches the results,
+ * so status endpoints never block on a slow database or AI service.
+ *
+ * Each probe has its own short timeout; the database probe also bounds
+ * waiting for a pool connection, which Hikari would otherwise let run for
+ * its full {@code connection-timeout}. Results are published as the
+ * {@code dependency.up} gauge (1 up, 0 down, -1 not yet probed).
+ */
+@Component
+public class DependencyHealthMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(DependencyHealthMonitor.class);
+
+    public static final String DATABASE = "database";
+    public static final String AI_ENGINE = "ai-engine";
+
+    public enum State { UNKNOWN, UP, DOWN }
+
+    public record DependencyStatus(String name, State state, long latencyMs, Instant checkedAt, String error) {
+
+        static DependencyStatus unknown(String name) {
+            return new DependencyStatus(name, State.UNKNOWN, -1, null, null);
+        }
+    }
+
+    private final Map<String, Supplier<Boolean>> probes = new LinkedHashMap<>();
+    private final Map<String, DependencyStatus> results = new ConcurrentHashMap<>();
+    private final Clock clock;
+    private final ExecutorService probeExecutor = Executors.newCachedThreadPool(DaemonThreads.named("dependency-probe"));
+
+    @Autowired
+    public DependencyHealthMonitor(DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${python.ai.service.url:http://localhost:8000}") String pythonAiUrl,
+            @Value("${monitoring.health.probe-timeout-ms:3000}") int probeTimeoutMs) {
+        this(Clock.systemUTC());
+        int timeoutSeconds = Math.max(1, probeTimeoutMs / 1000);
+        register(DATABASE, withTimeout(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.isValid(timeoutSeconds);
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }, probeTimeoutMs));
+
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(probeTimeoutMs);
+        factory.setReadTimeout(probeTimeoutMs);
+        RestTemplate http = new RestTemplate(factory);
+        String healthUrl = (pythonAiUrl != null ? pythonAiUrl.replaceAll("/$", "") : "http://localhost:8000")
+                + "/health";
+        register(AI_ENGINE, () -> http.getForEntity(healthUrl, String.class).getStatusCode().is2xxSuccessful());
+
+        for (String name : probes.keySet()) {
+            Gauge.builder("dependency.up", () -> switch (status(name).state()) {
+                case UP -> 1;
+                case DOWN -> 0;
+                case UNKNOWN -> -1;
+            }).tag("dependency", name).description("Last background probe result").register(meterRegistry);
+        }
+    }
+
+    DependencyHealthMonitor(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Runs {@code probe} on a probe thread and reports it down after
+     * {@code timeoutMs}. A probe still blocked then is left to finish on its
+     * own; the next run starts a fresh one.
+     */
+    Supplier<Boolean> withTimeout(Supplier<Boolean> probe, long timeoutMs) {
+        return () -> {
+            Future<Boolean> result = probeExecutor.submit(probe::get);
+            try {
+                return result.get(timeoutMs, TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                result.cancel(true);
+                throw new IllegalStateException("No response within " + timeoutMs + "ms");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted");
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                throw new IllegalStateException(cause.getMessage(), cause);
+            }
+        };
+    }
+
+    void register(String name, Supplier<Boolean> probe) {
+        probes.put(name, probe);
+        results.put(name, DependencyStatus.unknown(name));
+    }
+
+    @Scheduled(fixedDelayString = "${monitoring.health.probe-interval-ms:15000}", initialDelay = 0)
+    public void probeAll() {
+        probes.forEach(this::probe);
+    }
+
+    private void probe(String name, Supplier<Boolean> probe) {
+        long start = System.nanoTime();
+        State state;
+        String error = null;
+        try {
+            state = Boolean.TRUE.equals(probe.get()) ? State.UP : State.DOWN;
+        } catch (Exception e) {
+            state = State.DOWN;
+            error = e.getMessage();
+        }
+        long latencyMs = (System.nanoTime() - start) / 1_000_000;
+        DependencyStatus previous = results.put(name, new DependencyStatus(name, state, latencyMs, clock.instant(), error));
+        if (previous != null && previous.state() != state && previous.state() != State.UNKNOWN) {
+            log.warn("Dependency {} is now {} ({}ms{})", name, state, latencyMs, error != null ? ", " + error : "");
+        }
+    }
+
+    /** Cached result of the last probe; never blocks. */
+    public DependencyStatus status(String name) {
+        return results.getOrDefault(name, DependencyStatus.unknown(name));
+    }
+
+    public Map<String, DependencyStatus> statuses() {
+        Map<String, DependencyStatus> snapshot = new LinkedHashMap<>();
+        probes.keySet().forEach(name -> snapshot.put(name, status(name)));
+        return snapshot;
+    }
+}
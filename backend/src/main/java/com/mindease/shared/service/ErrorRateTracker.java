@@ -0,0 +1,147 @@
+package com.mindease.shared.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Rolling HTTP error rate plus the most recent server errors.
+ *
+ * Requests are counted into a ring of time buckets covering
+ * {@code window-seconds}. Each bucket is one {@code long} holding its epoch
+ * (bucket number since 1970, low 32 bits) above its count, so the first
+ * request to land in an aged-out bucket restarts it at 1 in the same CAS
+ * that claims it and no increment can be lost to a reset. The rate is
+ * 5xx responses over all responses in the window and is published as the
+ * {@code http.server.error.rate} gauge.
+ */
+@Component
+public class ErrorRateTracker {
+
+    public record RecentError(Instant timestamp, int status, String method, String path, String message) {
+    }
+
+    private static final int MAX_MESSAGE_LENGTH = 300;
+    private static final int COUNT_BITS = 32;
+    private static final long LOW_MASK = (1L << COUNT_BITS) - 1;
+
+    private final Clock clock;
+    private final long bucketMillis;
+    private final int buckets;
+    private final AtomicLongArray requestCounts;
+    private final AtomicLongArray errorCounts;
+
+    private final int recentCapacity;
+    private final ArrayDeque<RecentError> recent;
+
+    @Autowired
+    public ErrorRateTracker(MeterRegistry meterRegistry,
+            @Value("${monitoring.errors.window-seconds:300}") int windowSeconds,
+            @Value("${monitoring.errors.bucket-seconds:10}") int bucketSeconds,
+            @Value("${monitoring.errors.recent-capacity:50}") int recentCapacity) {
+        this(windowSeconds, bucketSeconds, recentCapacity, Clock.systemUTC());
+        Gauge.builder("http.server.error.rate", this, ErrorRateTracker::errorRate)
+                .description("Share of HTTP responses with a 5xx status over the rolling window")
+                .register(meterRegistry);
+    }
+
+    ErrorRateTracker(int windowSeconds, int bucketSeconds, int recentCapacity, Clock clock) {
+        this.clock = clock;
+        this.bucketMillis = Math.max(1, bucketSeconds) * 1000L;
+        this.buckets = Math.max(1, windowSeconds / Math.max(1, bucketSeconds));
+        this.requestCounts = new AtomicLongArray(buckets);
+        this.errorCounts = new AtomicLongArray(buckets);
+        this.recentCapacity = recentCapacity;
+        this.recent = new ArrayDeque<>(recentCapacity);
+    }
+
+    /** Records one finished request; {@code failure} may be {@code null}. */
+    public void record(int status, String method, String path, Throwable failure) {
+        long now = clock.millis();
+        long epoch = now / bucketMillis;
+        int i = (int) Math.floorMod(epoch, (long) buckets);
+        increment(requestCounts, i, epoch);
+        if (status >= 500) {
+            increment(errorCounts, i, epoch);
+            remember(new RecentError(Instant.ofEpochMilli(now), status, method, path, describe(status, failure)));
+        }
+    }
+
+    private static void increment(AtomicLongArray counts, int i, long epoch) {
+        long tag = (epoch & LOW_MASK) << COUNT_BITS;
+        while (true) {
+            long current = counts.get(i);
+            long next = (current & ~LOW_MASK) == tag ? current + 1 : tag | 1;
+            if (counts.compareAndSet(i, current, next)) {
+                return;
+            }
+        }
+    }
+
+    private void remember(RecentError error) {
+        synchronized (recent) {
+            if (recent.size() == recentCapacity) {
+                recent.pollFirst();
+            }
+            recent.addLast(error);
+        }
+    }
+
+    private static String describe(int status, Throwable failure) {
+        if (failure == null) {
+            return "HTTP " + status;
+        }
+        String message = failure.getClass().getSimpleName()
+                + (failure.getMessage() != null ? ": " + failure.getMessage() : "");
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) + "..." : message;
+    }
+
+    public long requestsInWindow() {
+        return sum(requestCounts);
+    }
+
+    public long errorsInWindow() {
+        return sum(errorCounts);
+    }
+
+    /** 5xx share of responses in the window, or 0 when there were none. */
+    public double errorRate() {
+        long requests = requestsInWindow();
+        return requests == 0 ? 0.0 : (double) errorsInWindow() / requests;
+    }
+
+    private long sum(AtomicLongArray counts) {
+        long epoch = clock.millis() / bucketMillis;
+        long total = 0;
+        for (int i = 0; i < buckets; i++) {
+            long value = counts.get(i);
+            // Age in buckets, modulo 2^32 like the stored epoch
+            long age = (epoch - (value >>> COUNT_BITS)) & LOW_MASK;
+            if (age < buckets) {
+                total += value & LOW_MASK;
+            }
+        }
+        return total;
+    }
+
+    /** Most recent server errors, newest first. */
+    public List<RecentError> recentErrors() {
+        synchronized (recent) {
+            List<RecentError> result = new ArrayList<>(recent.size());
+            for (Iterator<RecentError> it = recent.descendingIterator(); it.hasNext();) {
+                result.add(it.next());
+            }
+            return result;
+        }
+    }
+}
@@ -1,86 +1,110 @@
 package com.mindease.shared.service;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Service;
-import java.lang.management.ManagementFactory;
-import java.lang.management.OperatingSystemMXBean;
-import java.lang.management.MemoryMXBean;
-import java.util.HashMap;
+
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Reads system telemetry from the Micrometer registry instead of polling
+ * MXBeans and the filesystem per request.
+ *
+ * The gauges come from actuator's JVM, process, disk-space, HikariCP and
+ * task-executor binders plus the app's own ({@code crisis.alerts.subscribers},
+ * {@code websocket.sessions}, {@code websocket.users}). Reading a gauge is a
+ * field read on the sampled value; a missing meter reads as -1.
+ */
 @Service
 public class PerformanceMonitorService {
 
-    private static final Logger logger = LoggerFactory.getLogger(PerformanceMonitorService.class);
+    private final MeterRegistry registry;
+
+    public PerformanceMonitorService(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Process CPU usage in percent, or -1 if unavailable. */
+    public double cpuPercent() {
+        double usage = gauge("process.cpu.usage");
+        return usage < 0 ? -1 : usage * 100.0;
+    }
+
+    public double heapUsedBytes() {
+        return gauge("jvm.memory.used", Tag.of("area", "heap"));
+    }
+
+    public double heapMaxBytes() {
+        return gauge("jvm.memory.max", Tag.of("area", "heap"));
+    }
+
+    public double heapPercent() {
+        double used = heapUsedBytes();
+        double max = heapMaxBytes();
+        return used < 0 || max <= 0 ? -1 : used * 100.0 / max;
+    }
+
+    public double diskPercent() {
+        double free = gauge("disk.free");
+        double total = gauge("disk.total");
+        return free < 0 || total <= 0 ? -1 : (total - free) * 100.0 / total;
+    }
 
-    private final OperatingSystemMXBean osBean = ManagementFactory.getOperatingSystemMXBean();
-    private final MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+    /** Connected STOMP sessions and distinct users, SSE subscribers. */
+    public Map<String, Object> connections() {
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("stompSessions", (long) gauge("websocket.sessions"));
+        m.put("stompUsers", (long) gauge("websocket.users"));
+        m.put("sseSubscribers", (long) gauge("crisis.alerts.subscribers"));
+        return m;
+    }
 
     public Map<String, Object> getSystemMetrics() {
-        Map<String, Object> metrics = new HashMap<>();
-
-        // Memory
-        long heapMemoryUsed = memoryBean.getHeapMemoryUsage().getUsed();
-        long heapMemoryMax = memoryBean.getHeapMemoryUsage().getMax();
-        metrics.put("heapMemoryUsed", heapMemoryUsed);
-        metrics.put("heapMemoryMax", heapMemoryMax);
-        double heapUsagePercent = heapMemoryMax > 0
-                ? (double) heapMemoryUsed / heapMemoryMax * 100
-                : 0.0;
-        metrics.put("heapMemoryUsagePercent", heapUsagePercent);
-
-        // CPU Load (if available)
-        if (osBean instanceof com.sun.management.OperatingSystemMXBean) {
-            double cpuLoad = ((com.sun.management.OperatingSystemMXBean) osBean).getProcessCpuLoad();
-            metrics.put("systemCpuLoad", cpuLoad * 100);
-        } else {
-            // getSystemLoadAverage() returns load average, not CPU percentage
-            // WARNING: Load average represents the average number of runnable and waiting
-            // processes,
-            // not actual CPU utilization. A load average of 4.0 on a 4-core system could
-            // indicate
-            // 100% utilization, 50% utilization with blocking I/O, or many other states.
-            // This conversion is an approximation and may not reflect actual CPU
-            // percentage.
-            // For accurate CPU metrics, use a platform-specific library or the
-            // com.sun.management
-            // OperatingSystemMXBean when available.
-            double loadAvg = osBean.getSystemLoadAverage();
-            int availableProcessors = osBean.getAvailableProcessors();
-            // Approximate: normalize load average by number of processors
-            // loadAvg >= 0 indicates a valid measurement (0.0 is valid - no processes
-            // waiting)
-            // loadAvg < 0 (typically -1.0) indicates unavailability
-            double cpuPercent = loadAvg >= 0 && availableProcessors > 0
-                    ? Math.min((loadAvg / availableProcessors) * 100, 100.0)
-                    : -1.0; // Unavailable on this platform
-            metrics.put("systemCpuLoad", cpuPercent);
-        }
+        Map<String, Object> metrics = new LinkedHashMap<>();
 
-        // Threads - use ThreadMXBean for accurate thread count
-        metrics.put("activeThreads", ManagementFactory.getThreadMXBean().getThreadCount());
-
-        // Uptime
-        metrics.put("uptime", ManagementFactory.getRuntimeMXBean().getUptime());
-
-        // Disk usage calculation
-        try {
-            java.nio.file.FileStore store = java.nio.file.Files.getFileStore(
-                    java.nio.file.Paths.get(System.getProperty("user.dir")));
-            long totalSpace = store.getTotalSpace();
-            long usableSpace = store.getUsableSpace();
-            if (totalSpace > 0) {
-                int diskUsage = (int) (((totalSpace - usableSpace) * 100) / totalSpace);
-                metrics.put("diskUsage", diskUsage);
-            } else {
-                metrics.put("diskUsage", 0);
-            }
-        } catch (Exception e) {
-            logger.warn("Failed to calculate disk usage", e);
-            metrics.put("diskUsage", 0);
-        }
+        metrics.put("heapMemoryUsed", (long) heapUsedBytes());
+        metrics.put("heapMemoryMax", (long) heapMaxBytes());
+        metrics.put("heapMemoryUsagePercent", heapPercent());
+        metrics.put("systemCpuLoad", cpuPercent());
+        metrics.put("activeThreads", (long) gauge("jvm.threads.live"));
+        metrics.put("uptime", (long) (gauge("process.uptime") * 1000)); // base unit is seconds
+        metrics.put("diskUsage", (int) Math.round(diskPercent()));
+
+        List<Timer> gcPauses = List.copyOf(registry.find("jvm.gc.pause").timers());
+        metrics.put("gcPauseCount", gcPauses.stream().mapToLong(Timer::count).sum());
+        metrics.put("gcPauseTotalMs", gcPauses.stream().mapToDouble(t -> t.totalTime(TimeUnit.MILLISECONDS)).sum());
+        metrics.put("gcPauseMaxMs", gcPauses.stream().mapToDouble(t -> t.max(TimeUnit.MILLISECONDS)).max().orElse(0));
 
+        Map<String, Object> pool = new LinkedHashMap<>();
+        pool.put("active", (long) gauge("hikaricp.connections.active"));
+        pool.put("idle", (long) gauge("hikaricp.connections.idle"));
+        pool.put("pending", (long) gauge("hikaricp.connections.pending"));
+        pool.put("max", (long) gauge("hikaricp.connections.max"));
+        metrics.put("dbPool", pool);
+
+        metrics.put("executorQueued", (long) gauge("executor.queued"));
+        metrics.putAll(connections());
         return metrics;
     }
+
+    /** Sum of every gauge with this name and tags (e.g. all heap pools), or -1 if none is registered. */
+    private double gauge(String name, Tag... tags) {
+        var gauges = registry.find(name).tags(List.of(tags)).gauges();
+        if (gauges.isEmpty()) {
+            return -1;
+        }
+        double sum = 0;
+        for (Gauge g : gauges) {
+            double v = g.value();
+            if (!Double.isNaN(v) && v > 0) {
+                sum += v;
+            }
+        }
+        return sum;
+    }
 }
@@ -1,13 +1,6 @@
 package com.mindease.shared.service;
 
-import com.mindease.auth.model.User;
-import com.mindease.chat.model.ChatSession;
-import com.mindease.chat.repository.ChatSessionRepository;
-import com.mindease.chat.repository.MessageRepository;
-import com.mindease.journal.repository.JournalEntryRepository;
-import com.mindease.mood.repository.MoodEntryRepository;
-import com.mindease.auth.repository.UserContextRepository;
-import com.mindease.auth.repository.UserRepository;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,44 +8,44 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Service
 public class RetentionPolicyService {
 
     private static final Logger logger = LoggerFactory.getLogger(RetentionPolicyService.class);
 
-    @Autowired
-    private UserRepository userRepository;
+    private static final JobSpec JOB = JobSpec.of("retention-cleanup", Duration.ofHours(2));
+    private static final int ANONYMOUS_RETENTION_DAYS = 30;
+    // Smallest UUID in PostgreSQL's ordering; starts a scan with no checkpoint
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
 
     @Autowired(required = false)
     private com.mindease.shared.service.PythonBackgroundJobsClient pythonBackgroundJobsClient;
 
     @Autowired
-    private MoodEntryRepository moodEntryRepository;
-
-    @Autowired
-    private JournalEntryRepository journalEntryRepository;
-
-    @Autowired
-    private ChatSessionRepository chatSessionRepository;
+    private RetentionPurgeService retentionPurgeService;
 
     @Autowired
-    private MessageRepository messageRepository;
-
-    @Autowired
-    private UserContextRepository userContextRepository;
+    private ClusterJobRunner clusterJobRunner;
 
     /**
      * Scheduled task to clean up old data based on retention policy.
      * Now delegates to Python service if available, otherwise uses Java
      * implementation.
-     * Runs every day at 2:00 AM
+     * Runs every day at 2:00 AM, on one node of the cluster
      */
     @Scheduled(cron = "0 0 2 * * ?") // Every day at 2:00 AM
     public void cleanUpOldData() {
+        clusterJobRunner.run(JOB, this::cleanUp);
+    }
+
+    private long cleanUp(ClusterJobRunner.JobContext ctx) throws SQLException {
         // Try Python service first
         if (pythonBackgroundJobsClient != null) {
             try {
@@ -61,7 +54,7 @@ public class RetentionPolicyService {
                 Object successObj = result.get("success");
                 if (Boolean.TRUE.equals(successObj)) {
                     logger.info("Python retention cleanup completed: {}", result.get("message"));
-                    return;
+                    return 0;
                 } else {
                     logger.warn("Python retention cleanup failed, falling back to Java: {}", result.get("message"));
                 }
@@ -73,40 +66,23 @@ public class RetentionPolicyService {
         // Fallback to Java implementation
         logger.info("Retention policy cleanup started (Java implementation)");
 
-        LocalDateTime threshold = LocalDateTime.now().minusDays(30);
-        List<User> anonymousUsers = userRepository.findByAnonymousModeTrueAndCreatedAtBefore(threshold);
-
-        logger.info("Found {} anonymous users to clean up", anonymousUsers.size());
-
-        for (User user : anonymousUsers) {
-            try {
-                cleanupSingleUserTransactional(user);
-            } catch (Exception e) {
-                logger.error("Failed to clean up user {}", user.getId(), e);
-            }
+        LocalDateTime threshold = LocalDateTime.now().minusDays(ANONYMOUS_RETENTION_DAYS);
+        UUID startAfter = ctx.checkpoint() != null ? UUID.fromString(ctx.checkpoint()) : FIRST_ID;
+        AtomicReference<UUID> resumeAfter = new AtomicReference<>(startAfter);
+        RetentionPurgeService.PurgeReport report = retentionPurgeService.purgeExpiredAnonymousUsers(threshold,
+                startAfter, lastId -> {
+                    ctx.saveCheckpoint(lastId.toString());
+                    resumeAfter.set(lastId);
+                });
+
+        if (!report.completed()) {
+            // Keep the checkpoint so the next run continues after the last purged chunk
+            ctx.resumeNextRun();
+            logger.info("Retention policy cleanup paused; the next run resumes after {}", resumeAfter.get());
+            return report.usersDeleted();
         }
-
         logger.info("Retention policy cleanup completed");
-    }
-
-    @Transactional(rollbackFor = Exception.class)
-    protected void cleanupSingleUserTransactional(User user) {
-        cleanupSingleUser(user);
-    }
-
-    private void cleanupSingleUser(User user) {
-        // Perform all deletions in sequence - if any fails, entire transaction rolls
-        // back
-        journalEntryRepository.deleteByUserId(user.getId());
-        moodEntryRepository.deleteByUser(user);
-        userContextRepository.deleteByUser(user);
-        List<ChatSession> sessions = chatSessionRepository.findByUser(user);
-        if (!sessions.isEmpty()) {
-            messageRepository.deleteByChatSessionIn(sessions);
-            chatSessionRepository.deleteAll(sessions);
-        }
-        userRepository.delete(user);
-        logger.debug("Cleaned up data for anonymous user: {}", user.getId());
+        return report.usersDeleted();
     }
 
     /**
@@ -0,0 +1,171 @@
+package com.mindease.shared.service;
+
+import com.mindease.shared.repository.RetentionPurgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Purges expired anonymous users in throttled chunks.
+ *
+ * Each chunk of {@code chunk-size} users is deleted in one short
+ * transaction (see {@link RetentionPurgeRepository}). Between chunks the
+ * purge pauses so that it spends at most {@code max-duty-cycle} of wall time
+ * deleting and removes at most {@code max-rows-per-second} rows on average,
+ * which bounds lock hold times and WAL/replication volume. A run stops after
+ * {@code max-run-minutes}; whatever is left is picked up the next night.
+ */
+@Service
+public class RetentionPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(RetentionPurgeService.class);
+
+    /** PostgreSQL lock_not_available, raised when lock_timeout expires. */
+    private static final String LOCK_NOT_AVAILABLE = "55P03";
+
+    /**
+     * @param rowsByTable rows deleted per table, in delete order
+     * @param completed   {@code false} if the run stopped at its time budget
+     */
+    public record PurgeReport(int chunks, long usersScanned, long usersDeleted, int chunksSkipped,
+            Map<String, Long> rowsByTable, boolean completed) {
+    }
+
+    private final RetentionPurgeRepository purgeRepository;
+    private final MeterRegistry meterRegistry;
+    private final int chunkSize;
+    private final double maxDutyCycle;
+    private final long maxRowsPerSecond;
+    private final Duration maxRun;
+    private final Clock clock;
+
+    @Autowired
+    public RetentionPurgeService(RetentionPurgeRepository purgeRepository,
+            MeterRegistry meterRegistry,
+            @Value("${retention.purge.chunk-size:200}") int chunkSize,
+            @Value("${retention.purge.max-duty-cycle:0.25}") double maxDutyCycle,
+            @Value("${retention.purge.max-rows-per-second:5000}") long maxRowsPerSecond,
+            @Value("${retention.purge.max-run-minutes:60}") long maxRunMinutes) {
+        this(purgeRepository, meterRegistry, chunkSize, maxDutyCycle, maxRowsPerSecond,
+                Duration.ofMinutes(maxRunMinutes), Clock.systemUTC());
+    }
+
+    RetentionPurgeService(RetentionPurgeRepository purgeRepository, MeterRegistry meterRegistry,
+            int chunkSize, double maxDutyCycle, long maxRowsPerSecond, Duration maxRun, Clock clock) {
+        this.purgeRepository = purgeRepository;
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.maxDutyCycle = Math.min(1.0, Math.max(0.01, maxDutyCycle));
+        this.maxRowsPerSecond = maxRowsPerSecond;
+        this.maxRun = maxRun;
+        this.clock = clock;
+    }
+
+    /**
+     * Deletes anonymous users created before {@code createdBefore}, walking
+     * ids after {@code startAfter}. {@code checkpoint} receives the last id
+     * of every finished chunk.
+     */
+    public PurgeReport purgeExpiredAnonymousUsers(LocalDateTime createdBefore, UUID startAfter,
+            Consumer<UUID> checkpoint) throws SQLException {
+        long runStart = clock.millis();
+        Map<String, Long> rowsByTable = new LinkedHashMap<>();
+        int chunks = 0;
+        int skipped = 0;
+        long scanned = 0;
+        UUID after = startAfter;
+
+        while (true) {
+            if (clock.millis() - runStart >= maxRun.toMillis()) {
+                log.info("Retention purge stopped at its {} minute budget after {} chunks", maxRun.toMinutes(),
+                        chunks);
+                return report(chunks, scanned, skipped, rowsByTable, false);
+            }
+
+            List<UUID> ids = purgeRepository.findExpiredAnonymousUserIds(createdBefore, after, chunkSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            scanned += ids.size();
+            after = ids.get(ids.size() - 1);
+
+            long chunkStart = clock.millis();
+            long rows = 0;
+            try {
+                Map<String, Integer> deleted = purgeRepository.purge(ids);
+                for (Map.Entry<String, Integer> e : deleted.entrySet()) {
+                    rowsByTable.merge(e.getKey(), e.getValue().longValue(), Long::sum);
+                    rows += e.getValue();
+                    Counter.builder("retention.purge.rows")
+                            .tag("table", e.getKey())
+                            .register(meterRegistry)
+                            .increment(e.getValue());
+                }
+                chunks++;
+            } catch (SQLException e) {
+                if (!LOCK_NOT_AVAILABLE.equals(e.getSQLState())) {
+                    throw e;
+                }
+                // Rolled back; these users are retried next run
+                skipped++;
+                log.warn("Retention purge chunk ending at {} hit lock_timeout; skipping it", after);
+            }
+            checkpoint.accept(after);
+            log.debug("Retention purge chunk {}: {} users, {} rows", chunks, ids.size(), rows);
+
+            if (ids.size() < chunkSize) {
+                break;
+            }
+            if (!pause(throttle(clock.millis() - chunkStart, rows))) {
+                return report(chunks, scanned, skipped, rowsByTable, false);
+            }
+        }
+        return report(chunks, scanned, skipped, rowsByTable, true);
+    }
+
+    /** Pause that keeps both the duty cycle and the row rate under their limits. */
+    Duration throttle(long chunkMillis, long rows) {
+        long dutyPause = (long) (chunkMillis * (1.0 - maxDutyCycle) / maxDutyCycle);
+        long ratePause = maxRowsPerSecond > 0 ? rows * 1000L / maxRowsPerSecond - chunkMillis : 0L;
+        return Duration.ofMillis(Math.max(0L, Math.max(dutyPause, ratePause)));
+    }
+
+    /** Sleeps between chunks; returns {@code false} if interrupted (shutdown). */
+    protected boolean pause(Duration duration) {
+        if (duration.isZero()) {
+            return true;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private PurgeReport report(int chunks, long scanned, int skipped, Map<String, Long> rowsByTable,
+            boolean completed) {
+        long users = rowsByTable.getOrDefault("users", 0L);
+        PurgeReport report = new PurgeReport(chunks, scanned, users, skipped,
+                Collections.unmodifiableMap(new LinkedHashMap<>(rowsByTable)), completed);
+        log.info("Retention purge {}: {} users scanned, {} deleted, {} chunks ({} skipped), rows {}",
+                completed ? "completed" : "paused", scanned, users, chunks, skipped, rowsByTable);
+        return report;
+    }
+}
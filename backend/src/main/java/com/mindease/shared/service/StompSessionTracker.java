@@ -0,0 +1,60 @@
+package com.mindease.shared.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectedEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.security.Principal;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks live STOMP sessions from connect/disconnect events and publishes
+ * {@code websocket.sessions} and {@code websocket.users} (distinct
+ * authenticated users) gauges.
+ */
+@Component
+public class StompSessionTracker {
+
+    private static final String ANONYMOUS = "";
+
+    private final Map<String, String> userBySession = new ConcurrentHashMap<>();
+
+    public StompSessionTracker(MeterRegistry meterRegistry) {
+        Gauge.builder("websocket.sessions", userBySession, Map::size)
+                .description("Live STOMP sessions")
+                .register(meterRegistry);
+        Gauge.builder("websocket.users", this, StompSessionTracker::connectedUsers)
+                .description("Distinct authenticated users with a live STOMP session")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onConnected(SessionConnectedEvent event) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(event.getMessage().getHeaders());
+        if (sessionId != null) {
+            Principal user = event.getUser();
+            userBySession.put(sessionId, user != null ? user.getName() : ANONYMOUS);
+        }
+    }
+
+    @EventListener
+    public void onDisconnected(SessionDisconnectEvent event) {
+        userBySession.remove(event.getSessionId());
+    }
+
+    public int sessions() {
+        return userBySession.size();
+    }
+
+    public int connectedUsers() {
+        var users = new HashSet<>(userBySession.values());
+        users.remove(ANONYMOUS);
+        return users.size();
+    }
+}
@@ -0,0 +1,22 @@
+package com.mindease.shared.util;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Thread factory for the background pools services own, so a pool that is
+ * still busy never keeps the JVM from exiting.
+ */
+public final class DaemonThreads {
+
+    private DaemonThreads() {
+    }
+
+    /** Daemon threads named {@code prefix-1}, {@code prefix-2}, ... */
+    public static ThreadFactory named(String prefix) {
+        CustomizableThreadFactory factory = new CustomizableThreadFactory(prefix + "-");
+        factory.setDaemon(true);
+        return factory;
+    }
+}
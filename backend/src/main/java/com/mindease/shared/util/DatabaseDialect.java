@@ -0,0 +1,47 @@
+package com.mindease.shared.util;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Detects the database behind an {@link EntityManager}, for native queries
+ * that use PostgreSQL-only features (pg_trgm, full-text search) and need a
+ * portable fallback on H2 in tests. The answer is cached per persistence
+ * unit, so callers need not cache it themselves.
+ */
+public final class DatabaseDialect {
+
+    private static final Map<EntityManagerFactory, Boolean> POSTGRES =
+            Collections.synchronizedMap(new WeakHashMap<>());
+
+    private DatabaseDialect() {
+    }
+
+    public static boolean isPostgres(EntityManager em) {
+        EntityManagerFactory factory = em.getEntityManagerFactory();
+        Boolean known = factory != null ? POSTGRES.get(factory) : null;
+        if (known == null) {
+            String product = em.unwrap(Session.class)
+                    .doReturningWork(connection -> connection.getMetaData().getDatabaseProductName());
+            known = product != null && product.toLowerCase().contains("postgres");
+            if (factory != null) {
+                POSTGRES.put(factory, known);
+            }
+        }
+        return known;
+    }
+
+    /**
+     * {@code LIKE} pattern matching {@code value} anywhere, with {@code %},
+     * {@code _} and {@code \} in it matched literally. Relies on backslash
+     * being the default escape character, as it is in PostgreSQL and H2.
+     */
+    public static String containsPattern(String value) {
+        return "%" + value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+}
@@ -0,0 +1,38 @@
+package com.mindease.shared.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position after the last row of a ranked, keyset-paginated result:
+ * {@code (score, at, id)} compared in descending order. Encoded as an opaque
+ * URL-safe token; the score is carried as raw float bits so the next page
+ * compares against exactly the value the database returned.
+ */
+public record KeysetCursor(float score, Instant at, UUID id) {
+
+    public String encode() {
+        String raw = Integer.toHexString(Float.floatToIntBits(score)) + ":"
+                + ChronoUnit.MICROS.between(Instant.EPOCH, at) + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Decodes a token from {@link #encode()}; {@code null} or blank means the first page. */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            float score = Float.intBitsToFloat(Integer.parseUnsignedInt(parts[0], 16));
+            Instant at = Instant.EPOCH.plus(Long.parseLong(parts[1]), ChronoUnit.MICROS);
+            return new KeysetCursor(score, at, UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
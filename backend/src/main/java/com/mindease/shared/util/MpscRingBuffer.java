@@ -0,0 +1,99 @@
+package com.mindease.shared.util;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free multi-producer / single-consumer ring buffer (Vyukov's
+ * bounded queue with a per-slot sequence number).
+ *
+ * Producers claim a slot with one CAS on the tail and never block: when the
+ * ring is full {@link #offer} returns {@code false} and the caller applies
+ * its own overflow policy. Only one thread may call {@link #drainTo}.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int mask;
+    private final AtomicReferenceArray<E> elements;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head; // written by the consumer only
+
+    public MpscRingBuffer(int requestedCapacity) {
+        if (requestedCapacity < 2) {
+            throw new IllegalArgumentException("capacity must be at least 2");
+        }
+        int capacity = Integer.highestOneBit(requestedCapacity - 1) << 1;
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /** Enqueues {@code e}, or returns {@code false} without waiting if the ring is full. */
+    public boolean offer(E e) {
+        if (e == null) {
+            throw new NullPointerException("element must not be null");
+        }
+        long t;
+        while (true) {
+            t = tail.get();
+            int slot = (int) t & mask;
+            long diff = sequences.get(slot) - t;
+            if (diff == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                return false; // slot not yet consumed: full
+            }
+            // diff > 0: another producer claimed this slot, retry with the new tail
+        }
+        int slot = (int) t & mask;
+        elements.lazySet(slot, e);
+        sequences.set(slot, t + 1); // publish
+        return true;
+    }
+
+    /**
+     * Moves up to {@code max} published elements into {@code sink} in FIFO
+     * order. Consumer thread only.
+     *
+     * @return number of elements moved
+     */
+    public int drainTo(Collection<? super E> sink, int max) {
+        long h = head;
+        int drained = 0;
+        while (drained < max) {
+            int slot = (int) h & mask;
+            if (sequences.get(slot) != h + 1) {
+                break; // empty, or the next producer has claimed but not yet published
+            }
+            sink.add(elements.get(slot));
+            elements.lazySet(slot, null);
+            sequences.set(slot, h + mask + 1); // hand the slot back to producers for the next lap
+            h++;
+            drained++;
+        }
+        head = h;
+        return drained;
+    }
+
+    /** Approximate number of queued elements; exact only when producers are quiescent. */
+    public int size() {
+        long size = tail.get() - head;
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+}
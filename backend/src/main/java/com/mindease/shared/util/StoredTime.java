@@ -0,0 +1,32 @@
+package com.mindease.shared.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+
+/**
+ * The storage convention for {@code TIMESTAMP} columns without a zone
+ * ({@code mood_entries}, {@code mood_checkins}, {@code messages}, ...).
+ * Entities stamp them with {@code LocalDateTime.now()}, so they hold the
+ * server's wall-clock time in {@link #ZONE}, not UTC. Convert instants
+ * through here before comparing them with such a column.
+ */
+public final class StoredTime {
+
+    /** Zone the stored values are wall-clock time in. */
+    public static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private StoredTime() {
+    }
+
+    /** The stored form of {@code value}. */
+    public static LocalDateTime of(OffsetDateTime value) {
+        return value.atZoneSameInstant(ZONE).toLocalDateTime();
+    }
+
+    /** The instant a stored value denotes. */
+    public static Instant toInstant(LocalDateTime stored) {
+        return stored.atZone(ZONE).toInstant();
+    }
+}
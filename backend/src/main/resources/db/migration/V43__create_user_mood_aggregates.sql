@@ -0,0 +1,21 @@
+-- Per-user mood aggregates maintained incrementally on write.
+-- Mood statistics and distribution read one row instead of the full mood history.
+CREATE TABLE user_mood_aggregates (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    entry_count BIGINT NOT NULL DEFAULT 0,
+    entry_sum BIGINT NOT NULL DEFAULT 0,
+    histogram INTEGER[] NOT NULL DEFAULT ARRAY[0,0,0,0,0,0,0,0,0,0], -- histogram[v] = entries with mood_value v (1-10)
+    latest_value INTEGER,
+    previous_value INTEGER,
+    last_entry_at TIMESTAMP,
+    checkin_count BIGINT NOT NULL DEFAULT 0,
+    checkin_sum BIGINT NOT NULL DEFAULT 0,
+    last_checkin_score INTEGER,
+    last_checkin_at TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+COMMENT ON TABLE user_mood_aggregates IS 'Running mood totals per user, updated in the same transaction as mood_entries/mood_checkins inserts';
+
+-- No backfill here: MoodAggregateService builds a user's row from history on first read, and its
+-- nightly rebuild job fills in the rest. The rebuild SQL lives only in UserMoodAggregateRepository.
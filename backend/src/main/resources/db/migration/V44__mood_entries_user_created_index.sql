@@ -0,0 +1,6 @@
+-- Supports the unified mood timeline query:
+-- SELECT ... FROM mood_entries WHERE user_id = ? AND created_at > ? ORDER BY created_at DESC
+-- (mood_checkins already has idx_mood_checkins_user_created)
+CREATE INDEX IF NOT EXISTS idx_mood_entries_user_created ON mood_entries(user_id, created_at DESC);
+
+ANALYZE mood_entries;
@@ -0,0 +1,64 @@
+-- Daily activity rollups for the admin analytics endpoints.
+-- A scheduled job (AnalyticsRollupService) closes off each UTC day; only days after the
+-- last closed day are computed live from audit_logs / mood_entries.
+
+-- One row per user per active day (distinct active users over a range)
+CREATE TABLE daily_user_activity (
+    day DATE NOT NULL,
+    user_id UUID NOT NULL,
+    event_count INTEGER NOT NULL,
+    PRIMARY KEY (day, user_id)
+);
+
+-- Events and distinct users per action type per day (AI usage = CHAT_SENT)
+CREATE TABLE daily_action_counts (
+    day DATE NOT NULL,
+    action_type VARCHAR(100) NOT NULL,
+    event_count BIGINT NOT NULL,
+    user_count INTEGER NOT NULL,
+    PRIMARY KEY (day, action_type)
+);
+
+-- Mood entry totals per day; average = mood_sum / entry_count
+CREATE TABLE daily_mood_stats (
+    day DATE PRIMARY KEY,
+    entry_count BIGINT NOT NULL,
+    mood_sum BIGINT NOT NULL,
+    user_count INTEGER NOT NULL
+);
+
+-- Days whose rollups are final; readers use MAX(day) as the closed-through watermark
+CREATE TABLE analytics_rollup_days (
+    day DATE PRIMARY KEY,
+    closed_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+-- Backfill every completed UTC day
+INSERT INTO daily_user_activity (day, user_id, event_count)
+SELECT (a.created_at AT TIME ZONE 'UTC')::date, a.user_id, COUNT(*)
+FROM audit_logs a
+WHERE a.created_at < (NOW() AT TIME ZONE 'UTC')::date
+GROUP BY 1, 2;
+
+INSERT INTO daily_action_counts (day, action_type, event_count, user_count)
+SELECT (a.created_at AT TIME ZONE 'UTC')::date, a.action_type, COUNT(*), COUNT(DISTINCT a.user_id)
+FROM audit_logs a
+WHERE a.created_at < (NOW() AT TIME ZONE 'UTC')::date
+GROUP BY 1, 2;
+
+INSERT INTO daily_mood_stats (day, entry_count, mood_sum, user_count)
+SELECT m.created_at::date, COUNT(*), SUM(m.mood_value), COUNT(DISTINCT m.user_id)
+FROM mood_entries m
+WHERE m.created_at < (NOW() AT TIME ZONE 'UTC')::date
+GROUP BY 1;
+
+INSERT INTO analytics_rollup_days (day)
+SELECT day FROM daily_user_activity
+UNION
+SELECT day FROM daily_mood_stats
+UNION
+SELECT (NOW() AT TIME ZONE 'UTC')::date - 1;
+
+ANALYZE daily_user_activity;
+ANALYZE daily_action_counts;
+ANALYZE daily_mood_stats;
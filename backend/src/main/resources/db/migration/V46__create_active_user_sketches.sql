@@ -0,0 +1,9 @@
+-- Per-day HyperLogLog sketches of active users (see com.mindease.shared.util.HyperLogLog).
+-- Merged in from the audit write path by ActiveUserSketchService and rebuilt exactly from
+-- daily_user_activity when AnalyticsRollupService closes a day. Dense p=14 sketches are
+-- ~16 KB; low-cardinality days are mostly zero registers and compress well under TOAST.
+CREATE TABLE daily_active_user_sketches (
+    day DATE PRIMARY KEY,
+    sketch BYTEA NOT NULL,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
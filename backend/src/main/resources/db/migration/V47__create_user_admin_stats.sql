@@ -0,0 +1,32 @@
+-- Denormalized per-user stats for the admin user listing, so status filtering
+-- (active = seen in the last 30 days), sorting, search and pagination run as one
+-- indexed query instead of enriching every user in Java.
+-- Maintained by UserService.trackUserActivity, the audit writer and CrisisFlaggingService.
+CREATE TABLE user_admin_stats (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    last_active_at TIMESTAMPTZ,
+    crisis_flag_count INTEGER NOT NULL DEFAULT 0
+);
+
+CREATE INDEX idx_user_admin_stats_last_active ON user_admin_stats (last_active_at DESC NULLS LAST);
+CREATE INDEX idx_user_admin_stats_crisis_count ON user_admin_stats (crisis_flag_count DESC);
+
+-- Listing order and the default filter
+CREATE INDEX IF NOT EXISTS idx_users_live_created_at ON users (created_at DESC) WHERE deleted_at IS NULL;
+
+INSERT INTO user_admin_stats (user_id, last_active_at, crisis_flag_count)
+SELECT u.id,
+       NULLIF(GREATEST(COALESCE(a.last_audit, '-infinity'::timestamptz),
+                       COALESCE(ua.last_active_at::timestamptz, '-infinity'::timestamptz)),
+              '-infinity'::timestamptz),
+       COALESCE(c.flags, 0)
+FROM users u
+LEFT JOIN (
+    SELECT user_id, MAX(created_at) AS last_audit FROM audit_logs GROUP BY user_id
+) a ON a.user_id = u.id
+LEFT JOIN user_activity ua ON ua.user_id = u.id
+LEFT JOIN (
+    SELECT user_id, COUNT(*) AS flags FROM crisis_flags GROUP BY user_id
+) c ON c.user_id = u.id;
+
+ANALYZE user_admin_stats;
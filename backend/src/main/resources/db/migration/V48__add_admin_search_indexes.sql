@@ -0,0 +1,13 @@
+-- Index-backed admin search.
+-- Users: trigram GIN over the lower-cased email serves both LIKE '%x%' (listUsers)
+-- and similarity ranking with the % operator (/users/search).
+-- Audit logs: full-text GIN over details; queries must use the same expression.
+-- pg_trgm is a trusted extension (PostgreSQL 13+), so the database owner can create it.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_users_email_trgm
+    ON users USING gin (LOWER(email) gin_trgm_ops)
+    WHERE deleted_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_audit_logs_details_fts
+    ON audit_logs USING gin (to_tsvector('simple', COALESCE(details, '')));
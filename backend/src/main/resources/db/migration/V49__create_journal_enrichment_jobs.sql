@@ -0,0 +1,19 @@
+-- Durable queue for journal AI enrichment (summary + mood insight), drained by
+-- JournalEnrichmentService. One row per entry; the row is deleted once the entry is
+-- enriched. Workers claim due rows with FOR UPDATE SKIP LOCKED and hold a lease
+-- (locked_until) so a job whose worker died is picked up again after the lease expires.
+-- Rows that exhaust their attempts stay as FAILED for inspection.
+CREATE TABLE journal_enrichment_jobs (
+    journal_entry_id UUID PRIMARY KEY REFERENCES journal_entries(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMPTZ,
+    last_error TEXT,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_journal_enrichment_jobs_due ON journal_enrichment_jobs (status, next_attempt_at);
+CREATE INDEX idx_journal_enrichment_jobs_user ON journal_enrichment_jobs (user_id) WHERE status <> 'FAILED';
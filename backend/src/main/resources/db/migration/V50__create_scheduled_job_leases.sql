@@ -0,0 +1,17 @@
+-- Cluster-wide leases for scheduled jobs (ClusterJobRunner). One row per job shard; a node
+-- runs a shard only while it holds the lease (owner + locked_until), so a job scheduled on
+-- every node runs once per tick. checkpoint is opaque to the runner: jobs save their progress
+-- there and a run that died resumes from it. The last_* columns describe the latest run.
+CREATE TABLE scheduled_job_leases (
+    job_name VARCHAR(100) NOT NULL,
+    shard INTEGER NOT NULL DEFAULT 0,
+    owner VARCHAR(200),
+    locked_until TIMESTAMPTZ,
+    checkpoint TEXT,
+    last_started_at TIMESTAMPTZ,
+    last_finished_at TIMESTAMPTZ,
+    last_status VARCHAR(16),
+    last_rows BIGINT,
+    last_error TEXT,
+    PRIMARY KEY (job_name, shard)
+);
@@ -0,0 +1,3 @@
+-- Keyset scans of anonymous users for the retention purge (RetentionPurgeRepository) walk
+-- only anonymous rows in id order instead of the whole users primary key.
+CREATE INDEX IF NOT EXISTS idx_users_anonymous_id ON users (id) WHERE anonymous_mode = TRUE;
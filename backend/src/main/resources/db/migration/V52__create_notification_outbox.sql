@@ -0,0 +1,29 @@
+-- Outbox for outbound email and push notifications, drained by NotificationOutboxDispatcher.
+-- Rows are written in the transaction that decides to notify, so a rolled-back request sends
+-- nothing and a committed one is delivered even if the node dies right after. Dispatchers claim
+-- due rows per channel with FOR UPDATE SKIP LOCKED under a lease (locked_until), like
+-- journal_enrichment_jobs. Delivered rows are kept for a few days as a delivery log.
+CREATE TABLE notification_outbox (
+    id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    channel VARCHAR(16) NOT NULL, -- EMAIL or PUSH
+    recipient TEXT NOT NULL, -- email address or FCM registration token
+    user_id UUID REFERENCES users(id) ON DELETE CASCADE,
+    notification_id UUID REFERENCES notifications(id) ON DELETE CASCADE,
+    subject TEXT,
+    body TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    locked_until TIMESTAMPTZ,
+    last_error TEXT,
+    sent_at TIMESTAMPTZ,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT NOW(),
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_notification_outbox_due ON notification_outbox (channel, next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX idx_notification_outbox_sent ON notification_outbox (sent_at) WHERE status = 'SENT';
+-- A stored notification is queued at most once per channel
+CREATE UNIQUE INDEX uq_notification_outbox_notification ON notification_outbox (notification_id, channel)
+    WHERE notification_id IS NOT NULL;
@@ -0,0 +1,52 @@
+-- Per-user unread notification counter, so the unread badge is a primary-key read instead of
+-- a COUNT over notifications. It is kept in step by statement-level triggers on notifications,
+-- which cover every writer: JPA, bulk INSERT ... SELECT reminders, the Python background jobs
+-- and cascading deletes. The counter row update happens in the writer's transaction, so the
+-- count commits or rolls back with the change and concurrent writers for one user serialize on
+-- that row.
+CREATE TABLE notification_unread_counts (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    unread_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMPTZ NOT NULL DEFAULT NOW()
+);
+
+INSERT INTO notification_unread_counts (user_id, unread_count)
+SELECT user_id, COUNT(*) FROM notifications WHERE is_read = FALSE GROUP BY user_id;
+
+CREATE OR REPLACE FUNCTION notification_unread_counts_apply() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP = 'INSERT' THEN
+        INSERT INTO notification_unread_counts AS c (user_id, unread_count)
+        SELECT user_id, COUNT(*) FROM new_rows WHERE is_read = FALSE GROUP BY user_id
+        ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = c.unread_count + EXCLUDED.unread_count, updated_at = NOW();
+    ELSIF TG_OP = 'DELETE' THEN
+        UPDATE notification_unread_counts c
+        SET unread_count = GREATEST(0, c.unread_count - d.n), updated_at = NOW()
+        FROM (SELECT user_id, COUNT(*) AS n FROM old_rows WHERE is_read = FALSE GROUP BY user_id) d
+        WHERE c.user_id = d.user_id;
+    ELSE
+        -- Only read-state flips change the count. A row is missing only while the user has
+        -- no unread notifications, so the first flip to unread creates it.
+        INSERT INTO notification_unread_counts AS c (user_id, unread_count)
+        SELECT n.user_id, SUM(CASE WHEN n.is_read THEN -1 ELSE 1 END)
+        FROM new_rows n JOIN old_rows o ON o.id = n.id
+        WHERE n.is_read IS DISTINCT FROM o.is_read
+        GROUP BY n.user_id
+        ON CONFLICT (user_id) DO UPDATE
+            SET unread_count = GREATEST(0, c.unread_count + EXCLUDED.unread_count), updated_at = NOW();
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Transition tables need one trigger per event
+CREATE TRIGGER notifications_unread_insert
+    AFTER INSERT ON notifications REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notification_unread_counts_apply();
+CREATE TRIGGER notifications_unread_update
+    AFTER UPDATE ON notifications REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notification_unread_counts_apply();
+CREATE TRIGGER notifications_unread_delete
+    AFTER DELETE ON notifications REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION notification_unread_counts_apply();
@@ -0,0 +1,15 @@
+-- Per-user mindfulness activity calendar. Bit i of active_days (LSB first within each byte)
+-- is set when the user completed a session on day start_day + i, where days are counted as
+-- epoch days (days since 1970-01-01). Streak counters are maintained on each completion so
+-- streak reads never touch mindfulness_session_activities. Rows are created on a user's first
+-- completion or first streak read; users with history before this migration get their row
+-- built once from their distinct completion dates at that point.
+CREATE TABLE mindfulness_activity_calendars (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    start_day INTEGER,
+    active_days BYTEA NOT NULL DEFAULT ''::bytea,
+    last_active_day INTEGER,
+    current_streak INTEGER NOT NULL DEFAULT 0,
+    longest_streak INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,13 @@
+-- Precomputed mindfulness recommendations, one row per user. Each list holds session ids in
+-- display order; sessions are resolved against the in-memory catalog when served. Rows are
+-- recomputed after the user logs a mood, completes a session or changes preferences, and when
+-- the catalog they were computed from (catalog_etag) has changed.
+CREATE TABLE user_mindfulness_recommendations (
+    user_id UUID PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    mood_based UUID[] NOT NULL DEFAULT '{}',
+    continue_journey UUID[] NOT NULL DEFAULT '{}',
+    similar_sessions UUID[] NOT NULL DEFAULT '{}',
+    recommended_for_you UUID[] NOT NULL DEFAULT '{}',
+    catalog_etag VARCHAR(64),
+    computed_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,4 @@
+-- When the retention purge last removed an anonymous user's data. Users with audit logs keep
+-- their row after a purge; the purge skips them until a full retention period has passed
+-- instead of re-scanning them on every run.
+ALTER TABLE users ADD COLUMN retention_purged_at TIMESTAMP;
@@ -0,0 +1,52 @@
+package com.mindease.admin.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AnalyticsRepositorySplitTest {
+
+    private static final OffsetDateTime NOW = OffsetDateTime.parse("2025-03-10T09:30:00Z");
+
+    @Test
+    void partialFirstDayIsReadLiveNotFromItsRollup() {
+        OffsetDateTime from = NOW.minusDays(7);
+
+        var split = AnalyticsRepository.split(from, NOW, LocalDate.of(2025, 3, 9));
+
+        assertThat(split.closedFrom()).isEqualTo(LocalDate.of(2025, 3, 4));
+        assertThat(split.closedTo()).isEqualTo(LocalDate.of(2025, 3, 9));
+        assertThat(split.closedStart()).isEqualTo(OffsetDateTime.parse("2025-03-04T00:00:00Z"));
+        assertThat(split.closedEnd()).isEqualTo(OffsetDateTime.parse("2025-03-10T00:00:00Z"));
+        assertThat(split.fromDay()).isEqualTo(LocalDate.of(2025, 3, 3));
+    }
+
+    @Test
+    void midDayEndOnAClosedDayIsReadLive() {
+        OffsetDateTime from = OffsetDateTime.parse("2025-03-01T00:00:00Z");
+        OffsetDateTime to = OffsetDateTime.parse("2025-03-05T12:00:00Z");
+
+        var split = AnalyticsRepository.split(from, to, LocalDate.of(2025, 3, 9));
+
+        assertThat(split.closedFrom()).isEqualTo(LocalDate.of(2025, 3, 1));
+        assertThat(split.closedTo()).isEqualTo(LocalDate.of(2025, 3, 4));
+        assertThat(split.closedEnd()).isEqualTo(OffsetDateTime.parse("2025-03-05T00:00:00Z"));
+    }
+
+    @Test
+    void rangeWithoutAWholeClosedDayIsReadLive() {
+        var split = AnalyticsRepository.split(NOW.minusHours(20), NOW, LocalDate.of(2025, 3, 9));
+
+        assertThat(split.hasClosed()).isFalse();
+        assertThat(split.closedStart()).isEqualTo(NOW);
+        assertThat(split.closedEnd()).isEqualTo(NOW);
+    }
+
+    @Test
+    void nothingClosedYetIsReadLive() {
+        assertThat(AnalyticsRepository.split(NOW.minusDays(30), NOW, null).hasClosed()).isFalse();
+    }
+}
@@ -0,0 +1,88 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.repository.ActiveUserSketchRepository;
+import com.mindease.admin.repository.AnalyticsRollupRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnalyticsRollupServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T00:10:00Z"), ZoneOffset.UTC);
+
+    private final AnalyticsRollupRepository repo = mock(AnalyticsRollupRepository.class);
+    private final ActiveUserSketchService sketches = mock(ActiveUserSketchService.class);
+    private final ActiveUserSketchRepository sketchRepo = mock(ActiveUserSketchRepository.class);
+
+    private AnalyticsRollupService service(int recloseDays) {
+        return new AnalyticsRollupService(repo, sketches, sketchRepo, mock(ClusterJobRunner.class), recloseDays,
+                CLOCK);
+    }
+
+    @Test
+    void closesFromWatermarkMinusRecloseThroughYesterday() {
+        when(repo.lastClosedDay()).thenReturn(LocalDate.of(2025, 3, 7));
+
+        int closed = service(1).closeCompletedDays();
+
+        assertEquals(3, closed);
+        var order = inOrder(repo);
+        order.verify(repo).closeDay(LocalDate.of(2025, 3, 7));
+        order.verify(repo).closeDay(LocalDate.of(2025, 3, 8));
+        order.verify(repo).closeDay(LocalDate.of(2025, 3, 9));
+        verify(repo, never()).closeDay(LocalDate.of(2025, 3, 10));
+        verify(sketches).rebuildDay(LocalDate.of(2025, 3, 9));
+    }
+
+    @Test
+    void backfillsMissingSketchesForClosedDays() {
+        when(repo.lastClosedDay()).thenReturn(LocalDate.of(2025, 3, 9));
+        when(sketchRepo.closedDaysWithoutSketch()).thenReturn(List.of(LocalDate.of(2025, 1, 1)));
+
+        service(0).closeCompletedDays();
+
+        verify(sketches).rebuildDay(LocalDate.of(2025, 1, 1));
+    }
+
+    @Test
+    void backfillsFromEarliestActivityWhenNothingClosed() {
+        when(repo.lastClosedDay()).thenReturn(null);
+        when(repo.earliestActivityDay()).thenReturn(LocalDate.of(2025, 3, 5));
+
+        assertEquals(5, service(1).closeCompletedDays());
+        verify(repo).closeDay(LocalDate.of(2025, 3, 5));
+        verify(repo).closeDay(LocalDate.of(2025, 3, 9));
+    }
+
+    @Test
+    void stopsAtFirstFailureSoNoDayIsSkipped() {
+        when(repo.lastClosedDay()).thenReturn(LocalDate.of(2025, 3, 6));
+        doThrow(new RuntimeException("db down")).when(repo).closeDay(LocalDate.of(2025, 3, 8));
+
+        assertEquals(1, service(0).closeCompletedDays());
+        verify(repo).closeDay(LocalDate.of(2025, 3, 7));
+        verify(repo, never()).closeDay(LocalDate.of(2025, 3, 9));
+    }
+
+    @Test
+    void nothingToDoWhenAlreadyClosedAndNoReclose() {
+        when(repo.lastClosedDay()).thenReturn(LocalDate.of(2025, 3, 9));
+
+        assertEquals(0, service(0).closeCompletedDays());
+        verify(repo, never()).closeDay(any());
+    }
+}
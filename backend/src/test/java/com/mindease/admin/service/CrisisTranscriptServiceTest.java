@@ -0,0 +1,110 @@
+package com.mindease.admin.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindease.admin.dto.TranscriptMessage;
+import com.mindease.admin.dto.TranscriptWindow;
+import com.mindease.admin.repository.TranscriptRepository;
+import com.mindease.crisis.model.CrisisFlag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CrisisTranscriptServiceTest {
+
+    private static final UUID CHAT = UUID.randomUUID();
+    private static final LocalDateTime T0 = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private final TranscriptRepository repo = mock(TranscriptRepository.class);
+    private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+    private final CrisisTranscriptService service = new CrisisTranscriptService(repo, mapper, 2, 3, 2);
+
+    private static TranscriptMessage message(int minute) {
+        return new TranscriptMessage(UUID.randomUUID(), "m" + minute, minute % 2 == 0 ? "user" : "bot",
+                T0.plusMinutes(minute));
+    }
+
+    private static CrisisFlag flag() {
+        CrisisFlag flag = new CrisisFlag();
+        flag.setChatId(CHAT);
+        ReflectionTestUtils.setField(flag, "createdAt", OffsetDateTime.now(ZoneOffset.UTC));
+        return flag;
+    }
+
+    @Test
+    void windowIsOrderedAroundAnchorAndReportsMore() {
+        TranscriptMessage anchor = message(10);
+        when(repo.findAnchor(eq(CHAT), any())).thenReturn(anchor);
+        // newest first, one more than requested
+        when(repo.findBefore(CHAT, anchor.createdAt(), anchor.id(), 3))
+                .thenReturn(List.of(message(9), message(8), message(7)));
+        when(repo.findAfter(CHAT, anchor.createdAt(), anchor.id(), 3))
+                .thenReturn(List.of(message(11)));
+
+        TranscriptWindow window = service.window(flag(), null, 2);
+
+        assertThat(window.anchorMessageId()).isEqualTo(anchor.id());
+        assertThat(window.messages()).extracting(TranscriptMessage::content)
+                .containsExactly("m8", "m9", "m10", "m11");
+        assertThat(window.hasEarlier()).isTrue();
+        assertThat(window.hasLater()).isFalse();
+    }
+
+    @Test
+    void windowSizesAreCappedAndEmptySessionsHaveNoAnchor() {
+        TranscriptMessage anchor = message(0);
+        when(repo.findAnchor(eq(CHAT), any())).thenReturn(anchor);
+        when(repo.findBefore(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(repo.findAfter(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        service.window(flag(), 1000, -5);
+
+        verify(repo).findBefore(CHAT, anchor.createdAt(), anchor.id(), 4);
+        verify(repo).findAfter(CHAT, anchor.createdAt(), anchor.id(), 1);
+
+        when(repo.findAnchor(eq(CHAT), any())).thenReturn(null);
+        TranscriptWindow empty = service.window(flag(), null, null);
+        assertThat(empty.anchorMessageId()).isNull();
+        assertThat(empty.messages()).isEmpty();
+    }
+
+    @Test
+    void streamWalksKeysetChunksAndEmitsResumableCursors() throws Exception {
+        List<TranscriptMessage> all = List.of(message(0), message(1), message(2), message(3), message(4));
+        when(repo.findAfter(eq(CHAT), isNull(), isNull(), eq(2))).thenReturn(all.subList(0, 2));
+        when(repo.findAfter(CHAT, all.get(1).createdAt(), all.get(1).id(), 2)).thenReturn(all.subList(2, 4));
+        when(repo.findAfter(CHAT, all.get(3).createdAt(), all.get(3).id(), 2)).thenReturn(all.subList(4, 5));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = service.stream(flag(), null, out);
+
+        assertThat(written).isEqualTo(5);
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : out.toString(StandardCharsets.UTF_8).split("\n")) {
+            lines.add(mapper.readTree(line));
+        }
+        assertThat(lines).extracting(n -> n.get("content").asText()).containsExactly("m0", "m1", "m2", "m3", "m4");
+
+        // Resuming from the second line's cursor continues after it
+        when(repo.findAfter(CHAT, all.get(1).createdAt(), all.get(1).id(), 2)).thenReturn(List.of());
+        service.stream(flag(), lines.get(1).get("cursor").asText(), new ByteArrayOutputStream());
+        verify(repo, org.mockito.Mockito.times(2)).findAfter(CHAT, all.get(1).createdAt(), all.get(1).id(), 2);
+    }
+}
@@ -0,0 +1,143 @@
+package com.mindease.admin.service;
+
+import com.mindease.admin.dto.ActiveUsersPoint;
+import com.mindease.admin.dto.DashboardSnapshot;
+import com.mindease.admin.repository.AnalyticsRepository;
+import com.mindease.crisis.model.CrisisFlag;
+import com.mindease.crisis.repository.CrisisFlagRepository;
+import com.mindease.shared.events.CrisisFlagCreatedEvent;
+import com.mindease.shared.service.PythonAnalyticsServiceClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DashboardSnapshotServiceTest {
+
+    private static final Clock CLOCK = Clock.fixed(Instant.parse("2025-03-10T12:00:00Z"), ZoneOffset.UTC);
+    private static final int QUERIES = 8;
+
+    private final AnalyticsRepository analytics = mock(AnalyticsRepository.class);
+    private final CrisisFlagRepository crisisFlags = mock(CrisisFlagRepository.class);
+    private final PythonAnalyticsServiceClient python = mock(PythonAnalyticsServiceClient.class);
+    private final ExecutorService pool = Executors.newFixedThreadPool(QUERIES);
+
+    private DashboardSnapshotService service(long maxAgeMs) {
+        return new DashboardSnapshotService(analytics, crisisFlags, python, maxAgeMs, pool, CLOCK);
+    }
+
+    /** Every sub-query waits until all of them have started, so this only completes if they run in parallel. */
+    private void stubAllQueries(CountDownLatch allStarted, AtomicInteger activeUsersValue) {
+        Answer<Object> barrier = inv -> {
+            allStarted.countDown();
+            assertThat(allStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return null;
+        };
+        when(analytics.dailyActiveUsers(any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return List.of(new ActiveUsersPoint(LocalDate.of(2025, 3, 10), activeUsersValue.get()));
+        });
+        when(analytics.dailyAiUsage(any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return List.of();
+        });
+        when(python.countUsersCreatedBetween(any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return 3L;
+        });
+        when(crisisFlags.countByCreatedAtBetween(any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return 1L;
+        });
+        when(crisisFlags.aggregateCrisisFlagsByDay(any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return List.<Object[]>of(new Object[] { LocalDate.of(2025, 3, 9), 2L });
+        });
+        when(crisisFlags.findTopKeywords(any(), any(), any())).thenAnswer(inv -> {
+            barrier.answer(inv);
+            return List.of();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentMissesShareOneParallelRefresh() throws Exception {
+        stubAllQueries(new CountDownLatch(QUERIES), new AtomicInteger(5));
+        DashboardSnapshotService service = service(300_000);
+
+        ExecutorService readers = Executors.newFixedThreadPool(6);
+        List<Future<DashboardSnapshot>> reads = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            reads.add(readers.submit(service::snapshot));
+        }
+        for (Future<DashboardSnapshot> read : reads) {
+            DashboardSnapshot snapshot = read.get(10, TimeUnit.SECONDS);
+            assertThat(snapshot.overview().activeUsers()).isEqualTo(5);
+            assertThat(snapshot.overview().signupsToday()).isEqualTo(3);
+            assertThat(snapshot.crisisHeatmap()).hasSize(1);
+        }
+        readers.shutdown();
+
+        verify(analytics, times(1)).dailyActiveUsers(any(), any());
+        verify(crisisFlags, times(2)).countByCreatedAtBetween(any(), any());
+    }
+
+    @Test
+    void failedRefreshKeepsServingPreviousSnapshot() throws Exception {
+        stubAllQueries(new CountDownLatch(QUERIES), new AtomicInteger(5));
+        DashboardSnapshotService service = service(0);
+        DashboardSnapshot first = service.snapshot();
+
+        when(crisisFlags.findTopKeywords(any(), any(), any())).thenThrow(new IllegalStateException("db down"));
+
+        // max-age 0: the read tries to refresh, fails, and falls back
+        assertThat(service.snapshot()).isSameAs(first);
+    }
+
+    @Test
+    void flagDuringRefreshTriggersOneMoreRefresh() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger activeUsers = new AtomicInteger(1);
+        stubAllQueries(new CountDownLatch(0), activeUsers);
+        when(crisisFlags.findTopKeywords(any(), any(), any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+        DashboardSnapshotService service = service(300_000);
+
+        var firstRefresh = service.refresh();
+        service.onNewFlag(new CrisisFlagCreatedEvent(new CrisisFlag()));
+        activeUsers.set(2);
+        release.countDown();
+        firstRefresh.get(5, TimeUnit.SECONDS);
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (service.snapshot().overview().activeUsers() != 2 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.snapshot().overview().activeUsers()).isEqualTo(2);
+    }
+}
@@ -0,0 +1,160 @@
+package com.mindease.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.mindease.chat.service.ChatTurnEventLogger;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chat-turn logging throughput: the previous per-step INFO/DEBUG profile with
+ * synchronous appenders versus the production profile (bounded async appender,
+ * one sampled chat_turn event).
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mindease.benchmark.ChatTurnLoggingBenchmark}
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+@State(Scope.Benchmark)
+public class ChatTurnLoggingBenchmark {
+
+    private static final String MESSAGE = "I have an exam tomorrow and I can't stop thinking about failing it.";
+
+    @Param({ "current", "production" })
+    public String profile;
+
+    private org.slf4j.Logger controllerLog;
+    private org.slf4j.Logger providerLog;
+    private ChatTurnEventLogger turnLogger;
+    private File logFile;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setUp() throws IOException {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        context.reset();
+
+        logFile = File.createTempFile("chat-turn-benchmark", ".log");
+        logFile.deleteOnExit();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %-5level [%thread] %logger{36} - %msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setName("FILE");
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.setImmediateFlush(!"production".equals(profile));
+        file.start();
+
+        Appender<ILoggingEvent> root = file;
+        Logger rootLogger = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        if ("production".equals(profile)) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setName("ASYNC_FILE");
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1638);
+            async.setNeverBlock(true);
+            async.setIncludeCallerData(false);
+            async.addAppender(file);
+            async.start();
+            root = async;
+            rootLogger.setLevel(Level.INFO);
+            turnLogger = new ChatTurnEventLogger(0.1);
+        } else {
+            rootLogger.setLevel(Level.DEBUG);
+            turnLogger = new ChatTurnEventLogger(1.0);
+        }
+        rootLogger.addAppender(root);
+
+        controllerLog = LoggerFactory.getLogger("com.mindease.chat.controller.ChatApiController");
+        providerLog = LoggerFactory.getLogger("com.mindease.chat.service.AIProviderManager");
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDown() {
+        ((LoggerContext) LoggerFactory.getILoggerFactory()).stop();
+    }
+
+    @Benchmark
+    public void chatTurn() {
+        UUID userId = UUID.randomUUID();
+        UUID sessionId = UUID.randomUUID();
+        Map<String, Object> payload = payload(sessionId, MESSAGE);
+
+        if ("production".equals(profile)) {
+            ChatTurnEventLogger.Turn turn = turnLogger.start().messageLength(MESSAGE);
+            turn.userId(userId).sessionId(sessionId).crisis(false).historySize(12).provider("openai");
+            providerLog.debug("Selected AI provider: {}", "OPENAI");
+            turnLogger.finish(turn, "ok");
+            return;
+        }
+
+        // Mirrors the per-step logging the chat send path used to do on every turn
+        controllerLog.info("=== INCOMING MESSAGE REQUEST ===");
+        controllerLog.info("Message: {}", MESSAGE);
+        controllerLog.info("SessionId: {}", sessionId);
+        controllerLog.info("Authentication: {}", "student@example.com");
+        controllerLog.info("Processing message for user ID: {}", userId);
+        controllerLog.info("Crisis detection result: {}", false);
+        controllerLog.info("Free daily usage: userId={}, sentToday={}, limit={}", userId, 3, 20);
+        controllerLog.info("Saved user message with ID: {}", UUID.randomUUID());
+        controllerLog.info("Sending user message to topic: {}", "/topic/user/" + userId);
+        controllerLog.info("User message payload: {}", payload);
+        controllerLog.debug("Sent typing start event to: {}", "/topic/user/" + userId + "/typing");
+        controllerLog.info("Generating AI response with {} history messages...", 12);
+        controllerLog.info("User preferred language: {}", "en");
+        providerLog.info("Selected AI provider: {}", "OPENAI");
+        controllerLog.info("Generated AI response using provider: {}", "openai");
+        controllerLog.info("Generated AI response: {}", MESSAGE);
+        controllerLog.info("Saved bot message with ID: {}", UUID.randomUUID());
+        controllerLog.info("Sending bot message to topic: {}", "/topic/user/" + userId);
+        controllerLog.info("Bot message payload: {}", payload);
+        controllerLog.debug("Sent typing stop event to: {}", "/topic/user/" + userId + "/typing");
+        controllerLog.info("=== MESSAGE PROCESSING COMPLETED SUCCESSFULLY ===");
+    }
+
+    private static Map<String, Object> payload(UUID sessionId, String content) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("id", UUID.randomUUID().toString());
+        payload.put("content", content);
+        payload.put("isUserMessage", true);
+        payload.put("isCrisisFlagged", false);
+        payload.put("sender", "user");
+        payload.put("type", "message");
+        payload.put("sessionId", sessionId.toString());
+        return payload;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ChatTurnLoggingBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
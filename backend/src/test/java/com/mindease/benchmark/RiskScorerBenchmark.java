@@ -0,0 +1,71 @@
+package com.mindease.benchmark;
+
+import com.mindease.crisis.service.CrisisKeywordDetector;
+import com.mindease.crisis.service.LinearRiskScorer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-message cost of the in-process risk model next to the keyword regex it
+ * runs alongside. Run with {@code -prof gc} to confirm scoring allocates
+ * nothing beyond the boxed result of {@code score()}.
+ *
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.mindease.benchmark.RiskScorerBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RiskScorerBenchmark {
+
+    @Param({
+            "I keep thinking about ending it all and I don't know who to talk to.",
+            "I have an exam tomorrow and I can't stop thinking about failing it, my parents will be so disappointed "
+                    + "and I haven't slept properly in days because of everything going on at home and work."
+    })
+    public String message;
+
+    private LinearRiskScorer scorer;
+    private CrisisKeywordDetector detector;
+
+    @Setup
+    public void setUp() throws IOException {
+        try (InputStream in = RiskScorerBenchmark.class.getResourceAsStream("/models/crisis-risk-model.txt")) {
+            scorer = LinearRiskScorer.fromStream(in);
+        }
+        detector = new CrisisKeywordDetector();
+    }
+
+    @Benchmark
+    public double modelProbability() {
+        return scorer.probability(message);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public double modelProbabilityContended() {
+        return scorer.probability(message);
+    }
+
+    @Benchmark
+    public String keywordDetector() {
+        return detector.detectKeyword(message);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RiskScorerBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,53 @@
+package com.mindease.chat.service;
+
+import com.mindease.crisis.model.RiskLevel;
+import com.mindease.crisis.repository.CrisisResourceRepository;
+import com.mindease.crisis.service.RiskScorer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SafetyClassificationModelTest {
+
+    @Mock
+    private CrisisResourceRepository crisisResourceRepository;
+
+    @Mock
+    private RiskScorer riskScorer;
+
+    @InjectMocks
+    private SafetyClassificationService service;
+
+    @Test
+    void modelAloneStopsAtMedium() {
+        when(riskScorer.score(anyString())).thenReturn(Optional.of(0.97));
+
+        assertThat(service.classifyMessage("I keep thinking about the bridge", List.of()))
+                .isEqualTo(RiskLevel.MEDIUM);
+    }
+
+    @Test
+    void modelRaisesAKeywordHitToHigh() {
+        when(riskScorer.score(anyString())).thenReturn(Optional.of(0.97));
+
+        assertThat(service.classifyMessage("I feel hopeless about the bridge", List.of()))
+                .isEqualTo(RiskLevel.HIGH);
+    }
+
+    @Test
+    void lowModelScoreKeepsTheKeywordLevel() {
+        when(riskScorer.score(anyString())).thenReturn(Optional.of(0.1));
+
+        assertThat(service.classifyMessage("I feel hopeless", List.of())).isEqualTo(RiskLevel.LOW);
+    }
+}
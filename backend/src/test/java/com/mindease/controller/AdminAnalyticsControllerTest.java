@@ -5,6 +5,11 @@ import com.mindease.admin.dto.ActiveUsersPoint;
 import com.mindease.admin.dto.AiUsagePoint;
 import com.mindease.mood.dto.MoodCorrelationPoint;
 import com.mindease.admin.repository.AnalyticsRepository;
+import com.mindease.admin.service.ActiveUserSketchService;
+import com.mindease.admin.service.AnalyticsExportService;
+import com.mindease.admin.service.DashboardSnapshotService;
+import com.mindease.crisis.repository.CrisisFlagRepository;
+import com.mindease.shared.service.PythonAnalyticsServiceClient;
 import com.mindease.shared.config.MethodSecurityConfig;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -33,6 +38,21 @@ class AdminAnalyticsControllerTest {
     @MockBean
     AnalyticsRepository analytics;
 
+    @MockBean
+    CrisisFlagRepository crisisFlags;
+
+    @MockBean
+    PythonAnalyticsServiceClient pythonAnalytics;
+
+    @MockBean
+    ActiveUserSketchService activeUserSketches;
+
+    @MockBean
+    AnalyticsExportService analyticsExport;
+
+    @MockBean
+    DashboardSnapshotService dashboardSnapshots;
+
     @Test
     @WithMockUser(roles = "ADMIN")
     void activeUsersOk() throws Exception {
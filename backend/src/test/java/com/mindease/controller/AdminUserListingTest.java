@@ -0,0 +1,118 @@
+package com.mindease.controller;
+
+import com.mindease.admin.controller.AdminManagementController;
+import com.mindease.admin.dto.KeysetPage;
+import com.mindease.admin.dto.UserAdminSummary;
+import com.mindease.admin.model.UserAdminStats;
+import com.mindease.admin.repository.AdminSettingsRepository;
+import com.mindease.admin.repository.AuditLogRepository;
+import com.mindease.admin.repository.ContentRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
+import com.mindease.admin.service.AuditService;
+import com.mindease.auth.model.User;
+import com.mindease.auth.repository.UserRepository;
+import com.mindease.crisis.repository.CrisisFlagRepository;
+import com.mindease.subscription.repository.SubscriptionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class AdminUserListingTest {
+
+    private UserRepository users;
+    private AuditLogRepository audits;
+    private CrisisFlagRepository flags;
+    private UserAdminStatsRepository stats;
+    private AdminManagementController controller;
+
+    @BeforeEach
+    void setUp() {
+        users = mock(UserRepository.class);
+        audits = mock(AuditLogRepository.class);
+        flags = mock(CrisisFlagRepository.class);
+        stats = mock(UserAdminStatsRepository.class);
+        controller = new AdminManagementController(users, audits, flags, mock(SubscriptionRepository.class),
+                mock(AuditService.class), mock(ContentRepository.class), mock(AdminSettingsRepository.class), stats,
+                mock(ApplicationEventPublisher.class));
+    }
+
+    private static User user(String email) {
+        User u = new User();
+        u.setId(UUID.randomUUID());
+        u.setEmail(email);
+        return u;
+    }
+
+    @Test
+    void activeFilterIsOneStatsQueryAndOnlyThePageIsLoaded() {
+        User alice = user("alice@example.com");
+        User bob = user("bob@example.com");
+        OffsetDateTime recent = OffsetDateTime.now(ZoneOffset.UTC).minusDays(1);
+        when(stats.findPage(eq("ex"), eq("active"), eq("lastActive"), any(), any(Pageable.class)))
+                .thenAnswer(inv -> {
+                    Pageable pageable = inv.getArgument(4);
+                    assertThat(pageable.getPageNumber()).isEqualTo(2);
+                    assertThat(pageable.getPageSize()).isEqualTo(2);
+                    return new PageImpl<>(List.of(
+                            new UserAdminStats(bob.getId(), recent, 3),
+                            new UserAdminStats(alice.getId(), recent.minusHours(1), 0)), pageable, 1234);
+                });
+        when(users.findAllById(any())).thenReturn(List.of(alice, bob));
+
+        Page<UserAdminSummary> page = controller.listUsers(2, 2, "ex", "ACTIVE", "lastActive");
+
+        assertThat(page.getTotalElements()).isEqualTo(1234);
+        assertThat(page.getContent()).extracting(UserAdminSummary::id).containsExactly(bob.getId(), alice.getId());
+        assertThat(page.getContent().get(0).status()).isEqualTo("active");
+        assertThat(page.getContent().get(0).crisisFlags()).isEqualTo(3);
+        assertThat(page.getContent().get(0).email()).isEqualTo("b***@example.com");
+        verify(users).findAllById(List.of(bob.getId(), alice.getId()));
+        verifyNoInteractions(audits, flags);
+    }
+
+    @Test
+    void userWithoutActivityIsInactive() {
+        User carol = user("carol@example.com");
+        when(stats.findPage(any(), anyString(), anyString(), any(), any(Pageable.class)))
+                .thenAnswer(inv -> new PageImpl<>(List.of(new UserAdminStats(carol.getId(), null, 0)),
+                        inv.getArgument(4), 1));
+        when(users.findAllById(any())).thenReturn(List.of(carol));
+
+        Page<UserAdminSummary> page = controller.listUsers(0, 25, null, "inactive", "createdAt");
+
+        assertThat(page.getContent()).singleElement()
+                .satisfies(s -> assertThat(s.status()).isEqualTo("inactive"));
+    }
+
+    @Test
+    void searchKeepsRankOrderAndPassesCursorThrough() {
+        User exact = user("sam@example.com");
+        User fuzzy = user("samuel@example.com");
+        when(stats.searchByEmail("sam", "c1", 25)).thenReturn(new KeysetPage<>(List.of(
+                new UserAdminStats(exact.getId(), null, 0),
+                new UserAdminStats(fuzzy.getId(), null, 0)), "c2"));
+        when(users.findAllById(any())).thenReturn(List.of(fuzzy, exact));
+
+        KeysetPage<UserAdminSummary> page = controller.searchUsers("sam", "c1", 25);
+
+        assertThat(page.items()).extracting(UserAdminSummary::id).containsExactly(exact.getId(), fuzzy.getId());
+        assertThat(page.nextCursor()).isEqualTo("c2");
+    }
+}
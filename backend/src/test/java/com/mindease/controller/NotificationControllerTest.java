@@ -5,6 +5,7 @@ import com.mindease.auth.service.UserService;
 import com.mindease.notification.controller.NotificationController;
 import com.mindease.notification.model.Notification;
 import com.mindease.notification.repository.NotificationRepository;
+import com.mindease.notification.service.UnreadCountService;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -38,6 +39,9 @@ class NotificationControllerTest {
     @MockBean
     UserService userService;
 
+    @MockBean
+    UnreadCountService unreadCountService;
+
     @Test
     @WithMockUser(username = "user@example.com")
     void listNotificationsReturnsPage() throws Exception {
@@ -67,12 +71,7 @@ class NotificationControllerTest {
     @Test
     @WithMockUser(username = "user@example.com")
     void unreadCountReturnsNumber() throws Exception {
-        var user = new User();
-        user.setId(UUID.randomUUID());
-        user.setEmail("user@example.com");
-
-        Mockito.when(userService.findByEmail("user@example.com")).thenReturn(Optional.of(user));
-        Mockito.when(notificationRepository.countByUserAndIsReadFalse(user)).thenReturn(3L);
+        Mockito.when(unreadCountService.unreadCountForEmail("user@example.com")).thenReturn(Optional.of(3L));
 
         mvc.perform(get("/api/notifications/unread-count")
                         .accept(MediaType.APPLICATION_JSON))
@@ -0,0 +1,190 @@
+package com.mindease.journal.service;
+
+import com.mindease.journal.repository.JournalEnrichmentJobRepository;
+import com.mindease.journal.repository.JournalEnrichmentJobRepository.ClaimedJob;
+import com.mindease.shared.service.PythonAIServiceClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JournalEnrichmentServiceTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final JournalEnrichmentJobRepository jobs = mock(JournalEnrichmentJobRepository.class);
+    private final PythonAIServiceClient python = mock(PythonAIServiceClient.class);
+    private final SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    private final UUID entryId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    private JournalEnrichmentService service() {
+        return service(30);
+    }
+
+    private JournalEnrichmentService service(int callTimeoutSeconds) {
+        return new JournalEnrichmentService(jobs, python, null, messaging, mock(ApplicationEventPublisher.class),
+                registry, MAX_ATTEMPTS, 1000L, 60_000L, 10, 2, 60, callTimeoutSeconds, pool);
+    }
+
+    private void claimOnce(int attempts) {
+        when(jobs.claim(anyInt(), anyInt()))
+                .thenReturn(List.of(new ClaimedJob(entryId, userId, attempts, "Today was long.")))
+                .thenReturn(List.of());
+        when(jobs.complete(any(), anyInt(), any(), any())).thenReturn(true);
+        when(jobs.retryLater(any(), anyInt(), anyLong(), any())).thenReturn(true);
+        when(jobs.fail(any(), anyInt(), any(), any(), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    void summaryAndInsightRunInParallelAndCompletionIsPushed() throws Exception {
+        claimOnce(1);
+        // Each call waits for the other to start, so this only completes if they overlap
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        when(python.generateJournalSummary(anyString())).thenAnswer(inv -> {
+            bothStarted.countDown();
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of("A tiring day.");
+        });
+        when(python.generateMoodInsight(anyString())).thenAnswer(inv -> {
+            bothStarted.countDown();
+            assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            return Optional.of("Rest early tonight.");
+        });
+
+        service().wake();
+
+        verify(jobs, timeout(5000)).complete(entryId, 1, "A tiring day.", "Rest early tonight.");
+        verify(messaging, timeout(5000)).convertAndSend(eq("/topic/user/" + userId + "/journal"),
+                argThat((Object payload) -> payload instanceof Map<?, ?> m
+                        && "completed".equals(m.get("status")) && entryId.equals(m.get("entryId"))));
+        assertThat(registry.counter("journal.enrichment.jobs", "outcome", "completed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void missingResultIsRetriedWithExponentialBackoff() {
+        claimOnce(2);
+        when(python.generateJournalSummary(anyString())).thenReturn(Optional.of("A tiring day."));
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.empty());
+
+        service().wake();
+
+        verify(jobs, timeout(5000)).retryLater(eq(entryId), eq(2), eq(2000L), contains("mood insight"));
+        verify(jobs, never()).complete(any(), anyInt(), any(), any());
+        verify(messaging, never()).convertAndSend(anyString(), any(Object.class));
+    }
+
+    @Test
+    void lastAttemptStoresFallbackTextAndNotifies() {
+        claimOnce(MAX_ATTEMPTS);
+        when(python.generateJournalSummary(anyString())).thenReturn(Optional.of("A tiring day."));
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.empty());
+
+        service().wake();
+
+        verify(jobs, timeout(5000)).fail(eq(entryId), eq(MAX_ATTEMPTS), eq("A tiring day."),
+                contains("Mood insight unavailable"), anyString());
+        verify(messaging, timeout(5000)).convertAndSend(eq("/topic/user/" + userId + "/journal"),
+                argThat((Object payload) -> payload instanceof Map<?, ?> m && "failed".equals(m.get("status"))));
+        verify(jobs, never()).retryLater(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void configurationErrorsAreNotRetried() {
+        claimOnce(1);
+        when(python.generateJournalSummary(anyString())).thenThrow(new IllegalStateException("401 Unauthorized"));
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.of("Rest early tonight."));
+
+        service().wake();
+
+        verify(jobs, timeout(5000)).fail(eq(entryId), eq(1), contains("not configured"), contains("not configured"),
+                contains("401"));
+        verify(jobs, never()).retryLater(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void callOutlivingTheTimeoutIsRetriedBeforeTheLeaseRunsOut() {
+        claimOnce(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(python.generateJournalSummary(anyString())).thenAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of("Too late.");
+        });
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.of("Rest early tonight."));
+
+        service(1).wake();
+
+        verify(jobs, timeout(5000)).retryLater(eq(entryId), eq(1), eq(1000L), contains("Timeout"));
+        release.countDown();
+        verify(jobs, never()).complete(any(), anyInt(), any(), any());
+    }
+
+    @Test
+    void timedOutJobHoldsItsSlotUntilTheCallsReturn() throws Exception {
+        claimOnce(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(python.generateJournalSummary(anyString())).thenAnswer(inv -> {
+            release.await(10, TimeUnit.SECONDS);
+            return Optional.of("Too late.");
+        });
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.of("Rest early tonight."));
+
+        CompletableFuture<Void> job = service(1).process(new ClaimedJob(entryId, userId, 1, "Today was long."));
+
+        verify(jobs, timeout(5000)).retryLater(eq(entryId), eq(1), eq(1000L), contains("Timeout"));
+        assertThat(job).isNotDone();
+        release.countDown();
+        job.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void resultOfASupersededClaimIsNotPushed() throws Exception {
+        claimOnce(1);
+        when(jobs.complete(any(), anyInt(), any(), any())).thenReturn(false);
+        when(python.generateJournalSummary(anyString())).thenReturn(Optional.of("A tiring day."));
+        when(python.generateMoodInsight(anyString())).thenReturn(Optional.of("Rest early tonight."));
+
+        service().wake();
+
+        verify(jobs, timeout(5000)).complete(entryId, 1, "A tiring day.", "Rest early tonight.");
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        verify(messaging, never()).convertAndSend(anyString(), any(Object.class));
+        assertThat(registry.counter("journal.enrichment.jobs", "outcome", "superseded").count()).isEqualTo(1.0);
+        assertThat(registry.counter("journal.enrichment.jobs", "outcome", "completed").count()).isZero();
+    }
+}
@@ -0,0 +1,82 @@
+package com.mindease.mood.repository;
+
+import com.mindease.mood.dto.UnifiedMoodSummary;
+import com.mindease.shared.util.StoredTime;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Answers;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MoodTimelineRepositoryTest {
+
+    private static final ZoneId TOKYO = ZoneId.of("Asia/Tokyo");
+
+    @Mock
+    private EntityManager em;
+
+    @Mock(answer = Answers.RETURNS_SELF)
+    private Query query;
+
+    @InjectMocks
+    private MoodTimelineRepository repository;
+
+    private void useH2() {
+        Session session = mock(Session.class);
+        when(em.unwrap(Session.class)).thenReturn(session);
+        when(session.<String>doReturningWork(any())).thenReturn("H2");
+        when(em.createNativeQuery(anyString())).thenReturn(query);
+    }
+
+    @Test
+    void daysAreBucketedInTheRequestedZoneWithoutPostgres() {
+        useH2();
+        // 23:30 and 00:30 Tokyo time on either side of midnight
+        LocalDateTime lateEvening = stored(ZonedDateTime.of(2026, 3, 1, 23, 30, 0, 0, TOKYO));
+        LocalDateTime afterMidnight = stored(ZonedDateTime.of(2026, 3, 2, 0, 30, 0, 0, TOKYO));
+        when(query.getResultStream()).thenReturn(Stream.of(
+                new Object[] { Timestamp.valueOf(lateEvening), "mood_entry", 4 },
+                new Object[] { Timestamp.valueOf(afterMidnight), "mood_entry", 8 },
+                new Object[] { Timestamp.valueOf(afterMidnight), "mood_checkin", 6 }));
+
+        UnifiedMoodSummary summary = repository.summarize(UUID.randomUUID(), lateEvening.minusDays(1), TOKYO);
+
+        assertThat(summary.trend()).containsExactly(
+                entry("2026-03-01", 4.0),
+                entry("2026-03-02", 7.0));
+        assertThat(summary.averageMood()).isEqualTo(6.0);
+        assertThat(summary.countBySource()).containsEntry("mood_entry", 2L).containsEntry("mood_checkin", 1L);
+    }
+
+    @Test
+    void storedTimestampsAreReadAsServerWallClockTime() {
+        LocalDateTime stored = stored(ZonedDateTime.of(2026, 3, 1, 23, 30, 0, 0, TOKYO));
+
+        assertThat(MoodTimelineRepository.dayOf(stored, TOKYO)).isEqualTo(LocalDate.of(2026, 3, 1));
+        assertThat(MoodTimelineRepository.dayOf(stored, ZoneId.of("UTC"))).isEqualTo(LocalDate.of(2026, 3, 1));
+    }
+
+    private static LocalDateTime stored(ZonedDateTime at) {
+        return at.withZoneSameInstant(StoredTime.ZONE).toLocalDateTime();
+    }
+}
@@ -0,0 +1,123 @@
+package com.mindease.mood.service;
+
+import com.mindease.auth.model.User;
+import com.mindease.mood.model.MoodEntry;
+import com.mindease.mood.repository.UserMoodAggregateRepository;
+import com.mindease.shared.repository.ScheduledJobLeaseRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MoodAggregateServiceTest {
+
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final UserMoodAggregateRepository repository = mock(UserMoodAggregateRepository.class);
+    private final ScheduledJobLeaseRepository leases = mock(ScheduledJobLeaseRepository.class);
+    private final TransactionTemplate transactions = mock(TransactionTemplate.class);
+    private final MoodAggregateService service = new MoodAggregateService(repository,
+            new ClusterJobRunner(leases, transactions, new SimpleMeterRegistry(), "node-a"), transactions);
+
+    @BeforeEach
+    void setUp() {
+        when(transactions.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void moodEntryIncrementsAnExistingRow() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        MoodEntry entry = new MoodEntry(user, 7, null);
+        entry.setCreatedAt(LocalDateTime.of(2026, 3, 1, 9, 0));
+
+        service.recordMoodEntry(entry);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).ensureExists(user.getId());
+        order.verify(repository).applyMoodEntry(user.getId(), 7, entry.getCreatedAt());
+    }
+
+    @Test
+    void outOfRangeMoodIsNotCounted() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+
+        service.recordMoodEntry(new MoodEntry(user, 11, null));
+
+        verify(repository, never()).ensureExists(any());
+        verify(repository, never()).applyMoodEntry(any(), anyInt(), any());
+    }
+
+    @Test
+    void nightlyRebuildLocksEachChunkBeforeRebuildingAndCheckpointsIt() {
+        when(leases.tryAcquire(eq("mood-aggregate-rebuild"), eq(0), eq("node-a"), any())).thenReturn(true);
+        when(leases.saveCheckpoint(eq("mood-aggregate-rebuild"), eq(0), eq("node-a"), anyString(), any()))
+                .thenReturn(true);
+        List<UUID> first = ids(MoodAggregateService.REBUILD_CHUNK);
+        List<UUID> second = ids(3);
+        UUID lastOfFirst = first.get(first.size() - 1);
+        when(repository.findUsersWithHistoryAfter(FIRST_ID, MoodAggregateService.REBUILD_CHUNK)).thenReturn(first);
+        when(repository.findUsersWithHistoryAfter(lastOfFirst, MoodAggregateService.REBUILD_CHUNK))
+                .thenReturn(second);
+        when(repository.rebuildFor(first)).thenReturn(first.size());
+        when(repository.rebuildFor(second)).thenReturn(second.size());
+
+        service.rebuildAll();
+
+        InOrder order = inOrder(repository, leases);
+        for (List<UUID> chunk : List.of(first, second)) {
+            order.verify(repository).ensureExistFor(chunk);
+            order.verify(repository).lockFor(chunk);
+            order.verify(repository).rebuildFor(chunk);
+            order.verify(leases).saveCheckpoint(eq("mood-aggregate-rebuild"), eq(0), eq("node-a"),
+                    eq(chunk.get(chunk.size() - 1).toString()), any());
+        }
+        verify(transactions, times(2)).execute(any());
+        verify(leases).release(eq("mood-aggregate-rebuild"), eq(0), eq("node-a"), any(),
+                eq("SUCCEEDED"), eq(503L), isNull());
+    }
+
+    @Test
+    void rebuildAfterTheAutoMoodJobOnlyTouchesUsersWithNewEntries() {
+        LocalDateTime since = LocalDateTime.of(2026, 3, 1, 0, 0);
+        List<UUID> touched = ids(2);
+        when(repository.findUsersWithEntriesSince(since, FIRST_ID, MoodAggregateService.REBUILD_CHUNK))
+                .thenReturn(touched);
+        when(repository.rebuildFor(touched)).thenReturn(2);
+
+        assertThat(service.rebuildUsersWithEntriesSince(since)).isEqualTo(2);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).ensureExistFor(touched);
+        order.verify(repository).lockFor(touched);
+        order.verify(repository).rebuildFor(touched);
+        verify(repository, never()).findUsersWithHistoryAfter(any(), anyInt());
+    }
+
+    private static List<UUID> ids(int count) {
+        return IntStream.range(0, count).mapToObj(i -> UUID.randomUUID()).sorted().toList();
+    }
+}
@@ -0,0 +1,58 @@
+package com.mindease.notification.service;
+
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.FirebaseMessagingException;
+import com.google.firebase.messaging.MulticastMessage;
+import com.google.firebase.messaging.SendResponse;
+import com.mindease.notification.repository.NotificationOutboxRepository;
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+import com.mindease.notification.service.NotificationChannelSender.DeliveryResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FcmNotificationSenderTest {
+
+    private final FirebaseMessaging messaging = mock(FirebaseMessaging.class);
+
+    private final FcmNotificationSender sender = new FcmNotificationSender(mock(NotificationOutboxRepository.class)) {
+        @Override
+        FirebaseMessaging messaging() {
+            return messaging;
+        }
+    };
+
+    @Test
+    void failedMulticastOnlyRetriesItsOwnChunk() throws Exception {
+        int count = FcmNotificationSender.MAX_TOKENS + 1;
+        List<OutboxMessage> batch = IntStream.range(0, count)
+                .mapToObj(i -> new OutboxMessage(UUID.randomUUID(), NotificationOutboxRepository.PUSH,
+                        "token-" + i, null, "Title", "Body", 0))
+                .toList();
+        SendResponse sent = mock(SendResponse.class);
+        when(sent.isSuccessful()).thenReturn(true);
+        BatchResponse first = mock(BatchResponse.class);
+        when(first.getResponses()).thenReturn(IntStream.range(0, FcmNotificationSender.MAX_TOKENS)
+                .mapToObj(i -> sent).toList());
+        FirebaseMessagingException unavailable = mock(FirebaseMessagingException.class);
+        when(unavailable.getMessage()).thenReturn("service unavailable");
+        when(messaging.sendEachForMulticast(any(MulticastMessage.class))).thenReturn(first).thenThrow(unavailable);
+
+        List<DeliveryResult> results = sender.send(batch);
+
+        assertThat(results).hasSize(count);
+        assertThat(results.subList(0, FcmNotificationSender.MAX_TOKENS)).allMatch(DeliveryResult::delivered);
+        DeliveryResult last = results.get(count - 1);
+        assertThat(last.delivered()).isFalse();
+        assertThat(last.retryable()).isTrue();
+        assertThat(last.error()).contains("service unavailable");
+    }
+}
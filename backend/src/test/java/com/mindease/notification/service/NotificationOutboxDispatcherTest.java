@@ -0,0 +1,172 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationOutboxRepository;
+import com.mindease.notification.repository.NotificationOutboxRepository.OutboxMessage;
+import com.mindease.notification.service.NotificationChannelSender.DeliveryResult;
+import com.mindease.notification.service.NotificationOutboxDispatcher.ChannelLimits;
+import com.mindease.shared.events.NotificationQueuedEvent;
+import com.mindease.shared.service.ClusterJobRunner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationOutboxDispatcherTest {
+
+    private static final String EMAIL = NotificationOutboxRepository.EMAIL;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationOutboxRepository outbox = mock(NotificationOutboxRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final FakeSender sender = new FakeSender();
+
+    private NotificationOutboxDispatcher dispatcher(int batchSize) {
+        // Claims are still held unless a test says otherwise
+        when(outbox.markSent(any())).thenAnswer(inv -> inv.<List<?>>getArgument(0).size());
+        when(outbox.retryLater(any(), anyInt(), anyLong(), any())).thenReturn(true);
+        when(outbox.fail(any(), anyInt(), any())).thenReturn(true);
+        // Runs drains on the calling thread; the rate is high enough that no pause is needed
+        return new NotificationOutboxDispatcher(outbox, List.of(sender), mock(ApplicationEventPublisher.class),
+                mock(ClusterJobRunner.class), registry, MAX_ATTEMPTS, 1000L, 60_000L, 60, 7,
+                Map.of(EMAIL, new ChannelLimits(batchSize, 1_000_000)), Runnable::run);
+    }
+
+    private static List<OutboxMessage> messages(int count, int attempts) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> new OutboxMessage(UUID.randomUUID(), EMAIL, "user" + i + "@example.com", null,
+                        "Subject", "Body " + i, attempts))
+                .toList();
+    }
+
+    private double outcome(String outcome) {
+        return registry.counter("notifications.outbox.messages", "channel", EMAIL, "outcome", outcome).count();
+    }
+
+    @Test
+    void drainsFullBatchesUntilTheOutboxIsEmptyAndMarksThemSentTogether() {
+        List<OutboxMessage> first = messages(2, 1);
+        List<OutboxMessage> second = messages(1, 1);
+        when(outbox.claim(EMAIL, 2, 60)).thenReturn(first).thenReturn(second);
+
+        dispatcher(2).onQueued(new NotificationQueuedEvent(EMAIL));
+
+        assertThat(sender.batches).containsExactly(first, second);
+        verify(outbox).markSent(first);
+        verify(outbox).markSent(second);
+        assertThat(outcome("sent")).isEqualTo(3.0);
+    }
+
+    @Test
+    void retryableFailuresBackOffAndRejectionsFailAtOnce() {
+        List<OutboxMessage> batch = messages(3, 2);
+        when(outbox.claim(EMAIL, 10, 60)).thenReturn(batch);
+        sender.results = List.of(DeliveryResult.ok(), DeliveryResult.retry("421 try later"),
+                DeliveryResult.rejected("550 no such user"));
+
+        dispatcher(10).poll();
+
+        verify(outbox).markSent(List.of(batch.get(0)));
+        // Second attempt: 1000ms * 2
+        verify(outbox).retryLater(batch.get(1).id(), 2, 2000L, "421 try later");
+        verify(outbox).fail(batch.get(2).id(), 2, "550 no such user");
+        assertThat(outcome("retried")).isEqualTo(1.0);
+        assertThat(outcome("failed")).isEqualTo(1.0);
+    }
+
+    @Test
+    void senderExceptionRetriesTheWholeBatchUntilAttemptsRunOut() {
+        List<OutboxMessage> fresh = messages(1, 1);
+        List<OutboxMessage> exhausted = messages(1, MAX_ATTEMPTS);
+        when(outbox.claim(EMAIL, 10, 60)).thenReturn(fresh).thenReturn(exhausted);
+        sender.failure = new IllegalStateException("connection refused");
+        NotificationOutboxDispatcher dispatcher = dispatcher(10);
+
+        dispatcher.poll();
+        dispatcher.poll();
+
+        verify(outbox).retryLater(eq(fresh.get(0).id()), eq(1), eq(1000L), contains("connection refused"));
+        verify(outbox).fail(eq(exhausted.get(0).id()), eq(MAX_ATTEMPTS), contains("connection refused"));
+        verify(outbox, never()).markSent(any());
+    }
+
+    @Test
+    void channelsWithoutASenderAreNotClaimed() {
+        dispatcher(10).onQueued(new NotificationQueuedEvent(NotificationOutboxRepository.PUSH));
+
+        verify(outbox, never()).claim(anyString(), anyInt(), anyInt());
+        verify(outbox, never()).retryLater(any(), anyInt(), anyLong(), any());
+    }
+
+    @Test
+    void outcomesOfATakenOverClaimAreDropped() {
+        List<OutboxMessage> batch = messages(3, 1);
+        when(outbox.claim(EMAIL, 10, 60)).thenReturn(batch);
+        sender.results = List.of(DeliveryResult.ok(), DeliveryResult.ok(), DeliveryResult.retry("421 try later"));
+        NotificationOutboxDispatcher dispatcher = dispatcher(10);
+        // Another node claimed one delivered message and the retried one after this lease ran out
+        doReturn(1).when(outbox).markSent(any());
+        doReturn(false).when(outbox).retryLater(any(), anyInt(), anyLong(), any());
+
+        dispatcher.poll();
+
+        assertThat(outcome("sent")).isEqualTo(1.0);
+        assertThat(outcome("retried")).isZero();
+        assertThat(outcome("superseded")).isEqualTo(2.0);
+    }
+
+    @Test
+    void twoSendersForOneChannelAreRejected() {
+        assertThatThrownBy(() -> new NotificationOutboxDispatcher(outbox, List.of(sender, new FakeSender()),
+                mock(ApplicationEventPublisher.class), mock(ClusterJobRunner.class), registry, MAX_ATTEMPTS,
+                1000L, 60_000L, 60, 7, Map.of(), Runnable::run))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("Two senders for EMAIL");
+    }
+
+    @Test
+    void backoffDoublesAndIsCapped() {
+        assertThat(NotificationOutboxDispatcher.backoffMillis(1, 1000, 60_000)).isEqualTo(1000);
+        assertThat(NotificationOutboxDispatcher.backoffMillis(4, 1000, 60_000)).isEqualTo(8000);
+        assertThat(NotificationOutboxDispatcher.backoffMillis(20, 1000, 60_000)).isEqualTo(60_000);
+    }
+
+    /** Local stand-in for the SMTP sender. */
+    private static final class FakeSender implements NotificationChannelSender {
+        private final List<List<OutboxMessage>> batches = new ArrayList<>();
+        private List<DeliveryResult> results;
+        private RuntimeException failure;
+
+        @Override
+        public String channel() {
+            return EMAIL;
+        }
+
+        @Override
+        public List<DeliveryResult> send(List<OutboxMessage> batch) {
+            batches.add(batch);
+            if (failure != null) {
+                throw failure;
+            }
+            return results != null ? results : batch.stream().map(m -> DeliveryResult.ok()).toList();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.mindease.notification.service;
+
+import com.mindease.notification.repository.NotificationRepository;
+import com.mindease.shared.events.UnreadNotificationsChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UnreadCountServiceTest {
+
+    private final NotificationRepository repository = mock(NotificationRepository.class);
+    private final SimpMessagingTemplate messaging = mock(SimpMessagingTemplate.class);
+    private final ApplicationEventPublisher events = mock(ApplicationEventPublisher.class);
+    private final UnreadCountService service = new UnreadCountService(repository, messaging, events);
+    private final UUID userId = UUID.randomUUID();
+
+    @Test
+    void changePublishesAnEventForAfterCommit() {
+        service.changed(userId);
+
+        verify(events).publishEvent(argThat((Object e) -> e instanceof UnreadNotificationsChangedEvent evt
+                && evt.getUserId().equals(userId)));
+    }
+
+    @Test
+    void committedChangePushesTheStoredCount() {
+        when(repository.findUnreadCountByUserId(userId)).thenReturn(4L);
+
+        service.onChanged(new UnreadNotificationsChangedEvent(userId));
+
+        verify(messaging).convertAndSend(eq("/topic/user/" + userId + "/notifications"),
+                argThat((Object payload) -> payload instanceof Map<?, ?> m
+                        && Long.valueOf(4L).equals(m.get("unreadCount"))));
+    }
+
+    @Test
+    void pushFailureIsSwallowed() {
+        doThrow(new MessagingException("broker down")).when(messaging).convertAndSend(anyString(), any(Object.class));
+
+        assertThatCode(() -> service.onChanged(new UnreadNotificationsChangedEvent(userId)))
+                .doesNotThrowAnyException();
+    }
+}
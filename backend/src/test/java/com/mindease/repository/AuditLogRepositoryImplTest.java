@@ -1,5 +1,6 @@
 package com.mindease.repository;
 
+import com.mindease.admin.model.AuditEvent;
 import com.mindease.admin.model.AuditLog;
 import com.mindease.admin.repository.AuditLogRepository;
 import org.junit.jupiter.api.Test;
@@ -58,4 +59,20 @@ class AuditLogRepositoryImplTest {
         assertThat(combo.getContent()).isNotEmpty();
         assertThat(combo.getContent()).allMatch(a -> u1.equals(a.getUserId()) && "LOGIN".equals(a.getActionType()));
     }
+
+    @Test
+    void insertBatchWritesAllRowsInOneCall() {
+        UUID u1 = UUID.randomUUID();
+        var events = java.util.stream.IntStream.range(0, 7)
+                .mapToObj(i -> AuditEvent.of(u1, "MOOD_ADDED", i % 2 == 0 ? "Mood entry added" : null))
+                .toList();
+
+        int inserted = repo.insertBatch(events);
+
+        assertThat(inserted).isEqualTo(7);
+        Slice<AuditLog> rows = repo.findByFilters(u1, "MOOD_ADDED", null, null, PageRequest.of(0, 10));
+        assertThat(rows.getContent()).hasSize(7);
+        assertThat(rows.getContent()).extracting(AuditLog::getId)
+                .containsExactlyInAnyOrderElementsOf(events.stream().map(AuditEvent::id).toList());
+    }
 }
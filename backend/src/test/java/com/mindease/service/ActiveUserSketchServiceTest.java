@@ -0,0 +1,99 @@
+package com.mindease.service;
+
+import com.mindease.admin.repository.ActiveUserSketchRepository;
+import com.mindease.admin.service.ActiveUserSketchService;
+import com.mindease.shared.util.HyperLogLog;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ActiveUserSketchServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 10);
+
+    private ActiveUserSketchRepository repo;
+    private ActiveUserSketchService service;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(ActiveUserSketchRepository.class);
+        when(repo.union(any(), any())).thenAnswer(inv -> new HyperLogLog());
+        service = new ActiveUserSketchService(repo);
+    }
+
+    private static List<UUID> users(int n) {
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            ids.add(UUID.randomUUID());
+        }
+        return ids;
+    }
+
+    @Test
+    void recordsByUtcDayAndIncludesUnflushedInQueries() {
+        UUID user = UUID.randomUUID();
+        // 23:30 at -02:00 is already the next UTC day
+        service.record(user, OffsetDateTime.of(2025, 3, 9, 23, 30, 0, 0, ZoneOffset.ofHours(-2)));
+        service.record(user, DAY.atStartOfDay().atOffset(ZoneOffset.UTC));
+
+        assertThat(service.distinctUsers(DAY, DAY)).isEqualTo(1);
+        assertThat(service.distinctUsers(DAY.minusDays(1), DAY.minusDays(1))).isZero();
+    }
+
+    @Test
+    void flushMergesEachDayOnceAndRetriesFailures() {
+        service.record(UUID.randomUUID(), DAY.atStartOfDay().atOffset(ZoneOffset.UTC));
+        doThrow(new RuntimeException("db down")).when(repo).merge(eq(DAY), any());
+
+        service.flush();
+        // Still pending after the failed flush
+        assertThat(service.distinctUsers(DAY, DAY)).isEqualTo(1);
+
+        doThrow(new RuntimeException("ignored")).doNothing().when(repo).merge(eq(DAY), any());
+        service.flush();
+        service.flush();
+        verify(repo, times(3)).merge(eq(DAY), any());
+    }
+
+    @Test
+    void retentionFromSketchIntersection() {
+        List<UUID> ids = users(4_000);
+        HyperLogLog cohort = new HyperLogLog();
+        ids.subList(0, 2_000).forEach(cohort::add);
+        HyperLogLog returning = new HyperLogLog();
+        ids.subList(1_000, 4_000).forEach(returning::add);
+        when(repo.union(DAY, DAY)).thenReturn(cohort);
+        when(repo.union(DAY.plusDays(7), DAY.plusDays(7))).thenReturn(returning);
+
+        assertThat(service.dayNRetention(DAY, 7)).isCloseTo(0.5, within(0.1));
+        assertThat(service.dayNRetention(DAY.minusDays(30), 7)).isNull();
+    }
+
+    @Test
+    void rebuildDayReplacesWithExactUsers() {
+        when(repo.activeUserIds(DAY)).thenReturn(users(250));
+
+        service.rebuildDay(DAY);
+
+        ArgumentCaptor<HyperLogLog> captor = ArgumentCaptor.forClass(HyperLogLog.class);
+        verify(repo).replace(eq(DAY), captor.capture());
+        assertThat(captor.getValue().estimate()).isBetween(245L, 255L);
+    }
+}
@@ -0,0 +1,112 @@
+package com.mindease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindease.admin.repository.AnalyticsExportRepository;
+import com.mindease.admin.service.AnalyticsExportService;
+import com.mindease.admin.service.AnalyticsExportService.Dataset;
+import com.mindease.admin.service.AnalyticsExportService.Format;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalyticsExportServiceTest {
+
+    private static final OffsetDateTime FROM = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    private static final OffsetDateTime TO = FROM.plusDays(2);
+
+    private final AnalyticsExportRepository exports = mock(AnalyticsExportRepository.class);
+    private final AnalyticsExportService service = new AnalyticsExportService(exports, new ObjectMapper());
+
+    private String export(Dataset dataset, Format format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        service.export(dataset, format, FROM, TO, out);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private void stubAuditRows(Object[]... rows) throws Exception {
+        when(exports.streamAuditLogs(eq(FROM), eq(TO), any())).thenAnswer(inv -> replay(inv.getArgument(2), rows));
+    }
+
+    private static long replay(AnalyticsExportRepository.RowHandler handler, Object[]... rows) throws Exception {
+        for (Object[] row : rows) {
+            ResultSet rs = mock(ResultSet.class);
+            for (int i = 0; i < row.length; i++) {
+                when(rs.getObject(i + 1)).thenReturn(row[i]);
+            }
+            handler.handle(rs);
+        }
+        return rows.length;
+    }
+
+    @Test
+    void dailySeriesAsCsv() throws Exception {
+        when(exports.streamDailyActiveUsers(eq(FROM), eq(TO), any())).thenAnswer(inv -> replay(inv.getArgument(2),
+                new Object[] { LocalDate.of(2025, 1, 1), 4L },
+                new Object[] { LocalDate.of(2025, 1, 2), 7L }));
+
+        assertThat(export(Dataset.ACTIVE_USERS, Format.CSV))
+                .isEqualTo("day,active_users\r\n2025-01-01,4\r\n2025-01-02,7\r\n");
+    }
+
+    @Test
+    void streamedRowsAreEscapedInCsv() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID user = UUID.randomUUID();
+        Timestamp at = Timestamp.from(Instant.parse("2025-01-01T10:00:00Z"));
+        stubAuditRows(
+                new Object[] { id, user, "LOGIN", "said \"hi\", left", at },
+                new Object[] { id, user, "NOTE", "=HYPERLINK(\"x\")", at });
+
+        String csv = export(Dataset.AUDIT_LOGS, Format.CSV);
+
+        assertThat(csv.split("\r\n")).containsExactly(
+                "id,user_id,action_type,details,created_at",
+                id + "," + user + ",LOGIN,\"said \"\"hi\"\", left\",2025-01-01T10:00:00Z",
+                id + "," + user + ",NOTE,\"'=HYPERLINK(\"\"x\"\")\",2025-01-01T10:00:00Z");
+    }
+
+    @Test
+    void streamedRowsAsNdjson() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID user = UUID.randomUUID();
+        Timestamp at = Timestamp.from(Instant.parse("2025-01-01T10:00:00Z"));
+        stubAuditRows(
+                new Object[] { id, user, "LOGIN", null, at },
+                new Object[] { id, user, "CHAT", "multi\nline", at });
+
+        String[] lines = export(Dataset.AUDIT_LOGS, Format.NDJSON).split("\n");
+
+        assertThat(lines).hasSize(2);
+        ObjectMapper mapper = new ObjectMapper();
+        assertThat(mapper.readTree(lines[0]).get("details").isNull()).isTrue();
+        assertThat(mapper.readTree(lines[1]).get("details").asText()).isEqualTo("multi\nline");
+        assertThat(mapper.readTree(lines[1]).get("created_at").asText()).isEqualTo("2025-01-01T10:00:00Z");
+        assertThat(mapper.readTree(lines[1]).get("user_id").asText()).isEqualTo(user.toString());
+    }
+
+    @Test
+    void parsesDatasetAndFormatNames() {
+        assertThat(Dataset.parse("crisis-flags")).isEqualTo(Dataset.CRISIS_FLAGS);
+        assertThat(Format.parse("NDJson")).isEqualTo(Format.NDJSON);
+        assertThatThrownBy(() -> Dataset.parse("users")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,178 @@
+package com.mindease.service;
+
+import com.mindease.admin.model.AuditEvent;
+import com.mindease.admin.repository.AuditLogRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
+import com.mindease.admin.service.ActiveUserSketchService;
+import com.mindease.admin.service.AuditLogWriter;
+import com.mindease.admin.service.AuditLogWriter.OverflowPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AuditLogWriterTest {
+
+    private AuditLogRepository repo;
+    private SimpleMeterRegistry registry;
+    private List<List<AuditEvent>> batches;
+
+    @BeforeEach
+    void setUp() {
+        repo = mock(AuditLogRepository.class);
+        registry = new SimpleMeterRegistry();
+        batches = new CopyOnWriteArrayList<>();
+        when(repo.insertBatch(anyList())).thenAnswer(inv -> {
+            List<AuditEvent> batch = new ArrayList<>(inv.getArgument(0));
+            batches.add(batch);
+            return batch.size();
+        });
+    }
+
+    private AuditLogWriter writer(int capacity, int batchSize, long flushIntervalMs, OverflowPolicy policy) {
+        return new AuditLogWriter(repo, mock(ActiveUserSketchService.class), mock(UserAdminStatsRepository.class),
+                registry, capacity, batchSize, flushIntervalMs, policy);
+    }
+
+    private static AuditEvent event() {
+        return AuditEvent.of(UUID.randomUUID(), "CHAT_SENT", "Chat message sent");
+    }
+
+    private double events(String outcome) {
+        return registry.get("audit.writer.events").tag("outcome", outcome).counter().count();
+    }
+
+    @Test
+    void writesFullBatchesAndDrainsRemainderOnStop() throws Exception {
+        AuditLogWriter writer = writer(1024, 50, 60_000, OverflowPolicy.DROP);
+        writer.start();
+
+        ExecutorService producers = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            producers.submit(() -> {
+                for (int j = 0; j < 30; j++) {
+                    writer.enqueue(event());
+                }
+            });
+        }
+        producers.shutdown();
+        assertThat(producers.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        writer.stop();
+
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(120);
+        assertThat(batches).allSatisfy(b -> assertThat(b.size()).isLessThanOrEqualTo(50));
+        assertThat(batches.size()).isLessThan(120 / 10);
+        assertThat(events("written")).isEqualTo(120);
+        assertThat(registry.get("audit.writer.flush").timer().count()).isEqualTo(batches.size());
+    }
+
+    @Test
+    void flushesPartialBatchAfterInterval() throws Exception {
+        AuditLogWriter writer = writer(64, 1000, 50, OverflowPolicy.DROP);
+        writer.start();
+        try {
+            writer.enqueue(event());
+            writer.enqueue(event());
+
+            long deadline = System.currentTimeMillis() + 2000;
+            while (batches.isEmpty() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(batches).hasSize(1);
+            assertThat(batches.get(0)).hasSize(2);
+        } finally {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void dropPolicyCountsOverflow() {
+        AuditLogWriter writer = writer(4, 100, 60_000, OverflowPolicy.DROP); // not started: nothing drains
+
+        int accepted = 0;
+        for (int i = 0; i < 6; i++) {
+            if (writer.enqueue(event())) {
+                accepted++;
+            }
+        }
+
+        assertThat(accepted).isEqualTo(4);
+        assertThat(events("dropped")).isEqualTo(2);
+        assertThat(batches).isEmpty();
+    }
+
+    @Test
+    void callerRunsPolicyWritesOverflowSynchronously() {
+        AuditLogWriter writer = writer(2, 100, 60_000, OverflowPolicy.CALLER_RUNS);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(writer.enqueue(event())).isTrue();
+        }
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).hasSize(1);
+        assertThat(events("caller_runs")).isEqualTo(1);
+    }
+
+    @Test
+    void failedFlushIsCountedAndWriterKeepsRunning() throws Exception {
+        when(repo.insertBatch(anyList()))
+                .thenThrow(new RuntimeException("db down"))
+                .thenAnswer(inv -> {
+                    batches.add(new ArrayList<>(inv.getArgument(0)));
+                    return ((List<?>) inv.getArgument(0)).size();
+                });
+        AuditLogWriter writer = writer(64, 1, 10, OverflowPolicy.DROP);
+        writer.start();
+        writer.enqueue(event());
+        Thread.sleep(100);
+        writer.enqueue(event());
+        writer.stop();
+
+        assertThat(events("failed")).isEqualTo(1);
+        assertThat(events("written")).isEqualTo(1);
+    }
+
+    @Test
+    void repositoryKeepsItsBatchAfterTheWriterMovesOn() {
+        List<List<AuditEvent>> passed = new CopyOnWriteArrayList<>();
+        when(repo.insertBatch(anyList())).thenAnswer(inv -> {
+            List<AuditEvent> batch = inv.getArgument(0);
+            passed.add(batch);
+            return batch.size();
+        });
+        AuditLogWriter writer = writer(64, 2, 60_000, OverflowPolicy.DROP);
+        writer.start();
+
+        writer.enqueue(event());
+        writer.enqueue(event());
+        writer.stop();
+
+        assertThat(passed).isNotEmpty().allSatisfy(b -> assertThat(b).isNotEmpty());
+    }
+
+    @Test
+    void eventsAfterStopAreWrittenDirectly() {
+        AuditLogWriter writer = writer(64, 10, 60_000, OverflowPolicy.DROP);
+        writer.start();
+        writer.stop();
+
+        assertThat(writer.enqueue(event())).isTrue();
+
+        assertThat(batches).hasSize(1);
+        assertThat(events("caller_runs")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,222 @@
+package com.mindease.service;
+
+import com.mindease.admin.service.CrisisAlertBroadcaster;
+import com.mindease.crisis.model.CrisisFlag;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CrisisAlertBroadcasterTest {
+
+    private static final Pattern ID = Pattern.compile("^id:(\\S+)$", Pattern.MULTILINE);
+
+    /** Records the wire text of every event instead of writing to a servlet response. */
+    static class RecordingEmitter extends SseEmitter {
+        final List<String> events = new CopyOnWriteArrayList<>();
+        final CountDownLatch unblock;
+        volatile boolean completed;
+
+        RecordingEmitter(CountDownLatch unblock) {
+            super(0L);
+            this.unblock = unblock;
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            try {
+                if (!unblock.await(5, TimeUnit.SECONDS)) {
+                    throw new IOException("stalled");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            events.add(builder.build().stream().map(d -> String.valueOf(d.getData())).collect(Collectors.joining()));
+        }
+
+        @Override
+        public void complete() {
+            completed = true;
+        }
+
+        List<String> named(String name) {
+            return events.stream().filter(e -> e.contains("event:" + name + "\n")).toList();
+        }
+
+        List<String> ids() {
+            return events.stream().map(ID::matcher).filter(Matcher::find).map(m -> m.group(1)).toList();
+        }
+    }
+
+    private final List<RecordingEmitter> pendingEmitters = new CopyOnWriteArrayList<>();
+    private CrisisAlertBroadcaster broadcaster;
+
+    private CrisisAlertBroadcaster broadcaster(int maxSubscribers, int queueCapacity, int replaySize) {
+        return broadcaster(maxSubscribers, queueCapacity, replaySize, 60_000);
+    }
+
+    private CrisisAlertBroadcaster broadcaster(int maxSubscribers, int queueCapacity, int replaySize,
+            long sendTimeoutMs) {
+        broadcaster = new CrisisAlertBroadcaster(new SimpleMeterRegistry(), maxSubscribers, queueCapacity, replaySize,
+                60_000, sendTimeoutMs, 2) {
+            @Override
+            protected SseEmitter newEmitter() {
+                return pendingEmitters.remove(0);
+            }
+        };
+        return broadcaster;
+    }
+
+    private RecordingEmitter subscribe(String lastEventId, CountDownLatch unblock) {
+        RecordingEmitter emitter = new RecordingEmitter(unblock);
+        pendingEmitters.add(emitter);
+        assertThat(broadcaster.subscribe(lastEventId)).isSameAs(emitter);
+        return emitter;
+    }
+
+    private static CountDownLatch open() {
+        return new CountDownLatch(0);
+    }
+
+    private static void await(Runnable assertion) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (true) {
+            try {
+                assertion.run();
+                return;
+            } catch (AssertionError e) {
+                if (System.currentTimeMillis() > deadline) {
+                    throw e;
+                }
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static CrisisFlag flag(String keyword) {
+        CrisisFlag flag = new CrisisFlag();
+        flag.setKeywordDetected(keyword);
+        return flag;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (broadcaster != null) {
+            broadcaster.shutdown();
+        }
+    }
+
+    @Test
+    void stalledSubscriberIsEvictedWithoutDelayingOthers() throws Exception {
+        broadcaster(10, 4, 16);
+        CountDownLatch stall = new CountDownLatch(1);
+        RecordingEmitter stalled = subscribe(null, stall);
+        RecordingEmitter healthy = subscribe(null, open());
+
+        // Pace publishes on the healthy subscriber so only the stalled queue can overflow
+        for (int i = 0; i < 10; i++) {
+            long start = System.nanoTime();
+            broadcaster.publish(flag("k" + i));
+            assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+            int expected = i + 1;
+            await(() -> assertThat(healthy.named("flag")).hasSize(expected));
+        }
+
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        // Completed by its writer once the blocked write returns, never from the publishing thread
+        assertThat(stalled.completed).isFalse();
+        stall.countDown();
+        await(() -> assertThat(stalled.completed).isTrue());
+    }
+
+    @Test
+    void blockedWritesDoNotHoldUpOtherSubscribersAndAreEvicted() throws Exception {
+        broadcaster(10, 64, 16, 200);
+        CountDownLatch stall = new CountDownLatch(1);
+        // As many blocked writes as there are core writer threads
+        RecordingEmitter first = subscribe(null, stall);
+        RecordingEmitter second = subscribe(null, stall);
+        RecordingEmitter healthy = subscribe(null, open());
+
+        for (int i = 0; i < 3; i++) {
+            broadcaster.publish(flag("k" + i));
+        }
+
+        await(() -> assertThat(healthy.named("flag")).hasSize(3));
+        // Their queues never overflow; the send timeout evicts them
+        await(() -> assertThat(broadcaster.subscriberCount()).isEqualTo(1));
+        stall.countDown();
+        await(() -> assertThat(first.completed && second.completed).isTrue());
+    }
+
+    @Test
+    void reconnectReplaysFlagsAfterLastEventId() throws Exception {
+        broadcaster(10, 64, 16);
+        RecordingEmitter first = subscribe(null, open());
+        broadcaster.publish(flag("a"));
+        broadcaster.publish(flag("b"));
+        broadcaster.publish(flag("c"));
+        await(() -> assertThat(first.ids()).hasSize(3));
+
+        RecordingEmitter reconnected = subscribe(first.ids().get(0), open());
+
+        await(() -> assertThat(reconnected.ids()).containsExactlyElementsOf(first.ids().subList(1, 3)));
+        assertThat(reconnected.named("open")).hasSize(1);
+        assertThat(reconnected.named("resync")).isEmpty();
+    }
+
+    @Test
+    void gapsOlderThanTheRingOrFromAnotherBootRequestResync() throws Exception {
+        broadcaster(10, 64, 2);
+        RecordingEmitter first = subscribe(null, open());
+        for (int i = 0; i < 5; i++) {
+            broadcaster.publish(flag("k" + i));
+        }
+        await(() -> assertThat(first.ids()).hasSize(5));
+
+        RecordingEmitter behind = subscribe(first.ids().get(0), open());
+        RecordingEmitter foreign = subscribe("otherboot-3", open());
+
+        await(() -> assertThat(behind.named("resync")).hasSize(1));
+        await(() -> assertThat(behind.ids()).containsExactlyElementsOf(first.ids().subList(3, 5)));
+        await(() -> assertThat(foreign.named("resync")).hasSize(1));
+        assertThat(foreign.ids()).isEmpty();
+    }
+
+    @Test
+    void rejectsSubscribersBeyondLimit() {
+        broadcaster(1, 4, 4);
+        subscribe(null, open());
+        pendingEmitters.add(new RecordingEmitter(open()));
+
+        assertThatThrownBy(() -> broadcaster.subscribe(null)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void evictedSubscriberFreesItsSlot() throws Exception {
+        broadcaster(1, 1, 4);
+        CountDownLatch stall = new CountDownLatch(1);
+        RecordingEmitter stalled = subscribe(null, stall);
+        // The open event is in flight; these overflow the one-slot queue
+        broadcaster.publish(flag("a"));
+        broadcaster.publish(flag("b"));
+        await(() -> assertThat(stalled.completed).isTrue());
+
+        subscribe(null, open());
+        assertThat(broadcaster.subscriberCount()).isEqualTo(1);
+        stall.countDown();
+    }
+}
@@ -6,6 +6,7 @@ import com.mindease.crisis.service.CrisisKeywordDetector;
 import com.mindease.crisis.service.RiskScorer;
 import com.mindease.admin.model.AdminSettings;
 import com.mindease.admin.repository.AdminSettingsRepository;
+import com.mindease.admin.repository.UserAdminStatsRepository;
 import com.mindease.crisis.repository.CrisisFlagRepository;
 import com.mindease.notification.service.NotificationService;
 import com.mindease.notification.service.EmailService;
@@ -27,6 +28,7 @@ class CrisisFlaggingServiceTest {
     private AdminSettingsRepository settingsRepo;
     private NotificationService notificationService;
     private EmailService emailService;
+    private UserAdminStatsRepository userAdminStats;
     private CrisisFlaggingService service;
 
     @BeforeEach
@@ -35,6 +37,7 @@ class CrisisFlaggingServiceTest {
         settingsRepo = mock(AdminSettingsRepository.class);
         notificationService = mock(NotificationService.class);
         emailService = mock(EmailService.class);
+        userAdminStats = mock(UserAdminStatsRepository.class);
 
         CrisisKeywordDetector detector = new CrisisKeywordDetector();
         RiskScorer scorer = text -> Optional.of(0.92);
@@ -49,7 +52,7 @@ class CrisisFlaggingServiceTest {
         when(flagRepo.existsByChatIdAndKeywordDetectedIgnoreCase(any(), any())).thenReturn(false);
 
         service = new CrisisFlaggingService(detector, scorer, flagRepo, settingsRepo, notificationService, emailService,
-                publisher);
+                publisher, userAdminStats);
     }
 
     @Test
@@ -66,6 +69,7 @@ class CrisisFlaggingServiceTest {
 
         verify(notificationService, atLeastOnce()).notifyAdmins(anyString(), contains("risk"));
         verify(notificationService, atLeastOnce()).emailAdmins(anyString(), contains(userId.toString()));
+        verify(userAdminStats).incrementCrisisFlags(userId);
     }
 
     @Test
@@ -73,6 +77,7 @@ class CrisisFlaggingServiceTest {
         service.evaluateAndFlag(UUID.randomUUID(), UUID.randomUUID(), "nice weather today");
         verify(flagRepo, never()).save(any());
         verify(notificationService, never()).notifyAdmins(any(), any());
+        verify(userAdminStats, never()).incrementCrisisFlags(any());
     }
 
     @Test
@@ -0,0 +1,142 @@
+package com.mindease.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mindease.mindfulness.model.GuidedProgram;
+import com.mindease.mindfulness.model.GuidedSession;
+import com.mindease.mindfulness.model.GuidedStep;
+import com.mindease.mindfulness.repository.GuidedProgramRepository;
+import com.mindease.mindfulness.repository.GuidedSessionProgressRepository;
+import com.mindease.mindfulness.repository.GuidedSessionRepository;
+import com.mindease.mindfulness.repository.GuidedStepRepository;
+import com.mindease.mindfulness.service.GuidedProgramCatalog;
+import com.mindease.mindfulness.service.GuidedProgramService;
+import com.mindease.shared.exception.AccessDeniedException;
+import com.mindease.shared.exception.SessionNotFoundException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class GuidedProgramServiceTest {
+
+    @Mock
+    private GuidedProgramCatalog catalog;
+
+    @Mock
+    private GuidedProgramRepository guidedProgramRepository;
+
+    @Mock
+    private GuidedSessionRepository guidedSessionRepository;
+
+    @Mock
+    private GuidedSessionProgressRepository progressRepository;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    private GuidedProgramService service;
+
+    private final UUID userId = UUID.randomUUID();
+    private final UUID sessionId = UUID.randomUUID();
+    private final UUID programId = UUID.randomUUID();
+
+    @Test
+    void stepIsSubmittedAsOneConditionalUpdate() {
+        GuidedSession updated = new GuidedSession();
+        when(progressRepository.findOwner(sessionId))
+                .thenReturn(Optional.of(new GuidedSessionProgressRepository.Owner(userId, programId)));
+        when(catalog.stepCount(programId)).thenReturn(3);
+        when(progressRepository.advance(eq(sessionId), eq(userId), eq(2), eq(3), eq("{\"answer\":\"calm\"}"), any()))
+                .thenReturn(Optional.of(updated));
+
+        GuidedSession result = service.updateSessionStep(userId, sessionId, 2, Map.of("answer", "calm"));
+
+        assertThat(result).isSameAs(updated);
+        verifyNoInteractions(guidedSessionRepository);
+    }
+
+    @Test
+    void anotherUsersSessionIsRejected() {
+        when(progressRepository.findOwner(sessionId))
+                .thenReturn(Optional.of(new GuidedSessionProgressRepository.Owner(UUID.randomUUID(), programId)));
+
+        assertThatThrownBy(() -> service.updateSessionStep(userId, sessionId, 1, Map.of()))
+                .isInstanceOf(AccessDeniedException.class);
+        verify(progressRepository, never()).advance(any(), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void stepBeyondTheProgramIsRejected() {
+        when(progressRepository.findOwner(sessionId))
+                .thenReturn(Optional.of(new GuidedSessionProgressRepository.Owner(userId, programId)));
+        when(catalog.stepCount(programId)).thenReturn(3);
+
+        assertThatThrownBy(() -> service.updateSessionStep(userId, sessionId, 4, Map.of()))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds total steps 3");
+        verify(progressRepository, never()).advance(any(), any(), anyInt(), anyInt(), any(), any());
+    }
+
+    @Test
+    void missingSessionIsReported() {
+        when(progressRepository.findOwner(sessionId)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> service.updateSessionStep(userId, sessionId, 1, Map.of()))
+                .isInstanceOf(SessionNotFoundException.class);
+    }
+
+    @Test
+    void catalogCountsStepsFromTheSnapshot() {
+        GuidedProgramRepository programs = mock(GuidedProgramRepository.class);
+        GuidedStepRepository steps = mock(GuidedStepRepository.class);
+        GuidedProgram program = new GuidedProgram("Grounding", null, "grounding", 5);
+        program.setId(programId);
+        GuidedProgram inactive = new GuidedProgram("Old", null, "cbt", 5);
+        inactive.setId(UUID.randomUUID());
+        inactive.setActive(false);
+        when(programs.findAll()).thenReturn(List.of(program, inactive));
+        when(steps.findAll()).thenReturn(List.of(step(2), step(1)));
+        GuidedProgramCatalog programCatalog = new GuidedProgramCatalog(programs, steps);
+
+        assertThat(programCatalog.stepCount(programId)).isEqualTo(2);
+        assertThat(programCatalog.snapshot().stepsOf(programId)).extracting(GuidedStep::getStepNumber)
+                .containsExactly(1, 2);
+        assertThat(programCatalog.snapshot().activePrograms()).containsExactly(program);
+        verify(programs, times(1)).findAll();
+        verify(steps, never()).countByProgramId(any());
+
+        // A program added after the snapshot was taken
+        UUID newProgram = UUID.randomUUID();
+        when(steps.countByProgramId(newProgram)).thenReturn(4L);
+        assertThat(programCatalog.stepCount(newProgram)).isEqualTo(4);
+    }
+
+    private GuidedStep step(int number) {
+        GuidedStep step = new GuidedStep();
+        step.setId(UUID.randomUUID());
+        step.setProgramId(programId);
+        step.setStepNumber(number);
+        return step;
+    }
+}
@@ -0,0 +1,71 @@
+package com.mindease.service;
+
+import com.mindease.notification.repository.InactivityReminderRepository;
+import com.mindease.notification.repository.InactivityReminderRepository.Batch;
+import com.mindease.shared.repository.ScheduledJobLeaseRepository;
+import com.mindease.shared.service.ClusterJobRunner;
+import com.mindease.shared.service.InactivityDetectionService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InactivityDetectionServiceTest {
+
+    private static final UUID FIRST = new UUID(0L, 0L);
+
+    private final InactivityReminderRepository reminders = mock(InactivityReminderRepository.class);
+    private final ScheduledJobLeaseRepository leases = mock(ScheduledJobLeaseRepository.class);
+    private final ClusterJobRunner runner = new ClusterJobRunner(leases, mock(TransactionTemplate.class),
+            new SimpleMeterRegistry(), "node-a");
+
+    @Test
+    void walksEachShardInKeysetBatchesAndCheckpointsBetweenThem() {
+        when(leases.tryAcquire(anyString(), anyInt(), anyString(), any())).thenReturn(true);
+        when(leases.saveCheckpoint(anyString(), anyInt(), anyString(), anyString(), any())).thenReturn(true);
+        UUID middle = UUID.randomUUID();
+        when(reminders.insertBatch(eq(FIRST), eq(2), anyInt(), eq(2), any(), any(), anyString(), any()))
+                .thenReturn(new Batch(2, middle, 1));
+        when(reminders.insertBatch(eq(middle), eq(2), anyInt(), eq(2), any(), any(), anyString(), any()))
+                .thenReturn(new Batch(1, UUID.randomUUID(), 1));
+
+        new InactivityDetectionService(reminders, runner, 2, 2).detectInactiveUsers();
+
+        for (int shard = 0; shard < 2; shard++) {
+            verify(reminders).insertBatch(eq(FIRST), eq(2), eq(shard), eq(2), any(), any(), anyString(), any());
+            verify(reminders).insertBatch(eq(middle), eq(2), eq(shard), eq(2), any(), any(), anyString(), any());
+            verify(leases).saveCheckpoint("inactivity-detection", shard, "node-a", middle.toString(),
+                    Duration.ofMinutes(30));
+            verify(leases).release(eq("inactivity-detection"), eq(shard), eq("node-a"), any(), eq("SUCCEEDED"), eq(2L),
+                    any());
+        }
+    }
+
+    @Test
+    void resumesFromCheckpoint() {
+        UUID resumeAfter = UUID.randomUUID();
+        when(leases.tryAcquire(anyString(), anyInt(), anyString(), any())).thenReturn(true);
+        when(leases.checkpoint("inactivity-detection", 0)).thenReturn(resumeAfter.toString());
+        when(reminders.insertBatch(any(), anyInt(), anyInt(), anyInt(), any(), any(), anyString(), any()))
+                .thenReturn(new Batch(0, null, 0));
+
+        new InactivityDetectionService(reminders, runner, 1, 100).detectInactiveUsers();
+
+        verify(reminders, times(1)).insertBatch(eq(resumeAfter), eq(100), eq(0), eq(1), any(), any(), anyString(),
+                any());
+        verify(reminders, never()).insertBatch(eq(FIRST), anyInt(), anyInt(), anyInt(), any(), any(), anyString(),
+                any());
+    }
+}
@@ -0,0 +1,70 @@
+package com.mindease.service;
+
+import com.mindease.chat.model.enums.ChatLanguage;
+import com.mindease.chat.service.ChatLanguageResolver;
+import com.mindease.chat.service.LanguageDetector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LanguageDetectorTest {
+
+    private static LanguageDetector detector;
+
+    @BeforeAll
+    static void setUp() {
+        detector = new LanguageDetector();
+    }
+
+    @Test
+    void detectsDevanagariAsNepali() {
+        assertThat(detector.detect("मलाई आज धेरै नराम्रो लागिरहेको छ")).contains(ChatLanguage.NEPALI);
+        assertThat(detector.detect("I feel मन दुखी today")).contains(ChatLanguage.NEPALI);
+    }
+
+    @Test
+    void detectsEnglish() {
+        assertThat(detector.detect("I can't stop worrying about my exams this week")).contains(ChatLanguage.ENGLISH);
+        assertThat(detector.detect("My sister and I had a fight and I feel terrible")).contains(ChatLanguage.ENGLISH);
+    }
+
+    @Test
+    void detectsRomanizedNepali() {
+        assertThat(detector.detect("malai aaja dherai naramro lagiraheko cha")).contains(ChatLanguage.NEPALI_ROMANIZED);
+        assertThat(detector.detect("mero sathi sanga kura garna man lagena")).contains(ChatLanguage.NEPALI_ROMANIZED);
+    }
+
+    @Test
+    void shortOrEmptyMessagesAreUndecided() {
+        assertThat(detector.detect("")).isEmpty();
+        assertThat(detector.detect(null)).isEmpty();
+        assertThat(detector.detect("ok")).isEmpty();
+        assertThat(detector.detect("?!")).isEmpty();
+    }
+
+    @Test
+    void resolverFallsBackToSessionThenPreference() {
+        ChatLanguageResolver resolver = new ChatLanguageResolver(detector,
+                new ConcurrentMapCacheManager("chatLanguage"));
+        UUID session = UUID.randomUUID();
+
+        assertThat(resolver.resolve(session, "ok", "ne")).isEqualTo(ChatLanguage.NEPALI);
+        assertThat(resolver.resolve(session, "malai aaja dherai naramro lagiraheko cha", "en"))
+                .isEqualTo(ChatLanguage.NEPALI_ROMANIZED);
+        assertThat(resolver.resolve(session, "ok", "en")).isEqualTo(ChatLanguage.NEPALI_ROMANIZED);
+        assertThat(resolver.resolve(UUID.randomUUID(), "ok", null)).isEqualTo(ChatLanguage.ENGLISH);
+    }
+
+    @Test
+    void contextCarriesResolvedLanguage() {
+        assertThat(ChatLanguageResolver.fromContext(Map.of(ChatLanguage.CONTEXT_KEY, "ne-Latn")))
+                .contains(ChatLanguage.NEPALI_ROMANIZED);
+        assertThat(ChatLanguageResolver.fromContext(Map.of("preferredLanguage", "ne"))).isEmpty();
+        assertThat(ChatLanguage.NEPALI_ROMANIZED.getResourceLanguage()).isEqualTo("ne");
+    }
+}
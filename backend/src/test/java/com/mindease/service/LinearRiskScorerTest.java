@@ -0,0 +1,140 @@
+package com.mindease.service;
+
+import com.mindease.crisis.service.LinearRiskScorer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Loads the shipped model and checks it against the held-out fixture set in
+ * {@code src/test/resources/crisis/risk-fixtures.tsv}. Also guards against the
+ * Java tokenizer drifting from {@code scripts/train_risk_model.py}: any drift
+ * shows up as an accuracy drop here.
+ */
+class LinearRiskScorerTest {
+
+    private static final double MIN_ACCURACY = 0.85;
+
+    private static LinearRiskScorer scorer;
+
+    @BeforeAll
+    static void loadModel() throws IOException {
+        try (InputStream in = LinearRiskScorerTest.class.getResourceAsStream("/models/crisis-risk-model.txt")) {
+            scorer = LinearRiskScorer.fromStream(in);
+        }
+    }
+
+    @Test
+    void accuracyOnLabelledFixturesMeetsThreshold() throws IOException {
+        List<Fixture> fixtures = loadFixtures();
+        int correct = 0;
+        List<String> misses = new ArrayList<>();
+        for (Fixture f : fixtures) {
+            double p = scorer.probability(f.text());
+            if ((p >= 0.5) == f.risky()) {
+                correct++;
+            } else {
+                misses.add(String.format("%.3f %s", p, f.text()));
+            }
+        }
+        double accuracy = (double) correct / fixtures.size();
+        assertThat(accuracy)
+                .as("accuracy on %d fixtures, misses: %s", fixtures.size(), misses)
+                .isGreaterThanOrEqualTo(MIN_ACCURACY);
+    }
+
+    @Test
+    void scoresAreProbabilities() {
+        assertThat(scorer.score("I want to kill myself")).hasValueSatisfying(p -> assertThat(p).isBetween(0.5, 1.0));
+        assertThat(scorer.score("I had a nice walk in the park")).hasValueSatisfying(p -> assertThat(p).isBetween(0.0, 0.5));
+        assertThat(scorer.score("")).hasValueSatisfying(p -> assertThat(p).isBetween(0.0, 0.5));
+    }
+
+    @Test
+    void normalizesCaseAndApostrophes() {
+        assertThat(scorer.probability("I DON'T want to live anymore"))
+                .isEqualTo(scorer.probability("i dont want to live anymore"));
+        assertThat(scorer.probability("I don’t want to live anymore"))
+                .isEqualTo(scorer.probability("i dont want to live anymore"));
+    }
+
+    @Test
+    void rejectsNullText() {
+        assertThatThrownBy(() -> scorer.score(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void concurrentScoringIsDeterministic() throws Exception {
+        List<Fixture> fixtures = loadFixtures();
+        double[] expected = fixtures.stream().mapToDouble(f -> scorer.probability(f.text())).toArray();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    for (int round = 0; round < 200; round++) {
+                        for (int i = 0; i < fixtures.size(); i++) {
+                            if (scorer.probability(fixtures.get(i).text()) != expected[i]) {
+                                return false;
+                            }
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsMalformedModels() {
+        assertThatThrownBy(() -> LinearRiskScorer.fromStream(model("format=other\nbuckets=16\nbias=0\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LinearRiskScorer.fromStream(model("format=hashed-ngram-lr\nbuckets=10\nbias=0\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> LinearRiskScorer.fromStream(model("format=hashed-ngram-lr\nbias=0\n3 0.5\n")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static InputStream model(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static List<Fixture> loadFixtures() throws IOException {
+        List<Fixture> fixtures = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                LinearRiskScorerTest.class.getResourceAsStream("/crisis/risk-fixtures.tsv"), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                int tab = line.indexOf('\t');
+                fixtures.add(new Fixture("1".equals(line.substring(0, tab)), line.substring(tab + 1)));
+            }
+        }
+        return fixtures;
+    }
+
+    record Fixture(boolean risky, String text) {
+    }
+}
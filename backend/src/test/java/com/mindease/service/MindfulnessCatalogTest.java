@@ -0,0 +1,107 @@
+package com.mindease.service;
+
+import com.mindease.mindfulness.model.MindfulnessSession;
+import com.mindease.mindfulness.repository.MindfulnessSessionRepository;
+import com.mindease.mindfulness.service.MindfulnessCatalog;
+import com.mindease.shared.events.ContentChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MindfulnessCatalogTest {
+
+    private final MindfulnessSessionRepository repository = mock(MindfulnessSessionRepository.class);
+    private final MindfulnessCatalog catalog = new MindfulnessCatalog(repository);
+
+    private static MindfulnessSession session(String title, String type, int duration, String category,
+            String difficulty) {
+        MindfulnessSession s = new MindfulnessSession(title, null, type, duration, null, category, difficulty);
+        s.setId(UUID.randomUUID());
+        return s;
+    }
+
+    private final MindfulnessSession longSleep = session("Sleep", "audio", 20, "sleep", "beginner");
+    private final MindfulnessSession breath = session("Breath", "audio", 3, "breathing", "beginner");
+    private final MindfulnessSession scan = session("Scan", "video", 10, "relaxation", "intermediate");
+    private final MindfulnessSession boxBreath = session("Box", "audio", 5, "breathing", "advanced");
+
+    @Test
+    void snapshotIsIndexedAndSortedByDuration() {
+        when(repository.findAll()).thenReturn(List.of(longSleep, breath, scan, boxBreath));
+
+        MindfulnessCatalog.Snapshot snapshot = catalog.snapshot();
+
+        assertThat(snapshot.sessions()).containsExactly(breath, boxBreath, scan, longSleep);
+        assertThat(snapshot.ofType("audio")).containsExactly(breath, boxBreath, longSleep);
+        assertThat(snapshot.inCategory("breathing")).containsExactly(breath, boxBreath);
+        assertThat(snapshot.atDifficulty("beginner")).containsExactly(breath, longSleep);
+        assertThat(snapshot.inCategory("unknown")).isEmpty();
+        assertThat(snapshot.categories()).containsExactly("breathing", "relaxation", "sleep");
+        assertThat(snapshot.upTo(5)).containsExactly(breath, boxBreath);
+        assertThat(snapshot.upTo(2)).isEmpty();
+        assertThat(snapshot.upTo(60)).hasSize(4);
+        assertThat(catalog.findById(scan.getId())).contains(scan);
+        assertThatThrownBy(() -> snapshot.sessions().add(scan)).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @Test
+    void snapshotIsLoadedOnceAndServedFromMemory() {
+        when(repository.findAll()).thenReturn(List.of(breath));
+
+        catalog.snapshot();
+        catalog.snapshot();
+        catalog.findById(breath.getId());
+
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void reloadKeepsTheVersionAndEtagWhenNothingChanged() {
+        when(repository.findAll()).thenReturn(List.of(breath, scan));
+        MindfulnessCatalog.Snapshot first = catalog.snapshot();
+
+        catalog.onContentChanged(new ContentChangedEvent("content"));
+
+        assertThat(catalog.snapshot()).isSameAs(first);
+        assertThat(first.etag()).startsWith("\"").endsWith("\"");
+    }
+
+    @Test
+    void changedContentSwapsInANewVersion() {
+        List<MindfulnessSession> rows = new ArrayList<>(List.of(breath, scan));
+        when(repository.findAll()).thenAnswer(inv -> List.copyOf(rows));
+        MindfulnessCatalog.Snapshot first = catalog.snapshot();
+
+        MindfulnessSession edited = session("Scan", "video", 12, "relaxation", "intermediate");
+        edited.setId(scan.getId());
+        rows.set(1, edited);
+        catalog.refresh();
+
+        MindfulnessCatalog.Snapshot second = catalog.snapshot();
+        assertThat(second.version()).isGreaterThan(first.version());
+        assertThat(second.etag()).isNotEqualTo(first.etag());
+        assertThat(second.byId().get(scan.getId()).getDuration()).isEqualTo(12);
+        // Readers holding the old snapshot still see it unchanged
+        assertThat(first.byId().get(scan.getId()).getDuration()).isEqualTo(10);
+    }
+
+    @Test
+    void failedRefreshKeepsServingTheCurrentSnapshot() {
+        when(repository.findAll()).thenReturn(List.of(breath))
+                .thenThrow(new IllegalStateException("database down"));
+        MindfulnessCatalog.Snapshot first = catalog.snapshot();
+
+        catalog.refresh();
+
+        assertThat(catalog.snapshot()).isSameAs(first);
+    }
+}
@@ -0,0 +1,167 @@
+package com.mindease.service;
+
+import com.mindease.auth.model.User;
+import com.mindease.mindfulness.model.MindfulnessSession;
+import com.mindease.mindfulness.model.UserMindfulnessPreferences;
+import com.mindease.mindfulness.model.UserMindfulnessRecommendations;
+import com.mindease.mindfulness.repository.MindfulnessSessionActivityRepository;
+import com.mindease.mindfulness.repository.MindfulnessSessionRepository;
+import com.mindease.mindfulness.repository.UserMindfulnessPreferencesRepository;
+import com.mindease.mindfulness.repository.UserMindfulnessRecommendationsRepository;
+import com.mindease.mindfulness.service.MindfulnessCatalog;
+import com.mindease.mindfulness.service.MindfulnessRecommendationService;
+import com.mindease.mood.model.MoodEntry;
+import com.mindease.mood.repository.MoodEntryRepository;
+import com.mindease.shared.events.MindfulnessRecommendationsStaleEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MindfulnessRecommendationTest {
+
+    @Mock
+    private MindfulnessCatalog catalog;
+
+    @Mock
+    private MindfulnessSessionActivityRepository activityRepository;
+
+    @Mock
+    private MoodEntryRepository moodEntryRepository;
+
+    @Mock
+    private UserMindfulnessPreferencesRepository preferencesRepository;
+
+    @Mock
+    private UserMindfulnessRecommendationsRepository recommendationsRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private ApplicationEventPublisher events;
+
+    @InjectMocks
+    private MindfulnessRecommendationService service;
+
+    private final MindfulnessSession energizing = session("Wake up", "audio", 5, "energizing", "beginner");
+    private final MindfulnessSession breathing = session("Breathe", "audio", 3, "breathing", "beginner");
+    private final MindfulnessSession scan = session("Body scan", "video", 15, "relaxation", "intermediate");
+    private final MindfulnessSession deep = session("Deep", "audio", 30, "relaxation", "advanced");
+
+    private MindfulnessCatalog.Snapshot snapshot;
+    private User user;
+
+    private static MindfulnessSession session(String title, String type, int duration, String category,
+            String difficulty) {
+        MindfulnessSession s = new MindfulnessSession(title, null, type, duration, null, category, difficulty);
+        s.setId(UUID.randomUUID());
+        return s;
+    }
+
+    @BeforeEach
+    void setUp() {
+        MindfulnessSessionRepository sessions = mock(MindfulnessSessionRepository.class);
+        when(sessions.findAll()).thenReturn(List.of(energizing, breathing, scan, deep));
+        snapshot = new MindfulnessCatalog(sessions).snapshot();
+        when(catalog.snapshot()).thenReturn(snapshot);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(recommendationsRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        user = new User();
+        user.setId(UUID.randomUUID());
+    }
+
+    @Test
+    void recomputeBuildsTheListsFromTheCatalog() {
+        MoodEntry mood = new MoodEntry(user, 3, null);
+        when(moodEntryRepository.findFirstByUserIdOrderByCreatedAtDesc(user.getId())).thenReturn(Optional.of(mood));
+        when(activityRepository.countCompletionsBySession(user.getId()))
+                .thenReturn(List.<Object[]>of(new Object[] { breathing.getId(), 4L }));
+        UserMindfulnessPreferences preferences = new UserMindfulnessPreferences(user);
+        preferences.setPreferredCategories(List.of("relaxation"));
+        when(preferencesRepository.findByUserId(user.getId())).thenReturn(Optional.of(preferences));
+
+        UserMindfulnessRecommendations stored = service.recompute(user.getId());
+
+        // Low mood: energizing first, then breathing
+        assertThat(stored.getMoodBased()).containsExactly(energizing.getId(), breathing.getId());
+        // Mostly beginner sessions completed: suggest the next level
+        assertThat(stored.getContinueJourney()).containsExactly(scan.getId());
+        // Same type as the completed session, minus the completed one
+        assertThat(stored.getSimilarSessions()).containsExactly(energizing.getId(), deep.getId());
+        assertThat(stored.getRecommendedForYou()).containsExactly(scan.getId(), deep.getId());
+        assertThat(stored.getCatalogEtag()).isEqualTo(snapshot.etag());
+        verify(recommendationsRepository).save(stored);
+    }
+
+    @Test
+    void storedListsAreServedInOneRead() {
+        UserMindfulnessRecommendations stored = new UserMindfulnessRecommendations(user.getId());
+        stored.setMoodBased(new UUID[] { scan.getId(), UUID.randomUUID(), breathing.getId() });
+        stored.setCatalogEtag(snapshot.etag());
+        when(recommendationsRepository.findById(user.getId())).thenReturn(Optional.of(stored));
+
+        Map<String, List<MindfulnessSession>> recommendations = service.getRecommendations(user);
+
+        // Sessions no longer in the catalog are dropped
+        assertThat(recommendations.get("moodBased")).containsExactly(scan, breathing);
+        assertThat(recommendations).containsKeys("continueJourney", "similarSessions", "timeBased",
+                "recommendedForYou");
+        verifyNoInteractions(moodEntryRepository, activityRepository, preferencesRepository, events);
+    }
+
+    @Test
+    void listsFromAnOlderCatalogAreServedAndRecomputed() {
+        UserMindfulnessRecommendations stored = new UserMindfulnessRecommendations(user.getId());
+        stored.setContinueJourney(new UUID[] { scan.getId() });
+        stored.setCatalogEtag("\"old\"");
+        when(recommendationsRepository.findById(user.getId())).thenReturn(Optional.of(stored));
+
+        Map<String, List<MindfulnessSession>> recommendations = service.getRecommendations(user);
+
+        assertThat(recommendations.get("continueJourney")).containsExactly(scan);
+        verify(events).publishEvent(argThat((Object e) -> e instanceof MindfulnessRecommendationsStaleEvent evt
+                && evt.getUserId().equals(user.getId())));
+        verify(recommendationsRepository, never()).save(any());
+    }
+
+    @Test
+    void firstRequestComputesTheListsInLine() {
+        when(recommendationsRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(moodEntryRepository.findFirstByUserIdOrderByCreatedAtDesc(user.getId())).thenReturn(Optional.empty());
+        when(activityRepository.countCompletionsBySession(user.getId())).thenReturn(List.of());
+        when(preferencesRepository.findByUserId(user.getId())).thenReturn(Optional.empty());
+
+        Map<String, List<MindfulnessSession>> recommendations = service.getRecommendations(user);
+
+        // No mood or history yet: beginner sessions, shortest first
+        assertThat(recommendations.get("moodBased")).containsExactly(breathing, energizing);
+        assertThat(recommendations.get("continueJourney")).containsExactly(breathing, energizing);
+        assertThat(recommendations.get("similarSessions")).isEmpty();
+        assertThat(recommendations.get("recommendedForYou")).isEmpty();
+        verify(recommendationsRepository).save(any());
+    }
+}
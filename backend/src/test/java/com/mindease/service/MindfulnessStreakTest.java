@@ -0,0 +1,123 @@
+package com.mindease.service;
+
+import com.mindease.auth.model.User;
+import com.mindease.mindfulness.model.MindfulnessActivityCalendar;
+import com.mindease.mindfulness.repository.MindfulnessActivityCalendarRepository;
+import com.mindease.mindfulness.repository.MindfulnessSessionActivityRepository;
+import com.mindease.mindfulness.service.MindfulnessService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class MindfulnessStreakTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    @Mock
+    private MindfulnessActivityCalendarRepository calendarRepository;
+
+    @Mock
+    private MindfulnessSessionActivityRepository activityRepository;
+
+    @InjectMocks
+    private MindfulnessService mindfulnessService;
+
+    private static MindfulnessActivityCalendar calendarWith(LocalDate... days) {
+        MindfulnessActivityCalendar calendar = new MindfulnessActivityCalendar(UUID.randomUUID());
+        for (LocalDate day : days) {
+            calendar.record(day);
+        }
+        return calendar;
+    }
+
+    @Test
+    void consecutiveDaysExtendTheStreakAndRepeatsAreIgnored() {
+        MindfulnessActivityCalendar calendar = calendarWith(TODAY.minusDays(2), TODAY.minusDays(1));
+
+        assertThat(calendar.record(TODAY)).isTrue();
+        assertThat(calendar.record(TODAY)).isFalse();
+
+        assertThat(calendar.currentStreak(TODAY)).isEqualTo(3);
+        assertThat(calendar.getLongestStreak()).isEqualTo(3);
+        assertThat(calendar.isActiveOn(TODAY.minusDays(1))).isTrue();
+        assertThat(calendar.isActiveOn(TODAY.minusDays(3))).isFalse();
+    }
+
+    @Test
+    void streakSurvivesUntilADayIsMissedAndLongestIsKept() {
+        MindfulnessActivityCalendar calendar = calendarWith(
+                TODAY.minusDays(10), TODAY.minusDays(9), TODAY.minusDays(8), TODAY.minusDays(1));
+
+        // Yesterday counts until today is over
+        assertThat(calendar.currentStreak(TODAY)).isEqualTo(1);
+        assertThat(calendar.currentStreak(TODAY.plusDays(1))).isZero();
+        assertThat(calendar.getLongestStreak()).isEqualTo(3);
+
+        calendar.record(TODAY);
+        assertThat(calendar.currentStreak(TODAY.plusDays(1))).isEqualTo(2);
+    }
+
+    @Test
+    void earlierDaysAreMergedIntoTheirRun() {
+        MindfulnessActivityCalendar calendar = calendarWith(TODAY, TODAY.minusDays(2));
+        assertThat(calendar.currentStreak(TODAY)).isEqualTo(1);
+
+        // Fills the gap, joining both runs
+        calendar.record(TODAY.minusDays(1));
+        assertThat(calendar.currentStreak(TODAY)).isEqualTo(3);
+
+        // Before the first recorded day
+        calendar.record(TODAY.minusDays(400));
+        assertThat(calendar.isActiveOn(TODAY.minusDays(400))).isTrue();
+        assertThat(calendar.isActiveOn(TODAY.minusDays(2))).isTrue();
+        assertThat(calendar.getLongestStreak()).isEqualTo(3);
+    }
+
+    @Test
+    void streakReadUsesTheStoredCalendar() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        LocalDate today = LocalDate.now();
+        when(calendarRepository.findById(user.getId()))
+                .thenReturn(Optional.of(calendarWith(today.minusDays(1), today)));
+
+        Map<String, Object> streak = mindfulnessService.getUserStreak(user);
+
+        assertThat(streak).containsEntry("currentStreak", 2).containsEntry("longestStreak", 2)
+                .containsEntry("isActive", true);
+        verify(activityRepository, never()).findDistinctCompletionEpochDays(user.getId());
+    }
+
+    @Test
+    void firstReadBuildsTheCalendarFromExistingHistory() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        LocalDate today = LocalDate.now();
+        MindfulnessActivityCalendar empty = new MindfulnessActivityCalendar(user.getId());
+        when(calendarRepository.findById(user.getId())).thenReturn(Optional.empty());
+        when(calendarRepository.insertIfAbsent(user.getId())).thenReturn(1);
+        when(calendarRepository.findForUpdate(user.getId())).thenReturn(Optional.of(empty));
+        when(activityRepository.findDistinctCompletionEpochDays(user.getId())).thenReturn(List.of(
+                (int) today.minusDays(5).toEpochDay(),
+                (int) today.minusDays(1).toEpochDay(),
+                (int) today.toEpochDay()));
+
+        Map<String, Object> streak = mindfulnessService.getUserStreak(user);
+
+        assertThat(streak).containsEntry("currentStreak", 2).containsEntry("longestStreak", 2);
+    }
+}
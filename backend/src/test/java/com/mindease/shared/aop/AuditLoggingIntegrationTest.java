@@ -1,6 +1,6 @@
 package com.mindease.shared.aop;
 
-import com.mindease.admin.model.AuditLog;
+import com.mindease.admin.model.AuditEvent;
 import com.mindease.admin.repository.AuditLogRepository;
 import com.mindease.admin.service.AuditService;
 import org.junit.jupiter.api.Test;
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,17 +26,18 @@ class AuditLoggingIntegrationTest {
     private AuditLogRepository repo;
 
     @Test
-    void asyncAuditWriteInvokesRepositorySave() {
+    @SuppressWarnings("unchecked")
+    void queuedAuditWriteIsFlushedAsBatchInsert() {
         UUID userId = UUID.randomUUID();
 
         auditService.moodAdded(userId);
 
-        ArgumentCaptor<AuditLog> captor = ArgumentCaptor.forClass(AuditLog.class);
-        verify(repo, timeout(1500)).save(captor.capture());
+        ArgumentCaptor<List<AuditEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repo, timeout(1500)).insertBatch(captor.capture());
 
-        AuditLog saved = captor.getValue();
-        assertThat(saved.getUserId()).isEqualTo(userId);
-        assertThat(saved.getActionType()).isEqualTo("MOOD_ADDED");
-        assertThat(saved.getDetails()).isNotNull();
+        AuditEvent saved = captor.getValue().get(0);
+        assertThat(saved.userId()).isEqualTo(userId);
+        assertThat(saved.actionType()).isEqualTo("MOOD_ADDED");
+        assertThat(saved.details()).isNotNull();
     }
 }
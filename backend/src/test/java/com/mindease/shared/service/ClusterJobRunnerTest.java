@@ -0,0 +1,153 @@
+package com.mindease.shared.service;
+
+import com.mindease.shared.repository.ScheduledJobLeaseRepository;
+import com.mindease.shared.service.ClusterJobRunner.JobSpec;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ClusterJobRunnerTest {
+
+    private static final String NODE = "node-a";
+    private static final JobSpec JOB = JobSpec.of("test-job", Duration.ofMinutes(5));
+
+    private final ScheduledJobLeaseRepository leases = mock(ScheduledJobLeaseRepository.class);
+    private final TransactionTemplate transactions = mock(TransactionTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ClusterJobRunner runner = new ClusterJobRunner(leases, transactions, registry, NODE);
+
+    private double runs(String outcome) {
+        return registry.counter("scheduled.job.runs", "job", "test-job", "outcome", outcome).count();
+    }
+
+    @Test
+    void skipsWhenAnotherNodeHoldsTheLease() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(false);
+        List<Integer> ran = new ArrayList<>();
+
+        assertThat(runner.run(JOB, ctx -> ran.add(ctx.shard()) ? 1 : 0)).isZero();
+
+        assertThat(ran).isEmpty();
+        assertThat(runs("skipped")).isEqualTo(1.0);
+        verify(leases, never()).release(anyString(), anyInt(), anyString(), any(), anyString(), anyLong(), any());
+    }
+
+    @Test
+    void recordsRowsAndClearsCheckpointOnSuccess() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(true);
+
+        assertThat(runner.run(JOB, ctx -> 42)).isEqualTo(1);
+
+        verify(leases).release("test-job", 0, NODE, JOB.lockAtLeast(), "SUCCEEDED", 42L, null);
+        assertThat(runs("succeeded")).isEqualTo(1.0);
+        assertThat(registry.counter("scheduled.job.rows", "job", "test-job").count()).isEqualTo(42.0);
+        assertThat(registry.timer("scheduled.job.duration", "job", "test-job", "outcome", "succeeded").count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void failureIsRecordedNotThrownAndCheckpointIsResumedNextRun() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(true);
+        when(leases.saveCheckpoint("test-job", 0, NODE, "page-3", JOB.lockAtMost())).thenReturn(true);
+
+        runner.run(JOB, ctx -> {
+            ctx.saveCheckpoint("page-3");
+            throw new IllegalStateException("boom");
+        });
+
+        verify(leases).release(eq("test-job"), eq(0), eq(NODE), eq(JOB.lockAtLeast()), eq("FAILED"), eq(0L),
+                contains("boom"));
+        assertThat(runs("failed")).isEqualTo(1.0);
+
+        when(leases.checkpoint("test-job", 0)).thenReturn("page-3");
+        List<String> seen = new ArrayList<>();
+        runner.run(JOB, ctx -> {
+            seen.add(ctx.checkpoint());
+            return 0;
+        });
+        assertThat(seen).containsExactly("page-3");
+    }
+
+    @Test
+    void runStoppedEarlyKeepsItsCheckpoint() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(true);
+        when(leases.saveCheckpoint("test-job", 0, NODE, "page-9", JOB.lockAtMost())).thenReturn(true);
+
+        runner.run(JOB, ctx -> {
+            ctx.saveCheckpoint("page-9");
+            ctx.resumeNextRun();
+            return 5;
+        });
+
+        verify(leases).release("test-job", 0, NODE, JOB.lockAtLeast(), "INCOMPLETE", 5L, null);
+        assertThat(runs("incomplete")).isEqualTo(1.0);
+    }
+
+    @Test
+    void lostLeaseStopsTheJob() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(true);
+        when(leases.saveCheckpoint(anyString(), anyInt(), anyString(), anyString(), any())).thenReturn(false);
+        List<String> after = new ArrayList<>();
+
+        runner.run(JOB, ctx -> {
+            ctx.saveCheckpoint("x");
+            after.add("continued");
+            return 1;
+        });
+
+        assertThat(after).isEmpty();
+        verify(leases).release(eq("test-job"), eq(0), eq(NODE), any(), eq("FAILED"), eq(0L), contains("Lost lease"));
+    }
+
+    @Test
+    void runsOnlyTheShardsWhoseLeaseItTakes() {
+        JobSpec sharded = JOB.sharded(4);
+        when(leases.tryAcquire(eq("test-job"), anyInt(), eq(NODE), any()))
+                .thenAnswer(inv -> (int) inv.getArgument(1) % 2 == 1);
+        List<Integer> shards = new ArrayList<>();
+        UUID user = UUID.fromString("00000000-0000-0000-0000-000000000007"); // last byte 7 -> shard 3
+
+        int ran = runner.run(sharded, ctx -> {
+            shards.add(ctx.shard());
+            assertThat(ctx.shardCount()).isEqualTo(4);
+            assertThat(ctx.ownsUser(user)).isEqualTo(ctx.shard() == 3);
+            return 0;
+        });
+
+        assertThat(ran).isEqualTo(2);
+        assertThat(shards).containsExactlyInAnyOrder(1, 3);
+        assertThat(runs("skipped")).isEqualTo(2.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transactionalJobsRunInsideTheTemplate() {
+        when(leases.tryAcquire("test-job", 0, NODE, JOB.lockAtMost())).thenReturn(true);
+        when(transactions.execute(any())).thenAnswer(inv -> ((TransactionCallback<Long>) inv.getArgument(0))
+                .doInTransaction(null));
+
+        runner.run(JOB.inTransaction(), ctx -> 7);
+
+        verify(transactions).execute(any());
+        verify(leases).release(eq("test-job"), eq(0), eq(NODE), any(), eq("SUCCEEDED"), eq(7L), isNull());
+    }
+}
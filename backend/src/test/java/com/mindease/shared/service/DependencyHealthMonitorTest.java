@@ -0,0 +1,59 @@
+package com.mindease.shared.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DependencyHealthMonitorTest {
+
+    @Test
+    void statusReadsCachedProbeResults() {
+        DependencyHealthMonitor monitor = new DependencyHealthMonitor(Clock.systemUTC());
+        AtomicBoolean dbUp = new AtomicBoolean(true);
+        monitor.register("database", dbUp::get);
+        monitor.register("ai-engine", () -> {
+            throw new IllegalStateException("connection refused");
+        });
+
+        assertThat(monitor.status("database").state()).isEqualTo(DependencyHealthMonitor.State.UNKNOWN);
+
+        monitor.probeAll();
+        assertThat(monitor.status("database").state()).isEqualTo(DependencyHealthMonitor.State.UP);
+        assertThat(monitor.status("ai-engine").state()).isEqualTo(DependencyHealthMonitor.State.DOWN);
+        assertThat(monitor.status("ai-engine").error()).isEqualTo("connection refused");
+
+        // Reads do not re-probe
+        dbUp.set(false);
+        assertThat(monitor.status("database").state()).isEqualTo(DependencyHealthMonitor.State.UP);
+        monitor.probeAll();
+        assertThat(monitor.status("database").state()).isEqualTo(DependencyHealthMonitor.State.DOWN);
+        assertThat(monitor.statuses()).containsOnlyKeys("database", "ai-engine");
+    }
+
+    @Test
+    void blockedProbeIsReportedDownAfterItsTimeout() {
+        DependencyHealthMonitor monitor = new DependencyHealthMonitor(Clock.systemUTC());
+        CountDownLatch release = new CountDownLatch(1);
+        // Like getConnection() waiting on an exhausted pool
+        monitor.register("database", monitor.withTimeout(() -> {
+            try {
+                return release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }, 100));
+
+        long start = System.nanoTime();
+        monitor.probeAll();
+
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(5_000);
+        assertThat(monitor.status("database").state()).isEqualTo(DependencyHealthMonitor.State.DOWN);
+        assertThat(monitor.status("database").error()).contains("100ms");
+        release.countDown();
+    }
+}
@@ -0,0 +1,115 @@
+package com.mindease.shared.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ErrorRateTrackerTest {
+
+    /** Mutable clock so the window can be advanced. */
+    static final class TestClock extends Clock {
+        Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(java.time.ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        void advance(Duration d) {
+            now = now.plus(d);
+        }
+    }
+
+    @Test
+    void rateCoversOnlyTheRollingWindow() {
+        TestClock clock = new TestClock();
+        ErrorRateTracker tracker = new ErrorRateTracker(60, 10, 10, clock);
+
+        for (int i = 0; i < 8; i++) {
+            tracker.record(200, "GET", "/ok", null);
+        }
+        tracker.record(500, "GET", "/boom", new IllegalStateException("boom"));
+        tracker.record(503, "GET", "/down", null);
+        assertThat(tracker.requestsInWindow()).isEqualTo(10);
+        assertThat(tracker.errorRate()).isEqualTo(0.2);
+
+        clock.advance(Duration.ofSeconds(30));
+        tracker.record(200, "GET", "/ok", null);
+        assertThat(tracker.requestsInWindow()).isEqualTo(11);
+
+        // The first bucket ages out; its slot is reused without leaking old counts
+        clock.advance(Duration.ofSeconds(40));
+        assertThat(tracker.requestsInWindow()).isEqualTo(1);
+        assertThat(tracker.errorRate()).isZero();
+        tracker.record(500, "POST", "/x", null);
+        assertThat(tracker.errorsInWindow()).isEqualTo(1);
+        assertThat(tracker.requestsInWindow()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentRequestsRollingABucketOverAreAllCounted() throws Exception {
+        TestClock clock = new TestClock();
+        ErrorRateTracker tracker = new ErrorRateTracker(20, 10, 10, clock);
+        tracker.record(200, "GET", "/old", null);
+        // Same slot, next lap of the ring: every thread races to restart it
+        clock.advance(Duration.ofSeconds(20));
+
+        int threads = 8;
+        int perThread = 5_000;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    tracker.record(200, "GET", "/ok", null);
+                }
+            });
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertThat(tracker.requestsInWindow()).isEqualTo((long) threads * perThread);
+    }
+
+    @Test
+    void keepsMostRecentServerErrorsNewestFirst() {
+        ErrorRateTracker tracker = new ErrorRateTracker(60, 10, 2, new TestClock());
+
+        tracker.record(404, "GET", "/missing", null);
+        tracker.record(500, "GET", "/a", new IllegalStateException("first"));
+        tracker.record(500, "GET", "/b", null);
+        tracker.record(502, "GET", "/c", new RuntimeException("x".repeat(1000)));
+
+        var recent = tracker.recentErrors();
+        assertThat(recent).extracting(ErrorRateTracker.RecentError::path).containsExactly("/c", "/b");
+        assertThat(recent.get(1).message()).isEqualTo("HTTP 500");
+        assertThat(recent.get(0).message()).startsWith("RuntimeException: xxx").hasSizeLessThan(320);
+    }
+}
@@ -0,0 +1,161 @@
+package com.mindease.shared.service;
+
+import com.mindease.shared.repository.RetentionPurgeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetentionPurgeServiceTest {
+
+    private static final LocalDateTime THRESHOLD = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final UUID START = new UUID(0L, 0L);
+
+    private final RetentionPurgeRepository repository = mock(RetentionPurgeRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MutableClock clock = new MutableClock();
+    private final List<Duration> pauses = new ArrayList<>();
+
+    private RetentionPurgeService service(int chunkSize, Duration maxRun) {
+        return new RetentionPurgeService(repository, registry, chunkSize, 0.25, 1000, maxRun, clock) {
+            @Override
+            protected boolean pause(Duration duration) {
+                pauses.add(duration);
+                clock.advance(duration.toMillis());
+                return true;
+            }
+        };
+    }
+
+    private static UUID id(long n) {
+        return new UUID(0L, n);
+    }
+
+    @Test
+    void purgesChunksInIdOrderAndCheckpointsEachOne() throws SQLException {
+        when(repository.findExpiredAnonymousUserIds(THRESHOLD, START, 2)).thenReturn(List.of(id(1), id(2)));
+        when(repository.findExpiredAnonymousUserIds(THRESHOLD, id(2), 2)).thenReturn(List.of(id(3)));
+        when(repository.purge(List.of(id(1), id(2)))).thenReturn(Map.of("messages", 10, "users", 2));
+        when(repository.purge(List.of(id(3)))).thenReturn(Map.of("messages", 4, "users", 1));
+        List<UUID> checkpoints = new ArrayList<>();
+
+        RetentionPurgeService.PurgeReport report = service(2, Duration.ofHours(1))
+                .purgeExpiredAnonymousUsers(THRESHOLD, START, checkpoints::add);
+
+        assertThat(report.completed()).isTrue();
+        assertThat(report.chunks()).isEqualTo(2);
+        assertThat(report.usersScanned()).isEqualTo(3);
+        assertThat(report.usersDeleted()).isEqualTo(3);
+        assertThat(report.rowsByTable()).containsEntry("messages", 14L).containsEntry("users", 3L);
+        assertThat(checkpoints).containsExactly(id(2), id(3));
+        // Only between full chunks; the short last chunk ends the run
+        assertThat(pauses).hasSize(1);
+        assertThat(registry.counter("retention.purge.rows", "table", "messages").count()).isEqualTo(14.0);
+    }
+
+    @Test
+    void throttleHonoursBothDutyCycleAndRowRate() {
+        RetentionPurgeService service = service(200, Duration.ofHours(1));
+
+        // 25% duty cycle: 100ms of work is followed by 300ms of rest
+        assertThat(service.throttle(100, 10)).isEqualTo(Duration.ofMillis(300));
+        // 1000 rows/s: 2000 rows in 100ms needs 1900ms more
+        assertThat(service.throttle(100, 2000)).isEqualTo(Duration.ofMillis(1900));
+        assertThat(service.throttle(0, 0)).isEqualTo(Duration.ZERO);
+    }
+
+    @Test
+    void chunkThatHitsLockTimeoutIsSkippedAndTheRunContinues() throws SQLException {
+        when(repository.findExpiredAnonymousUserIds(THRESHOLD, START, 1)).thenReturn(List.of(id(1)));
+        when(repository.findExpiredAnonymousUserIds(THRESHOLD, id(1), 1)).thenReturn(List.of(id(2)));
+        when(repository.findExpiredAnonymousUserIds(THRESHOLD, id(2), 1)).thenReturn(List.of());
+        when(repository.purge(List.of(id(1))))
+                .thenThrow(new SQLException("canceling statement due to lock timeout", "55P03"));
+        when(repository.purge(List.of(id(2)))).thenReturn(Map.of("users", 1));
+
+        RetentionPurgeService.PurgeReport report = service(1, Duration.ofHours(1))
+                .purgeExpiredAnonymousUsers(THRESHOLD, START, id -> {
+                });
+
+        assertThat(report.completed()).isTrue();
+        assertThat(report.chunksSkipped()).isEqualTo(1);
+        assertThat(report.usersDeleted()).isEqualTo(1);
+    }
+
+    @Test
+    void otherDatabaseErrorsAbortTheRun() throws SQLException {
+        when(repository.findExpiredAnonymousUserIds(any(), any(), anyInt())).thenReturn(List.of(id(1)));
+        when(repository.purge(any())).thenThrow(new SQLException("deadlock detected", "40P01"));
+
+        assertThatThrownBy(() -> service(1, Duration.ofHours(1))
+                .purgeExpiredAnonymousUsers(THRESHOLD, START, id -> {
+                }))
+                .isInstanceOf(SQLException.class);
+    }
+
+    @Test
+    void stopsAtItsTimeBudget() throws SQLException {
+        when(repository.findExpiredAnonymousUserIds(eq(THRESHOLD), any(), eq(1)))
+                .thenAnswer(inv -> List.of(id(((UUID) inv.getArgument(1)).getLeastSignificantBits() + 1)));
+        when(repository.purge(any())).thenAnswer(inv -> {
+            clock.advance(Duration.ofMinutes(1).toMillis());
+            return Map.of("users", 1);
+        });
+
+        // Each chunk takes 1 minute and rests 3, so a 10 minute budget fits 3 chunks
+        RetentionPurgeService.PurgeReport report = service(1, Duration.ofMinutes(10))
+                .purgeExpiredAnonymousUsers(THRESHOLD, START, id -> {
+                });
+
+        assertThat(report.completed()).isFalse();
+        assertThat(report.chunks()).isEqualTo(3);
+        verify(repository).purge(List.of(id(3)));
+    }
+
+    private static final class MutableClock extends Clock {
+        private long millis = Instant.parse("2026-01-31T02:00:00Z").toEpochMilli();
+
+        void advance(long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long millis() {
+            return millis;
+        }
+
+        @Override
+        public Instant instant() {
+            return Instant.ofEpochMilli(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.mindease.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseDialectTest {
+
+    @Test
+    void containsPatternMatchesWildcardsLiterally() {
+        assertThat(DatabaseDialect.containsPattern("alice")).isEqualTo("%alice%");
+        assertThat(DatabaseDialect.containsPattern("100%_off")).isEqualTo("%100\\%\\_off%");
+        assertThat(DatabaseDialect.containsPattern("a\\b")).isEqualTo("%a\\\\b%");
+    }
+}
@@ -0,0 +1,81 @@
+package com.mindease.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class HyperLogLogTest {
+
+    private static HyperLogLog sketchOf(UUID[] ids, int from, int to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (int i = from; i < to; i++) {
+            sketch.add(ids[i]);
+        }
+        return sketch;
+    }
+
+    private static UUID[] ids(int n) {
+        UUID[] ids = new UUID[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = UUID.randomUUID();
+        }
+        return ids;
+    }
+
+    @Test
+    void smallCardinalitiesAreNearExact() {
+        UUID[] ids = ids(100);
+        HyperLogLog sketch = sketchOf(ids, 0, 100);
+        sketch.add(ids[0]); // duplicates do not count
+        assertThat(sketch.estimate()).isBetween(98L, 102L);
+        assertThat(new HyperLogLog().estimate()).isZero();
+    }
+
+    @Test
+    void largeCardinalityWithinFourStandardErrors() {
+        int n = 200_000;
+        HyperLogLog sketch = sketchOf(ids(n), 0, n);
+        double bound = 4 * HyperLogLog.standardError(HyperLogLog.DEFAULT_PRECISION);
+        assertThat((double) sketch.estimate()).isCloseTo(n, within(n * bound));
+    }
+
+    @Test
+    void mergeEqualsSketchOfUnionAndIsIdempotent() {
+        UUID[] ids = ids(30_000);
+        HyperLogLog a = sketchOf(ids, 0, 20_000);
+        HyperLogLog b = sketchOf(ids, 10_000, 30_000);
+        HyperLogLog all = sketchOf(ids, 0, 30_000);
+
+        a.merge(b);
+        a.merge(b);
+        assertThat(a.toBytes()).isEqualTo(all.toBytes());
+    }
+
+    @Test
+    void intersectionEstimatesOverlap() {
+        UUID[] ids = ids(40_000);
+        HyperLogLog a = sketchOf(ids, 0, 30_000);
+        HyperLogLog b = sketchOf(ids, 20_000, 40_000);
+
+        // Error scales with the 40k union
+        assertThat((double) HyperLogLog.intersection(a, b)).isCloseTo(10_000, within(40_000 * 0.04));
+        assertThat(HyperLogLog.intersection(a, new HyperLogLog())).isZero();
+    }
+
+    @Test
+    void roundTripsThroughBytes() {
+        HyperLogLog sketch = sketchOf(ids(5_000), 0, 5_000);
+        byte[] bytes = sketch.toBytes();
+
+        assertThat(bytes).hasSize(2 + (1 << HyperLogLog.DEFAULT_PRECISION));
+        assertThat(HyperLogLog.fromBytes(bytes).estimate()).isEqualTo(sketch.estimate());
+        assertThatThrownBy(() -> HyperLogLog.fromBytes(new byte[] { 9, 14 }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new HyperLogLog(12).merge(sketch))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,83 @@
+package com.mindease.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MpscRingBufferTest {
+
+    @Test
+    void roundsCapacityUpAndRejectsWhenFull() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(3);
+        assertThat(ring.capacity()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(ring.offer(i)).isTrue();
+        }
+        assertThat(ring.offer(99)).isFalse();
+
+        List<Integer> out = new ArrayList<>();
+        assertThat(ring.drainTo(out, 2)).isEqualTo(2);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isTrue();
+        ring.drainTo(out, 10);
+        assertThat(out).containsExactly(0, 1, 2, 3, 4, 5);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+
+    @Test
+    void rejectsNull() {
+        assertThatThrownBy(() -> new MpscRingBuffer<String>(8).offer(null)).isInstanceOf(NullPointerException.class);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepPerProducerOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(1024);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            final long producer = p;
+            Thread t = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (long i = 0; i < perProducer; i++) {
+                    long[] item = { producer, i };
+                    while (!ring.offer(item)) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+            t.start();
+            threads.add(t);
+        }
+
+        long[] nextExpected = new long[producers];
+        List<long[]> batch = new ArrayList<>();
+        int received = 0;
+        start.countDown();
+        while (received < producers * perProducer) {
+            batch.clear();
+            received += ring.drainTo(batch, 256);
+            for (long[] item : batch) {
+                assertThat(item[1]).isEqualTo(nextExpected[(int) item[0]]);
+                nextExpected[(int) item[0]]++;
+            }
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertThat(nextExpected).containsOnly(perProducer);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+}
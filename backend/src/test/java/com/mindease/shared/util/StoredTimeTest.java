@@ -0,0 +1,22 @@
+package com.mindease.shared.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StoredTimeTest {
+
+    @Test
+    void storedValuesAreServerWallClockTime() {
+        OffsetDateTime at = OffsetDateTime.of(2026, 3, 1, 23, 30, 0, 0, ZoneOffset.ofHours(9));
+
+        LocalDateTime stored = StoredTime.of(at);
+
+        assertThat(stored).isEqualTo(at.atZoneSameInstant(StoredTime.ZONE).toLocalDateTime());
+        assertThat(StoredTime.toInstant(stored)).isEqualTo(at.toInstant());
+    }
+}